@@ -273,6 +273,7 @@ public final class ApplicationManager extends BaseManager implements
         if (loadedParamFile) {
           openProcessingPanel();
           mainPanel.setStatusBarText(paramFile, metaData, logWindow);
+          warmUp();
         }
       }
       if (newDataset) {
@@ -654,6 +655,10 @@ public final class ApplicationManager extends BaseManager implements
     mainPanel.updateAllProcessingStates(processTrack);
     setPanel();
     if (metaData.getAxisType() == AxisType.DUAL_AXIS) {
+      // Check both axes with one ps command.
+      ProcessData.checkRunning(new ProcessData[] {
+          axisProcessData.getSavedProcessData(AxisID.FIRST),
+          axisProcessData.getSavedProcessData(AxisID.SECOND) });
       reconnect(axisProcessData.getSavedProcessData(AxisID.FIRST), AxisID.FIRST);
       reconnect(axisProcessData.getSavedProcessData(AxisID.SECOND), AxisID.SECOND);
     }
@@ -662,6 +667,62 @@ public final class ApplicationManager extends BaseManager implements
     }
   }
 
+  /**
+   * Reads the files needed by the current processing step of each axis in the
+   * background.
+   */
+  private void warmUp() {
+    if (!DatasetWarmUp.isEnabled()) {
+      return;
+    }
+    DatasetWarmUp warmUp = new DatasetWarmUp(this);
+    AxisID[] axisIDArray;
+    if (metaData.getAxisType() == AxisType.DUAL_AXIS) {
+      axisIDArray = new AxisID[] { AxisID.FIRST, AxisID.SECOND };
+    }
+    else {
+      axisIDArray = new AxisID[] { AxisID.ONLY };
+    }
+    for (int i = 0; i < axisIDArray.length; i++) {
+      DialogType dialogType = getNextDialogType(axisIDArray[i]);
+      warmUp.addAutodocs(dialogType);
+      warmUp.addTasks(comScriptMgr.prefetch(dialogType, axisIDArray[i]));
+    }
+    warmUp.start();
+  }
+
+  /**
+   * @return the first processing step of axisID that isn't complete
+   */
+  private DialogType getNextDialogType(final AxisID axisID) {
+    if (processTrack.getPreProcessingState(axisID) != ProcessState.COMPLETE) {
+      return DialogType.PRE_PROCESSING;
+    }
+    if (processTrack.getCoarseAlignmentState(axisID) != ProcessState.COMPLETE) {
+      return DialogType.COARSE_ALIGNMENT;
+    }
+    if (processTrack.getFiducialModelState(axisID) != ProcessState.COMPLETE) {
+      return DialogType.FIDUCIAL_MODEL;
+    }
+    if (processTrack.getFineAlignmentState(axisID) != ProcessState.COMPLETE) {
+      return DialogType.FINE_ALIGNMENT;
+    }
+    if (processTrack.getTomogramPositioningState(axisID) != ProcessState.COMPLETE) {
+      return DialogType.TOMOGRAM_POSITIONING;
+    }
+    if (processTrack.getFinalAlignedStackState(axisID) != ProcessState.COMPLETE) {
+      return DialogType.FINAL_ALIGNED_STACK;
+    }
+    if (processTrack.getTomogramGenerationState(axisID) != ProcessState.COMPLETE) {
+      return DialogType.TOMOGRAM_GENERATION;
+    }
+    if (axisID != AxisID.ONLY
+        && processTrack.getTomogramCombinationState() != ProcessState.COMPLETE) {
+      return DialogType.TOMOGRAM_COMBINATION;
+    }
+    return DialogType.POST_PROCESSING;
+  }
+
   private boolean isReconnectRun(AxisID axisID) {
     if (axisID == AxisID.SECOND) {
       return reconnectRunB;
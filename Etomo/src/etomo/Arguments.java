@@ -98,6 +98,7 @@ public final class Arguments {
   private static final String MEMORY_TAG = "--memory";
   private static final String NEWSTUFF_TAG = "--newstuff";
   private static final String TIMESTAMP_TAG = "--timestamp";
+  private static final String NO_WARM_UP_TAG = "--nowarmup";
   /**
    * @deprecated
    */
@@ -160,6 +161,7 @@ public final class Arguments {
   private boolean ignoreLoc = false;
   private boolean reconAutomation = false;
   private boolean ignoreSettings = false;
+  private boolean noWarmUp = false;
   private boolean actions = false;
   private boolean directive = false;
   private File fDirective = null;
@@ -375,6 +377,10 @@ public final class Arguments {
     return ignoreSettings;
   }
 
+  public boolean isNoWarmUp() {
+    return noWarmUp;
+  }
+
   public boolean isActions() {
     return actions;
   }
@@ -473,6 +479,9 @@ public final class Arguments {
         else if (args[i].equals(TIMESTAMP_TAG)) {
           Utilities.setTimestamp(true);
         }
+        else if (args[i].equals(NO_WARM_UP_TAG)) {
+          noWarmUp = true;
+        }
         else if (args[i].equals(NEWSTUFF_TAG)) {
           newstuff = true;
         }
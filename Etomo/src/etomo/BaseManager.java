@@ -755,6 +755,10 @@ public abstract class BaseManager {
         return parameterStore;
       }
       parameterStore = ParameterStore.getInstance(paramFile);
+      // Saves are frequent, so write them from another thread.
+      if (parameterStore != null) {
+        parameterStore.setWriteBehind(true);
+      }
       return parameterStore;
     }
   }
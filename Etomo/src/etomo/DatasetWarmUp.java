@@ -0,0 +1,169 @@
+package etomo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+import etomo.storage.autodoc.AutodocFactory;
+import etomo.type.AxisID;
+import etomo.type.DialogType;
+import etomo.util.Utilities;
+
+/**
+ * <p>Description: Reads the autodocs and com scripts needed by the current processing
+ * step on a small thread pool when a dataset is opened, so that the first dialog
+ * doesn't have to wait for them.  AutodocFactory and the com script manager hand the
+ * results to the dialogs.  Turned off with the --nowarmup argument.  With --timestamp,
+ * each file and the whole warm up are timestamped.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * <p> $Log$ </p>
+ */
+final class DatasetWarmUp {
+  public static final String rcsid = "$Id:$";
+
+  private static final int MAX_POOL_SIZE = 3;
+
+  private final List<FutureTask<?>> taskList = new ArrayList<FutureTask<?>>();
+  private final List<String> autodocList = new ArrayList<String>();
+  private final BaseManager manager;
+
+  private long startTime = 0;
+  private int nRunning = 0;
+
+  DatasetWarmUp(final BaseManager manager) {
+    this.manager = manager;
+  }
+
+  static boolean isEnabled() {
+    Arguments arguments = EtomoDirector.INSTANCE.getArguments();
+    return !arguments.isNoWarmUp() && !arguments.isHeadless() && !arguments.isTest();
+  }
+
+  /**
+   * Adds the autodocs used by dialogType.  Each autodoc is only added once.
+   * @param dialogType
+   */
+  void addAutodocs(final DialogType dialogType) {
+    addAutodoc(AutodocFactory.CPU);
+    if (dialogType == DialogType.PRE_PROCESSING) {
+      addAutodoc(AutodocFactory.CCDERASER);
+    }
+    else if (dialogType == DialogType.COARSE_ALIGNMENT) {
+      addAutodoc(AutodocFactory.TILTXCORR);
+    }
+    else if (dialogType == DialogType.FIDUCIAL_MODEL) {
+      addAutodoc(AutodocFactory.BEADTRACK);
+      addAutodoc(AutodocFactory.TILTXCORR);
+      addAutodoc(AutodocFactory.AUTOFIDSEED);
+    }
+    else if (dialogType == DialogType.FINE_ALIGNMENT) {
+      addAutodoc(AutodocFactory.TILTALIGN);
+    }
+    else if (dialogType == DialogType.TOMOGRAM_POSITIONING) {
+      addAutodoc(AutodocFactory.TILT);
+    }
+    else if (dialogType == DialogType.FINAL_ALIGNED_STACK) {
+      addAutodoc(AutodocFactory.NEWSTACK);
+      addAutodoc(AutodocFactory.MTF_FILTER);
+      addAutodoc(AutodocFactory.CTF_PLOTTER);
+      addAutodoc(AutodocFactory.CTF_PHASE_FLIP);
+      addAutodoc(AutodocFactory.CCDERASER);
+    }
+    else if (dialogType == DialogType.TOMOGRAM_GENERATION) {
+      addAutodoc(AutodocFactory.TILT);
+      addAutodoc(AutodocFactory.SIRTSETUP);
+    }
+    else if (dialogType == DialogType.TOMOGRAM_COMBINATION) {
+      addAutodoc(AutodocFactory.SOLVEMATCH);
+    }
+    else if (dialogType == DialogType.POST_PROCESSING) {
+      addAutodoc(AutodocFactory.WARP_VOL);
+      addAutodoc(AutodocFactory.FLATTEN_WARP);
+    }
+  }
+
+  private void addAutodoc(final String name) {
+    if (!autodocList.contains(name)) {
+      autodocList.add(name);
+      taskList.add(AutodocFactory.prefetch(manager, name, AxisID.ONLY));
+    }
+  }
+
+  /**
+   * @param taskList - tasks from the com script manager
+   */
+  void addTasks(final List<? extends FutureTask<?>> taskList) {
+    this.taskList.addAll(taskList);
+  }
+
+  /**
+   * Runs the tasks.  Returns immediately.
+   */
+  synchronized void start() {
+    if (taskList.isEmpty()) {
+      return;
+    }
+    Utilities.timestamp("warm up", taskList.size() + " files", Utilities.STARTED_STATUS);
+    startTime = System.currentTimeMillis();
+    nRunning = taskList.size();
+    int poolSize = Math.min(MAX_POOL_SIZE, Math.min(taskList.size(), Runtime
+        .getRuntime().availableProcessors()));
+    ExecutorService executor = Executors.newFixedThreadPool(poolSize,
+        new ThreadFactory() {
+          private int index = 0;
+
+          public synchronized Thread newThread(final Runnable runnable) {
+            Thread thread = new Thread(runnable, "WarmUp-" + ++index);
+            thread.setDaemon(true);
+            // Keep the UI responsive.
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+          }
+        });
+    for (int i = 0; i < taskList.size(); i++) {
+      final FutureTask<?> task = taskList.get(i);
+      try {
+        executor.execute(new Runnable() {
+          public void run() {
+            try {
+              task.run();
+            }
+            finally {
+              taskDone();
+            }
+          }
+        });
+      }
+      catch (RejectedExecutionException e) {
+        // A task that won't run must be cancelled, or anything waiting for it will
+        // wait forever.
+        task.cancel(false);
+        taskDone();
+      }
+    }
+    // The threads exit when the tasks are done.
+    executor.shutdown();
+  }
+
+  private synchronized void taskDone() {
+    nRunning--;
+    if (nRunning == 0) {
+      Utilities.timestamp("warm up", taskList.size() + " files in "
+          + (System.currentTimeMillis() - startTime) + " ms", Utilities.FINISHED_STATUS);
+    }
+  }
+}
@@ -20,6 +20,7 @@ import javax.swing.plaf.FontUIResource;
 
 import etomo.logic.VersionControl;
 import etomo.process.IntermittentBackgroundProcess;
+import etomo.process.MonitorScheduler;
 import etomo.process.ProcessRestarter;
 import etomo.storage.EtomoFileFilter;
 import etomo.storage.JoinFileFilter;
@@ -950,6 +951,8 @@ public class EtomoDirector {
       }
       ProcessRestarter.stop();
       IntermittentBackgroundProcess.stop();
+      ParameterStore.flushAll();
+      MonitorScheduler.INSTANCE.shutdown();
       if (isMemoryAvailable()) {
         // Should we close the 3dmod windows
         // Save the current window size to the user config
@@ -1,6 +1,12 @@
 package etomo.comscript;
 
 import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import javax.swing.JOptionPane;
 
@@ -39,11 +45,85 @@ public abstract class BaseComScriptManager {
   public static final String rcsid = "$Id$";
 
   private final BaseManager manager;
+  // Com scripts read by prefetch, keyed by file name and read settings.  Each one is
+  // only used once, because the caller modifies it.  Synchronized on itself.
+  private final Map<String, Prefetch> prefetchMap = new HashMap<String, Prefetch>();
 
   BaseComScriptManager(BaseManager manager) {
     this.manager = manager;
   }
 
+  /**
+   * Returns a task which reads a com script.  The next loadComScript call for the same
+   * file and settings uses the com script read by the task, unless the file has
+   * changed.  Run the task on a background thread.  If the task will not be run, it
+   * must be cancelled.
+   * @param commandComScriptFileName - file name
+   * @param parseComments
+   * @param caseInsensitive
+   * @param separateWithASpace
+   * @return the task, or null if the file doesn't exist
+   */
+  FutureTask<ComScript> prefetch(final String commandComScriptFileName,
+      final boolean parseComments, final boolean caseInsensitive,
+      final boolean separateWithASpace) {
+    File comFile = new File(manager.getPropertyUserDir(), commandComScriptFileName);
+    if (!comFile.exists()) {
+      return null;
+    }
+    Prefetch prefetch = new Prefetch(comFile, parseComments, caseInsensitive,
+        separateWithASpace);
+    synchronized (prefetchMap) {
+      prefetchMap.put(getPrefetchKey(commandComScriptFileName, parseComments,
+          caseInsensitive, separateWithASpace), prefetch);
+    }
+    return prefetch.task;
+  }
+
+  /**
+   * Removes a prefetched com script and waits for it to finish reading.
+   * @return the com script, or null if it wasn't prefetched, failed, or has changed
+   */
+  private ComScript getPrefetchedComScript(final String commandComScriptFileName,
+      final File comFile, final boolean parseComments, final boolean caseInsensitive,
+      final boolean separateWithASpace) {
+    Prefetch prefetch;
+    synchronized (prefetchMap) {
+      if (prefetchMap.isEmpty()) {
+        return null;
+      }
+      prefetch = prefetchMap.remove(getPrefetchKey(commandComScriptFileName,
+          parseComments, caseInsensitive, separateWithASpace));
+    }
+    if (prefetch == null) {
+      return null;
+    }
+    ComScript comScript = null;
+    try {
+      comScript = prefetch.task.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    catch (CancellationException e) {
+    }
+    catch (ExecutionException e) {
+      // Let loadComScript read the file again and report the error.
+    }
+    if (comScript == null || comFile.lastModified() != prefetch.lastModified
+        || comFile.length() != prefetch.length) {
+      return null;
+    }
+    return comScript;
+  }
+
+  private static String getPrefetchKey(final String commandComScriptFileName,
+      final boolean parseComments, final boolean caseInsensitive,
+      final boolean separateWithASpace) {
+    return commandComScriptFileName + "," + parseComments + "," + caseInsensitive + ","
+        + separateWithASpace;
+  }
+
   ComScript loadComScript(FileType scriptFileType, AxisID axisID, boolean parseComments,
       boolean caseInsensitive, boolean separateWithASpace) {
     return loadComScript(scriptFileType.getFileName(manager, axisID), axisID,
@@ -70,7 +150,13 @@ public abstract class BaseComScriptManager {
     if (!required && !comFile.exists()) {
       return null;
     }
-    ComScript comScript = new ComScript(comFile);
+    ComScript comScript = getPrefetchedComScript(commandComScriptFileName, comFile,
+        parseComments, caseInsensitive, separateWithASpace);
+    if (comScript != null) {
+      Utilities.timestamp("load", commandComScriptFileName, Utilities.FINISHED_STATUS);
+      return comScript;
+    }
+    comScript = new ComScript(comFile);
     try {
       comScript.setParseComments(parseComments);
       comScript.readComFile(caseInsensitive, separateWithASpace);
@@ -239,4 +325,38 @@ public abstract class BaseComScriptManager {
     Utilities.timestamp("update", command, script, Utilities.FINISHED_STATUS);
     return true;
   }
+
+  /**
+   * Reads a com script in the background for prefetch.
+   */
+  private static final class Prefetch implements Callable<ComScript> {
+    private final FutureTask<ComScript> task = new FutureTask<ComScript>(this);
+    private final File comFile;
+    private final boolean parseComments;
+    private final boolean caseInsensitive;
+    private final boolean separateWithASpace;
+
+    // Set by call before reading; visible after task.get().
+    private long lastModified = 0;
+    private long length = 0;
+
+    private Prefetch(final File comFile, final boolean parseComments,
+        final boolean caseInsensitive, final boolean separateWithASpace) {
+      this.comFile = comFile;
+      this.parseComments = parseComments;
+      this.caseInsensitive = caseInsensitive;
+      this.separateWithASpace = separateWithASpace;
+    }
+
+    public ComScript call() throws Exception {
+      Utilities.timestamp("prefetch", comFile.getName(), Utilities.STARTED_STATUS);
+      lastModified = comFile.lastModified();
+      length = comFile.length();
+      ComScript comScript = new ComScript(comFile);
+      comScript.setParseComments(parseComments);
+      comScript.readComFile(caseInsensitive, separateWithASpace);
+      Utilities.timestamp("prefetch", comFile.getName(), Utilities.FINISHED_STATUS);
+      return comScript;
+    }
+  }
 }
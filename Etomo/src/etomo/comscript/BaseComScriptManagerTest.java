@@ -0,0 +1,92 @@
+package etomo.comscript;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import etomo.EtomoDirector;
+import etomo.type.AxisID;
+import junit.framework.TestCase;
+
+/**
+* <p>Description: </p>
+*
+* <p>Copyright: Copyright 2026</p>
+*
+* <p>Organization:
+* Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+* University of Colorado</p>
+*
+* @author $Author$
+*
+* @version $Revision$
+*
+* <p> $Log$ </p>
+*/
+public class BaseComScriptManagerTest extends TestCase {
+  public static final String rcsid = "$Id:$";
+
+  private static final File testDir = new File(ComScriptTests.TEST_ROOT_DIR,
+      "BaseComScriptManager");
+  private static final String COM_FILE_NAME = "prefetch.com";
+
+  private BaseComScriptManager comScriptManager = null;
+  private String oldPropertyUserDir = null;
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    testDir.mkdirs();
+    oldPropertyUserDir = EtomoDirector.INSTANCE.setCurrentPropertyUserDir(testDir
+        .getAbsolutePath());
+    comScriptManager = new BaseComScriptManager(EtomoDirector.INSTANCE
+        .getCurrentManagerForTest()) {
+    };
+    write("$echo one\n");
+  }
+
+  protected void tearDown() throws Exception {
+    EtomoDirector.INSTANCE.setCurrentPropertyUserDir(oldPropertyUserDir);
+    super.tearDown();
+  }
+
+  public void testPrefetch() throws InterruptedException, ExecutionException {
+    assertNull("missing files aren't prefetched", comScriptManager.prefetch(
+        "missing.com", true, false, false));
+    FutureTask<ComScript> task = comScriptManager.prefetch(COM_FILE_NAME, true, false,
+        false);
+    task.run();
+    assertNotSame("the settings must match", task.get(), comScriptManager
+        .loadComScript(COM_FILE_NAME, AxisID.ONLY, false, true, false, false));
+    ComScript comScript = comScriptManager.loadComScript(COM_FILE_NAME, AxisID.ONLY,
+        true, true, false, false);
+    assertSame(task.get(), comScript);
+    assertEquals(1, comScript.getCommandCount());
+    assertNotSame("prefetched com scripts are only used once", comScript,
+        comScriptManager.loadComScript(COM_FILE_NAME, AxisID.ONLY, true, true, false,
+            false));
+  }
+
+  public void testModified() throws IOException, InterruptedException,
+      ExecutionException {
+    FutureTask<ComScript> task = comScriptManager.prefetch(COM_FILE_NAME, true, false,
+        false);
+    task.run();
+    write("$echo one\n$echo two\n");
+    ComScript comScript = comScriptManager.loadComScript(COM_FILE_NAME, AxisID.ONLY,
+        true, true, false, false);
+    assertNotSame(task.get(), comScript);
+    assertEquals(2, comScript.getCommandCount());
+  }
+
+  private void write(final String contents) throws IOException {
+    FileWriter writer = new FileWriter(new File(testDir, COM_FILE_NAME));
+    try {
+      writer.write(contents);
+    }
+    finally {
+      writer.close();
+    }
+  }
+}
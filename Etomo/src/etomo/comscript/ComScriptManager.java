@@ -6,6 +6,9 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.FutureTask;
 
 import javax.swing.JOptionPane;
 
@@ -13,6 +16,7 @@ import etomo.ApplicationManager;
 import etomo.EtomoDirector;
 import etomo.type.AxisID;
 import etomo.type.AxisType;
+import etomo.type.DialogType;
 import etomo.type.EtomoNumber;
 import etomo.type.FileType;
 import etomo.type.ProcessName;
@@ -2492,6 +2496,87 @@ public final class ComScriptManager extends BaseComScriptManager {
     Utilities.timestamp("copy from template", scriptName, Utilities.FINISHED_STATUS);
   }
 
+  /**
+   * Returns tasks which read the com scripts that dialogType loads, so that they can
+   * be read in the background before the dialog is opened.  Com scripts that don't
+   * exist are left out.  The settings must match the ones used by the load functions.
+   * @param dialogType
+   * @param axisID
+   * @return the tasks, which must be run or cancelled
+   */
+  public List<FutureTask<ComScript>> prefetch(final DialogType dialogType,
+      final AxisID axisID) {
+    List<FutureTask<ComScript>> taskList = new ArrayList<FutureTask<ComScript>>();
+    if (dialogType == DialogType.PRE_PROCESSING) {
+      addPrefetch(taskList, ProcessName.ERASER.getComscript(axisID), true, false, false);
+    }
+    else if (dialogType == DialogType.COARSE_ALIGNMENT) {
+      addPrefetch(taskList, ProcessName.XCORR.getComscript(axisID), true, false, false);
+      addPrefetch(taskList, ProcessName.PRENEWST.getComscript(axisID), true, false,
+          false);
+      addPrefetch(taskList, BlendmontParam.getProcessName(BlendmontParam.Mode.PREBLEND)
+          .getComscript(axisID), true, false, false);
+    }
+    else if (dialogType == DialogType.FIDUCIAL_MODEL) {
+      addPrefetch(taskList, ProcessName.TRACK.getComscript(axisID), true, false, false);
+      addPrefetch(taskList, FileType.PATCH_TRACKING_COMSCRIPT.getFileName(appManager,
+          axisID), true, false, false);
+      addPrefetch(taskList, FileType.AUTOFIDSEED_COMSCRIPT.getFileName(appManager,
+          axisID), true, false, false);
+    }
+    else if (dialogType == DialogType.FINE_ALIGNMENT) {
+      addPrefetch(taskList, ProcessName.ALIGN.getComscript(axisID), true, false, false);
+    }
+    else if (dialogType == DialogType.TOMOGRAM_POSITIONING) {
+      addPrefetch(taskList, ProcessName.TOMOPITCH.getComscript(axisID), true, false,
+          false);
+      addPrefetch(taskList, ProcessName.TILT.getComscript(axisID), false, true, true);
+    }
+    else if (dialogType == DialogType.FINAL_ALIGNED_STACK) {
+      addPrefetch(taskList, ProcessName.NEWST.getComscript(axisID), true, false, false);
+      addPrefetch(taskList, BlendmontParam.getProcessName(BlendmontParam.Mode.BLEND)
+          .getComscript(axisID), true, false, false);
+      addPrefetch(taskList, ProcessName.CTF_PLOTTER.getComscript(axisID), true, false,
+          false);
+      addPrefetch(taskList, ProcessName.CTF_CORRECTION.getComscript(axisID), true,
+          false, false);
+      addPrefetch(taskList, FileType.GOLD_ERASER_COMSCRIPT.getFileName(appManager,
+          axisID), true, false, false);
+    }
+    else if (dialogType == DialogType.TOMOGRAM_GENERATION) {
+      addPrefetch(taskList, ProcessName.TILT.getComscript(axisID), false, true, true);
+      addPrefetch(taskList, FileType.SIRTSETUP_COMSCRIPT.getFileName(appManager,
+          axisID), true, false, false);
+    }
+    else if (dialogType == DialogType.TOMOGRAM_COMBINATION) {
+      addPrefetch(taskList, ProcessName.SOLVEMATCH.getComscript(AxisID.ONLY), true,
+          false, false);
+      addPrefetch(taskList, ProcessName.PATCHCORR.getComscript(AxisID.ONLY), true,
+          false, false);
+      addPrefetch(taskList, ProcessName.MATCHORWARP.getComscript(AxisID.ONLY), true,
+          false, false);
+      addPrefetch(taskList, ProcessName.VOLCOMBINE.getComscript(AxisID.ONLY), true,
+          false, false);
+      addPrefetch(taskList, ProcessName.COMBINE.getComscript(AxisID.ONLY), true, false,
+          false);
+    }
+    else if (dialogType == DialogType.POST_PROCESSING) {
+      addPrefetch(taskList, ProcessName.FLATTEN.getComscript(axisID), true, false,
+          false);
+    }
+    return taskList;
+  }
+
+  private void addPrefetch(final List<FutureTask<ComScript>> taskList,
+      final String commandComScriptFileName, final boolean parseComments,
+      final boolean caseInsensitive, final boolean separateWithASpace) {
+    FutureTask<ComScript> task = prefetch(commandComScriptFileName, parseComments,
+        caseInsensitive, separateWithASpace);
+    if (task != null) {
+      taskList.add(task);
+    }
+  }
+
   private ComScript loadComScript(ProcessName processName, AxisID axisID,
       boolean parseComments, boolean caseInsensitive, boolean separateWithASpace) {
     return loadComScript(processName.getComscript(axisID), axisID, parseComments, true,
@@ -46,6 +46,7 @@ public class ComScriptTests {
     TestSuite suite = new TestSuite("Tests:  " + TEST_DIR);
     suite.addTestSuite(StringListTest.class);
     suite.addTestSuite(FortranInputStringTest.class);
+    suite.addTestSuite(BaseComScriptManagerTest.class);
     
     //suite.addTestSuite(CombineComscriptStateTest.class);
     //suite.addTest(new NewstParamTest("testParseComScriptCommand"));
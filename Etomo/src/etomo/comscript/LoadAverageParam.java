@@ -27,6 +27,16 @@ import etomo.util.Utilities;
 public class LoadAverageParam implements IntermittentCommand {
   public static final String rcsid = "$Id$";
 
+  /**
+   * Starts the line printed by the intermittent command.
+   */
+  public static final String LOAD_TAG = "ETOMO_LOAD";
+  /**
+   * Separates the load average from the users in the line printed by the intermittent
+   * command.
+   */
+  public static final String USERS_TAG = "ETOMO_USERS";
+
   private static Hashtable instances = new Hashtable();// one instance per computer
 
   private final String computer;
@@ -139,12 +149,21 @@ public class LoadAverageParam implements IntermittentCommand {
     return true;
   }
 
+  /**
+   * On Linux and Mac the command prints one line with the load averages and the users
+   * who are logged in:  LOAD_TAG, the contents of /proc/loadavg (or the output of
+   * uptime if there is no /proc/loadavg), USERS_TAG, and the user names.  This is much
+   * less to send and parse than the output of w.  The command must work in both bash
+   * and tcsh.
+   */
   private final void buildIntermittentCommand() {
     if (Utilities.isWindowsOS()) {
       intermittentCommand = "imodwincpu";
     }
     else {
-      intermittentCommand = "w";
+      intermittentCommand = "echo " + LOAD_TAG
+          + " `test -r /proc/loadavg && cat /proc/loadavg || uptime` " + USERS_TAG
+          + " `who | cut -d' ' -f1 | sort -u`";
     }
   }
 
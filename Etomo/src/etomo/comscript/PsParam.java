@@ -77,6 +77,19 @@ public final class PsParam {
    */
   public PsParam(BaseManager manager, AxisID axisID, String pid, OSType osType,
       String hostName, boolean willRunOnWorkerThread) {
+    this(manager, axisID, pid == null ? null : new String[] { pid }, osType, hostName,
+        willRunOnWorkerThread);
+  }
+
+  /**
+   * Builds the ps commmand.  Uses the pids to limit the output to the processes
+   * that are asked for, so that one ps command can look up several processes.
+   * @param pids
+   * @param osType
+   * @param hostName
+   */
+  public PsParam(BaseManager manager, AxisID axisID, String[] pids, OSType osType,
+      String hostName, boolean willRunOnWorkerThread) {
     startTimeHeader = osType == OSType.WINDOWS ? "STIME" : "STARTED";
     if (hostName != null
         && !hostName.matches("\\*")
@@ -116,9 +129,13 @@ public final class PsParam {
     else if (osType == OSType.MAC) {
       command.add("-A");
     }
-    else if (pid != null) {
+    else if (pids != null && pids.length > 0) {
       command.add("-p");
-      command.add(pid);
+      StringBuffer pidList = new StringBuffer(pids[0]);
+      for (int i = 1; i < pids.length; i++) {
+        pidList.append("," + pids[i]);
+      }
+      command.add(pidList.toString());
     }
     if (osType != OSType.WINDOWS) {
       command.add("-o");
@@ -4,6 +4,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 
 import etomo.BaseManager;
+import etomo.storage.AlignLogAnalysis;
 import etomo.storage.LogFile;
 import etomo.type.AxisID;
 import etomo.type.FileType;
@@ -72,32 +73,17 @@ public final class TiltalignLog {
     if (log == null) {
       return false;
     }
-    LogFile.BigBufferReaderId id = null;
     try {
-      id = log.openBigBufferReaderId();
+      return log.tailContains("SUCCESSFULLY COMPLETED");
     }
     catch (FileNotFoundException e) {
       e.printStackTrace();
     }
-    catch (LogFile.LockException e) {
+    catch (IOException e) {
       e.printStackTrace();
     }
-    if (id != null && !id.isEmpty()) {
-      try {
-        boolean success = log.searchForLastLine(id, "SUCCESSFULLY COMPLETED");
-        log.closeRead(id);
-        id = null;
-        return success;
-      }
-      catch (IOException e) {
-        e.printStackTrace();
-      }
-      catch (LogFile.LockException e) {
-        e.printStackTrace();
-      }
-      if (id != null && !id.isEmpty()) {
-        log.closeRead(id);
-      }
+    catch (LogFile.LockException e) {
+      e.printStackTrace();
     }
     return false;
   }
@@ -108,62 +94,32 @@ public final class TiltalignLog {
    * @return
    */
   public String getExcludeList() {
-    if (log == null) {
+    AlignLogAnalysis analysis = getAnalysis();
+    if (analysis == null) {
+      return null;
+    }
+    return analysis.getExcludeList();
+  }
+
+  /**
+   * @return the analysis of the log, or null if it can't be read
+   */
+  private AlignLogAnalysis getAnalysis() {
+    if (log == null || !log.exists()) {
       return null;
     }
-    LogFile.ReaderId id = null;
     try {
-      id = log.openReader();
+      return AlignLogAnalysis.getInstance(log);
     }
     catch (FileNotFoundException e) {
       e.printStackTrace();
     }
-    catch (LogFile.LockException e) {
+    catch (IOException e) {
       e.printStackTrace();
     }
-    if (id != null && !id.isEmpty()) {
-      boolean foundParamList = false;
-      try {
-        String line = log.readLine(id);
-        while (line != null) {
-          line = line.trim();
-          if (line.equals("*** End of entries ***")) {
-            log.closeRead(id);
-            return null;
-          }
-          if (foundParamList) {
-            if (line.indexOf(ConstTiltalignParam.EXCLUDE_LIST_KEY) != -1) {
-              // May be the right parameter - make sure by matching it exactly
-              String[] pair = line.split("\\s*=\\s*");
-              if (pair != null && pair.length > 0
-                  && pair[0].equals(ConstTiltalignParam.EXCLUDE_LIST_KEY)) {
-                if (pair.length > 1) {
-                  log.closeRead(id);
-                  return pair[1];
-                }
-                else {
-                  log.closeRead(id);
-                  return null;
-                }
-              }
-            }
-          }
-          else if (line.equals("*** Entries to program tiltalign ***")) {
-            foundParamList = true;
-          }
-          line = log.readLine(id);
-        }
-      }
-      catch (IOException e) {
-        e.printStackTrace();
-      }
-      catch (LogFile.LockException e) {
-        e.printStackTrace();
-      }
-    }
-    if (id != null && !id.isEmpty()) {
-      log.closeRead(id);
+    catch (LogFile.LockException e) {
+      e.printStackTrace();
     }
     return null;
   }
-}
\ No newline at end of file
+}
@@ -55,82 +55,60 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 
-import etomo.ApplicationManager;
 import etomo.BaseManager;
+import etomo.storage.AlignLogAnalysis;
+import etomo.storage.LogFile;
 import etomo.type.AxisID;
 
+/**
+ * Writes the sections of the align log that are shown in separate tabs to the
+ * ta*.log files.  The sections are found by AlignLogAnalysis in one pass, in the same
+ * way as the alignlog program, so alignlog isn't run for each file.
+ */
 public class AlignLogGenerator {
   public static final String ERROR_LOG_NAME = "taError";
   public static final String ANGLES_LOG_NAME = "taAngles";
   public static final String ROBUST_LOG_NAME = "taRobust";
 
   AxisID axisID;
-  String[] alignLogCommand = null;
   private final BaseManager manager;
 
   public AlignLogGenerator(BaseManager manager, AxisID id) {
     this.manager = manager;
     axisID = id;
-    // Do not use the -e flag for tcsh since David's scripts handle the failure 
-    // of commands and then report appropriately.  The exception to this is the
-    // com scripts which require the -e flag.  RJG: 2003-11-06  
-    if (id == AxisID.ONLY) {
-      alignLogCommand = new String[4];
-    }
-    else {
-      alignLogCommand = new String[5];
-    }
-    alignLogCommand[0] = "python";
-    alignLogCommand[1] = "-u";
-    alignLogCommand[2] = ApplicationManager.getIMODBinPath() + "alignlog";
-    if (id != AxisID.ONLY) {
-      alignLogCommand[4] = axisID.getExtension();
-    }
   }
 
   public void run() throws IOException {
-    runArgument("-a", ANGLES_LOG_NAME);
-    runArgument("-c", "taCoordinates");
-    runArgument("-e", ERROR_LOG_NAME);
-    runArgument("-l", "taLocals");
-    runArgument("-m", "taMappings");
-    runArgument("-r", "taResiduals");
-    runArgument("-s", "taSolution");
-    runArgument("-b", "taBeamtilt");
-    runArgument("-w", "taRobust");
+    AlignLogAnalysis analysis;
+    try {
+      analysis = AlignLogAnalysis.getInstance(manager.getPropertyUserDir(), axisID);
+    }
+    catch (LogFile.LockException e) {
+      e.printStackTrace();
+      throw new IOException(e.getMessage());
+    }
+    AlignLogAnalysis.Section[] sections = AlignLogAnalysis.Section.values();
+    for (int i = 0; i < sections.length; i++) {
+      write(sections[i].toString(), analysis.getSection(sections[i]));
+    }
   }
 
-  private void runArgument(String argument, String logFile) throws IOException {
-    alignLogCommand[3] = argument;
-    SystemProgram alignlog = new SystemProgram(manager, manager.getPropertyUserDir(),
-        alignLogCommand, axisID);
-
-    alignlog.run();
-
-    String[] stdOutput = alignlog.getStdOutput();
-    String[] stdError = alignlog.getStdError();
-
+  private void write(String logFile, String[] lines) throws IOException {
     BufferedWriter fileBuffer;
     fileBuffer = new BufferedWriter(new FileWriter(manager.getPropertyUserDir()
         + File.separator + logFile + axisID.getExtension() + ".log"));
-
-    if (stdOutput == null) {
-      if (stdError == null) {
+    try {
+      // Same as when alignlog was run and printed nothing.
+      if (lines.length == 0) {
         fileBuffer.write("alignlog produced no output");
       }
-      else {
-        for (int i = 0; i < stdError.length; i++) {
-          fileBuffer.write(stdError[i]);
-          fileBuffer.newLine();
-        }
-      }
-    }
-    else {
-      for (int i = 0; i < stdOutput.length; i++) {
-        fileBuffer.write(stdOutput[i]);
+      for (int i = 0; i < lines.length; i++) {
+        fileBuffer.write(lines[i]);
         fileBuffer.newLine();
       }
     }
-    fileBuffer.close();
+    finally {
+      fileBuffer.close();
+    }
   }
-}
\ No newline at end of file
+}
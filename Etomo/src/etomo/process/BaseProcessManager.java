@@ -608,14 +608,23 @@ public abstract class BaseProcessManager {
   }
 
   public final void startLoad(final IntermittentCommand param, final LoadMonitor monitor) {
+    if (monitor.startLocalLoad(param)) {
+      return;
+    }
     IntermittentBackgroundProcess.startInstance(manager, param, monitor);
   }
 
   public final void endLoad(final IntermittentCommand param, final LoadMonitor monitor) {
+    if (monitor.stopLocalLoad(param)) {
+      return;
+    }
     IntermittentBackgroundProcess.endInstance(manager, param, monitor);
   }
 
   public final void stopLoad(final IntermittentCommand param, final LoadMonitor monitor) {
+    if (monitor.stopLocalLoad(param)) {
+      return;
+    }
     IntermittentBackgroundProcess.stopInstance(manager, param, monitor);
   }
 
@@ -1138,10 +1138,19 @@ public class ComScriptProcess extends Thread implements SystemProcessInterface {
   }
 
   /**
-   * Convert the com script to a sequence of python commands
+   * Convert the com script to a sequence of python commands.  If the com script
+   * hasn't changed since it was last converted, the saved commands are used instead of
+   * running vmstopy.
    * @return A string array containing the python command sequence
    */
   private String[] vmsToPy() throws IOException, SystemProcessException {
+    File comScript = new File(workingDirectory, comScriptName);
+    VmstopyCache cache = new VmstopyCache(workingDirectory);
+    String key = cache.getKey(comScript, logFile.getName());
+    String[] commands = cache.get(comScriptName, key);
+    if (commands != null) {
+      return commands;
+    }
     // vmstopy doesn't use stdin
     String[] command = new String[] { "python", "-u",
         ApplicationManager.getIMODBinPath() + "vmstopy",
@@ -1156,7 +1165,12 @@ public class ComScriptProcess extends Thread implements SystemProcessInterface {
       throw new SystemProcessException("");
     }
 
-    return vmstopy.getStdOutput();
+    commands = vmstopy.getStdOutput();
+    // Don't save the commands if the com script changed while vmstopy was reading it.
+    if (key != null && key.equals(cache.getKey(comScript, logFile.getName()))) {
+      cache.put(comScriptName, key, commands);
+    }
+    return commands;
   }
 
   String getComScriptName() {
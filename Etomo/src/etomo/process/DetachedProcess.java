@@ -35,6 +35,8 @@ import etomo.util.DatasetFiles;
 final class DetachedProcess extends BackgroundProcess {
   public static final String rcsid = "$Id$";
 
+  private static final int MAX_OUTPUT_LINES = 1000;
+
   private final AxisID axisID;
   private final BaseManager manager;
   private final OutfileProcessMonitor monitor;
@@ -100,6 +102,9 @@ final class DetachedProcess extends BackgroundProcess {
     SystemProgram program = new BackgroundSystemProgram(manager, runCommand, monitor,
         axisID);
     program.setAcceptInputWhileRunning(true);
+    // The full output goes to the monitor's output file, so only the end of it needs to
+    // be kept in memory.
+    program.setStreamingOutput(MAX_OUTPUT_LINES, false);
     setProgram(program);
     return true;
   }
@@ -223,7 +223,7 @@ abstract class FileSizeProcessMonitor implements ProcessMonitor {
   // private FileReader fileReader = null;
   private boolean logFileRenamed = false;
   private LogFile logFile;
-  private LogFile.ReaderId logReaderId = null;
+  private LogFileTailer logFileTailer = null;
   private boolean findWatchedFileName = true;
   private MessageReporter messageReporter = null;
 
@@ -365,18 +365,9 @@ abstract class FileSizeProcessMonitor implements ProcessMonitor {
     openLogFileReader();
     boolean watchedFileBackedUp = false;
     while (!watchedFileBackedUp) {
-      String line = null;
-      try {
-        line = logFile.readLine(logReaderId);
-      }
-      catch (LogFile.LockException e) {
-        e.printStackTrace();
-      }
-      catch (IOException e) {
-        e.printStackTrace();
-      }
+      String line = logFileTailer.readLine();
       if (line == null) {
-        Thread.sleep(updatePeriod);
+        logFileTailer.await(updatePeriod);
       }
       else {
         reloadWatchedFile();
@@ -489,38 +480,17 @@ abstract class FileSizeProcessMonitor implements ProcessMonitor {
         Thread.sleep(updatePeriod);
       }
     }
-    // File logFile = null;
-    boolean logFileExists = false;
-    while (!logFileExists) {
-      // logFile = DatasetFiles
-      // .getLogFile(applicationManager, axisID, processName);
-      // Check to see if the log file exists that signifies that the process
-      // has started
-      if (/* logFile != null && */logFile.exists()) {
-        logFileExists = true;
-      }
-      else {
-        Thread.sleep(updatePeriod);
-      }
-    }
-    // closeLogFileReader();
-    try {
-      // fileReader = new FileReader(logFile);
-      logReaderId = logFile.openReader();
-    }
-    catch (LogFile.LockException e) {
-      e.printStackTrace();
-    }
-    catch (FileNotFoundException e) {
-      e.printStackTrace();
-    }
-    // logFileReader = new BufferedReader(fileReader);
+    // Follow the log file.  Lines become available once the log file exists, which
+    // signifies that the process has started.
+    closeLogFileReader();
+    logFileTailer = new LogFileTailer(new File(logFile.getAbsolutePath()));
+    logFileTailer.start();
   }
 
   private void closeLogFileReader() {
-    if (logReaderId != null && !logReaderId.isEmpty()) {
-      logFile.closeRead(logReaderId);
-      logReaderId = null;
+    if (logFileTailer != null) {
+      logFileTailer.stop();
+      logFileTailer = null;
     }
   }
 
@@ -24,9 +24,12 @@ class ImodRequestHandler implements Runnable {
   //one instance per ImodManager
   public final static Hashtable instances = new Hashtable();
 
+  private static final long UPDATE_PERIOD = 100;
+
   private final ImodManager imodManager;
   private boolean stop = false;
-  private boolean running = true;
+  private boolean running = false;
+  private MonitorScheduler.Task task = null;
 
   private ImodRequestHandler(ImodManager imodManager) {
     this.imodManager = imodManager;
@@ -41,28 +44,27 @@ class ImodRequestHandler implements Runnable {
     }
     ImodRequestHandler handler = new ImodRequestHandler(imodManager);
     instances.put(imodManager, handler);
-    new Thread(handler).start();
+    handler.task = MonitorScheduler.INSTANCE.schedule("ImodRequestHandler", handler,
+        UPDATE_PERIOD, UPDATE_PERIOD);
     return handler;
   }
 
+  /**
+   * Process any pending requests.  Runs every UPDATE_PERIOD milliseconds until
+   * stopped.
+   */
   public void run() {
-    //System.out.println("run");
-    while (!stop) {
-      //System.out.println("!stop");
-      try {
-        Thread.sleep(100);
-      }
-      catch (InterruptedException e) {
-      }
-      try {
-        imodManager.processRequest();
-      }
-      catch (AxisTypeException e) {
-        e.printStackTrace();
-      }
+    if (stop) {
+      return;
+    }
+    running = true;
+    try {
+      imodManager.processRequest();
+    }
+    catch (AxisTypeException e) {
+      e.printStackTrace();
     }
     running = false;
-    //System.out.println("end run");
   }
 
   /**
@@ -72,6 +74,9 @@ class ImodRequestHandler implements Runnable {
   public void stop() {
     //System.out.println("stop");
     stop = true;
+    if (task != null) {
+      task.cancel();
+    }
     //give the worker thread 1 second to clean up
     for (int i = 0;i< 20;i++) {
       //System.out.println("i="+i);
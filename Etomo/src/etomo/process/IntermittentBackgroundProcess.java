@@ -35,12 +35,16 @@ import etomo.util.RemotePath;
  * 
  * Function stop(IntermittantProcessMonitor monitor):
  * This function drops the monitor from it's output and tells the monitor to
- * stop monitoring it.  It will stop running only if it is no longer being
- * monitored.  
+ * stop monitoring it.  If it is no longer being monitored it becomes idle:  the
+ * command keeps running, so that it doesn't have to be restarted (and ssh doesn't
+ * have to log in again) when the monitor starts again, but the intermittent
+ * command is only sent every IDLE_INTERVAL.  It stops running when it has been
+ * idle for IDLE_TIMEOUT.
  * 
  * Function end(IntermittantProcessMonitor):
  * This function calls stop(IntermittantProcessMonitor monitor) and then removes
- * the monitor from it's list.  It is used when a manager exits.
+ * the monitor from it's list.  It stops running when there are no monitors left.
+ * It is used when a manager exits.
  * 
  * Function fail():
  * This function drops all of its monitors from it's output and stops.  The
@@ -63,9 +67,12 @@ import etomo.util.RemotePath;
  * @version $Revision$
  */
 
-public final class IntermittentBackgroundProcess implements Runnable {
+public final class IntermittentBackgroundProcess {
   public static final String rcsid = "$Id$";
 
+  private static final long IDLE_INTERVAL = 30 * 1000;
+  private static final long IDLE_TIMEOUT = 10 * 60 * 1000;
+
   private static Hashtable instances = new Hashtable();//one instance per IntermittentCommand instance
   //stopped:  means that the program needs to stop.
   private boolean stopped = true;
@@ -74,6 +81,8 @@ public final class IntermittentBackgroundProcess implements Runnable {
   private final IntermittentCommand command;
   private final BaseManager manager;
   private IntermittentSystemProgram program = null;
+  //poller:  the most recently started poller.
+  private Poller poller = null;
   //outputKeyPhrase:  string to look for in the standard output.  Assumes all
   //monitors use the same key phrase for a single instance of
   //IntermittentCommand.  This is important for intermittent commands because
@@ -82,6 +91,9 @@ public final class IntermittentBackgroundProcess implements Runnable {
   private String outputKeyPhrase = null;
   //failureReason is null unless the process fails
   private FailureReason failureReason = null;
+  //idle:  no monitors are monitoring this process, but it is still running.
+  private boolean idle = false;
+  private long idleStartTime = 0;
 
   public String toString() {
     return "[stopped=" + stopped + "," + super.toString() + "]";
@@ -147,8 +159,18 @@ public final class IntermittentBackgroundProcess implements Runnable {
     //this is the only place that stopped should be set to false
     if (stopped) {
       stopped = false;
+      idle = false;
+      canRestart = true;
+      poller = new Poller();
+      poller.start();
+    }
+    else if (idle) {
+      idle = false;
       canRestart = true;
-      new Thread(this).start();
+      //Send the intermittent command now instead of waiting for the next interval.
+      if (poller != null) {
+        poller.wake();
+      }
     }
     //Once the thread is started, add the monitor if it is new, make sure not to
     //add it more then once
@@ -179,11 +201,12 @@ public final class IntermittentBackgroundProcess implements Runnable {
         break;
       }
     }
-    //If this process is not being monitored, then stop it and prevent it from
-    //being restarted by ProcessRestarter.
-    if (monitorsStopped) {
+    //If this process is not being monitored, then make it idle and prevent it
+    //from being restarted by ProcessRestarter.
+    if (monitorsStopped && !stopped && !idle) {
       canRestart = false;
-      stopped = true;
+      idle = true;
+      idleStartTime = System.currentTimeMillis();
     }
   }
 
@@ -205,6 +228,13 @@ public final class IntermittentBackgroundProcess implements Runnable {
   synchronized void end(IntermittentProcessMonitor monitor) {
     stop(monitor);
     monitors.remove(monitor);
+    if (monitors.size() == 0 && !stopped) {
+      stopped = true;
+      //Send the end command now instead of waiting for the next interval.
+      if (poller != null) {
+        poller.wake();
+      }
+    }
   }
 
   public static synchronized void stop() {
@@ -254,6 +284,10 @@ public final class IntermittentBackgroundProcess implements Runnable {
       }
     }
     stopped = true;
+    //Send the end command now instead of waiting for the next interval.
+    if (poller != null) {
+      poller.wake();
+    }
   }
 
   /**
@@ -273,43 +307,76 @@ public final class IntermittentBackgroundProcess implements Runnable {
     return stopped;
   }
 
-  public void run() {
-    failureReason = null;
+  /**
+   * Checks whether this process has been idle for too long, and stops it if it has.
+   * @return true if the intermittent command should be sent now
+   * @param lastSentTime - when the intermittent command was last sent
+   */
+  private synchronized boolean isTimeToSend(long lastSentTime) {
+    if (!idle) {
+      return true;
+    }
+    long now = System.currentTimeMillis();
+    if (now - idleStartTime > IDLE_TIMEOUT) {
+      stopped = true;
+      return false;
+    }
+    return now - lastSentTime >= IDLE_INTERVAL;
+  }
+
+  /**
+   * Runs the command and then sends the intermittent command every interval, or every
+   * IDLE_INTERVAL while idle.  Each start() creates a new poller, so stops and starts
+   * may overlap.  A poller ends itself when this process is stopped or when a newer
+   * poller has replaced its program.
+   */
+  private final class Poller implements Runnable {
     //use a local SystemProgram because stops and starts may overlap
-    IntermittentSystemProgram localProgram = null;
-    String[] localStartCommand = command.getLocalStartCommand();
-    String[] remoteStartCommand = command.getRemoteStartCommand();
-    boolean localSection = RemotePath.INSTANCE.isLocalSection(command.getComputer(),
-        manager, AxisID.ONLY);
-    String intermittentCommand = command.getIntermittentCommand();
-    if (localSection && localStartCommand != null) {
-      localProgram = IntermittentSystemProgram.getStartInstance(manager, manager
-          .getPropertyUserDir(), localStartCommand, AxisID.ONLY, outputKeyPhrase);
-    }
-    else if (!localSection && remoteStartCommand != null) {
-      localProgram = IntermittentSystemProgram.getStartInstance(manager, manager
-          .getPropertyUserDir(), command.getRemoteStartCommand(), AxisID.ONLY,
-          outputKeyPhrase);
-    }
-    else if (intermittentCommand != null) {
-      localProgram = IntermittentSystemProgram.getIntermittentInstance(manager, manager
-          .getPropertyUserDir(), intermittentCommand, AxisID.ONLY, outputKeyPhrase);
-    }
-    //place the most recent local SystemProgram in the member SystemProgram
-    //non-local request (getting and setting standard input and output) will go
-    //to the most recent local SystemProgram.
-    program = localProgram;
-    //Commented out localProgram.useStartCommand because this comparison was only being
-    //executed when localProgram was null, so it was meaningless.
-    if (localProgram != null/* || localProgram.useStartCommand()*/) {
-      localProgram.setAcceptInputWhileRunning(true);
-      localProgram.start();
-    }
-    int interval = command.getInterval();
-    try {
+    private IntermittentSystemProgram localProgram = null;
+    private String intermittentCommand = null;
+    private MonitorScheduler.Task task = null;
+    private boolean initialized = false;
+    private boolean ended = false;
+    private long lastSentTime = 0;
+
+    /**
+     * Schedules the poller.  Run() waits until the task has been saved.
+     */
+    private synchronized void start() {
+      task = MonitorScheduler.INSTANCE.schedule(getName(), this, command.getInterval());
+    }
+
+    /**
+     * Runs the poller once, immediately.
+     */
+    private void wake() {
+      MonitorScheduler.INSTANCE.execute(getName(), this);
+    }
+
+    private String getName() {
+      return "IntermittentBackgroundProcess:" + command.getComputer();
+    }
+
+    public synchronized void run() {
+      if (ended) {
+        return;
+      }
+      if (!initialized) {
+        initialized = true;
+        initialize();
+      }
       //see load average requests while the program is not stopped and this
       //program is the same as the most recent program run
-      while (localProgram != null && !stopped && localProgram == program) {
+      boolean send = isTimeToSend(lastSentTime);
+      if (localProgram == null || stopped || localProgram != program) {
+        end();
+        return;
+      }
+      if (!send) {
+        return;
+      }
+      lastSentTime = System.currentTimeMillis();
+      try {
         if (localProgram.useStartCommand()) {
           localProgram.setCurrentStdInput(intermittentCommand);
         }
@@ -324,42 +391,81 @@ public final class IntermittentBackgroundProcess implements Runnable {
                 .msgSentIntermittentCommand(command);
           }
         }
-        Thread.sleep(interval);
+      }
+      catch (IOException e) {
+        stopped = true;
+        if (monitors != null) {
+          for (int i = 0; i < monitors.size(); i++) {
+            ((IntermittentProcessMonitor) monitors.get(i))
+                .msgIntermittentCommandFailed(command);
+          }
+        }
+        end();
       }
     }
-    catch (InterruptedException e) {
-      e.printStackTrace();
+
+    private void initialize() {
+      failureReason = null;
+      String[] localStartCommand = command.getLocalStartCommand();
+      String[] remoteStartCommand = command.getRemoteStartCommand();
+      boolean localSection = RemotePath.INSTANCE.isLocalSection(command.getComputer(),
+          manager, AxisID.ONLY);
+      intermittentCommand = command.getIntermittentCommand();
+      if (localSection && localStartCommand != null) {
+        localProgram = IntermittentSystemProgram.getStartInstance(manager,
+            manager.getPropertyUserDir(), localStartCommand, AxisID.ONLY,
+            outputKeyPhrase);
+      }
+      else if (!localSection && remoteStartCommand != null) {
+        localProgram = IntermittentSystemProgram.getStartInstance(manager,
+            manager.getPropertyUserDir(), command.getRemoteStartCommand(), AxisID.ONLY,
+            outputKeyPhrase);
+      }
+      else if (intermittentCommand != null) {
+        localProgram = IntermittentSystemProgram.getIntermittentInstance(manager,
+            manager.getPropertyUserDir(), intermittentCommand, AxisID.ONLY,
+            outputKeyPhrase);
+      }
+      //place the most recent local SystemProgram in the member SystemProgram
+      //non-local request (getting and setting standard input and output) will go
+      //to the most recent local SystemProgram.
+      program = localProgram;
+      //Commented out localProgram.useStartCommand because this comparison was only
+      //being executed when localProgram was null, so it was meaningless.
+      if (localProgram != null/* || localProgram.useStartCommand() */) {
+        localProgram.setAcceptInputWhileRunning(true);
+        localProgram.start();
+      }
     }
-    catch (IOException e) {
-      stopped = true;
-      if (monitors != null) {
-        for (int i = 0; i < monitors.size(); i++) {
-          ((IntermittentProcessMonitor) monitors.get(i))
-              .msgIntermittentCommandFailed(command);
+
+    /**
+     * Cancels the task and ends the program.
+     */
+    private void end() {
+      ended = true;
+      task.cancel();
+      try {
+        if (failureReason != null && failureReason.equals("")) {
+          //If there was a problem and we don't know what it is (see
+          //LoadAverageMonitor.ProgramState.getFailureReason()), then destroy the
+          //process. Processes with identified problems should fail naturally
+          //because we are setting the PreferredAuthentications option in ssh.
+          if (localProgram != null) {
+            localProgram.destroy();
+          }
+        }
+        else {
+          String endCommand = command.getEndCommand();
+          if (endCommand != null && localProgram != null) {
+            localProgram.setCurrentStdInput(command.getEndCommand());
+          }
         }
       }
-    }
-    try {
-      if (failureReason != null && failureReason.equals("")) {
-        //If there was a problem and we don't know what it is (see
-        //LoadAverageMonitor.ProgramState.getFailureReason()), then destroy the
-        //process.  Processes with identified problems should fail naturally
-        //because we are setting the PreferredAuthentications option in ssh.
+      catch (IOException e) {
         if (localProgram != null) {
           localProgram.destroy();
         }
       }
-      else {
-        String endCommand = command.getEndCommand();
-        if (endCommand != null && localProgram != null) {
-          localProgram.setCurrentStdInput(command.getEndCommand());
-        }
-      }
-    }
-    catch (IOException e) {
-      if (localProgram != null) {
-        localProgram.destroy();
-      }
     }
   }
 
@@ -1,6 +1,5 @@
 package etomo.process;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 
 import etomo.BaseManager;
@@ -23,7 +22,10 @@ import etomo.type.AxisID;
 public class IntermittentSystemProgram {
   public static final String rcsid = "$Id$";
 
-  private final String outputKeyPhrase;
+  // Output is only kept until a monitor reads it, so this only matters when monitors
+  // fall behind or stop reading.
+  private static final int MAX_OUTPUT_LINES = 1000;
+
   private final SystemProgram program;
   private final boolean useStartCommand;
   private final AxisID axisID;
@@ -34,7 +36,10 @@ public class IntermittentSystemProgram {
       String[] cmdArray, AxisID axisID, String outputKeyPhrase, boolean useStartCommand) {
     program = new SystemProgram(manager, propertyUserDir, cmdArray, axisID);
     program.setCollectOutput(false);
-    this.outputKeyPhrase = outputKeyPhrase;
+    program.setStreamingOutput(MAX_OUTPUT_LINES, false);
+    // There may be one of these for every computer in the cluster.
+    program.setMultiplexOutput(true);
+    program.setOutputKeyPhrase(outputKeyPhrase);
     this.useStartCommand = useStartCommand;
     this.axisID = axisID;
   }
@@ -67,19 +72,6 @@ public class IntermittentSystemProgram {
     return useStartCommand;
   }
 
-  OutputBufferManager newOutputBufferManager(BufferedReader cmdBuffer) {
-    OutputBufferManager bufferManager = new OutputBufferManager(cmdBuffer,
-        outputKeyPhrase);
-    bufferManager.setCollectOutput(false);
-    return bufferManager;
-  }
-
-  OutputBufferManager newErrorBufferManager(BufferedReader cmdBuffer) {
-    OutputBufferManager bufferManager = new OutputBufferManager(cmdBuffer);
-    bufferManager.setCollectOutput(false);
-    return bufferManager;
-  }
-
   /**
    * Clear stderr.  Because stderr.collectionOutput is false, this can be done
    * by running stderr.get();
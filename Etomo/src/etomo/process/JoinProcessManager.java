@@ -446,7 +446,7 @@ public final class JoinProcessManager extends BaseProcessManager {
       state.setSampleProduced(false);
       manager.setMode();
     }
-    else if (commandName.equals(ClipParam.PROCESS_NAME)) {
+    else if (commandName.equals(ClipParam.PROCESS_NAME.toString())) {
       Command command = process.getCommand();
       if (command == null) {
         return;
@@ -2,9 +2,12 @@ package etomo.process;
 
 import etomo.BaseManager;
 import etomo.EtomoDirector;
+import etomo.comscript.IntermittentCommand;
+import etomo.comscript.LoadAverageParam;
 import etomo.type.AxisID;
 import etomo.type.ConstEtomoNumber;
 import etomo.ui.swing.LoadDisplay;
+import etomo.util.RemotePath;
 import etomo.util.Utilities;
 
 /**
@@ -24,14 +27,52 @@ import etomo.util.Utilities;
 public class LoadAverageMonitor extends LoadMonitor {
   public static final String rcsid = "$Id$";
 
-  private static final String OUTPUT_KEY_PHRASE = "load average";
+  private static final String OUTPUT_KEY_PHRASE = LoadAverageParam.LOAD_TAG;
   private static final String OUTPUT_KEY_PHRASE_WINDOWS = "Percent CPU usage";
 
   private final ConstEtomoNumber numberOfProcessorsWindows = EtomoDirector.INSTANCE
       .getNumberOfProcessorsWindows();
 
+  private final BaseManager manager;
+  private final LocalLoadSampler localLoadSampler;
+
   public LoadAverageMonitor(LoadDisplay display, AxisID axisID, BaseManager manager) {
     super(display, axisID, manager);
+    this.manager = manager;
+    localLoadSampler = new LocalLoadSampler(display, usersColumn, manager);
+  }
+
+  /**
+   * @return true if the load of the local computer is read from /proc instead of
+   * running the load average command
+   */
+  public static boolean isLocalSamplingAvailable() {
+    return !Utilities.isWindowsOS() && LocalLoadSampler.isAvailable();
+  }
+
+  /**
+   * Samples the load of the local computer directly.
+   */
+  boolean startLocalLoad(IntermittentCommand command) {
+    String computer = command.getComputer();
+    if (!isLocalSamplingAvailable()
+        || !RemotePath.INSTANCE.isLocalSection(computer, manager, AxisID.ONLY)) {
+      return false;
+    }
+    display.msgStartingProcess(computer, FailureReason.COMPUTER_DOWN.getReason(),
+        LocalLoadSampler.FAILURE_REASON);
+    localLoadSampler.add(computer);
+    return true;
+  }
+
+  boolean stopLocalLoad(IntermittentCommand command) {
+    String computer = command.getComputer();
+    if (!isLocalSamplingAvailable()
+        || !RemotePath.INSTANCE.isLocalSection(computer, manager, AxisID.ONLY)) {
+      return false;
+    }
+    localLoadSampler.remove(computer);
+    return true;
   }
 
   /**
@@ -53,7 +94,6 @@ public class LoadAverageMonitor extends LoadMonitor {
     double load5 = -1;
     programState.clearUsers();
     int users = 0;
-    boolean headerLineFound = false;
     for (int i = 0; i < stdout.length; i++) {
       //System.out.println(stdout[i]);
       if (Utilities.isWindowsOS()) {
@@ -63,24 +103,32 @@ public class LoadAverageMonitor extends LoadMonitor {
           cpuUsage = getLoad(array[array.length - 1]);
         }
       }
-      else if (stdout[i].indexOf(OUTPUT_KEY_PHRASE) != -1) {
+      else if (stdout[i].startsWith(OUTPUT_KEY_PHRASE)) {
+        //Only the latest sample matters.
         programState.setWaitForCommand(0);
+        programState.clearUsers();
+        users = 0;
         String[] array = stdout[i].trim().split("\\s+");
-        load1 = getLoad(array[array.length - 3]);
-        load5 = getLoad(array[array.length - 2]);
-      }
-      //no need to total users when the usersColumn is not being displayed
-      else if (usersColumn) {
-        if (!headerLineFound) {
-          //ignore the header line
-          headerLineFound = true;
+        int usersIndex = array.length;
+        for (int j = 1; j < array.length; j++) {
+          if (array[j].equals(LoadAverageParam.USERS_TAG)) {
+            usersIndex = j;
+            break;
+          }
         }
-        else {
-          //count users
-          String[] array = stdout[i].trim().split("\\s+");
-          if (!array[0].equals("root") && !programState.containsUser(array[0])) {
-            programState.addUser(array[0]);
-            users++;
+        int loadIndex = getLoadIndex(array, usersIndex);
+        if (loadIndex == -1) {
+          continue;
+        }
+        load1 = getLoad(array[loadIndex]);
+        load5 = getLoad(array[loadIndex + 1]);
+        //no need to total users when the usersColumn is not being displayed
+        if (usersColumn) {
+          for (int j = usersIndex + 1; j < array.length; j++) {
+            if (!array[j].equals("root") && !programState.containsUser(array[j])) {
+              programState.addUser(array[j]);
+              users++;
+            }
           }
         }
       }
@@ -105,8 +153,31 @@ public class LoadAverageMonitor extends LoadMonitor {
     if (Utilities.isWindowsOS()) {
       return OUTPUT_KEY_PHRASE_WINDOWS;
     }
-    //need to get users for linux systems, so don't use the output key phrase to limit process output
-    return null;
+    //the users are on the same line as the load average
+    return OUTPUT_KEY_PHRASE;
+  }
+
+  /**
+   * Find the 1 minute load average in a line printed by the intermittent command.
+   * @param array - the line split on whitespace
+   * @param usersIndex - the index of the users tag
+   * @return the index of the 1 minute load average, or -1 if it wasn't found
+   */
+  private int getLoadIndex(String[] array, int usersIndex) {
+    if (usersIndex < 3) {
+      return -1;
+    }
+    //from /proc/loadavg:  load1 load5 load15 running/total lastPid
+    if (array[1].matches("[0-9.]+")) {
+      return 1;
+    }
+    //from uptime:  ... load average: load1, load5, load15
+    for (int i = 1; i < usersIndex - 2; i++) {
+      if (array[i].startsWith("average")) {
+        return i + 1;
+      }
+    }
+    return -1;
   }
 
   private double getLoad(String load) {
@@ -52,13 +52,16 @@ import etomo.util.HashedArray;
 public abstract class LoadMonitor implements IntermittentProcessMonitor, Runnable {
   public static final String rcsid = "$Id$";
 
+  private static final long UPDATE_PERIOD = 1000;
+
   final LoadDisplay display;
   final boolean usersColumn;
 
   private HashedArray programs = new HashedArray();
-  //stopped:  true when the run() is not executing.  Set at the end of the run
-  //program.  Also set externally to stop the run() program.
+  //stopped:  true when run() is not scheduled.  Set by run() when all programs
+  //have stopped.  Also set externally to stop run() from being scheduled.
   private boolean stopped = true;
+  private MonitorScheduler.Task task = null;
 
   abstract void processData(ProgramState programState);
 
@@ -68,32 +71,38 @@ public abstract class LoadMonitor implements IntermittentProcessMonitor, Runnabl
         .getPropertyUserDir());
   }
 
+  /**
+   * Update the output on the display from each of the running programs.  Runs
+   * every UPDATE_PERIOD milliseconds until stopped.
+   */
   public void run() {
-    try {
-      while (!stopped) {
-        boolean programsStopped = true;
-        //update the output on the display from each of the running programs.
-        for (int i = 0; i < programs.size(); i++) {
-          ProgramState programState = (ProgramState) programs.get(i);
-          if (!stopped && !programState.isStopped()) {
-            programsStopped = false;
-            processData(programState);
-            if (programState.getWaitForCommand() > 12) {
-              programState.setWaitForCommand(0);
-              msgIntermittentCommandFailed(programState.getCommand());
-            }
+    if (!stopped) {
+      boolean programsStopped = true;
+      for (int i = 0; i < programs.size(); i++) {
+        ProgramState programState = (ProgramState) programs.get(i);
+        if (!stopped && !programState.isStopped()) {
+          programsStopped = false;
+          processData(programState);
+          if (programState.getWaitForCommand() > 12) {
+            programState.setWaitForCommand(0);
+            msgIntermittentCommandFailed(programState.getCommand());
           }
         }
-        if (programsStopped) {
-          stopped = true;
-        }
-        Thread.sleep(1000);
+      }
+      if (programsStopped) {
+        stopped = true;
       }
     }
-    catch (InterruptedException e) {
-      e.printStackTrace();
+    if (stopped) {
+      cancelTask();
+    }
+  }
+
+  private synchronized void cancelTask() {
+    if (stopped && task != null) {
+      task.cancel();
+      task = null;
     }
-    stopped = true;
   }
 
   /**
@@ -155,12 +164,35 @@ public abstract class LoadMonitor implements IntermittentProcessMonitor, Runnabl
     }
     if (stopped) {
       stopped = false;
-      new Thread(this).start();
+      //A task which hasn't seen stopped yet would keep running alongside the new one.
+      if (task != null) {
+        task.cancel();
+      }
+      task = MonitorScheduler.INSTANCE.schedule("LoadMonitor", this, UPDATE_PERIOD);
     }
     display.msgStartingProcess(key, FailureReason.COMPUTER_DOWN.getReason(),
         FailureReason.LOGIN_FAILED.getReason());
   }
 
+  /**
+   * Start monitoring the load of command's computer without running command.
+   * @param command
+   * @return true if the load is being monitored without command
+   */
+  boolean startLocalLoad(IntermittentCommand command) {
+    return false;
+  }
+
+  /**
+   * Stop monitoring the load of command's computer if it was started by
+   * startLocalLoad.
+   * @param command
+   * @return true if the load was being monitored without command
+   */
+  boolean stopLocalLoad(IntermittentCommand command) {
+    return false;
+  }
+
   public void msgIntermittentCommandFailed(IntermittentCommand command) {
     String key = command.getComputer();
     if (programs.containsKey(key)) {
@@ -0,0 +1,378 @@
+package etomo.process;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import etomo.BaseManager;
+import etomo.type.AxisID;
+import etomo.ui.swing.LoadDisplay;
+
+/**
+ * <p>Description: Samples the load of the local computer by reading /proc/loadavg,
+ * /proc/stat, and /proc/meminfo, instead of running the load average command.  Only
+ * available on Linux.  Samples every SAMPLE_PERIOD milliseconds while at least one
+ * computer name is being sampled; the local computer can appear in the table under
+ * more than one name.</p>
+ *
+ * <p>The CPU utilization is calculated from the change in the per-CPU time counters in
+ * /proc/stat since the previous sample.  The logged in users come from "who", the same
+ * as in the load average command, but it is only run every USERS_PERIOD milliseconds
+ * and only when the users column is displayed.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * @threadsafe
+ *
+ * <p> $Log$ </p>
+ */
+final class LocalLoadSampler implements Runnable {
+  public static final String rcsid = "$Id:$";
+
+  static final long SAMPLE_PERIOD = 500;
+
+  private static final File PROC_DIR = new File("/proc");
+  // The users only change when someone logs in or out.
+  private static final long USERS_PERIOD = 5000;
+  // Percent busy at which a CPU is counted as fully used in the tooltip.
+  private static final double BUSY_PERCENT = 90;
+
+  static final String FAILURE_REASON = "no /proc";
+
+  private static boolean availableChecked = false;
+  private static boolean available = false;
+
+  private final List<String> computerList = new ArrayList<String>();
+  private final LoadDisplay display;
+  private final boolean usersColumn;
+  private final File procDir;
+  private final BaseManager manager;
+
+  private MonitorScheduler.Task task = null;
+  // Time counters from the previous sample, one array for each CPU.
+  private long[][] lastCpuTimes = null;
+  private long lastUsersTime = 0;
+  private int users = 0;
+  private String usersTooltip = null;
+
+  LocalLoadSampler(final LoadDisplay display, final boolean usersColumn,
+      final BaseManager manager) {
+    this(display, usersColumn, manager, PROC_DIR);
+  }
+
+  LocalLoadSampler(final LoadDisplay display, final boolean usersColumn,
+      final BaseManager manager, final File procDir) {
+    this.display = display;
+    this.usersColumn = usersColumn;
+    this.manager = manager;
+    this.procDir = procDir;
+  }
+
+  /**
+   * @return true if the local load can be read from /proc
+   */
+  static synchronized boolean isAvailable() {
+    if (!availableChecked) {
+      availableChecked = true;
+      available = new File(PROC_DIR, "loadavg").canRead()
+          && new File(PROC_DIR, "stat").canRead()
+          && new File(PROC_DIR, "meminfo").canRead();
+    }
+    return available;
+  }
+
+  /**
+   * Start sampling for computer.
+   * @param computer
+   */
+  synchronized void add(final String computer) {
+    if (!computerList.contains(computer)) {
+      computerList.add(computer);
+    }
+    if (task == null) {
+      lastCpuTimes = null;
+      lastUsersTime = 0;
+      task = MonitorScheduler.INSTANCE.schedule("LocalLoadSampler", this, SAMPLE_PERIOD);
+    }
+  }
+
+  /**
+   * Stop sampling for computer.  Stops the sampler when there are no computers left.
+   * @param computer
+   */
+  synchronized void remove(final String computer) {
+    computerList.remove(computer);
+    if (computerList.isEmpty() && task != null) {
+      task.cancel();
+      task = null;
+    }
+  }
+
+  synchronized boolean isSampling() {
+    return task != null;
+  }
+
+  public void run() {
+    String[] computers;
+    synchronized (this) {
+      if (computerList.isEmpty()) {
+        return;
+      }
+      computers = computerList.toArray(new String[computerList.size()]);
+    }
+    Sample sample;
+    try {
+      sample = sample();
+    }
+    catch (IOException e) {
+      e.printStackTrace();
+      for (int i = 0; i < computers.length; i++) {
+        display.msgLoadFailed(computers[i], FAILURE_REASON, e.getMessage());
+      }
+      return;
+    }
+    catch (RuntimeException e) {
+      // Unexpected file format.
+      e.printStackTrace();
+      for (int i = 0; i < computers.length; i++) {
+        display.msgLoadFailed(computers[i], FAILURE_REASON,
+            "Unable to read the load from " + procDir + ".");
+      }
+      return;
+    }
+    for (int i = 0; i < computers.length; i++) {
+      display.setLoad(computers[i], sample.load1, sample.load5, sample.users,
+          sample.usersTooltip);
+      if (sample.nCpus > 0) {
+        display.setCPUUtilization(computers[i], sample.busyCpus, sample.nCpus,
+            sample.nBusyCpus);
+      }
+      display.setFreeMemory(computers[i], sample.availableKB, sample.totalKB);
+    }
+  }
+
+  /**
+   * Reads the current load.  The CPU utilization is only available from the second
+   * sample on.
+   * @return
+   * @throws IOException
+   */
+  synchronized Sample sample() throws IOException {
+    Sample sample = new Sample();
+    readLoadAverage(sample);
+    readCpuTimes(sample);
+    readMemory(sample);
+    if (usersColumn) {
+      long time = System.currentTimeMillis();
+      if (lastUsersTime == 0 || time - lastUsersTime >= USERS_PERIOD) {
+        lastUsersTime = time;
+        readUsers();
+      }
+      sample.users = users;
+      sample.usersTooltip = usersTooltip;
+    }
+    return sample;
+  }
+
+  private void readLoadAverage(final Sample sample) throws IOException {
+    // load1 load5 load15 running/total lastPid
+    String[] array = readFirstLine(new File(procDir, "loadavg")).trim().split("\\s+");
+    sample.load1 = Double.parseDouble(array[0]);
+    sample.load5 = Double.parseDouble(array[1]);
+  }
+
+  /**
+   * Reads the "cpuN" lines of /proc/stat and compares them to the previous sample.
+   */
+  private void readCpuTimes(final Sample sample) throws IOException {
+    List<long[]> cpuTimeList = new ArrayList<long[]>();
+    BufferedReader reader = new BufferedReader(new FileReader(new File(procDir, "stat")));
+    try {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        // Skip the "cpu" line, which is the total of all the CPUs.
+        if (line.startsWith("cpu") && line.length() > 3
+            && Character.isDigit(line.charAt(3))) {
+          // user nice system idle iowait irq softirq steal
+          String[] array = line.trim().split("\\s+");
+          long[] times = new long[array.length - 1];
+          for (int i = 0; i < times.length; i++) {
+            times[i] = Long.parseLong(array[i + 1]);
+          }
+          cpuTimeList.add(times);
+        }
+        else if (!cpuTimeList.isEmpty()) {
+          break;
+        }
+      }
+    }
+    finally {
+      reader.close();
+    }
+    long[][] cpuTimes = cpuTimeList.toArray(new long[cpuTimeList.size()][]);
+    if (lastCpuTimes != null && lastCpuTimes.length == cpuTimes.length) {
+      sample.nCpus = cpuTimes.length;
+      for (int i = 0; i < cpuTimes.length; i++) {
+        long total = getTotal(cpuTimes[i]) - getTotal(lastCpuTimes[i]);
+        if (total > 0) {
+          long idle = getIdle(cpuTimes[i]) - getIdle(lastCpuTimes[i]);
+          double busy = (double) (total - idle) / total;
+          sample.busyCpus += busy;
+          if (busy * 100 >= BUSY_PERCENT) {
+            sample.nBusyCpus++;
+          }
+        }
+      }
+    }
+    lastCpuTimes = cpuTimes;
+  }
+
+  /**
+   * Total time, leaving out guest time, which is already included in user time.
+   */
+  private static long getTotal(final long[] times) {
+    long total = 0;
+    for (int i = 0; i < times.length && i < 8; i++) {
+      total += times[i];
+    }
+    return total;
+  }
+
+  /**
+   * Idle and iowait time.
+   */
+  private static long getIdle(final long[] times) {
+    long idle = times[3];
+    if (times.length > 4) {
+      idle += times[4];
+    }
+    return idle;
+  }
+
+  private void readMemory(final Sample sample) throws IOException {
+    long free = -1;
+    long buffers = 0;
+    long cached = 0;
+    BufferedReader reader = new BufferedReader(new FileReader(new File(procDir,
+        "meminfo")));
+    try {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.startsWith("MemTotal:")) {
+          sample.totalKB = getKB(line);
+        }
+        else if (line.startsWith("MemAvailable:")) {
+          sample.availableKB = getKB(line);
+        }
+        else if (line.startsWith("MemFree:")) {
+          free = getKB(line);
+        }
+        else if (line.startsWith("Buffers:")) {
+          buffers = getKB(line);
+        }
+        else if (line.startsWith("Cached:")) {
+          cached = getKB(line);
+        }
+      }
+    }
+    finally {
+      reader.close();
+    }
+    // MemAvailable was added in Linux 3.14.
+    if (sample.availableKB == -1 && free != -1) {
+      sample.availableKB = free + buffers + cached;
+    }
+  }
+
+  /**
+   * @param line - "Name:   number kB"
+   */
+  private static long getKB(final String line) {
+    String[] array = line.trim().split("\\s+");
+    return Long.parseLong(array[1]);
+  }
+
+  /**
+   * Runs "who" to get the logged in users.
+   */
+  private void readUsers() {
+    SystemProgram who = new SystemProgram(manager, manager == null ? System
+        .getProperty("user.dir") : manager.getPropertyUserDir(),
+        new String[] { "who" }, AxisID.ONLY);
+    who.run();
+    SortedSet<String> userSet = getUsers(who.getStdOutput());
+    users = userSet.size();
+    if (users == 0) {
+      usersTooltip = null;
+      return;
+    }
+    StringBuffer buffer = new StringBuffer();
+    for (String name : userSet) {
+      if (buffer.length() > 0) {
+        buffer.append(',');
+      }
+      buffer.append(name);
+    }
+    usersTooltip = buffer.toString();
+  }
+
+  /**
+   * Gets the users from the output of "who", leaving out root, the same as the load
+   * average command.
+   * @param stdout - may be null
+   */
+  static SortedSet<String> getUsers(final String[] stdout) {
+    SortedSet<String> userSet = new TreeSet<String>();
+    if (stdout == null) {
+      return userSet;
+    }
+    for (int i = 0; i < stdout.length; i++) {
+      String[] array = stdout[i].trim().split("\\s+");
+      if (array.length > 0 && array[0].length() > 0 && !array[0].equals("root")) {
+        userSet.add(array[0]);
+      }
+    }
+    return userSet;
+  }
+
+  private static String readFirstLine(final File file) throws IOException {
+    BufferedReader reader = new BufferedReader(new FileReader(file));
+    try {
+      String line = reader.readLine();
+      if (line == null) {
+        throw new IOException(file + " is empty.");
+      }
+      return line;
+    }
+    finally {
+      reader.close();
+    }
+  }
+
+  static final class Sample {
+    double load1 = -1;
+    double load5 = -1;
+    int users = 0;
+    String usersTooltip = null;
+    // Number of CPUs in /proc/stat; 0 until there are two samples to compare.
+    int nCpus = 0;
+    // Sum of the fraction of time that each CPU was busy.
+    double busyCpus = 0;
+    int nBusyCpus = 0;
+    long totalKB = -1;
+    long availableKB = -1;
+  }
+}
@@ -0,0 +1,90 @@
+package etomo.process;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.SortedSet;
+
+import junit.framework.TestCase;
+
+/**
+* <p>Description: </p>
+*
+* <p>Copyright: Copyright 2026</p>
+*
+* <p>Organization:
+* Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+* University of Colorado</p>
+*
+* @author $Author$
+*
+* @version $Revision$
+*
+* <p> $Log$ </p>
+*/
+public class LocalLoadSamplerTest extends TestCase {
+  public static final String rcsid = "$Id:$";
+
+  private static final File testDir = new File(ProcessTests.TEST_ROOT_DIR,
+      "LocalLoadSampler");
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    testDir.mkdirs();
+    write("loadavg", "1.50 0.75 0.25 2/345 6789\n");
+    write("meminfo", "MemTotal:        8000000 kB\nMemFree:          500000 kB\n"
+        + "MemAvailable:    2000000 kB\nBuffers:          100000 kB\n");
+    writeStat("1000 0 0 1000 100", "1000 0 0 1000 0");
+  }
+
+  public void testSample() throws IOException {
+    LocalLoadSampler sampler = new LocalLoadSampler(null, false, null, testDir);
+    LocalLoadSampler.Sample sample = sampler.sample();
+    assertEquals(1.5, sample.load1, 0);
+    assertEquals(0.75, sample.load5, 0);
+    assertEquals(8000000, sample.totalKB);
+    assertEquals(2000000, sample.availableKB);
+    assertEquals("no utilization from one sample", 0, sample.nCpus);
+    // cpu0 busy 3/4 of the time, cpu1 busy all of the time
+    writeStat("1300 0 0 1100 100", "1300 0 0 1000 0");
+    sample = sampler.sample();
+    assertEquals(2, sample.nCpus);
+    assertEquals(1.75, sample.busyCpus, 1.e-6);
+    assertEquals(1, sample.nBusyCpus);
+  }
+
+  public void testOldMeminfo() throws IOException {
+    write("meminfo", "MemTotal:        8000000 kB\nMemFree:          500000 kB\n"
+        + "Buffers:          100000 kB\nCached:          1000000 kB\n");
+    LocalLoadSampler.Sample sample = new LocalLoadSampler(null, false, null, testDir)
+        .sample();
+    assertEquals("MemAvailable is estimated", 1600000, sample.availableKB);
+  }
+
+  public void testGetUsers() {
+    SortedSet<String> userSet = LocalLoadSampler.getUsers(new String[] {
+        "jane     pts/0        2026-10-18 09:12 (host1)",
+        "root     tty1         2026-10-18 08:00",
+        "ann      pts/1        2026-10-18 09:30 (host2)",
+        "jane     pts/2        2026-10-18 10:01 (host1)" });
+    assertEquals("root is not a user and users are counted once", 2, userSet.size());
+    assertEquals("ann", userSet.first());
+    assertEquals("jane", userSet.last());
+    assertTrue(LocalLoadSampler.getUsers(null).isEmpty());
+  }
+
+  private void writeStat(final String cpu0, final String cpu1) throws IOException {
+    write("stat", "cpu  2000 0 0 2000 0 0 0 0 0 0\ncpu0 " + cpu0 + " 0 0 0 0 0\ncpu1 "
+        + cpu1 + " 0 0 0 0 0\nintr 0\nbtime 1000\n");
+  }
+
+  private void write(final String name, final String contents) throws IOException {
+    FileWriter writer = new FileWriter(new File(testDir, name));
+    try {
+      writer.write(contents);
+    }
+    finally {
+      writer.close();
+    }
+  }
+}
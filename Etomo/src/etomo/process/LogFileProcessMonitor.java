@@ -1,6 +1,6 @@
 package etomo.process;
 
-import java.io.FileNotFoundException;
+import java.io.File;
 import java.io.IOException;
 import java.util.Date;
 
@@ -238,7 +238,7 @@ public abstract class LogFileProcessMonitor implements ProcessMonitor {
   // This needs to be set in the concrete class constructor
   String logFileBasename;
   private LogFile logFile;
-  private LogFile.ReaderId logFileReaderId = null;
+  private LogFileTailer logFileTailer = null;
 
   final BaseManager manager;
   final AxisID axisID;
@@ -306,13 +306,15 @@ public abstract class LogFileProcessMonitor implements ProcessMonitor {
         logFile = LogFile.getInstance(manager.getPropertyUserDir(), logFileBasename);
 
       }
+      logFileTailer = new LogFileTailer(new File(logFile.getAbsolutePath()));
+      logFileTailer.start();
       // Wait for the log file to exist
       waitForLogFile();
       findNSections();
       initializeProgressBar();
       timestamp = new Date().getTime();
       while (processRunning && !stop) {
-        Thread.sleep(UPDATE_PERIOD);
+        waitForLogFileLine();
         getCurrentSection();
         calcRemainingTime();
         updateProgressBar();
@@ -335,15 +337,11 @@ public abstract class LogFileProcessMonitor implements ProcessMonitor {
       e.printStackTrace();
     }
     setProcessEndState(ProcessEndState.DONE);
-    // Close the log file reader
+    // Stop following the log file
     Utilities.debugPrint("LogFileProcessMonitor: Closing the log file reader for "
         + logFile.getAbsolutePath());
-    // if (logFileReader != null) {
-    // logFileReader.close();
-    // }
-    if (logFile != null && logFileReaderId != null && !logFileReaderId.isEmpty()) {
-      logFile.closeRead(logFileReaderId);
-      logFileReaderId = null;
+    if (logFileTailer != null) {
+      logFileTailer.stop();
     }
     if (lastProcess) {
       manager.progressBarDone(axisID, endState);
@@ -361,8 +359,20 @@ public abstract class LogFileProcessMonitor implements ProcessMonitor {
   void postProcess() {
   }
 
+  /**
+   * @return the next line that has been written to the log file, or null if no new
+   * lines are available
+   */
   final String readLogFileLine() throws LogFile.LockException, IOException {
-    return logFile.readLine(logFileReaderId);
+    return logFileTailer.readLine();
+  }
+
+  /**
+   * Wait until a new line has been written to the log file, or UPDATE_PERIOD has
+   * passed.  Use instead of sleeping between calls to readLogFileLine.
+   */
+  final void waitForLogFileLine() throws InterruptedException {
+    logFileTailer.await(UPDATE_PERIOD);
   }
 
   /**
@@ -391,27 +401,16 @@ public abstract class LogFileProcessMonitor implements ProcessMonitor {
 
   /**
    * Wait for the process to start and the appropriate log file to be created 
-   * @return a buffered reader of the log file
    */
-  private final void waitForLogFile() throws InterruptedException, LogFile.LockException,
-      FileNotFoundException {
+  private final void waitForLogFile() throws InterruptedException {
 
     processStartTime = System.currentTimeMillis();
 
-    boolean newLogFile = false;
-    while (!newLogFile) {
-      // Check to see if the log file exists that signifies that the process
-      // has started
-      if (logFile.exists()) {
-        newLogFile = true;
-      }
-      else {
-        Thread.sleep(UPDATE_PERIOD);
-      }
+    // Check to see if the log file exists that signifies that the process
+    // has started
+    while (!logFileTailer.isFileFound()) {
+      waitForLogFileLine();
     }
-    // Open the log file
-    // logFileReader = new BufferedReader(new FileReader(logFile));
-    logFileReaderId = logFile.openReader();
   }
 
   /**
@@ -426,9 +425,9 @@ public abstract class LogFileProcessMonitor implements ProcessMonitor {
 
     nSections = -1;
     while (!foundNSections) {
-      Thread.sleep(UPDATE_PERIOD);
+      waitForLogFileLine();
       String line;
-      while ((line = logFile.readLine(logFileReaderId)) != null) {
+      while ((line = readLogFileLine()) != null) {
         line = line.trim();
         if (line.startsWith(nSectionsHeader)) {
           String[] fields = line.split("\\s+");
@@ -0,0 +1,229 @@
+package etomo.process;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.LinkedList;
+
+/**
+ * <p>Description: Follows a log file as it is written.  Remembers how far into the file
+ * it has read, reads only what was added since the last look, and queues each complete
+ * line for the monitor.  A monitor thread can wait on the tailer instead of sleeping,
+ * so it wakes up as soon as a line arrives.</p>
+ *
+ * <p>The file is checked through MonitorScheduler with an adaptive period:  a short
+ * period while the file is growing, backing off to MAX_PERIOD while it is not.  File
+ * change notification isn't used because it isn't available in the Java versions that
+ * Etomo supports, and it is unreliable on the network file systems that datasets are
+ * often on.</p>
+ *
+ * <p>If the file shrinks, it is assumed to have been replaced, and is read again from
+ * the beginning.  An unterminated last line is held back until it is complete.  Lines
+ * can also be read without starting the scheduled task by calling poll()
+ * directly.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * @threadsafe
+ *
+ * <p> $Log$ </p>
+ */
+final class LogFileTailer implements Runnable {
+  public static final String rcsid = "$Id:$";
+
+  static final long MIN_PERIOD = 20;
+  static final long MAX_PERIOD = 250;
+  private static final int BUFFER_SIZE = 8192;
+
+  private final LinkedList<String> lineList = new LinkedList<String>();
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private final File file;
+  private final String name;
+
+  // Bytes of the line which is currently being read.
+  private byte[] partialLine = new byte[256];
+  private int partialLineLength = 0;
+  private long offset = 0;
+  private long period = MIN_PERIOD;
+  private boolean fileFound = false;
+  private boolean stopped = false;
+  private boolean errorPrinted = false;
+  private MonitorScheduler.Task task = null;
+
+  LogFileTailer(final File file) {
+    this.file = file;
+    name = "LogFileTailer:" + file.getName();
+  }
+
+  public String toString() {
+    return "[file=" + file + ",offset=" + offset + ",period=" + period + "]";
+  }
+
+  /**
+   * Start checking the file on the scheduler.
+   */
+  synchronized void start() {
+    stopped = false;
+    period = MIN_PERIOD;
+    task = MonitorScheduler.INSTANCE.execute(name, this);
+  }
+
+  /**
+   * Stop checking the file.  Lines which have already been queued can still be read.
+   */
+  synchronized void stop() {
+    stopped = true;
+    if (task != null) {
+      task.cancel();
+      task = null;
+    }
+  }
+
+  public void run() {
+    boolean changed = false;
+    try {
+      changed = poll();
+    }
+    catch (IOException e) {
+      if (!errorPrinted) {
+        errorPrinted = true;
+        e.printStackTrace();
+      }
+    }
+    synchronized (this) {
+      if (stopped) {
+        return;
+      }
+      if (changed) {
+        period = MIN_PERIOD;
+      }
+      else {
+        period = Math.min(period * 2, MAX_PERIOD);
+      }
+      task = MonitorScheduler.INSTANCE.execute(name, this, period);
+    }
+  }
+
+  /**
+   * Reads everything that has been added to the file since the last call and queues
+   * the complete lines.
+   * @return true if the file has appeared or grown since the last call
+   * @throws IOException
+   */
+  synchronized boolean poll() throws IOException {
+    if (!file.exists()) {
+      return false;
+    }
+    boolean changed = false;
+    if (!fileFound) {
+      changed = true;
+      synchronized (lineList) {
+        fileFound = true;
+        lineList.notifyAll();
+      }
+    }
+    long length = file.length();
+    if (length < offset) {
+      offset = 0;
+      partialLineLength = 0;
+    }
+    if (length == offset) {
+      return changed;
+    }
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+    try {
+      randomAccessFile.seek(offset);
+      int nBytes;
+      while ((nBytes = randomAccessFile.read(buffer)) > 0) {
+        offset += nBytes;
+        addLines(nBytes);
+      }
+    }
+    finally {
+      randomAccessFile.close();
+    }
+    return true;
+  }
+
+  /**
+   * Splits the first nBytes of the buffer into lines.  Queues the complete lines and
+   * saves the rest in partialLine.
+   * @param nBytes
+   */
+  private void addLines(final int nBytes) {
+    int start = 0;
+    for (int i = 0; i < nBytes; i++) {
+      if (buffer[i] == '\n') {
+        appendPartialLine(start, i);
+        int length = partialLineLength;
+        if (length > 0 && partialLine[length - 1] == '\r') {
+          length--;
+        }
+        String line = new String(partialLine, 0, length);
+        partialLineLength = 0;
+        start = i + 1;
+        synchronized (lineList) {
+          lineList.add(line);
+          lineList.notifyAll();
+        }
+      }
+    }
+    appendPartialLine(start, nBytes);
+  }
+
+  private void appendPartialLine(final int start, final int end) {
+    int length = end - start;
+    if (length <= 0) {
+      return;
+    }
+    if (partialLineLength + length > partialLine.length) {
+      byte[] temp = new byte[Math.max(partialLine.length * 2, partialLineLength
+          + length)];
+      System.arraycopy(partialLine, 0, temp, 0, partialLineLength);
+      partialLine = temp;
+    }
+    System.arraycopy(buffer, start, partialLine, partialLineLength, length);
+    partialLineLength += length;
+  }
+
+  /**
+   * @return the next queued line, or null if there are none
+   */
+  String readLine() {
+    synchronized (lineList) {
+      if (lineList.isEmpty()) {
+        return null;
+      }
+      return lineList.removeFirst();
+    }
+  }
+
+  /**
+   * Waits until a line is available, the file is found, or timeoutMillis has passed.
+   * @param timeoutMillis
+   * @return true if a line is available
+   * @throws InterruptedException
+   */
+  boolean await(final long timeoutMillis) throws InterruptedException {
+    synchronized (lineList) {
+      if (lineList.isEmpty()) {
+        lineList.wait(timeoutMillis);
+      }
+      return !lineList.isEmpty();
+    }
+  }
+
+  boolean isFileFound() {
+    synchronized (lineList) {
+      return fileFound;
+    }
+  }
+}
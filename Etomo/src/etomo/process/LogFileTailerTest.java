@@ -0,0 +1,96 @@
+package etomo.process;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+/**
+* <p>Description: </p>
+*
+* <p>Copyright: Copyright 2026</p>
+*
+* <p>Organization:
+* Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+* University of Colorado</p>
+*
+* @author $Author$
+*
+* @version $Revision$
+*
+* <p> $Log$ </p>
+*/
+public class LogFileTailerTest extends TestCase {
+  public static final String rcsid = "$Id:$";
+
+  private static final File testDir = new File(ProcessTests.TEST_ROOT_DIR,
+      "LogFileTailer");
+
+  private final File log = new File(testDir, "tailer.log");
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    testDir.mkdirs();
+    if (log.exists()) {
+      log.delete();
+    }
+    assertFalse(log.exists());
+  }
+
+  public void testPoll() throws IOException {
+    LogFileTailer tailer = new LogFileTailer(log);
+    assertFalse("file doesn't exist yet", tailer.poll());
+    assertFalse(tailer.isFileFound());
+    append("first line\nsecond");
+    assertTrue("file appeared", tailer.poll());
+    assertTrue(tailer.isFileFound());
+    assertEquals("first line", tailer.readLine());
+    assertNull("unterminated line must be held back", tailer.readLine());
+    assertFalse("nothing new", tailer.poll());
+    append(" line\r\nthird line\n");
+    assertTrue(tailer.poll());
+    assertEquals("partial line must be joined and \\r removed", "second line",
+        tailer.readLine());
+    assertEquals("third line", tailer.readLine());
+    assertNull(tailer.readLine());
+  }
+
+  public void testReplacedFile() throws IOException {
+    LogFileTailer tailer = new LogFileTailer(log);
+    append("an old line that is longer than the new file\n");
+    tailer.poll();
+    assertNotNull(tailer.readLine());
+    assertTrue(log.delete());
+    append("new\n");
+    assertTrue(tailer.poll());
+    assertEquals("a shorter file must be read from the start", "new", tailer.readLine());
+  }
+
+  public void testAwait() throws IOException, InterruptedException {
+    LogFileTailer tailer = new LogFileTailer(log);
+    tailer.start();
+    try {
+      append("line\n");
+      long start = System.currentTimeMillis();
+      while (!tailer.await(LogFileTailer.MAX_PERIOD)) {
+        assertTrue("line not found",
+            System.currentTimeMillis() - start < 10 * LogFileTailer.MAX_PERIOD);
+      }
+      assertEquals("line", tailer.readLine());
+    }
+    finally {
+      tailer.stop();
+    }
+  }
+
+  private void append(final String string) throws IOException {
+    FileWriter writer = new FileWriter(log, true);
+    try {
+      writer.write(string);
+    }
+    finally {
+      writer.close();
+    }
+  }
+}
@@ -108,11 +108,10 @@ public final class MatchorwarpProcessMonitor extends LogFileProcessMonitor {
     // Search for the number of sections, we should see a header ouput first
     boolean foundNSections = false;
     nSections = -1;
-    Thread.sleep(UPDATE_PERIOD);
     while (!foundNSections) {
       String line = readLogFileLine();
       if (line == null) {
-        Thread.sleep(UPDATE_PERIOD);
+        waitForLogFileLine();
       }
       if (line != null) {
         if (line.trim().startsWith("Finished")) {
@@ -126,6 +125,5 @@ public final class MatchorwarpProcessMonitor extends LogFileProcessMonitor {
         }
       }
     }
-    Thread.sleep(UPDATE_PERIOD);
   }
 }
@@ -137,11 +137,10 @@ final class Matchvol1ProcessMonitor extends LogFileProcessMonitor {
     //  Search for the number of sections, we should see a header ouput first
     boolean foundNSections = false;
     nSections = -1;
-    Thread.sleep(UPDATE_PERIOD);
     while (!foundNSections) {
       String line = readLogFileLine();
       if (line == null) {
-        Thread.sleep(UPDATE_PERIOD);
+        waitForLogFileLine();
       }
       if (line != null && line.trim().startsWith("Finished")) {
         line = line.trim();
@@ -150,6 +149,5 @@ final class Matchvol1ProcessMonitor extends LogFileProcessMonitor {
         foundNSections = true;
       }
     }
-    Thread.sleep(UPDATE_PERIOD);
   }
 }
@@ -0,0 +1,295 @@
+package etomo.process;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Description: Runs the polling done by monitors and intermittent processes on a
+ * small, bounded pool of daemon threads.  Each task is registered by name with its own
+ * period, instead of being given its own thread which loops on Thread.sleep.  This
+ * keeps the thread count and the number of wakeups constant no matter how many
+ * computers are in the processor table.  Shutdown cancels every task at once.</p>
+ *
+ * <p>Tasks should return quickly.  A task which must wait for something should
+ * return and check again on its next run.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * @singleton
+ *
+ * @threadsafe
+ *
+ * <p> $Log$ </p>
+ */
+public final class MonitorScheduler {
+  public static final String rcsid = "$Id:$";
+
+  public static final MonitorScheduler INSTANCE = new MonitorScheduler();
+
+  private static final int POOL_SIZE = 4;
+
+  private final List<Task> taskList = new ArrayList<Task>();
+
+  private ScheduledThreadPoolExecutor executor = null;
+  private boolean shutdown = false;
+
+  private MonitorScheduler() {
+  }
+
+  public synchronized String toString() {
+    StringBuffer buffer = new StringBuffer("[shutdown=" + shutdown + ",taskList=");
+    for (int i = 0; i < taskList.size(); i++) {
+      buffer.append((i == 0 ? "" : ",") + taskList.get(i).getName());
+    }
+    return buffer.toString() + "]";
+  }
+
+  /**
+   * Run runnable every periodMillis milliseconds, starting immediately.  Runs never
+   * overlap:  the period is measured from the end of one run to the start of the next.
+   * @param name - identifies the task in the thread name while it is running
+   * @param runnable
+   * @param periodMillis
+   * @return the task, which is used to cancel it
+   */
+  public Task schedule(final String name, final Runnable runnable, final long periodMillis) {
+    return schedule(name, runnable, 0, periodMillis);
+  }
+
+  /**
+   * Run runnable every periodMillis milliseconds, starting after delayMillis.
+   * @param name - identifies the task in the thread name while it is running
+   * @param runnable
+   * @param delayMillis
+   * @param periodMillis
+   * @return the task, which is used to cancel it
+   */
+  public Task schedule(final String name, final Runnable runnable,
+      final long delayMillis, final long periodMillis) {
+    Task task = new Task(name, runnable, true);
+    synchronized (this) {
+      if (shutdown) {
+        task.cancel();
+        return task;
+      }
+      try {
+        task.setFuture(getExecutor().scheduleWithFixedDelay(task, delayMillis,
+            periodMillis, TimeUnit.MILLISECONDS));
+      }
+      catch (RejectedExecutionException e) {
+        e.printStackTrace();
+        task.cancel();
+        return task;
+      }
+      taskList.add(task);
+    }
+    return task;
+  }
+
+  /**
+   * Run runnable once, as soon as a thread is available.
+   * @param name - identifies the task in the thread name while it is running
+   * @param runnable
+   * @return the task, which is used to cancel it
+   */
+  public Task execute(final String name, final Runnable runnable) {
+    return execute(name, runnable, 0);
+  }
+
+  /**
+   * Run runnable once, after delayMillis.  A task which needs a varying period can
+   * reschedule itself this way at the end of each run.
+   * @param name - identifies the task in the thread name while it is running
+   * @param runnable
+   * @param delayMillis
+   * @return the task, which is used to cancel it
+   */
+  public Task execute(final String name, final Runnable runnable, final long delayMillis) {
+    Task task = new Task(name, runnable, false);
+    synchronized (this) {
+      if (shutdown) {
+        task.cancel();
+        return task;
+      }
+      try {
+        task.setFuture(getExecutor().schedule(task, delayMillis, TimeUnit.MILLISECONDS));
+      }
+      catch (RejectedExecutionException e) {
+        e.printStackTrace();
+        task.cancel();
+        return task;
+      }
+      taskList.add(task);
+    }
+    return task;
+  }
+
+  /**
+   * Cancels all tasks and stops the threads.  Tasks scheduled after this are
+   * cancelled immediately.  Used when Etomo exits.
+   */
+  public void shutdown() {
+    List<Task> cancelList;
+    synchronized (this) {
+      if (shutdown) {
+        return;
+      }
+      shutdown = true;
+      cancelList = new ArrayList<Task>(taskList);
+    }
+    for (int i = 0; i < cancelList.size(); i++) {
+      cancelList.get(i).cancel();
+    }
+    synchronized (this) {
+      if (executor != null) {
+        executor.shutdown();
+      }
+    }
+  }
+
+  public synchronized boolean isShutdown() {
+    return shutdown;
+  }
+
+  public synchronized int getTaskCount() {
+    return taskList.size();
+  }
+
+  private synchronized void remove(final Task task) {
+    taskList.remove(task);
+    if (executor != null) {
+      executor.purge();
+    }
+  }
+
+  /**
+   * Create the executor when it is first needed, so that Etomo sessions which never
+   * monitor anything don't start any threads.
+   * @return
+   */
+  private synchronized ScheduledThreadPoolExecutor getExecutor() {
+    if (executor == null) {
+      executor = new ScheduledThreadPoolExecutor(POOL_SIZE, new DaemonThreadFactory());
+    }
+    return executor;
+  }
+
+  /**
+   * A scheduled runnable.  Can be cancelled before it is first run.  An exception
+   * thrown by the runnable is printed and does not prevent later runs.
+   *
+   * @threadsafe
+   */
+  public final class Task implements Runnable {
+    private final String name;
+    private final Runnable runnable;
+    private final boolean periodic;
+
+    private ScheduledFuture<?> future = null;
+    private boolean cancelled = false;
+    private boolean running = false;
+
+    private Task(final String name, final Runnable runnable, final boolean periodic) {
+      this.name = name;
+      this.runnable = runnable;
+      this.periodic = periodic;
+    }
+
+    public String toString() {
+      return "[name=" + name + ",cancelled=" + cancelled + ",running=" + running + "]";
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    private synchronized void setFuture(final ScheduledFuture<?> input) {
+      future = input;
+      if (cancelled) {
+        future.cancel(false);
+      }
+    }
+
+    /**
+     * Prevents any further runs.  Does not interrupt a run that is in progress.  Can
+     * be called from inside the runnable.
+     */
+    public void cancel() {
+      synchronized (this) {
+        if (cancelled) {
+          return;
+        }
+        cancelled = true;
+        if (future != null) {
+          future.cancel(false);
+        }
+      }
+      remove(this);
+    }
+
+    public synchronized boolean isCancelled() {
+      return cancelled;
+    }
+
+    /**
+     * @return true while the runnable is running
+     */
+    public synchronized boolean isRunning() {
+      return running;
+    }
+
+    public void run() {
+      synchronized (this) {
+        if (cancelled) {
+          return;
+        }
+        running = true;
+      }
+      Thread thread = Thread.currentThread();
+      String threadName = thread.getName();
+      thread.setName(threadName + ":" + name);
+      try {
+        runnable.run();
+      }
+      catch (Throwable e) {
+        e.printStackTrace();
+      }
+      finally {
+        thread.setName(threadName);
+        synchronized (this) {
+          running = false;
+        }
+        if (!periodic) {
+          synchronized (this) {
+            cancelled = true;
+          }
+          remove(this);
+        }
+      }
+    }
+  }
+
+  private static final class DaemonThreadFactory implements ThreadFactory {
+    private final AtomicInteger count = new AtomicInteger(0);
+
+    public Thread newThread(final Runnable runnable) {
+      Thread thread = new Thread(runnable, "MonitorScheduler-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -121,11 +121,9 @@
 package etomo.process;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import etomo.BaseManager;
 import etomo.comscript.ConstNewstParam;
-import etomo.storage.LogFile;
 import etomo.type.AxisID;
 import etomo.type.ProcessName;
 import etomo.util.InvalidParameterException;
@@ -136,6 +134,8 @@ final class NewstProcessMonitor extends FileSizeProcessMonitor {
 
   // private BufferedReader logReader = null;
   private boolean gotStatusFromLog = false;
+  // Remembers how much of the log has been read.  Polled from gotStatusFromLog.
+  private LogFileTailer logFileTailer = null;
   // NewstParam must be passed in because it can be loaded from more then one com file.
   private final ConstNewstParam newstParam;
 
@@ -155,42 +155,30 @@ final class NewstProcessMonitor extends FileSizeProcessMonitor {
     if (gotStatusFromLog) {
       return true;
     }
-    // read the lines available in the log and look for a line shows that
-    // mrctaper started
-    String line;
-    LogFile.ReaderId logReaderId = null;
-    try {
-      logReaderId = getLogFile().openReader();
-    }
-    catch (LogFile.LockException e) {
-      e.printStackTrace();
+    if (getLogFile() == null) {
       return false;
     }
-    catch (FileNotFoundException e) {
-      return false;
+    // read the lines added to the log since the last call and look for a line
+    // that shows that mrctaper started
+    if (logFileTailer == null) {
+      logFileTailer = new LogFileTailer(new File(getLogFile().getAbsolutePath()));
     }
     try {
-      while ((line = getLogFile().readLine(logReaderId)) != null) {
-        if (line.startsWith("Tapering over")) {
-          // mrctaper started
-          manager.getMainPanel().setProgressBarValue(0, "mrctaper", axisID);
-          gotStatusFromLog = true;
-          getLogFile().closeRead(logReaderId);
-          logReaderId = null;
-          return true;
-        }
-      }
+      logFileTailer.poll();
     }
     // there is a problem with the log
-    catch (LogFile.LockException e) {
-      return false;
-    }
     catch (IOException e) {
       return false;
     }
-    if (logReaderId != null && !logReaderId.isEmpty()) {
-      getLogFile().closeRead(logReaderId);
-      logReaderId = null;// added this
+    String line;
+    while ((line = logFileTailer.readLine()) != null) {
+      if (line.startsWith("Tapering over")) {
+        // mrctaper started
+        manager.getMainPanel().setProgressBarValue(0, "mrctaper", axisID);
+        gotStatusFromLog = true;
+        logFileTailer = null;
+        return true;
+      }
     }
     // did not find a line shows that mrctaper started
     return false;
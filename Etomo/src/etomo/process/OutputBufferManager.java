@@ -1,10 +1,10 @@
 package etomo.process;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Vector;
 
 import etomo.util.HashedArray;
 
@@ -12,19 +12,30 @@ import etomo.util.HashedArray;
  * <p>Description: Runnable class to keep the output buffers of the child process
  * from filling up and locking up the process.  See Java bugs #: 4750978,
  * 4098442, etc.
- * 
+ *
  * Was part of SystemProgram.</p>
- * 
+ *
+ * <p>Blocks on the reader until the stream is closed.  By default every line is kept.
+ * For chatty or long running processes the output can be bounded with setMaxLines, so
+ * that only the most recent lines are kept, and the whole output can be copied to a
+ * temporary file with setSpill.  When a ProcessMessages instance is set, lines are
+ * parsed for messages as they arrive, so messages in lines that have been dropped from
+ * memory are still found.</p>
+ *
+ * <p>Instead of running in its own thread, the stream can be read by a thread which is
+ * shared with other streams, by calling readAvailable repeatedly (see
+ * StreamMultiplexer).</p>
+ *
  * @ThreadSafe
- * 
+ *
  * <p>Copyright: Copyright (c) 2005</p>
  *
  * <p>Organization:
  * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEM),
  * University of Colorado</p>
- * 
+ *
  * @author $Author$
- * 
+ *
  * @version $Revision$
  */
 final class OutputBufferManager implements Runnable {
@@ -32,7 +43,7 @@ final class OutputBufferManager implements Runnable {
 
   private static final String MESSAGE_TOKEN = "MESSAGE:";
 
-  private final List outputList = new Vector();
+  private final LineBuffer outputList = new LineBuffer();
 
   private final BufferedReader outputReader;
 
@@ -42,6 +53,15 @@ final class OutputBufferManager implements Runnable {
   private HashedArray listenerList = null;
   private boolean debug = false;
   private boolean printMessages = false;
+  private int maxLines = 0;
+  private boolean spill = false;
+  private File spillFile = null;
+  private BufferedWriter spillWriter = null;
+  private ProcessMessages processMessages = null;
+  // Used by readAvailable.
+  private StringBuffer partialLine = null;
+  private boolean skipLineFeed = false;
+  private boolean finished = false;
 
   OutputBufferManager(BufferedReader reader) {
     outputReader = reader;
@@ -56,35 +76,184 @@ final class OutputBufferManager implements Runnable {
     printMessages = input;
   }
 
+  /**
+   * Keep only the last maxLines lines of output in memory, in outputList and in each
+   * listener's output list.  Must be called before run.
+   * @param maxLines - 0 or less keeps every line
+   */
+  synchronized void setMaxLines(int maxLines) {
+    this.maxLines = maxLines;
+    outputList.setMaxLines(maxLines);
+  }
+
+  /**
+   * Copy every line of output, including lines filtered out by keyPhrase, to a
+   * temporary file.  The file is deleted when Etomo exits.  Must be called before run.
+   * @param spill
+   */
+  synchronized void setSpill(boolean spill) {
+    this.spill = spill;
+  }
+
+  /**
+   * @return the file that the output is copied to, or null if spill is off or the file
+   * couldn't be created
+   */
+  synchronized File getSpillFile() {
+    return spillFile;
+  }
+
+  /**
+   * @return true if lines have been dropped from outputList because of setMaxLines
+   */
+  synchronized boolean isTruncated() {
+    return outputList.isTruncated();
+  }
+
+  /**
+   * Parse each line for messages as soon as it is read.  Since this is done in the
+   * thread that is reading the output, processMessages should not be shared with another
+   * OutputBufferManager.  Must be called before run.
+   * @param processMessages
+   */
+  synchronized void setProcessMessages(ProcessMessages processMessages) {
+    this.processMessages = processMessages;
+  }
+
+  synchronized ProcessMessages getProcessMessages() {
+    return processMessages;
+  }
+
+  /**
+   * Read until the stream is closed.  Does not depend on processDone; the stream is
+   * closed when the program exits.
+   */
   public void run() {
+    openSpillFile();
     String line;
+    while ((line = readLine()) != null) {
+      addLine(line);
+    }
+    finish();
+  }
+
+  /**
+   * Read what can be read without blocking.  Lines are stored and parsed the same way
+   * as in run.  Once setProcessDone(true) has been called, the stream is finished as
+   * soon as there is nothing left to read.  Only called by one thread at a time.
+   * @return the number of characters read, or -1 when the stream is finished
+   */
+  int readAvailable() {
+    if (partialLine == null) {
+      openSpillFile();
+      partialLine = new StringBuffer();
+    }
+    boolean done;
+    synchronized (this) {
+      done = processDone;
+    }
+    int count = 0;
     try {
-      while (!processDone) {
-        while ((line = outputReader.readLine()) != null) {
-          add(line);
+      while (outputReader.ready()) {
+        int c = outputReader.read();
+        if (c == -1) {
+          done = true;
+          break;
+        }
+        count++;
+        // Lines end the same way as in BufferedReader.readLine.
+        if (c == '\n' && skipLineFeed) {
+          skipLineFeed = false;
+          continue;
+        }
+        skipLineFeed = c == '\r';
+        if (c == '\n' || c == '\r') {
+          addLine(partialLine.toString());
+          partialLine.setLength(0);
+        }
+        else {
+          partialLine.append((char) c);
         }
-        Thread.sleep(100);
       }
-      while ((line = outputReader.readLine()) != null) {
-        add(line);
+    }
+    catch (IOException e) {
+      // Assume the stream is closed by the program exiting.
+      done = true;
+    }
+    if (!done) {
+      return count;
+    }
+    if (partialLine.length() > 0) {
+      addLine(partialLine.toString());
+      partialLine.setLength(0);
+    }
+    finish();
+    return -1;
+  }
+
+  /**
+   * Wait until the stream has been read to the end.
+   * @param timeoutMillis
+   * @return true if the stream is finished
+   */
+  synchronized boolean awaitFinished(final long timeoutMillis) {
+    if (!finished) {
+      try {
+        wait(timeoutMillis);
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
       }
     }
-    catch (IOException except) {
-      //  Assume the stream is closed by the program exiting.  
+    return finished;
+  }
+
+  /**
+   * Store a line and parse it for messages.
+   * @param line
+   */
+  private void addLine(final String line) {
+    add(line);
+    ProcessMessages messages = getProcessMessages();
+    if (messages != null) {
+      messages.addProcessOutputLine(line.trim());
+    }
+  }
+
+  private void finish() {
+    ProcessMessages messages = getProcessMessages();
+    if (messages != null) {
+      messages.endProcessOutput();
+    }
+    closeSpillFile();
+    synchronized (this) {
       processDone = true;
-      return;
+      finished = true;
+      notifyAll();
+    }
+  }
+
+  /**
+   * Read a line from the stream.
+   * @return the line, or null when the stream is closed
+   */
+  private String readLine() {
+    String line;
+    try {
+      line = outputReader.readLine();
     }
-    catch (InterruptedException except) {
-      except.printStackTrace();
-      System.err.println("SystemProgram::OuputBufferManager interrupted!");
+    catch (IOException except) {
+      //  Assume the stream is closed by the program exiting.
+      line = null;
     }
+    return line;
   }
 
   void setCollectOutput(boolean collectOutput) {
     this.collectOutput = collectOutput;
   }
 
-  void setProcessDone(boolean state) {
+  synchronized void setProcessDone(boolean state) {
     processDone = state;
   }
 
@@ -94,7 +263,7 @@ final class OutputBufferManager implements Runnable {
    * the output list.</p>
    * @return
    */
-  int size() {
+  synchronized int size() {
     return outputList.size();
   }
 
@@ -104,29 +273,73 @@ final class OutputBufferManager implements Runnable {
    * @param index
    * @return
    */
-  String get(int index) {
-    return (String) outputList.get(index);
+  synchronized String get(int index) {
+    return outputList.get(index);
   }
 
   void setDebug(boolean debug) {
     this.debug = debug;
   }
 
+  private void openSpillFile() {
+    synchronized (this) {
+      if (!spill || spillWriter != null) {
+        return;
+      }
+    }
+    try {
+      File file = File.createTempFile("etomo", ".out");
+      file.deleteOnExit();
+      BufferedWriter writer = new BufferedWriter(new FileWriter(file));
+      synchronized (this) {
+        spillFile = file;
+        spillWriter = writer;
+      }
+    }
+    catch (IOException e) {
+      e.printStackTrace();
+      System.err.println("Unable to save process output to a file:  " + e.getMessage());
+    }
+  }
+
+  private synchronized void closeSpillFile() {
+    if (spillWriter == null) {
+      return;
+    }
+    try {
+      spillWriter.close();
+    }
+    catch (IOException e) {
+      e.printStackTrace();
+    }
+    spillWriter = null;
+  }
+
   /**
    * <p>Add the line param to outputList or, if listenerList is in use, add the
    * line to all the output lists in listenerList.  Since the first listener
    * uses the outputList instead of creating a new output list, outputList is
    * always added to.  If the keyPhrase is set, only add the line if it contains
-   * the key phrase.</p>
+   * the key phrase.  If spill is on, write the line to spillFile.</p>
    * @param line
    */
   private synchronized void add(String line) {
+    if (spillWriter != null) {
+      try {
+        spillWriter.write(line);
+        spillWriter.newLine();
+      }
+      catch (IOException e) {
+        e.printStackTrace();
+        closeSpillFile();
+      }
+    }
     if (keyPhrase == null || line.indexOf(keyPhrase) != -1) {
       //Add line to outputList and/or to all listeners; if there are listeners,
       //of them is using outputList.
       if (listenerList != null && listenerList.size() > 0) {
         for (int i = 0; i < listenerList.size(); i++) {
-          ((List) listenerList.get(i)).add(line);
+          ((LineBuffer) listenerList.get(i)).add(line);
         }
       }
       else {
@@ -141,7 +354,7 @@ final class OutputBufferManager implements Runnable {
    * @return
    */
   synchronized String[] get() {
-    String[] stringArray = (String[]) outputList.toArray(new String[outputList.size()]);
+    String[] stringArray = outputList.toArray();
     if (!collectOutput) {
       outputList.clear();
     }
@@ -155,7 +368,7 @@ final class OutputBufferManager implements Runnable {
     outputList.clear();
     if (listenerList != null) {
       for (int i = 0; i < listenerList.size(); i++) {
-        ((List) listenerList.get(i)).clear();
+        ((LineBuffer) listenerList.get(i)).clear();
       }
     }
   }
@@ -175,7 +388,7 @@ final class OutputBufferManager implements Runnable {
     if (listenerList == null) {
       listenerList = new HashedArray();
     }
-    List listenerOutputList = (List) listenerList.get(listenerKey);
+    LineBuffer listenerOutputList = (LineBuffer) listenerList.get(listenerKey);
     if (listenerOutputList == null) {
       //If the listenerList is empty, then lines where being added to outputList
       //so use outputList as the listenerOutputList for this listenerKey.
@@ -186,14 +399,14 @@ final class OutputBufferManager implements Runnable {
       else {
         //This is not the first listenerKey to be added so the outputList is
         //already in use.
-        listenerOutputList = new ArrayList();
+        listenerOutputList = new LineBuffer();
+        listenerOutputList.setMaxLines(maxLines);
         listenerList.add(listenerKey, listenerOutputList);
         return new String[0];
       }
     }
     //Return and clear the output list.
-    String[] stringArray = (String[]) listenerOutputList
-        .toArray(new String[listenerOutputList.size()]);
+    String[] stringArray = listenerOutputList.toArray();
     if (!collectOutput) {
       listenerOutputList.clear();
     }
@@ -211,12 +424,90 @@ final class OutputBufferManager implements Runnable {
     }
     //The listener output list may be the outputList, so clear it before
     //removing it.
-    List listenerOutputList = (List) listenerList.get(listenerKey);
+    LineBuffer listenerOutputList = (LineBuffer) listenerList.get(listenerKey);
     if (listenerOutputList != null) {
       listenerOutputList.clear();
     }
     listenerList.remove(listenerKey);
   }
+
+  /**
+   * A list of lines which can be limited to a maximum size.  Grows as needed until it
+   * reaches the maximum size, and then overwrites the oldest line each time a line is
+   * added.  Not thread safe; synchronized by OutputBufferManager.
+   */
+  static final class LineBuffer {
+    private String[] array = new String[16];
+    // Index of the oldest line.  Only moves once the maximum size has been reached.
+    private int start = 0;
+    private int size = 0;
+    private int maxLines = 0;
+    private boolean truncated = false;
+
+    /**
+     * @param maxLines - 0 or less means unlimited
+     */
+    void setMaxLines(int maxLines) {
+      this.maxLines = maxLines;
+    }
+
+    void add(String line) {
+      if (maxLines > 0 && size >= maxLines) {
+        array[start] = line;
+        start = (start + 1) % size;
+        truncated = true;
+        return;
+      }
+      if (size == array.length) {
+        int length = array.length * 2;
+        if (maxLines > 0 && length > maxLines) {
+          length = maxLines;
+        }
+        String[] temp = new String[length];
+        System.arraycopy(array, 0, temp, 0, size);
+        array = temp;
+      }
+      array[size++] = line;
+    }
+
+    int size() {
+      return size;
+    }
+
+    /**
+     * @return true if a line has been dropped since the last clear
+     */
+    boolean isTruncated() {
+      return truncated;
+    }
+
+    /**
+     * @param index - 0 is the oldest line
+     * @return
+     */
+    String get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("index=" + index + ",size=" + size);
+      }
+      return array[(start + index) % size];
+    }
+
+    String[] toArray() {
+      String[] stringArray = new String[size];
+      System.arraycopy(array, start, stringArray, 0, size - start);
+      System.arraycopy(array, 0, stringArray, size - start, start);
+      return stringArray;
+    }
+
+    void clear() {
+      for (int i = 0; i < size; i++) {
+        array[i] = null;
+      }
+      start = 0;
+      size = 0;
+      truncated = false;
+    }
+  }
 }
 /**
  * <p> $Log$
@@ -0,0 +1,165 @@
+package etomo.process;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PipedReader;
+import java.io.PipedWriter;
+import java.io.StringReader;
+
+import junit.framework.TestCase;
+
+/**
+* <p>Description: </p>
+*
+* <p>Copyright: Copyright 2026</p>
+*
+* <p>Organization:
+* Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+* University of Colorado</p>
+*
+* @author $Author$
+*
+* @version $Revision$
+*
+* <p> $Log$ </p>
+*/
+public class OutputBufferManagerTest extends TestCase {
+  public static final String rcsid = "$Id:$";
+
+  private static final int N_LINES = 100;
+
+  public void testUnbounded() {
+    OutputBufferManager output = new OutputBufferManager(newReader(N_LINES));
+    output.run();
+    assertEquals("every line should be kept", N_LINES, output.size());
+    assertFalse("no lines were dropped", output.isTruncated());
+    assertEquals("line 0", output.get(0));
+    assertEquals("line " + (N_LINES - 1), output.get(N_LINES - 1));
+  }
+
+  public void testMaxLines() {
+    OutputBufferManager output = new OutputBufferManager(newReader(N_LINES));
+    output.setMaxLines(10);
+    output.run();
+    assertEquals("only the last lines should be kept", 10, output.size());
+    assertTrue("lines were dropped", output.isTruncated());
+    String[] array = output.get();
+    assertEquals(10, array.length);
+    for (int i = 0; i < array.length; i++) {
+      assertEquals("lines should be in order", "line " + (N_LINES - 10 + i), array[i]);
+      assertEquals(array[i], output.get(i));
+    }
+  }
+
+  public void testListenerMaxLines() {
+    OutputBufferManager output = new OutputBufferManager(newReader(N_LINES));
+    output.setCollectOutput(false);
+    output.setMaxLines(10);
+    Object listener = new Object();
+    output.get(listener);
+    output.run();
+    String[] array = output.get(listener);
+    assertEquals("only the last lines should be kept", 10, array.length);
+    assertEquals("line " + (N_LINES - 1), array[9]);
+    assertEquals("lines should be cleared when they are read", 0,
+        output.get(listener).length);
+  }
+
+  public void testReadAvailable() throws IOException {
+    PipedWriter writer = new PipedWriter();
+    OutputBufferManager output = new OutputBufferManager(new BufferedReader(
+        new PipedReader(writer)), "load");
+    assertEquals("nothing to read", 0, output.readAvailable());
+    writer.write("load 1\r\nignored\nload 2\rload");
+    writer.flush();
+    assertTrue(output.readAvailable() > 0);
+    String[] array = output.get();
+    assertEquals("only complete lines with the key phrase", 2, array.length);
+    assertEquals("load 1", array[0]);
+    assertEquals("load 2", array[1]);
+    writer.write(" 3");
+    writer.flush();
+    output.setProcessDone(true);
+    assertEquals("finished", -1, output.readAvailable());
+    assertTrue(output.awaitFinished(0));
+    assertEquals("the unterminated last line", "load 3", output.get(2));
+  }
+
+  public void testStreamMultiplexer() throws IOException {
+    PipedWriter writer = new PipedWriter();
+    OutputBufferManager output = new OutputBufferManager(new BufferedReader(
+        new PipedReader(writer)));
+    StreamMultiplexer.INSTANCE.add(output);
+    writer.write("line 0\nline 1\n");
+    writer.flush();
+    output.setProcessDone(true);
+    assertTrue("the stream should be read to the end", output.awaitFinished(5000));
+    assertEquals(2, output.size());
+    assertEquals("line 1", output.get(1));
+  }
+
+  public void testStreamMultiplexerBackOff() throws IOException, InterruptedException {
+    PipedWriter writer = new PipedWriter();
+    OutputBufferManager output = new OutputBufferManager(new BufferedReader(
+        new PipedReader(writer)));
+    StreamMultiplexer.INSTANCE.add(output);
+    assertEquals(StreamMultiplexer.MIN_PERIOD, StreamMultiplexer.INSTANCE.getPeriod());
+    // Checks that find nothing are done less often.
+    Thread.sleep(StreamMultiplexer.MIN_PERIOD * 8);
+    assertTrue(StreamMultiplexer.INSTANCE.getPeriod() > StreamMultiplexer.MIN_PERIOD);
+    writer.write("line 0\n");
+    writer.close();
+    output.setProcessDone(true);
+    assertTrue("the stream should be read to the end", output.awaitFinished(5000));
+    assertEquals("line 0", output.get(0));
+  }
+
+  public void testSpill() throws IOException {
+    OutputBufferManager output = new OutputBufferManager(newReader(N_LINES));
+    output.setMaxLines(1);
+    output.setSpill(true);
+    output.run();
+    File file = output.getSpillFile();
+    assertNotNull(file);
+    BufferedReader reader = new BufferedReader(new FileReader(file));
+    try {
+      for (int i = 0; i < N_LINES; i++) {
+        assertEquals("every line should be saved", "line " + i, reader.readLine());
+      }
+      assertNull(reader.readLine());
+    }
+    finally {
+      reader.close();
+    }
+    file.delete();
+  }
+
+  public void testStreamingMessages() {
+    StringBuffer buffer = new StringBuffer("ERROR: first error\n");
+    for (int i = 0; i < N_LINES; i++) {
+      buffer.append("line " + i + "\n");
+    }
+    buffer.append("WARNING: last warning\n");
+    OutputBufferManager output = new OutputBufferManager(new BufferedReader(
+        new StringReader(buffer.toString())));
+    output.setMaxLines(5);
+    ProcessMessages messages = ProcessMessages.getInstance(null).getStreamInstance();
+    output.setProcessMessages(messages);
+    output.run();
+    assertEquals("lines dropped from memory should still be parsed", 1,
+        messages.errorListSize());
+    assertEquals("ERROR: first error", messages.getError(0));
+    assertEquals(1, messages.warningListSize());
+    assertEquals(5, output.size());
+  }
+
+  private BufferedReader newReader(final int nLines) {
+    StringBuffer buffer = new StringBuffer();
+    for (int i = 0; i < nLines; i++) {
+      buffer.append("line " + i + "\n");
+    }
+    return new BufferedReader(new StringReader(buffer.toString()));
+  }
+}
@@ -124,7 +124,7 @@ public class PatchcorrProcessWatcher extends LogFileProcessMonitor {
     boolean foundNSections = false;
     nSections = -1;
     while (!foundNSections) {
-      Thread.sleep(UPDATE_PERIOD);
+      waitForLogFileLine();
       String line = readLogFileLine();
       if (line != null && line.trim().endsWith("positions")) {
         line = line.trim();
@@ -0,0 +1,178 @@
+package etomo.process;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import etomo.type.Time;
+
+/**
+ * <p>Description: Gets the process group and start time of a local process from
+ * /proc/&lt;pid&gt;/stat, so that a ps process doesn't have to be run.  Only available
+ * on Linux.</p>
+ *
+ * <p>The start time in the stat file is in clock ticks since boot.  It is converted
+ * to a wall clock time with the boot time from /proc/stat and the clock tick rate that
+ * the kernel reports to programs (USER_HZ).  USER_HZ can't be read from Java, so the
+ * conversion is checked against the start time of this JVM before /proc is used.  If
+ * the check fails, isAvailable returns false and ps should be used instead.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * @threadsafe
+ *
+ * <p> $Log$ </p>
+ */
+final class ProcStat {
+  public static final String rcsid = "$Id:$";
+
+  private static final File PROC_DIR = new File("/proc");
+  // USER_HZ is 100 on the architectures that IMOD supports.
+  private static final long TICKS_PER_SECOND = 100;
+  // Allowed difference between the JVM start time from /proc and from the JVM.
+  private static final long MAX_ERROR_MILLIS = 5000;
+  // Fields counted from the one after the command name, which is in parentheses.
+  private static final int GROUP_PID_FIELD = 2;
+  private static final int START_TIME_FIELD = 19;
+
+  private static boolean availableChecked = false;
+  private static boolean available = false;
+  private static long bootTimeMillis = 0;
+
+  private final String groupPid;
+  private final long startTimeMillis;
+
+  private ProcStat(final String groupPid, final long startTimeMillis) {
+    this.groupPid = groupPid;
+    this.startTimeMillis = startTimeMillis;
+  }
+
+  public String toString() {
+    return "[groupPid=" + groupPid + ",startTimeMillis=" + startTimeMillis + "]";
+  }
+
+  /**
+   * @return true if local processes can be looked up in /proc
+   */
+  static synchronized boolean isAvailable() {
+    if (availableChecked) {
+      return available;
+    }
+    availableChecked = true;
+    if (!new File(PROC_DIR, "self").exists()) {
+      return false;
+    }
+    try {
+      bootTimeMillis = readBootTimeMillis();
+      if (bootTimeMillis == 0) {
+        return false;
+      }
+      ProcStat self = read(new File(new File(PROC_DIR, "self"), "stat"));
+      if (self == null) {
+        return false;
+      }
+      long jvmStartTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+      available = Math.abs(self.startTimeMillis - jvmStartTime) <= MAX_ERROR_MILLIS;
+      if (!available) {
+        System.err.println("Not using /proc for process information:  start time "
+            + self.startTimeMillis + " doesn't match " + jvmStartTime);
+      }
+    }
+    catch (IOException e) {
+      e.printStackTrace();
+      available = false;
+    }
+    catch (RuntimeException e) {
+      // Unexpected stat file format.
+      e.printStackTrace();
+      available = false;
+    }
+    return available;
+  }
+
+  /**
+   * Looks up a local process.  Only call when isAvailable returns true.
+   * @param pid
+   * @return the process information, or null if the process doesn't exist
+   */
+  static ProcStat getInstance(final String pid) {
+    if (pid == null || !pid.trim().matches("\\d+")) {
+      return null;
+    }
+    try {
+      return read(new File(new File(PROC_DIR, pid.trim()), "stat"));
+    }
+    catch (IOException e) {
+      // The process exited.
+      return null;
+    }
+  }
+
+  private static long readBootTimeMillis() throws IOException {
+    BufferedReader reader = new BufferedReader(new FileReader(new File(PROC_DIR, "stat")));
+    try {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.startsWith("btime ")) {
+          return Long.parseLong(line.substring(6).trim()) * 1000;
+        }
+      }
+    }
+    finally {
+      reader.close();
+    }
+    return 0;
+  }
+
+  private static ProcStat read(final File statFile) throws IOException {
+    if (!statFile.exists()) {
+      return null;
+    }
+    String line;
+    BufferedReader reader = new BufferedReader(new FileReader(statFile));
+    try {
+      line = reader.readLine();
+    }
+    finally {
+      reader.close();
+    }
+    if (line == null) {
+      return null;
+    }
+    // The command name can contain spaces and parentheses.
+    int index = line.lastIndexOf(')');
+    if (index == -1) {
+      return null;
+    }
+    String[] fields = line.substring(index + 1).trim().split("\\s+");
+    if (fields.length <= START_TIME_FIELD) {
+      return null;
+    }
+    long startTicks = Long.parseLong(fields[START_TIME_FIELD]);
+    return new ProcStat(fields[GROUP_PID_FIELD], bootTimeMillis + startTicks * 1000
+        / TICKS_PER_SECOND);
+  }
+
+  String getGroupPid() {
+    return groupPid;
+  }
+
+  /**
+   * @return the start time in the same form as the ps start time
+   */
+  Time getStartTime() {
+    return new Time(new SimpleDateFormat("HH:mm:ss").format(new Date(startTimeMillis)));
+  }
+}
@@ -0,0 +1,53 @@
+package etomo.process;
+
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import etomo.type.Time;
+
+import junit.framework.TestCase;
+
+/**
+* <p>Description: </p>
+*
+* <p>Copyright: Copyright 2026</p>
+*
+* <p>Organization:
+* Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+* University of Colorado</p>
+*
+* @author $Author$
+*
+* @version $Revision$
+*
+* <p> $Log$ </p>
+*/
+public class ProcStatTest extends TestCase {
+  public static final String rcsid = "$Id:$";
+
+  public void testGetInstance() {
+    if (!ProcStat.isAvailable()) {
+      return;
+    }
+    // The JVM name is pid@hostname.
+    String name = ManagementFactory.getRuntimeMXBean().getName();
+    String pid = name.substring(0, name.indexOf('@'));
+    ProcStat procStat = ProcStat.getInstance(pid);
+    assertNotNull("this process must be found", procStat);
+    assertNotNull(procStat.getGroupPid());
+    Time jvmStartTime = new Time(new SimpleDateFormat("HH:mm:ss").format(new Date(
+        ManagementFactory.getRuntimeMXBean().getStartTime())));
+    assertTrue("start time must match the JVM", procStat.getStartTime().almostEquals(
+        jvmStartTime));
+  }
+
+  public void testMissingProcess() {
+    if (!ProcStat.isAvailable()) {
+      return;
+    }
+    assertNull(ProcStat.getInstance("self"));
+    assertNull(ProcStat.getInstance(null));
+    assertNull("pids are smaller than this", ProcStat.getInstance("99999999"));
+  }
+}
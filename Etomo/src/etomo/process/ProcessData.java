@@ -1,8 +1,10 @@
 package etomo.process;
 
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -38,6 +40,10 @@ import etomo.type.Time;
  * should be possible to reconnect any monitor that relies on a file rather
  * then standard out.</p>
  * 
+ * <p>Local processes are looked up in /proc when it is available.  Otherwise ps is
+ * run, over ssh if the process is on another computer.  checkRunning can be used to
+ * look up several instances with one ps command per computer.</p>
+ * 
  * <p>Not compatible with ProcessSeries.processList.  If a reconnectable process has a
  * process series with non-droppable processes that where saved to the process list, then
  * add functionality to handle processList.</p>
@@ -61,6 +67,8 @@ public final class ProcessData implements Storable {
   private static final String PROCESS_NAME_KEY = "ProcessName";
   private static final String OS_TYPE_KEY = "OS";
   private static final String COMPUTER_KEY = "Computer";
+  // How long a result from checkRunning can be used by isRunning.
+  private static final long CHECKED_RUNNING_LIFETIME = 1000;
 
   private final EtomoNumber displayKey = new EtomoNumber("DisplayKey");
   private final StringProperty subProcessName = new StringProperty("SubProcessName");
@@ -79,6 +87,9 @@ public final class ProcessData implements Storable {
   private boolean doNotLoad = false;
   private OSType osType = null;
   private boolean sshFailed = false;
+  // Result from checkRunning, which is used by the next call to isRunning.
+  private boolean checkedRunning = false;
+  private long checkedRunningTime = 0;
   // Contains the computers and CPUs selected for parallel processing. This is
   // set by the process in a managed instance, but only if the process is
   // parallel.
@@ -200,10 +211,78 @@ public final class ProcessData implements Storable {
     if (isEmpty()) {
       return false;
     }
+    synchronized (this) {
+      if (checkedRunningTime != 0) {
+        boolean fresh = System.currentTimeMillis() - checkedRunningTime <=
+            CHECKED_RUNNING_LIFETIME;
+        checkedRunningTime = 0;
+        if (fresh) {
+          return checkedRunning;
+        }
+      }
+    }
+    if (isProcStatAvailable()) {
+      sshFailed = false;
+      ProcStat procStat = ProcStat.getInstance(pid);
+      return procStat != null && procStat.getGroupPid().equals(groupPid)
+          && procStat.getStartTime().almostEquals(startTime);
+    }
     PsParam param = runPs(pid);
     return param.findRow(pid, groupPid, startTime);
   }
 
+  /**
+   * Look up all of the instances in processDataArray with one ps command per computer,
+   * instead of one per instance.  The result is used by the next call to isRunning on
+   * each instance, if it is made soon enough.  Instances that can be looked up in /proc,
+   * and empty instances, are skipped.
+   * @param processDataArray
+   */
+  public static void checkRunning(final ProcessData[] processDataArray) {
+    // Group the instances by computer.
+    Map<String, List<ProcessData>> hostMap = new HashMap<String, List<ProcessData>>();
+    for (int i = 0; i < processDataArray.length; i++) {
+      ProcessData processData = processDataArray[i];
+      if (processData == null || processData.isEmpty()
+          || processData.isProcStatAvailable()) {
+        continue;
+      }
+      String key = processData.hostName.toString() + "," + processData.osType;
+      List<ProcessData> list = hostMap.get(key);
+      if (list == null) {
+        list = new ArrayList<ProcessData>();
+        hostMap.put(key, list);
+      }
+      list.add(processData);
+    }
+    Iterator<List<ProcessData>> iterator = hostMap.values().iterator();
+    while (iterator.hasNext()) {
+      List<ProcessData> list = iterator.next();
+      String[] pids = new String[list.size()];
+      for (int i = 0; i < pids.length; i++) {
+        pids[i] = list.get(i).pid;
+      }
+      PsParam param = list.get(0).runPs(pids);
+      long time = System.currentTimeMillis();
+      for (int i = 0; i < pids.length; i++) {
+        ProcessData processData = list.get(i);
+        processData.sshFailed = list.get(0).sshFailed;
+        synchronized (processData) {
+          processData.checkedRunning = param.findRow(processData.pid,
+              processData.groupPid, processData.startTime);
+          processData.checkedRunningTime = time;
+        }
+      }
+    }
+  }
+
+  /**
+   * @return true if this process can be looked up in /proc instead of with ps
+   */
+  private boolean isProcStatAvailable() {
+    return !isOnDifferentHost() && ProcStat.isAvailable();
+  }
+
   public boolean isOnDifferentHost() {
     if (!hostName.isEmpty()) {
       return !hostName.equals(Network.getLocalHostName(manager, axisID,
@@ -235,6 +314,15 @@ public final class ProcessData implements Storable {
     if (pid == null || pid.matches("\\s*+")) {
       return;
     }
+    if (isProcStatAvailable()) {
+      ProcStat procStat = ProcStat.getInstance(pid);
+      if (procStat != null) {
+        this.pid = pid;
+        groupPid = procStat.getGroupPid();
+        startTime = procStat.getStartTime();
+      }
+      return;
+    }
     PsParam param = runPs(pid);
     PsParam.Row row = param.getRow();
     if (row.find(pid)) {
@@ -250,10 +338,19 @@ public final class ProcessData implements Storable {
    * @return
    */
   private PsParam runPs(String pid) {
+    return runPs(new String[] { pid });
+  }
+
+  /**
+   * Run ps.  Use the -p pid option with a list of pids.
+   * @param pids
+   * @return
+   */
+  private PsParam runPs(String[] pids) {
     if (debug.isVerbose()) {
       System.err.println("ProcessData.runPs");
     }
-    PsParam param = new PsParam(manager, axisID, pid, osType, hostName.toString(), false);
+    PsParam param = new PsParam(manager, axisID, pids, osType, hostName.toString(), false);
     SystemProgram ps = new SystemProgram(manager, manager.getPropertyUserDir(),
         param.getCommandArray(), axisID);
     ps.run();
@@ -43,17 +43,21 @@ public final class ProcessMessages {
   private static final String[] IGNORE_TAG = { "prnstr('ERROR:", "log.write('ERROR:" };
   private static final String LOG_FILE_TAG = "LOGFILE:";
 
+  // Indices of the tags in TAG_SCANNER.  The error tags come first, in order.
+  private static final int WARNING_ID = ERROR_TAGS.length;
+  private static final int CHUNK_ERROR_ID = WARNING_ID + 1;
+  private static final int PIP_WARNING_ID = CHUNK_ERROR_ID + 1;
+  private static final int INFO_ID = PIP_WARNING_ID + 1;
+  private static final int PIP_WARNING_END_ID = INFO_ID + 1;
+  private static final int LOG_FILE_ID = PIP_WARNING_END_ID + 1;
+  private static final int IGNORE_ID = LOG_FILE_ID + 1;
+  private static final TagScanner TAG_SCANNER = new TagScanner(getTags());
+
+  private final int[] tagIndex = new int[TAG_SCANNER.getTagCount()];
+
   private final boolean chunks;
   private final BaseManager manager;
 
-  private OutputBufferManager outputBufferManager = null;
-  private BufferedReader bufferedReader = null;
-  private String processOutputString = null;
-  private String[] processOutputStringArray = null;
-  private LogFile logFile = null;
-  private LogFile.ReaderId logFileReaderId = null;
-  private int index = -1;
-  private String line = null;
   private List<String> infoList = null;
   private List<String> warningList = null;
   private List<String> errorList = null;
@@ -68,21 +72,15 @@ public final class ProcessMessages {
   private boolean multiLineInfo = false;
   private String messagePrependTag = null;
   private String messagePrepend = null;
+  // A message which has been started, but hasn't ended yet.
+  private MessageType pendingType = null;
+  private StringBuffer pendingMessage = null;
+  private int pendingCount = 0;
 
   public void dumpState() {
-    System.err.print("[chunks:" + chunks + ",processOutputString:" + processOutputString
-        + ",processOutputStringArray:");
-    if (processOutputStringArray != null) {
-      System.err.print("{");
-      for (int i = 0; i < processOutputStringArray.length; i++) {
-        System.err.print(processOutputStringArray[i]);
-        if (i < processOutputStringArray.length - 1) {
-          System.err.print(",");
-        }
-      }
-      System.err.print("}");
-    }
-    System.err.print(",index:" + index + ",line:" + line + ",infoList:");
+    System.err.print("[chunks:" + chunks + ",pendingType:" + pendingType
+        + ",pendingMessage:" + pendingMessage + ",pendingCount:" + pendingCount
+        + ",infoList:");
     if (infoList != null) {
       System.err.println(infoList.toString());
     }
@@ -102,6 +100,22 @@ public final class ProcessMessages {
         + ",\nsuccess:" + success + ",multiLineMessages:" + multiLineAllMessages + "]");
   }
 
+  private static String[] getTags() {
+    String[] tags = new String[IGNORE_ID + IGNORE_TAG.length];
+    for (int i = 0; i < ERROR_TAGS.length; i++) {
+      tags[i] = ERROR_TAGS[i];
+    }
+    tags[WARNING_ID] = WARNING_TAG;
+    tags[CHUNK_ERROR_ID] = CHUNK_ERROR_TAG;
+    tags[PIP_WARNING_ID] = PIP_WARNING_TAG;
+    tags[INFO_ID] = INFO_TAG;
+    tags[PIP_WARNING_END_ID] = PIP_WARNING_END_TAG;
+    tags[LOG_FILE_ID] = LOG_FILE_TAG;
+    for (int i = 0; i < IGNORE_TAG.length; i++) {
+      tags[IGNORE_ID + i] = IGNORE_TAG[i];
+    }
+    return tags;
+  }
   static ProcessMessages getInstance(final BaseManager manager) {
     return new ProcessMessages(manager, false, false, null, null, false, false);
   }
@@ -143,6 +157,19 @@ public final class ProcessMessages {
     this.manager = manager;
   }
 
+  /**
+   * Returns a new instance with the same settings and an empty message list.  Used to
+   * parse a stream in its own thread; the results can be added to this instance with
+   * add(ProcessMessages) when the stream is closed.
+   * @return
+   */
+  synchronized ProcessMessages getStreamInstance() {
+    ProcessMessages instance = new ProcessMessages(manager, multiLineAllMessages, chunks,
+        successTag1, successTag2, multiLineWarning, multiLineInfo);
+    instance.messagePrependTag = messagePrependTag;
+    return instance;
+  }
+
   /**
    * While messagePrependTag is set, the most recent line containing the tag will be
    * saved to messagePrepend and added to the beginning of the next error/warning message.
@@ -160,35 +187,37 @@ public final class ProcessMessages {
   }
 
   /**
-   * Set processOutput to outputBufferManager and parse it.
+   * Parse the lines in processOutput.
    * Function must be synchronized because it relies on member variables to
    * parse processOutput.
    * @param processOutput: OutputBufferManager
    */
   synchronized void addProcessOutput(final OutputBufferManager processOutput) {
-    outputBufferManager = processOutput;
-    nextLine();
-    while (outputBufferManager != null) {
-      parse();
+    if (processOutput != null) {
+      for (int i = 0; i < processOutput.size(); i++) {
+        parseLine(processOutput.get(i).trim());
+      }
     }
+    endMessage();
   }
 
   /**
-   * Set processOutput to processOutputStringArray and parse it.
+   * Parse the lines in processOutput.
    * Function must be synchronized because it relies on member variables to
    * parse processOutput.
    * @param processOutput: String[]
    */
   synchronized void addProcessOutput(final String[] processOutput) {
-    processOutputStringArray = processOutput;
-    nextLine();
-    while (processOutputStringArray != null) {
-      parse();
+    if (processOutput != null) {
+      for (int i = 0; i < processOutput.length; i++) {
+        parseLine(processOutput[i].trim());
+      }
     }
+    endMessage();
   }
 
   /**
-   * Set processOutput to bufferedReader and parse it.
+   * Read processOutput and parse it.
    * Function must be synchronized because it relies on member variables to
    * parse processOutput.
    * @param processOutput: File
@@ -198,49 +227,93 @@ public final class ProcessMessages {
       throws FileNotFoundException {
     // Open the file as a stream
     InputStream fileStream = new FileInputStream(processOutput);
-    bufferedReader = new BufferedReader(new InputStreamReader(fileStream));
-    nextLine();
-    while (bufferedReader != null) {
-      parse();
+    BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(fileStream));
+    try {
+      String line;
+      while ((line = bufferedReader.readLine()) != null) {
+        parseLine(line);
+      }
     }
+    catch (IOException e) {
+      e.printStackTrace();
+    }
+    finally {
+      try {
+        bufferedReader.close();
+      }
+      catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+    endMessage();
   }
 
   synchronized void addProcessOutput(final LogFile processOutput)
       throws LogFile.LockException, FileNotFoundException {
     // Open the log file
-    logFile = processOutput;
-    logFileReaderId = logFile.openReader();
-    nextLine();
-    while (logFile != null) {
-      parse();
+    LogFile.ReaderId logFileReaderId = processOutput.openReader();
+    try {
+      String line;
+      while ((line = processOutput.readLine(logFileReaderId)) != null) {
+        parseLine(line);
+      }
+    }
+    catch (LogFile.LockException e) {
+      e.printStackTrace();
+    }
+    catch (IOException e) {
+      e.printStackTrace();
     }
+    finally {
+      processOutput.closeRead(logFileReaderId);
+    }
+    endMessage();
   }
 
   /**
-   * Set processOutput to processOutputString and parse it.
+   * Parse processOutput.
    * Function must be synchronized because it relies on member variables to
    * parse processOutput.  Temporarily turns off multi-line messages.
    * @param processOutput: String
    */
   synchronized void addProcessOutput(final String processOutput) {
-    // Open the file as a stream
-    processOutputString = processOutput;
     boolean oldMultiLineMessages = multiLineAllMessages;
     multiLineAllMessages = false;
     boolean oldMultiLineWarning = multiLineWarning;
     multiLineWarning = false;
     boolean oldMultiLineInfo = multiLineInfo;
     multiLineInfo = false;
-    nextLine();
-    // processOutput may be broken up into multiple lines
-    if (line != null) {
-      parse();
+    if (processOutput != null) {
+      parseLine(processOutput);
     }
+    endMessage();
     multiLineAllMessages = oldMultiLineMessages;
     multiLineWarning = oldMultiLineWarning;
     multiLineInfo = oldMultiLineInfo;
   }
 
+  /**
+   * Parse a line of process output as soon as it is available, so that the whole
+   * output doesn't have to be saved and parsed at the end.  Lines are treated as
+   * consecutive lines of the same output.  A message which spans multiple lines is
+   * saved when the line that ends it is added, or when endProcessOutput is called.
+   * Function must be synchronized because it relies on member variables to
+   * parse processOutput.
+   * @param processOutputLine
+   */
+  synchronized void addProcessOutputLine(final String processOutputLine) {
+    if (processOutputLine != null) {
+      parseLine(processOutputLine);
+    }
+  }
+
+  /**
+   * Save the message which is in progress, if any.  Call this when there is no more
+   * output to be passed to addProcessOutputLine.
+   */
+  synchronized void endProcessOutput() {
+    endMessage();
+  }
   synchronized void add(final ProcessMessages processMessages) {
     addError(processMessages);
     if (processMessages.warningList != null && processMessages.warningList.size() > 0) {
@@ -411,51 +484,71 @@ public final class ProcessMessages {
   }
 
   /**
-   * Look for a message or a success tag.  Return when something is found or
-   * when there is nothing left to look for.
+   * Parse a line.  If a message spanning multiple lines is in progress, the line is
+   * added to it.  Otherwise look for a message or a success tag.
+   * @param line
    */
-  private void parse() {
-    if (parsePipWarning()) {
+  private void parseLine(String line) {
+    if (pendingType == MessageType.PIP_WARNING) {
+      line = continuePipWarning(line);
+    }
+    else if (pendingType != null) {
+      continueMultiLineMessage(line);
       return;
     }
+    // A pip warning can end in the middle of a line, so the rest of the line has to be
+    // parsed.
+    while (line != null) {
+      line = parseNewLine(line);
+    }
+  }
+
+  /**
+   * Look for a message or a success tag in a line which isn't part of a message in
+   * progress.  All the tags are found with a single scan of the line.
+   * @param line
+   * @return the part of the line which still needs to be parsed, or null
+   */
+  private String parseNewLine(final String line) {
+    TAG_SCANNER.scan(line, tagIndex);
+    if (tagIndex[PIP_WARNING_ID] != -1) {
+      return startPipWarning(line);
+    }
     if (chunks) {
       if (multiLineAllMessages) {
-        if (parseMultiLineChunkError()) {
-          return;
+        if (startMultiLineChunkError(line)) {
+          return null;
         }
       }
       else {
-        if (parseSingleLineChunkError()) {
-          return;
+        if (parseSingleLineChunkError(line)) {
+          return null;
         }
       }
     }
     if (multiLineAllMessages) {
-      if (parseMultiLineMessage()) {
-        return;
+      if (startMultiLineMessage(line)) {
+        return null;
       }
     }
     else {
-      if (parseSingleLineMessage()) {
-        return;
+      if (parseSingleLineMessage(line)) {
+        return null;
       }
     }
     // No message has been found on this line, so check it for success tags
-    if (parseSuccessLine()) {
-      return;
+    if (parseSuccessLine(line)) {
+      return null;
     }
-    parseMessagePrepend();
-    // parse functions go to the next line only when they find something
-    // if all parse functions failed, call nextLine()
-    nextLine();
+    parseMessagePrepend(line);
+    return null;
   }
 
   /**
-   * Sets messagePrepend.  Never called nextLine.
+   * Sets messagePrepend.
    */
-  private void parseMessagePrepend() {
-    if (line != null && messagePrependTag != null
-        && line.indexOf(messagePrependTag) != -1) {
+  private void parseMessagePrepend(final String line) {
+    if (messagePrependTag != null && line.indexOf(messagePrependTag) != -1) {
       messagePrepend = line;
     }
   }
@@ -468,8 +561,8 @@ public final class ProcessMessages {
    * must not overlap.
    * @return true if success found
    */
-  private boolean parseSuccessLine() {
-    if (line == null || (successTag1 == null && successTag2 == null)) {
+  private boolean parseSuccessLine(final String line) {
+    if (successTag1 == null && successTag2 == null) {
       return false;
     }
     int tag1Index = 0;
@@ -490,106 +583,94 @@ public final class ProcessMessages {
       // tag 2 wasn't set
       if (tag1) {
         // tag 1 was found - success
-        nextLine();
         success = true;
         return true;
       }
       return false;
     }
     // match tag 2
-    int tag2Index = line.substring(tag1Index + tag1Size).indexOf(successTag2);
-    if (tag2Index == -1) {
+    if (line.indexOf(successTag2, tag1Index + tag1Size) == -1) {
       return false;
     }
-    nextLine();
     success = true;
     return true;
   }
 
   /**
-   * Looks for pip warnings and adds them to infoList.
+   * Looks for the end of the pip warning in progress.
    * Pip warnings are multi-line and have a start and end tag.  They may start
    * and end in the middle of a line.
-   * Should be run before parseMultiLineMessage or parseSingleListMessage.
-   * If a pip warning is found, line will be set to a new line.
-   * @return true if pip warning is found
+   * @param line
+   * @return the rest of the line, if the pip warning ends in the middle of it
    */
-  private boolean parsePipWarning() {
-    if (line == null) {
-      return false;
-    }
-    // look for a pip warning
-    int pipWarningIndex = -1;
-    if ((pipWarningIndex = line.indexOf(PIP_WARNING_TAG)) == -1) {
-      return false;
+  private String continuePipWarning(final String line) {
+    TAG_SCANNER.scan(line, tagIndex);
+    int pipWarningEndTagIndex = tagIndex[PIP_WARNING_END_ID];
+    if (pipWarningEndTagIndex == -1) {
+      // end tag not found - add line to the pip warning message
+      pendingMessage.append(' ').append(line);
+      return null;
     }
+    // found the end tag - save the pip warning to infoList
+    // check for pip warning ending in the middle of the line
+    int pipWarningEndIndex = pipWarningEndTagIndex + PIP_WARNING_END_TAG.length();
+    if (line.length() > pipWarningEndIndex) {
+      pendingMessage.append(' ').append(line, 0, pipWarningEndIndex);
+      endMessage();
+      return line.substring(pipWarningEndIndex);
+    }
+    // pip warning takes up the whole line
+    pendingMessage.append(' ').append(line);
+    endMessage();
+    return null;
+  }
+
+  /**
+   * Starts a pip warning, which will be added to infoList.  Should be run before any
+   * other parse function.
+   * @param line - must contain a pip warning tag
+   * @return the rest of the line, if the pip warning ends in the middle of it
+   */
+  private String startPipWarning(final String line) {
+    int pipWarningIndex = tagIndex[PIP_WARNING_ID];
     // create message starting at pip warning tag.
     StringBuffer pipWarning = new StringBuffer();
     if (messagePrepend != null) {
       pipWarning.append(messagePrepend + "\n");
       messagePrepend = null;
     }
-    if (pipWarningIndex > 0) {
-      pipWarning.append(line.substring(pipWarningIndex));
-    }
-    else {
-      pipWarning.append(line);
-    }
     // check for a one line pip warning.
-    int pipWarningEndTagIndex = line.indexOf(PIP_WARNING_END_TAG);
-    if (pipWarningEndTagIndex != -1) {
-      // check for pip warning ending in the middle of the line
-      int pipWarningEndIndex = pipWarningEndTagIndex + PIP_WARNING_END_TAG.length();
-      if (line.length() > pipWarningEndIndex) {
-        // remove the message from the line so the line can continue to be parsed
-        line = line.substring(pipWarningEndIndex);
-      }
-      return true;
-    }
-    boolean moreLines = nextLine();
-    while (moreLines) {
-      // end tag not found - add line to the pip warning message
-      if ((pipWarningEndTagIndex = line.indexOf(PIP_WARNING_END_TAG)) == -1) {
-        pipWarning.append(" " + line);
-        moreLines = nextLine();
-      }
-      else {
-        // found the end tag - save the pip warning to infoList
-        // check for pip warning ending in the middle of the line
-        int pipWarningEndIndex = pipWarningEndTagIndex + PIP_WARNING_END_TAG.length();
-        if (line.length() > pipWarningEndIndex) {
-          pipWarning.append(" " + line.substring(0, pipWarningEndIndex));
-          // remove the message from the line so the line can continue to be parsed
-          line = line.substring(pipWarningEndIndex);
-        }
-        else {
-          // pip warning takes up the whole line
-          pipWarning.append(" " + line);
-          nextLine();
-        }
-        getInfoList().add(pipWarning.toString());
-        return true;
-      }
+    int pipWarningEndTagIndex = tagIndex[PIP_WARNING_END_ID];
+    if (pipWarningEndTagIndex != -1 && pipWarningEndTagIndex < pipWarningIndex) {
+      pipWarningEndTagIndex = line.indexOf(PIP_WARNING_END_TAG, pipWarningIndex);
+    }
+    if (pipWarningEndTagIndex == -1) {
+      pipWarning.append(line, pipWarningIndex, line.length());
+      pendingType = MessageType.PIP_WARNING;
+      pendingMessage = pipWarning;
+      pendingCount = 0;
+      return null;
     }
-    // no more lines - add pip warning to infoList
+    int pipWarningEndIndex = pipWarningEndTagIndex + PIP_WARNING_END_TAG.length();
+    pipWarning.append(line, pipWarningIndex, pipWarningEndIndex);
     getInfoList().add(pipWarning.toString());
-    return true;
+    // check for pip warning ending in the middle of the line
+    if (line.length() > pipWarningEndIndex) {
+      return line.substring(pipWarningEndIndex);
+    }
+    return null;
   }
 
   /**
    * Looks for single line errors, warnings, and info messages.
    * Messages have start tags and may start in the middle of the line.
-   * If a message is found, line will be set to a new line.
    * Looks for a log file entry.  A log file entry is a single line.  The tag may have
    * text preceeding it.  The text following the tag is the path of a file, the contents
    * of which should be added to _project.log.
    * @return true if a message is found
    */
-  private boolean parseSingleLineMessage() {
-    if (line == null) {
-      return false;
-    }
-    int logFileIndex = line.indexOf(LOG_FILE_TAG);
+  private boolean parseSingleLineMessage(final String line) {
+    int logFileIndex = tagIndex[LOG_FILE_ID];
     if (logFileIndex != -1) {
       File file = new File(manager.getPropertyUserDir(), line.substring(
           logFileIndex + LOG_FILE_TAG.length()).trim());
@@ -629,34 +710,29 @@ public final class ProcessMessages {
     int errorIndex = -1;
     int errorTagIndex = -1;
     for (int i = 0; i < ERROR_TAGS.length; i++) {
-      errorIndex = line.indexOf(ERROR_TAGS[i]);
+      errorIndex = tagIndex[i];
       errorTagIndex = i;
       if (errorIndex != -1) {
         break;
       }
     }
     // Turn off the error if an ignore-tag is found.
-    if (errorIndex != -1) {
-      for (int i = 0; i < IGNORE_TAG.length; i++) {
-        if (line.indexOf(IGNORE_TAG[i]) != -1) {
-          errorIndex = -1;
-          errorTagIndex = -1;
-          break;
-        }
-      }
+    if (errorIndex != -1 && isIgnored()) {
+      errorIndex = -1;
+      errorTagIndex = -1;
     }
     // Switch to multi-line error parsing if this error is always a multi-line error.
     if (errorIndex != -1 && errorTagIndex != -1 && ALWAYS_MULTI_LINE[errorTagIndex]) {
-      return parseMultiLineMessage();
+      return startMultiLineMessage(line);
     }
-    int chunkErrorIndex = line.indexOf(CHUNK_ERROR_TAG);
-    int warningIndex = line.indexOf(WARNING_TAG);
+    int chunkErrorIndex = tagIndex[CHUNK_ERROR_ID];
+    int warningIndex = tagIndex[WARNING_ID];
     if (warningIndex != -1 && multiLineWarning) {
-      return parseMultiLineMessage();
+      return startMultiLineMessage(line);
     }
-    int infoIndex = line.indexOf(INFO_TAG);
+    int infoIndex = tagIndex[INFO_ID];
     if (infoIndex != -1 && multiLineInfo) {
-      return parseMultiLineMessage();
+      return startMultiLineMessage(line);
     }
     // error is true if ERROR: found, but not CHUNK ERROR:
     boolean error = errorIndex != -1 && errorTagIndex != -1
@@ -683,58 +759,48 @@ public final class ProcessMessages {
     else if (info) {
       addElement(getInfoList(), buffer.toString(), infoIndex, INFO_TAG.length());
     }
-    nextLine();
     return true;
   }
 
   /**
    * Looks for single line chunk errors.
    * Messages have start tags and may start in the middle of the line.
-   * If a chunk error is found, line will be set to a new line.
    * @return true if a chunk error is found
    */
-  private boolean parseSingleLineChunkError() {
-    if (line == null) {
-      return false;
-    }
+  private boolean parseSingleLineChunkError(final String line) {
     // look for a message
-    int chunkErrorIndex = line.indexOf(CHUNK_ERROR_TAG);
-    boolean chunkError = chunkErrorIndex != -1;
-    if (!chunkError) {
+    int chunkErrorIndex = tagIndex[CHUNK_ERROR_ID];
+    if (chunkErrorIndex == -1) {
       return false;
     }
     // message found - add to list
-    if (chunkError) {
-      // Errors may be added to the chunk error line. They are errors associated with the
-      // chunk and should not be treated as process errors, so put them on separate lines
-      // but keep them with the chunk error.
-      int errorIndex = line
-          .indexOf(ERROR_TAG, chunkErrorIndex + CHUNK_ERROR_TAG.length());
-      if (errorIndex == -1) {
-        addElement(getChunkErrorList(), line, chunkErrorIndex, CHUNK_ERROR_TAG.length());
+    // Errors may be added to the chunk error line. They are errors associated with the
+    // chunk and should not be treated as process errors, so put them on separate lines
+    // but keep them with the chunk error.
+    int errorIndex = line.indexOf(ERROR_TAG, chunkErrorIndex + CHUNK_ERROR_TAG.length());
+    if (errorIndex == -1) {
+      addElement(getChunkErrorList(), line, chunkErrorIndex, CHUNK_ERROR_TAG.length());
+    }
+    else {
+      StringBuffer buffer = new StringBuffer();
+      if (messagePrepend != null) {
+        buffer.append(messagePrepend + "\n");
+        messagePrepend = null;
       }
-      else {
-        StringBuffer buffer = new StringBuffer();
-        if (messagePrepend != null) {
-          buffer.append(messagePrepend + "\n");
-          messagePrepend = null;
+      buffer.append(line.substring(0, errorIndex) + "\n");
+      while (errorIndex != -1) {
+        int nextErrorIndex = line.indexOf(ERROR_TAG, errorIndex + ERROR_TAG.length());
+        if (nextErrorIndex != -1) {
+          buffer.append(line.substring(errorIndex, nextErrorIndex) + "\n");
         }
-        buffer.append(line.substring(0, errorIndex) + "\n");
-        while (errorIndex != -1) {
-          int nextErrorIndex = line.indexOf(ERROR_TAG, errorIndex + ERROR_TAG.length());
-          if (nextErrorIndex != -1) {
-            buffer.append(line.substring(errorIndex, nextErrorIndex) + "\n");
-          }
-          else {
-            buffer.append(line.substring(errorIndex));
-          }
-          errorIndex = nextErrorIndex;
+        else {
+          buffer.append(line.substring(errorIndex));
         }
-        addElement(getChunkErrorList(), buffer.toString(), chunkErrorIndex,
-            CHUNK_ERROR_TAG.length());
+        errorIndex = nextErrorIndex;
       }
+      addElement(getChunkErrorList(), buffer.toString(), chunkErrorIndex,
+          CHUNK_ERROR_TAG.length());
     }
-    nextLine();
     return true;
   }
 
@@ -750,277 +816,135 @@ public final class ProcessMessages {
   }
 
   /**
-   * Looks for multi-line errors, warnings, and info messages.
+   * @return true if the last line scanned contains an ignore tag
+   */
+  private boolean isIgnored() {
+    for (int i = 0; i < IGNORE_TAG.length; i++) {
+      if (tagIndex[IGNORE_ID + i] != -1) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Looks for the start of a multi-line error, warning, or info message.
    * Messages have start tags and may start in the middle of the line.
    * Messages end with an empty line.
-   * If a message is found, line will be set to a new line.
    * @return true if a message is found
    */
-  private boolean parseMultiLineMessage() {
-    if (line == null) {
-      return false;
-    }
+  private boolean startMultiLineMessage(final String line) {
     // look for a message
-    int errorIndex = getErrorIndex(line);
-    if (errorIndex != -1) {
-      for (int i = 0; i < IGNORE_TAG.length; i++) {
-        if (line.indexOf(IGNORE_TAG[i]) != -1) {
-          errorIndex = -1;
-        }
+    int errorIndex = -1;
+    for (int i = 0; i < ERROR_TAGS.length; i++) {
+      if ((errorIndex = tagIndex[i]) != -1) {
+        break;
       }
     }
-    int chunkErrorIndex = line.indexOf(CHUNK_ERROR_TAG);
-    int warningIndex = line.indexOf(WARNING_TAG);
-    int infoIndex = line.indexOf(INFO_TAG);
-    // error is true if ERROR: found, but not CHUNK ERROR:
-    boolean error = errorIndex != -1 && !(chunks && chunkErrorIndex != -1);
-    boolean warning = warningIndex != -1;
-    boolean info = infoIndex != -1;
-    if (!error && !warning && !info) {
-      return false;
-    }
-    // set the index of the message tag
-    int messageIndex = -1;
-    if (error) {
-      messageIndex = errorIndex;
+    if (errorIndex != -1 && isIgnored()) {
+      errorIndex = -1;
     }
-    else if (warning) {
-      messageIndex = warningIndex;
-    }
-    else if (info) {
-      messageIndex = infoIndex;
+    int chunkErrorIndex = tagIndex[CHUNK_ERROR_ID];
+    int warningIndex = tagIndex[WARNING_ID];
+    int infoIndex = tagIndex[INFO_ID];
+    // error is true if ERROR: found, but not CHUNK ERROR:
+    if (errorIndex != -1 && !(chunks && chunkErrorIndex != -1)) {
+      startMessage(MessageType.ERROR, line, errorIndex);
     }
-    // create the message starting from the message tag
-    StringBuffer messageBuffer = new StringBuffer();
-    if (messagePrepend != null) {
-      messageBuffer.append(messagePrepend + "\n");
-      messagePrepend = null;
+    else if (warningIndex != -1) {
+      startMessage(MessageType.WARNING, line, warningIndex);
     }
-    if (messageIndex > 0) {
-      messageBuffer.append(line.substring(messageIndex));
+    else if (infoIndex != -1) {
+      startMessage(MessageType.INFO, line, infoIndex);
     }
     else {
-      messageBuffer.append(line);
-    }
-    boolean moreLines = nextLine();
-    int count = 0;
-    while (moreLines) {
-      if (line.length() == 0 || count > MAX_MESSAGE_SIZE) {
-        // end of message or message is too big - add message in a list
-        messageBuffer.append("\n");
-        String message = messageBuffer.toString();
-        if (error) {
-          getErrorList().add(message);
-        }
-        else if (warning) {
-          getWarningList().add(message);
-        }
-        else if (info) {
-          getInfoList().add(message);
-        }
-        nextLine();
-        return true;
-      }
-      else {// add current line to the message
-        messageBuffer.append("\n" + line);
-        moreLines = nextLine();
-        count++;
-      }
-    }
-    // no more lines - add message to list
-    messageBuffer.append("\n");
-    String message = messageBuffer.toString();
-    if (error) {
-      getErrorList().add(message);
-    }
-    else if (warning) {
-      getWarningList().add(message);
-    }
-    else if (info) {
-      getInfoList().add(message);
+      return false;
     }
     return true;
   }
 
   /**
-   * Looks for multi-line errors.
+   * Looks for the start of a multi-line chunk error.
    * Messages have start tags and may start in the middle of the line.
    * Messages end with an empty line.
-   * If a chunk error is found, line will be set to a new line.
    * @return true if a chunk error is found
    */
-  private boolean parseMultiLineChunkError() {
-    if (line == null) {
+  private boolean startMultiLineChunkError(final String line) {
+    int chunkErrorIndex = tagIndex[CHUNK_ERROR_ID];
+    if (chunkErrorIndex == -1) {
       return false;
     }
-    // look for a message
-    int chunkErrorIndex = line.indexOf(CHUNK_ERROR_TAG);
-    boolean chunkError = chunkErrorIndex != -1;
-    if (!chunkError) {
-      return false;
-    }
-    // set the index of the message tag
-    int messageIndex = -1;
-    if (chunkError) {
-      messageIndex = chunkErrorIndex;
-    }
-    // create the message starting from the message tag
-    StringBuffer messageBuffer = new StringBuffer();
-    if (messagePrepend != null) {
-      messageBuffer.append(messagePrepend + "\n");
-      messagePrepend = null;
-    }
-    if (messageIndex > 0) {
-      messageBuffer.append(line.substring(messageIndex));
-    }
-    else {
-      messageBuffer.append(line);
-    }
-    boolean moreLines = nextLine();
-    int count = 0;
-    while (moreLines) {
-      if (line.length() == 0 || count > MAX_MESSAGE_SIZE) {
-        // end of message or message is too long - add message in a list
-        messageBuffer.append("\n");
-        String message = messageBuffer.toString();
-        if (chunkError) {
-          getChunkErrorList().add(message);
-        }
-        nextLine();
-        return true;
-      }
-      else {// add current line to the message
-        messageBuffer.append("\n" + line);
-        moreLines = nextLine();
-        count++;
-      }
-    }
-    // no more lines - add message to list
-    messageBuffer.append("\n");
-    String message = messageBuffer.toString();
-    if (chunkError) {
-      getChunkErrorList().add(message);
-    }
+    startMessage(MessageType.CHUNK_ERROR, line, chunkErrorIndex);
     return true;
   }
 
   /**
-   * Figure out which type of process output is being read and call the
-   * corresponding nextLine function.
-   * @return
-   */
-  private boolean nextLine() {
-    boolean retval = false;
-    if (outputBufferManager != null) {
-      retval = nextOutputBufferManagerLine();
-    }
-    else if (bufferedReader != null) {
-      retval = nextBufferedReaderLine();
-    }
-    else if (logFile != null) {
-      retval = nextLogFileLine();
-    }
-    else if (processOutputString != null) {
-      line = processOutputString;
-      processOutputString = null;
-      retval = true;
-    }
-    else if (processOutputStringArray != null) {
-      retval = nextStringArrayLine();
-    }
-    return retval;
-  }
-
-  /**
-   * Increment index and place the entry at index in outputBufferManager into line.
-   * Trim line.
-   * Return true if line can be set to a new line
-   * Return false, sets outputBufferManager and line to null, and sets index to
-   * -1 when there is nothing left in outputBufferManager.
+   * Create a multi-line message starting from the message tag.
+   * @param type
+   * @param line
+   * @param messageIndex - index of the message tag
    */
-  private boolean nextOutputBufferManagerLine() {
-    index++;
-    if (index >= outputBufferManager.size()) {
-      index = -1;
-      outputBufferManager = null;
-      line = null;
-      return false;
+  private void startMessage(final MessageType type, final String line,
+      final int messageIndex) {
+    StringBuffer messageBuffer = new StringBuffer();
+    if (messagePrepend != null) {
+      messageBuffer.append(messagePrepend + "\n");
+      messagePrepend = null;
     }
-    line = outputBufferManager.get(index).trim();
-    return true;
+    messageBuffer.append(line, messageIndex, line.length());
+    pendingType = type;
+    pendingMessage = messageBuffer;
+    pendingCount = 0;
   }
 
   /**
-   * Increment index and place the entry at index in processOutputStringArray into line.
-   * Trim line.
-   * Return true if line can be set to a new line
-   * Return false, sets processOutputStringArray and line to null, and sets index to
-   * -1 when there is nothing left in processOutputStringArray.
+   * Adds a line to the multi-line message in progress, or ends the message.  The
+   * message ends with an empty line, or when it gets too big.  The line that ends the
+   * message is not used.
+   * @param line
    */
-  private boolean nextStringArrayLine() {
-    index++;
-    if (index >= processOutputStringArray.length) {
-      index = -1;
-      processOutputStringArray = null;
-      line = null;
-      return false;
+  private void continueMultiLineMessage(final String line) {
+    if (line.length() == 0 || pendingCount > MAX_MESSAGE_SIZE) {
+      // end of message or message is too big - add message in a list
+      endMessage();
+      return;
     }
-    line = processOutputStringArray[index].trim();
-    return true;
+    // add current line to the message
+    pendingMessage.append('\n').append(line);
+    pendingCount++;
   }
 
   /**
-   * Increment index and place the entry at index in bufferedReader into line.
-   * Trim line.
-   * Return true if line can be set to a new line
-   * Return false, and sets bufferedReader and line to null when there is
-   * nothing left in bufferedReader.
-   * Does not change index.
+   * Add the message in progress to its list.
    */
-  private boolean nextBufferedReaderLine() {
-    try {
-      if ((line = bufferedReader.readLine()) == null) {
-        bufferedReader = null;
-        return false;
-      }
+  private void endMessage() {
+    if (pendingType == null) {
+      return;
     }
-    catch (IOException e) {
-      e.printStackTrace();
-      bufferedReader = null;
-      line = null;
-      return false;
+    List<String> list;
+    if (pendingType == MessageType.PIP_WARNING) {
+      list = getInfoList();
     }
-    return true;
-  }
-
-  private boolean nextLogFileLine() {
-    try {
-      if ((line = logFile.readLine(logFileReaderId)) == null) {
-        logFile.closeRead(logFileReaderId);
-        logFile = null;
-        logFileReaderId = null;
-        return false;
+    else {
+      pendingMessage.append('\n');
+      if (pendingType == MessageType.ERROR) {
+        list = getErrorList();
+      }
+      else if (pendingType == MessageType.WARNING) {
+        list = getWarningList();
+      }
+      else if (pendingType == MessageType.INFO) {
+        list = getInfoList();
+      }
+      else {
+        list = getChunkErrorList();
       }
     }
-    catch (LogFile.LockException e) {
-      e.printStackTrace();
-      logFile.closeRead(logFileReaderId);
-      logFile = null;
-      logFileReaderId = null;
-      line = null;
-      return false;
-    }
-    catch (IOException e) {
-      e.printStackTrace();
-      logFile.closeRead(logFileReaderId);
-      logFile = null;
-      logFileReaderId = null;
-      line = null;
-      return false;
-    }
-    return true;
+    list.add(pendingMessage.toString());
+    pendingType = null;
+    pendingMessage = null;
+    pendingCount = 0;
   }
-
   /**
    * Add a substring of line, from startIndex to end of line, to list.
    * @param list
@@ -1107,6 +1031,24 @@ public final class ProcessMessages {
     }
     return buffer.toString();
   }
+
+  private static final class MessageType {
+    private static final MessageType PIP_WARNING = new MessageType("PIP_WARNING");
+    private static final MessageType ERROR = new MessageType("ERROR");
+    private static final MessageType WARNING = new MessageType("WARNING");
+    private static final MessageType INFO = new MessageType("INFO");
+    private static final MessageType CHUNK_ERROR = new MessageType("CHUNK_ERROR");
+
+    private final String name;
+
+    private MessageType(final String name) {
+      this.name = name;
+    }
+
+    public String toString() {
+      return name;
+    }
+  }
 }
 /**
  * <p> $Log$
@@ -61,4 +61,31 @@ public class ProcessMessagesTest extends TestCase {
     assertTrue("Traceback message should always contain extra lines", messages
         .getError(2).indexOf("F. second error line") != -1);
   }
+
+  public void testStreaming() {
+    ProcessMessages messages = ProcessMessages.getMultiLineInstance(null);
+    messages.addProcessOutputLine("ERROR: first line");
+    messages.addProcessOutputLine("second line");
+    assertEquals("multi-line message should not be saved until it ends", 0,
+        messages.errorListSize());
+    messages.addProcessOutputLine("");
+    assertEquals(1, messages.errorListSize());
+    assertEquals("ERROR: first line\nsecond line\n", messages.getError(0));
+    messages.addProcessOutputLine("WARNING: unfinished");
+    messages.endProcessOutput();
+    assertEquals("endProcessOutput should save the message in progress", 1,
+        messages.warningListSize());
+  }
+
+  public void testPipWarning() {
+    ProcessMessages messages = ProcessMessages.getInstance(null);
+    messages.addProcessOutput(new String[] { "PIP WARNING: first",
+        "second Using fallback options in main program ERROR: after" });
+    assertEquals(1, messages.infoListSize());
+    assertEquals("PIP WARNING: first second Using fallback options in main program",
+        messages.getInfo(0));
+    assertEquals("the rest of the line should be parsed", 1, messages.errorListSize());
+    messages.addProcessOutput("PIP WARNING: one line Using fallback options in main program");
+    assertEquals("a one line pip warning should be saved", 2, messages.infoListSize());
+  }
 }
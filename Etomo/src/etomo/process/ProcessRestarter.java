@@ -52,8 +52,7 @@ public final class ProcessRestarter implements Runnable {
     if (stop) {
       return;
     }
-    Thread thread = new Thread(INSTANCE);
-    thread.start();
+    MonitorScheduler.INSTANCE.execute("ProcessRestarter", INSTANCE);
   }
 
   /**
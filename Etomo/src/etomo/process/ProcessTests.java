@@ -30,6 +30,12 @@ public class ProcessTests {
     suite.addTestSuite(ImodManagerTest.class);
     suite.addTestSuite(ProcessMessagesTest.class);
     suite.addTestSuite(ImodProcessTest.class);
+    suite.addTestSuite(LogFileTailerTest.class);
+    suite.addTestSuite(OutputBufferManagerTest.class);
+    suite.addTestSuite(TagScannerTest.class);
+    suite.addTestSuite(ProcStatTest.class);
+    suite.addTestSuite(LocalLoadSamplerTest.class);
+    suite.addTestSuite(VmstopyCacheTest.class);
     //suite.addTest(new ImodManagerTest("testFiducialModel"));
     //$JUnit-END$
     return suite;
@@ -0,0 +1,118 @@
+package etomo.process;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Description: Reads the output of many long running processes on one shared
+ * thread, instead of two reader threads per process.  The output of a process can't be
+ * read with a selector, so the streams are checked through MonitorScheduler, and only
+ * what can be read without blocking is read (see OutputBufferManager.readAvailable).
+ * Used for the load monitoring processes, which each run for as long as the parallel
+ * panel is in use and produce a line every few seconds.</p>
+ *
+ * <p>The streams are checked every MIN_PERIOD milliseconds while they are producing
+ * output.  Each check that finds nothing doubles the period, up to MAX_PERIOD, so
+ * processes that sample slowly, or not at all while the parallel panel is hidden,
+ * cause few wakeups.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * @threadsafe
+ *
+ * <p> $Log$ </p>
+ */
+final class StreamMultiplexer implements Runnable {
+  public static final String rcsid = "$Id:$";
+
+  static final StreamMultiplexer INSTANCE = new StreamMultiplexer();
+
+  static final long MIN_PERIOD = 50;
+  static final long MAX_PERIOD = 1000;
+  private static final String NAME = "StreamMultiplexer";
+
+  private final List<OutputBufferManager> streamList =
+      new ArrayList<OutputBufferManager>();
+  // A stream must not be read by two threads at once.
+  private final Object readLock = new Object();
+
+  private MonitorScheduler.Task task = null;
+  private long period = MIN_PERIOD;
+  private OutputBufferManager[] streamArray = new OutputBufferManager[0];
+
+  private StreamMultiplexer() {
+  }
+
+  /**
+   * Start reading stream.  It is read until it is finished.
+   * @param stream
+   */
+  synchronized void add(final OutputBufferManager stream) {
+    streamList.add(stream);
+    period = MIN_PERIOD;
+    if (task == null) {
+      task = MonitorScheduler.INSTANCE.execute(NAME, this);
+    }
+  }
+
+  synchronized int size() {
+    return streamList.size();
+  }
+
+  synchronized long getPeriod() {
+    return period;
+  }
+
+  /**
+   * Read each stream once.  Keep going while any of them has more to read.  Then
+   * schedule the next check, unless there are no streams left.
+   */
+  public void run() {
+    boolean anyRead = false;
+    synchronized (readLock) {
+      boolean read = true;
+      while (read) {
+        read = false;
+        synchronized (this) {
+          streamArray = streamList.toArray(streamArray);
+        }
+        for (int i = 0; i < streamArray.length && streamArray[i] != null; i++) {
+          int count = streamArray[i].readAvailable();
+          if (count == -1) {
+            remove(streamArray[i]);
+          }
+          else if (count > 0) {
+            read = true;
+            anyRead = true;
+          }
+          streamArray[i] = null;
+        }
+      }
+    }
+    synchronized (this) {
+      if (streamList.isEmpty()) {
+        task = null;
+        return;
+      }
+      if (anyRead) {
+        period = MIN_PERIOD;
+      }
+      else {
+        period = Math.min(period * 2, MAX_PERIOD);
+      }
+      task = MonitorScheduler.INSTANCE.execute(NAME, this, period);
+    }
+  }
+
+  private synchronized void remove(final OutputBufferManager stream) {
+    streamList.remove(stream);
+  }
+}
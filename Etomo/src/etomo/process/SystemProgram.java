@@ -325,6 +325,11 @@ public class SystemProgram implements Runnable {
   private Process process = null;
   private boolean collectOutput = true;
   private String commandAction = null;
+  private boolean streamOutput = false;
+  private int maxOutputLines = 0;
+  private boolean spillOutput = false;
+  private boolean multiplexOutput = false;
+  private String outputKeyPhrase = null;
 
   /**
    * Creates a SystemProgram object to execute the program specified by the
@@ -441,7 +446,7 @@ public class SystemProgram implements Runnable {
     if (!debug.isVerbose()
         && (commandArray.length == 1
             && (commandArray[0].equals("env") || commandArray[0].endsWith("imodinfo") || commandArray[0]
-                .equals("b3dhostname"))
+                .equals("b3dhostname") || commandArray[0].equals("who"))
             || (commandArray.length > 0 && (commandArray[0].equals("ssh") || commandArray[0]
                 .equals("ps"))) || (commandArray.length > 1 && commandArray[0]
             .equals("b3dwinps")))) {
@@ -514,8 +519,14 @@ public class SystemProgram implements Runnable {
 
       // Set up a reader thread to keep the stdout buffers of the process empty
       stdout = newOutputBufferManager(cmdOutputBuffer);
-      Thread stdoutReaderThread = new Thread(stdout);
-      stdoutReaderThread.start();
+      Thread stdoutReaderThread = null;
+      if (multiplexOutput) {
+        StreamMultiplexer.INSTANCE.add(stdout);
+      }
+      else {
+        stdoutReaderThread = new Thread(stdout);
+        stdoutReaderThread.start();
+      }
 
       InputStream cmdErrorStream = process.getErrorStream();
       BufferedReader cmdErrorBuffer = new BufferedReader(new InputStreamReader(
@@ -523,8 +534,14 @@ public class SystemProgram implements Runnable {
 
       // Set up a reader thread to keep the stdout buffers of the process empty
       stderr = newErrorBufferManager(cmdErrorBuffer);
-      Thread stderrReaderThread = new Thread(stderr);
-      stderrReaderThread.start();
+      Thread stderrReaderThread = null;
+      if (multiplexOutput) {
+        StreamMultiplexer.INSTANCE.add(stderr);
+      }
+      else {
+        stderrReaderThread = new Thread(stderr);
+        stderrReaderThread.start();
+      }
 
       // Write out to the program's stdin pipe each line of the
       // stdInput array if it is not null
@@ -588,8 +605,14 @@ public class SystemProgram implements Runnable {
 
       // Wait for the manager threads to complete
       try {
-        stderrReaderThread.join(1000);
-        stdoutReaderThread.join(1000);
+        if (multiplexOutput) {
+          stderr.awaitFinished(1000);
+          stdout.awaitFinished(1000);
+        }
+        else {
+          stderrReaderThread.join(1000);
+          stdoutReaderThread.join(1000);
+        }
       }
       catch (InterruptedException except) {
         except.printStackTrace();
@@ -659,8 +682,8 @@ public class SystemProgram implements Runnable {
         }
       }
     }
-    processMessages.addProcessOutput(stdout);
-    processMessages.addProcessOutput(stderr);
+    addProcessOutput(stdout);
+    addProcessOutput(stderr);
 
     if (debug.isStandard()) {
       if (stdout != null && stdout.size() > 0) {
@@ -702,6 +725,21 @@ public class SystemProgram implements Runnable {
     done = true;
   }
 
+  /**
+   * Add the messages found in a stream's output.  If the stream was parsed while it was
+   * being read, just add the messages which where found.
+   * @param output
+   */
+  private void addProcessOutput(final OutputBufferManager output) {
+    ProcessMessages outputMessages;
+    if (output != null && (outputMessages = output.getProcessMessages()) != null) {
+      processMessages.add(outputMessages);
+    }
+    else {
+      processMessages.addProcessOutput(output);
+    }
+  }
+
   void destroy() {
     if (process == null) {
       return;
@@ -710,9 +748,11 @@ public class SystemProgram implements Runnable {
   }
 
   private OutputBufferManager newOutputBufferManager(final BufferedReader cmdBuffer) {
-    OutputBufferManager bufferManager = new OutputBufferManager(cmdBuffer);
+    OutputBufferManager bufferManager = new OutputBufferManager(cmdBuffer,
+        outputKeyPhrase);
     bufferManager.setDebug(debug.isOn());
     bufferManager.setCollectOutput(collectOutput);
+    setStreamingOutput(bufferManager);
     return bufferManager;
   }
 
@@ -720,13 +760,97 @@ public class SystemProgram implements Runnable {
     OutputBufferManager bufferManager = new OutputBufferManager(cmdBuffer);
     bufferManager.setDebug(debug.isOn());
     bufferManager.setCollectOutput(collectOutput);
+    setStreamingOutput(bufferManager);
     return bufferManager;
   }
 
+  private void setStreamingOutput(final OutputBufferManager bufferManager) {
+    if (!streamOutput) {
+      return;
+    }
+    bufferManager.setMaxLines(maxOutputLines);
+    bufferManager.setSpill(spillOutput);
+    // Each stream is parsed in its own reader thread, so each one needs its own
+    // instance.
+    bufferManager.setProcessMessages(processMessages.getStreamInstance());
+  }
+
   void setCollectOutput(final boolean input) {
     collectOutput = input;
   }
 
+  /**
+   * Read stdout and stderr on the thread shared by StreamMultiplexer, instead of
+   * starting two reader threads.  Must be called before run.
+   * @param input
+   */
+  void setMultiplexOutput(final boolean input) {
+    multiplexOutput = input;
+  }
+
+  /**
+   * Only keep the lines of stdout which contain keyPhrase.  Must be called before run.
+   * @param keyPhrase - null keeps every line
+   */
+  void setOutputKeyPhrase(final String keyPhrase) {
+    outputKeyPhrase = keyPhrase;
+  }
+
+  /**
+   * Parse stdout and stderr for messages as they are read, instead of after the
+   * process is done, and limit the amount of output kept in memory.  Must be called
+   * before run.
+   * @param maxLines - the number of lines of stdout and of stderr to keep in memory; 0
+   * or less keeps every line
+   * @param spill - copy all of stdout and stderr to temporary files
+   */
+  public void setStreamingOutput(final int maxLines, final boolean spill) {
+    streamOutput = true;
+    maxOutputLines = maxLines;
+    spillOutput = spill;
+  }
+
+  /**
+   * @return the file containing all of stdout, or null if it wasn't saved
+   */
+  public File getStdOutputFile() {
+    if (stdout == null) {
+      return null;
+    }
+    return stdout.getSpillFile();
+  }
+
+  /**
+   * @return the file containing all of stderr, or null if it wasn't saved
+   */
+  public File getStdErrorFile() {
+    if (stderr == null) {
+      return null;
+    }
+    return stderr.getSpillFile();
+  }
+
+  /**
+   * @return true if getStdOutput is missing lines because of setStreamingOutput
+   */
+  public boolean isStdOutputTruncated() {
+    return stdout != null && stdout.isTruncated();
+  }
+
+  /**
+   * Delete the files created by setStreamingOutput.  Call after the process is done.
+   */
+  public void deleteOutputFiles() {
+    File file = getStdOutputFile();
+    if (file != null) {
+      file.delete();
+    }
+    file = getStdErrorFile();
+    if (file != null) {
+      file.delete();
+    }
+  }
+
   /**
    *
    */
@@ -0,0 +1,158 @@
+package etomo.process;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Description: Finds a fixed set of tags in a line in a single pass, using an
+ * Aho-Corasick automaton.  The automaton is built once, when the scanner is
+ * constructed, as a complete transition table over ASCII characters.  A character
+ * outside of ASCII can't be part of a tag, so it sends the automaton back to the start
+ * state.</p>
+ *
+ * <p>Scanning a line finds the first occurrence of every tag, including tags which
+ * overlap or contain each other, and does not allocate any memory.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * @threadsafe
+ *
+ * <p> $Log$ </p>
+ */
+final class TagScanner {
+  public static final String rcsid = "$Id:$";
+
+  private static final int N_CHARS = 128;
+
+  // transition[state][character] is the next state.
+  private final int[][] transition;
+  // The tags which end at each state, including the ones found by following failure
+  // links.
+  private final int[][] output;
+  private final int[] tagLength;
+
+  /**
+   * @param tags - ASCII strings; must not be empty
+   */
+  TagScanner(final String[] tags) {
+    tagLength = new int[tags.length];
+    List<int[]> transitionList = new ArrayList<int[]>();
+    List<List<Integer>> outputList = new ArrayList<List<Integer>>();
+    transitionList.add(newState());
+    outputList.add(new ArrayList<Integer>());
+    // Build the trie.
+    for (int i = 0; i < tags.length; i++) {
+      String tag = tags[i];
+      if (tag == null || tag.length() == 0) {
+        throw new IllegalArgumentException("empty tag");
+      }
+      tagLength[i] = tag.length();
+      int state = 0;
+      for (int j = 0; j < tag.length(); j++) {
+        char c = tag.charAt(j);
+        if (c >= N_CHARS) {
+          throw new IllegalArgumentException("non-ASCII tag:" + tag);
+        }
+        int[] row = transitionList.get(state);
+        if (row[c] == -1) {
+          row[c] = transitionList.size();
+          transitionList.add(newState());
+          outputList.add(new ArrayList<Integer>());
+        }
+        state = row[c];
+      }
+      outputList.get(state).add(new Integer(i));
+    }
+    // Add the failure links breadth first, turning the trie into a complete
+    // transition table.
+    int[] failure = new int[transitionList.size()];
+    int[] queue = new int[transitionList.size()];
+    int head = 0;
+    int tail = 0;
+    int[] root = transitionList.get(0);
+    for (int c = 0; c < N_CHARS; c++) {
+      if (root[c] == -1) {
+        root[c] = 0;
+      }
+      else {
+        failure[root[c]] = 0;
+        queue[tail++] = root[c];
+      }
+    }
+    while (head < tail) {
+      int state = queue[head++];
+      int[] row = transitionList.get(state);
+      int[] failureRow = transitionList.get(failure[state]);
+      for (int c = 0; c < N_CHARS; c++) {
+        if (row[c] == -1) {
+          row[c] = failureRow[c];
+        }
+        else {
+          int next = row[c];
+          failure[next] = failureRow[c];
+          outputList.get(next).addAll(outputList.get(failure[next]));
+          queue[tail++] = next;
+        }
+      }
+    }
+    transition = transitionList.toArray(new int[transitionList.size()][]);
+    output = new int[outputList.size()][];
+    for (int i = 0; i < output.length; i++) {
+      List<Integer> list = outputList.get(i);
+      output[i] = new int[list.size()];
+      for (int j = 0; j < output[i].length; j++) {
+        output[i][j] = list.get(j).intValue();
+      }
+    }
+  }
+
+  private static int[] newState() {
+    int[] row = new int[N_CHARS];
+    for (int i = 0; i < N_CHARS; i++) {
+      row[i] = -1;
+    }
+    return row;
+  }
+
+  int getTagCount() {
+    return tagLength.length;
+  }
+
+  /**
+   * Finds the first occurrence of each tag in line.
+   * @param line
+   * @param firstIndex - set to the index of the first occurrence of each tag in line,
+   * or -1 if the tag isn't in line; must have getTagCount() elements
+   */
+  void scan(final String line, final int[] firstIndex) {
+    for (int i = 0; i < firstIndex.length; i++) {
+      firstIndex[i] = -1;
+    }
+    if (line == null) {
+      return;
+    }
+    int state = 0;
+    int length = line.length();
+    for (int i = 0; i < length; i++) {
+      char c = line.charAt(i);
+      state = c < N_CHARS ? transition[state][c] : 0;
+      int[] tags = output[state];
+      for (int j = 0; j < tags.length; j++) {
+        int tag = tags[j];
+        // All occurrences of a tag have the same length, so the first one to end is
+        // the first one to start.
+        if (firstIndex[tag] == -1) {
+          firstIndex[tag] = i - tagLength[tag] + 1;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package etomo.process;
+
+import junit.framework.TestCase;
+
+/**
+* <p>Description: </p>
+*
+* <p>Copyright: Copyright 2026</p>
+*
+* <p>Organization:
+* Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+* University of Colorado</p>
+*
+* @author $Author$
+*
+* @version $Revision$
+*
+* <p> $Log$ </p>
+*/
+public class TagScannerTest extends TestCase {
+  public static final String rcsid = "$Id:$";
+
+  private static final String[] TAGS = { "ERROR:", "CHUNK ERROR:", "WARNING:",
+      "PIP WARNING:", "he", "she", "hers" };
+
+  private final TagScanner scanner = new TagScanner(TAGS);
+  private final int[] index = new int[TAGS.length];
+
+  public void testMatchesIndexOf() {
+    String[] lines = { "", "no tags", "ERROR: at the start", "at the end ERROR:",
+        "CHUNK ERROR: contains ERROR:", "PIP WARNING: WARNING: ERROR:", "ushers",
+        "sheshe hehe", "ERRORERROR: CHUNK CHUNK ERROR:", "\u00e9ERROR:\u00e9 WARNING:" };
+    for (int i = 0; i < lines.length; i++) {
+      scanner.scan(lines[i], index);
+      for (int j = 0; j < TAGS.length; j++) {
+        assertEquals("line:" + lines[i] + ",tag:" + TAGS[j], lines[i].indexOf(TAGS[j]),
+            index[j]);
+      }
+    }
+  }
+
+  public void testNull() {
+    index[0] = 5;
+    scanner.scan(null, index);
+    for (int i = 0; i < index.length; i++) {
+      assertEquals(-1, index[i]);
+    }
+  }
+
+  public void testBadTag() {
+    try {
+      new TagScanner(new String[] { "" });
+      fail("empty tag should be rejected");
+    }
+    catch (IllegalArgumentException e) {
+    }
+  }
+}
@@ -105,7 +105,7 @@ public final class TiltxcorrProcessWatcher extends LogFileProcessMonitor {
 
     nSections = -1;
     while (!foundNSections) {
-      Thread.sleep(UPDATE_PERIOD);
+      waitForLogFileLine();
       String line;
       while ((line = readLogFileLine()) != null) {
         line = line.trim();
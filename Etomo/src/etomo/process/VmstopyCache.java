@@ -0,0 +1,191 @@
+package etomo.process;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import etomo.ApplicationManager;
+import etomo.type.ImodVersion;
+
+/**
+ * <p>Description: Saves the python commands that vmstopy generates from a com script,
+ * so that running an unchanged com script again doesn't have to run vmstopy.  The
+ * commands are saved in CACHE_DIR_NAME in the dataset directory, one file per com
+ * script, so they are kept when Etomo is restarted.</p>
+ *
+ * <p>Each saved file starts with a key, which is a hash of the com script's contents,
+ * the log file name that was passed to vmstopy, the IMOD version, and the size and
+ * modification time of the vmstopy script.  The saved commands are only used when the
+ * key matches.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * <p> $Log$ </p>
+ */
+final class VmstopyCache {
+  public static final String rcsid = "$Id:$";
+
+  static final String CACHE_DIR_NAME = ".vmstopy";
+
+  private static final String CACHE_EXT = ".py";
+  private static final String KEY_TAG = "# vmstopy cache key ";
+
+  private final File cacheDir;
+  private final File vmstopyFile;
+
+  VmstopyCache(final File workingDirectory) {
+    this(workingDirectory, new File(ApplicationManager.getIMODBinPath() + "vmstopy"));
+  }
+
+  VmstopyCache(final File workingDirectory, final File vmstopyFile) {
+    cacheDir = new File(workingDirectory, CACHE_DIR_NAME);
+    this.vmstopyFile = vmstopyFile;
+  }
+
+  /**
+   * @param comScript
+   * @param logFileName - the log file name passed to vmstopy
+   * @return the key for the current contents of comScript, or null if it can't be
+   * calculated
+   */
+  String getKey(final File comScript, final String logFileName) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-1");
+    }
+    catch (NoSuchAlgorithmException e) {
+      e.printStackTrace();
+      return null;
+    }
+    byte[] buffer = new byte[8192];
+    try {
+      FileInputStream stream = new FileInputStream(comScript);
+      try {
+        int length;
+        while ((length = stream.read(buffer)) != -1) {
+          digest.update(buffer, 0, length);
+        }
+      }
+      finally {
+        stream.close();
+      }
+      digest.update(("\n" + logFileName + "\n" + ImodVersion.CURRENT_VERSION + "\n"
+          + vmstopyFile.length() + "\n" + vmstopyFile.lastModified()).getBytes("UTF-8"));
+    }
+    catch (UnsupportedEncodingException e) {
+      e.printStackTrace();
+      return null;
+    }
+    catch (IOException e) {
+      return null;
+    }
+    StringBuffer key = new StringBuffer();
+    byte[] bytes = digest.digest();
+    for (int i = 0; i < bytes.length; i++) {
+      String hex = Integer.toHexString(bytes[i] & 0xff);
+      if (hex.length() == 1) {
+        key.append('0');
+      }
+      key.append(hex);
+    }
+    return key.toString();
+  }
+
+  /**
+   * @param comScriptName
+   * @param key - from getKey
+   * @return the saved commands, or null if they aren't saved under key
+   */
+  String[] get(final String comScriptName, final String key) {
+    if (key == null) {
+      return null;
+    }
+    File file = getFile(comScriptName);
+    if (!file.exists()) {
+      return null;
+    }
+    List<String> lines = new ArrayList<String>();
+    try {
+      BufferedReader reader = new BufferedReader(new FileReader(file));
+      try {
+        String line = reader.readLine();
+        if (line == null || !line.equals(KEY_TAG + key)) {
+          return null;
+        }
+        while ((line = reader.readLine()) != null) {
+          lines.add(line);
+        }
+      }
+      finally {
+        reader.close();
+      }
+    }
+    catch (IOException e) {
+      e.printStackTrace();
+      return null;
+    }
+    return lines.toArray(new String[lines.size()]);
+  }
+
+  /**
+   * Save commands under key.  The file is written under a temporary name and then
+   * renamed, so that a partly written file is never read.  Failing to save is not an
+   * error; vmstopy will just be run again next time.
+   * @param comScriptName
+   * @param key - from getKey
+   * @param commands
+   */
+  void put(final String comScriptName, final String key, final String[] commands) {
+    if (key == null || commands == null) {
+      return;
+    }
+    if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+      return;
+    }
+    File file = getFile(comScriptName);
+    File temp = new File(cacheDir, file.getName() + ".tmp");
+    try {
+      BufferedWriter writer = new BufferedWriter(new FileWriter(temp));
+      try {
+        writer.write(KEY_TAG + key);
+        writer.newLine();
+        for (int i = 0; i < commands.length; i++) {
+          writer.write(commands[i]);
+          writer.newLine();
+        }
+      }
+      finally {
+        writer.close();
+      }
+      // Windows won't rename over an existing file.
+      if (!temp.renameTo(file) && (!file.delete() || !temp.renameTo(file))) {
+        temp.delete();
+      }
+    }
+    catch (IOException e) {
+      e.printStackTrace();
+      temp.delete();
+    }
+  }
+
+  private File getFile(final String comScriptName) {
+    return new File(cacheDir, comScriptName + CACHE_EXT);
+  }
+}
@@ -0,0 +1,95 @@
+package etomo.process;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+/**
+* <p>Description: </p>
+*
+* <p>Copyright: Copyright 2026</p>
+*
+* <p>Organization:
+* Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+* University of Colorado</p>
+*
+* @author $Author$
+*
+* @version $Revision$
+*
+* <p> $Log$ </p>
+*/
+public class VmstopyCacheTest extends TestCase {
+  public static final String rcsid = "$Id:$";
+
+  private static final File testDir = new File(ProcessTests.TEST_ROOT_DIR,
+      "VmstopyCache");
+
+  private final File comScript = new File(testDir, "tilt.com");
+  private final File vmstopy = new File(testDir, "vmstopy");
+  private final String[] commands = new String[] { "import os, sys", "",
+      "log.write('done')" };
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    testDir.mkdirs();
+    File[] files = new File(testDir, VmstopyCache.CACHE_DIR_NAME).listFiles();
+    for (int i = 0; files != null && i < files.length; i++) {
+      files[i].delete();
+    }
+    write(comScript, "$tilt -StandardInput\nInputProjections tilt.ali\n");
+    write(vmstopy, "#!/usr/bin/env python\n");
+  }
+
+  public void testGetAndPut() throws IOException {
+    VmstopyCache cache = new VmstopyCache(testDir, vmstopy);
+    String key = cache.getKey(comScript, "tilt.log");
+    assertNotNull(key);
+    assertNull("nothing saved yet", cache.get(comScript.getName(), key));
+    cache.put(comScript.getName(), key, commands);
+    String[] saved = new VmstopyCache(testDir, vmstopy).get(comScript.getName(), key);
+    assertNotNull("saved commands must be found by a new instance", saved);
+    assertEquals(commands.length, saved.length);
+    for (int i = 0; i < commands.length; i++) {
+      assertEquals(commands[i], saved[i]);
+    }
+    assertFalse("temporary file must be gone", new File(new File(testDir,
+        VmstopyCache.CACHE_DIR_NAME), comScript.getName() + ".py.tmp").exists());
+  }
+
+  public void testChangedKey() throws IOException {
+    VmstopyCache cache = new VmstopyCache(testDir, vmstopy);
+    String key = cache.getKey(comScript, "tilt.log");
+    cache.put(comScript.getName(), key, commands);
+    assertEquals("same contents, same key", key, cache.getKey(comScript, "tilt.log"));
+    assertFalse("log file name is part of the key",
+        key.equals(cache.getKey(comScript, "tilt2.log")));
+    write(comScript, "$tilt -StandardInput\nInputProjections tilt2.ali\n");
+    String newKey = cache.getKey(comScript, "tilt.log");
+    assertFalse("contents are part of the key", key.equals(newKey));
+    assertNull("changed com script must not use the saved commands",
+        cache.get(comScript.getName(), newKey));
+    write(vmstopy, "#!/usr/bin/env python\n# a new version of vmstopy\n");
+    assertFalse("vmstopy is part of the key",
+        newKey.equals(cache.getKey(comScript, "tilt.log")));
+  }
+
+  public void testMissingComScript() {
+    VmstopyCache cache = new VmstopyCache(testDir, vmstopy);
+    String key = cache.getKey(new File(testDir, "missing.com"), "missing.log");
+    assertNull(key);
+    assertNull(cache.get("missing.com", key));
+  }
+
+  private void write(final File file, final String contents) throws IOException {
+    FileWriter writer = new FileWriter(file);
+    try {
+      writer.write(contents);
+    }
+    finally {
+      writer.close();
+    }
+  }
+}
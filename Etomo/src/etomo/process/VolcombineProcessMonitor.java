@@ -148,7 +148,7 @@ public class VolcombineProcessMonitor extends LogFileProcessMonitor {
 
     nSections = -1;
     while (!foundNSections) {
-      Thread.sleep(UPDATE_PERIOD);
+      waitForLogFileLine();
       String line;
       while ((line = readLogFileLine()) != null && !foundNSections) {
         if (line.startsWith("STATUS:")) {
@@ -0,0 +1,575 @@
+package etomo.storage;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import etomo.comscript.ConstTiltalignParam;
+import etomo.type.AxisID;
+import etomo.type.ConstEtomoNumber;
+import etomo.type.EtomoNumber;
+import etomo.type.ProcessName;
+
+/**
+ * <p>Description: Reads align.log once and holds everything that is taken from it:  the
+ * sections that the alignlog program splits out into the ta*.log files, the error
+ * summaries, the surface analysis values, the exclude list, and whether tiltalign
+ * succeeded.  The sections are found in the same way as alignlog, but in a single
+ * pass; where alignlog chooses between ranges based on what is in the whole file,
+ * each choice is collected and the right one is kept at the end.</p>
+ *
+ * <p>Instances are cached and are only replaced when the length or modification time
+ * of the log changes.  An instance isn't changed after it is made.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * @threadsafe
+ *
+ * <p> $Log$ </p>
+ */
+public final class AlignLogAnalysis {
+  public static final String rcsid = "$Id:$";
+
+  private static final int MAX_INSTANCES = 8;
+  private static final String BLANK = " ";
+  private static final String SUCCESS_TAG = "SUCCESSFULLY COMPLETED";
+  private static final String ENTRIES_TAG = "*** Entries to program tiltalign ***";
+  private static final String END_OF_ENTRIES_TAG = "*** End of entries ***";
+  private static final String GLOBAL_RATIO_TAG = "Ratio of total measured values to all unknowns";
+  private static final String CENTER_TO_CENTER_THICKNESS_TAG = "Unbinned thickness needed to contain centers of all fiducials";
+  private static final String INCREMENTAL_SHIFT_TO_CENTER_TAG = "Incremental unbinned shift needed to center range of fiducials in Z";
+
+  private static final Map<File, AlignLogAnalysis> instanceMap = new LinkedHashMap<File, AlignLogAnalysis>(
+      16, 0.75f, true) {
+    protected boolean removeEldestEntry(final Map.Entry<File, AlignLogAnalysis> eldest) {
+      return size() > MAX_INSTANCES;
+    }
+  };
+
+  private final Map<Section, String[]> sectionMap = new HashMap<Section, String[]>();
+  private final long length;
+  private final long lastModified;
+
+  private String excludeList = null;
+  private boolean success = false;
+
+  private AlignLogAnalysis(final long length, final long lastModified) {
+    this.length = length;
+    this.lastModified = lastModified;
+  }
+
+  /**
+   * @param userDir
+   * @param axisID
+   * @return the analysis of the align log for axisID
+   * @throws LogFile.LockException
+   * @throws FileNotFoundException if the log doesn't exist
+   * @throws IOException
+   */
+  public static AlignLogAnalysis getInstance(final String userDir, final AxisID axisID)
+      throws LogFile.LockException, FileNotFoundException, IOException {
+    return getInstance(LogFile.getInstance(userDir, axisID, ProcessName.ALIGN));
+  }
+
+  /**
+   * @param alignLog
+   * @return the analysis of alignLog, which is only read if it has changed since the
+   * last call
+   * @throws LogFile.LockException
+   * @throws FileNotFoundException if the log doesn't exist
+   * @throws IOException
+   */
+  public static AlignLogAnalysis getInstance(final LogFile alignLog)
+      throws LogFile.LockException, FileNotFoundException, IOException {
+    File file = new File(alignLog.getAbsolutePath());
+    // Get these before reading, so that changes made while reading are picked up by
+    // the next call.
+    long length = file.length();
+    long lastModified = file.lastModified();
+    synchronized (instanceMap) {
+      AlignLogAnalysis instance = instanceMap.get(file);
+      if (instance != null && instance.length == length
+          && instance.lastModified == lastModified) {
+        return instance;
+      }
+    }
+    if (!file.exists()) {
+      throw new FileNotFoundException(file.getAbsolutePath() + " does not exist");
+    }
+    AlignLogAnalysis instance = new AlignLogAnalysis(length, lastModified);
+    instance.read(alignLog);
+    synchronized (instanceMap) {
+      instanceMap.put(file, instance);
+    }
+    return instance;
+  }
+
+  /**
+   * @param section
+   * @return the lines that alignlog would print for section
+   */
+  public String[] getSection(final Section section) {
+    return sectionMap.get(section).clone();
+  }
+
+  /**
+   * @return the global ratio and the residual error lines from the error section
+   */
+  public List<String> getResidualErrors() {
+    List<String> lineList = new ArrayList<String>();
+    String[] lines = sectionMap.get(Section.ERROR);
+    boolean globalRatioFound = false;
+    for (int i = 0; i < lines.length; i++) {
+      String line = lines[i].trim();
+      if (!globalRatioFound && line.startsWith(GLOBAL_RATIO_TAG)) {
+        globalRatioFound = true;
+        lineList.add(lines[i]);
+      }
+      else if (line.startsWith("Residual error mean and sd")
+          && line.indexOf("Local area") == -1) {
+        lineList.add(lines[i]);
+      }
+      else if (line.startsWith("Residual error local mean")) {
+        lineList.add(lines[i]);
+      }
+    }
+    return lineList;
+  }
+
+  /**
+   * @return the weighted residual error lines from the robust section
+   */
+  public List<String> getWeightedResidualErrors() {
+    List<String> lineList = new ArrayList<String>();
+    String[] lines = sectionMap.get(Section.ROBUST);
+    for (int i = 0; i < lines.length; i++) {
+      String line = lines[i].trim();
+      if (line.startsWith("Residual error weighted mean")
+          && line.indexOf("Local area") == -1) {
+        lineList.add(lines[i]);
+      }
+      else if (line.startsWith("Weighted error local mean")) {
+        lineList.add(lines[i]);
+      }
+    }
+    return lineList;
+  }
+
+  /**
+   * @return the center to center thickness from the surface analysis
+   */
+  public ConstEtomoNumber getCenterToCenterThickness() {
+    return getAngleValue(CENTER_TO_CENTER_THICKNESS_TAG, 10);
+  }
+
+  /**
+   * @return the incremental shift to center from the surface analysis
+   */
+  public ConstEtomoNumber getIncrementalShiftToCenter() {
+    return getAngleValue(INCREMENTAL_SHIFT_TO_CENTER_TAG, 12);
+  }
+
+  /**
+   * @return the ExcludeList entry that was passed to tiltalign, or null if there
+   * wasn't one
+   */
+  public String getExcludeList() {
+    return excludeList;
+  }
+
+  /**
+   * @return true if the log ends with the success tag
+   */
+  public boolean isSuccess() {
+    return success;
+  }
+
+  private ConstEtomoNumber getAngleValue(final String tag, final int index) {
+    EtomoNumber value = new EtomoNumber(EtomoNumber.Type.DOUBLE);
+    String[] lines = sectionMap.get(Section.ANGLES);
+    for (int i = 0; i < lines.length; i++) {
+      String line = lines[i].trim();
+      if (line.startsWith(tag)) {
+        value.set(line.split("\\s+")[index]);
+        break;
+      }
+    }
+    return value;
+  }
+
+  private void read(final LogFile alignLog) throws LogFile.LockException,
+      FileNotFoundException, IOException {
+    Parser parser = new Parser();
+    LogFile.ReaderId readerId = alignLog.openReader();
+    if (readerId == null || readerId.isEmpty()) {
+      throw new FileNotFoundException(alignLog.getAbsolutePath() + " could not be read");
+    }
+    try {
+      String line = alignLog.readLine(readerId);
+      while (line != null) {
+        parser.add(line);
+        line = alignLog.readLine(readerId);
+      }
+    }
+    finally {
+      alignLog.closeRead(readerId);
+    }
+    parser.finish();
+  }
+
+  /**
+   * The files that alignlog splits align.log into.
+   */
+  public static final class Section {
+    public static final Section ANGLES = new Section("taAngles");
+    public static final Section COORDINATES = new Section("taCoordinates");
+    public static final Section ERROR = new Section("taError");
+    public static final Section LOCALS = new Section("taLocals");
+    public static final Section MAPPINGS = new Section("taMappings");
+    public static final Section RESIDUALS = new Section("taResiduals");
+    public static final Section SOLUTION = new Section("taSolution");
+    public static final Section BEAMTILT = new Section("taBeamtilt");
+    public static final Section ROBUST = new Section("taRobust");
+
+    private static final Section[] SECTIONS = new Section[] { ANGLES, COORDINATES,
+        ERROR, LOCALS, MAPPINGS, RESIDUALS, SOLUTION, BEAMTILT, ROBUST };
+
+    private final String name;
+
+    private Section(final String name) {
+      this.name = name;
+    }
+
+    public static Section[] values() {
+      return SECTIONS.clone();
+    }
+
+    /**
+     * @return the root of the file name that the section is written to
+     */
+    public String toString() {
+      return name;
+    }
+  }
+
+  /**
+   * Collects all the sections in one pass.
+   */
+  private final class Parser {
+    private final Pattern totalRatio = Pattern.compile("Ratio .*to total unknown");
+    private final Pattern formerRatio = Pattern.compile("Ratio .*formerly");
+
+    private final Range mappings = new Range("^ *Variable mappings", "^$");
+    private final Range errorWithTotalRatio = new Range("^ *Final   F", "^  Ratio");
+    private final Range errorWithOneRatio = new Range("^.*Final   F", "^  Ratio of",
+        false, "weight", true, true);
+    private final Range errorWithTwoRatios = new Range("^.*Final   F", "^  Ratio to");
+    private final Grep residualError = new Grep("Residual error", "weight");
+    private final Grep beamTiltAngle = new Grep("Beam tilt angle is");
+    private final Range solution = new Range("^ view.*deltilt", "^$");
+    private final List<String> locals = new ArrayList<String>();
+    private final Range coordinates = new Range("^ *3-D point", "^ Midpoint", true);
+    private final Range residuals = new Range("^ *Projection points", "^$");
+    private final Range anglesFromFit = new Range("^ Fit to all", "^ 1 to do", true);
+    private final Range anglesToSeries = new Range("^ SURFACE ANALYSIS", "^ 1 to do",
+        true);
+    private final Range anglesToFile = new Range("^ SURFACE ANALYSIS", "file opened",
+        true);
+    private final Range anglesToEntries = new Range("^ SURFACE ANALYSIS",
+        "ntries to program", true);
+    private final Grep beamTilt = new Grep(" beam tilt =");
+    private final Range robust = new Range("Starting robust", "are < .5", false, null,
+        false, true);
+    private final Range robustSummary = new Range("Summary of robust", "are < .5");
+    private final Grep weightedResidualError = new Grep("Residual error weighted");
+    private final Grep weightedError = new Grep("Weighted error ");
+
+    private boolean surfaceAnalysisFound = false;
+    private boolean seriesFound = false;
+    private boolean totalRatioFound = false;
+    private boolean formerRatioFound = false;
+    private boolean beamTiltSolved = false;
+    private boolean entriesFound = false;
+    private boolean localsFound = false;
+    private String projectionSkewLine = null;
+    private String rotationAtMinTiltLine = null;
+    private boolean inTiltalignEntries = false;
+    private boolean tiltalignEntriesDone = false;
+    private String lastLine = null;
+
+    private void add(final String line) {
+      if (line.indexOf("SURFACE ANALYSIS") != -1) {
+        surfaceAnalysisFound = true;
+      }
+      if (line.indexOf("to do series") != -1) {
+        seriesFound = true;
+      }
+      if (totalRatio.matcher(line).find()) {
+        totalRatioFound = true;
+      }
+      if (formerRatio.matcher(line).find()) {
+        formerRatioFound = true;
+      }
+      if (line.indexOf("olved beam tilt") != -1) {
+        beamTiltSolved = true;
+      }
+      if (line.indexOf("ntries to program") != -1) {
+        entriesFound = true;
+      }
+      if (line.indexOf("Doing local area") != -1) {
+        localsFound = true;
+      }
+      if (line.indexOf("Projection skew is") != -1) {
+        projectionSkewLine = line.trim();
+      }
+      if (line.indexOf("minimum tilt, rotation") != -1) {
+        rotationAtMinTiltLine = line.trim();
+      }
+      mappings.add(line);
+      errorWithTotalRatio.add(line);
+      errorWithOneRatio.add(line);
+      errorWithTwoRatios.add(line);
+      residualError.add(line);
+      beamTiltAngle.add(line);
+      solution.add(line);
+      if (line.indexOf("Doing local area") != -1 || line.indexOf("on bottom and") != -1
+          || (line.indexOf("Residual error") != -1 && line.indexOf("weighted") == -1)) {
+        locals.add(rstrip(line));
+        if (line.indexOf("Residual error mean") != -1) {
+          locals.add(BLANK);
+        }
+      }
+      coordinates.add(line);
+      residuals.add(line);
+      anglesFromFit.add(line);
+      anglesToSeries.add(line);
+      anglesToFile.add(line);
+      anglesToEntries.add(line);
+      beamTilt.add(line);
+      robust.add(line);
+      robustSummary.add(line);
+      weightedResidualError.add(line);
+      weightedError.add(line);
+      addEntry(line);
+      if (line.trim().length() > 0) {
+        lastLine = line;
+      }
+    }
+
+    /**
+     * Looks for the exclude list in the tiltalign entries.
+     */
+    private void addEntry(String line) {
+      if (tiltalignEntriesDone) {
+        return;
+      }
+      line = line.trim();
+      if (line.equals(END_OF_ENTRIES_TAG)) {
+        tiltalignEntriesDone = true;
+      }
+      else if (inTiltalignEntries) {
+        if (line.indexOf(ConstTiltalignParam.EXCLUDE_LIST_KEY) != -1) {
+          // May be the right parameter - make sure by matching it exactly
+          String[] pair = line.split("\\s*=\\s*");
+          if (pair != null && pair.length > 0
+              && pair[0].equals(ConstTiltalignParam.EXCLUDE_LIST_KEY)) {
+            if (pair.length > 1) {
+              excludeList = pair[1];
+            }
+            tiltalignEntriesDone = true;
+          }
+        }
+      }
+      else if (line.equals(ENTRIES_TAG)) {
+        inTiltalignEntries = true;
+      }
+    }
+
+    private void finish() {
+      sectionMap.put(Section.MAPPINGS, mappings.toArray());
+      List<String> lineList = new ArrayList<String>();
+      if (totalRatioFound) {
+        errorWithTotalRatio.addTo(lineList);
+      }
+      else if (!formerRatioFound) {
+        errorWithOneRatio.addTo(lineList);
+      }
+      else {
+        errorWithTwoRatios.addTo(lineList);
+      }
+      residualError.addTo(lineList);
+      put(Section.ERROR, lineList);
+      lineList = new ArrayList<String>();
+      if (beamTiltSolved) {
+        beamTiltAngle.addTo(lineList);
+        lineList.add(BLANK);
+      }
+      if (projectionSkewLine != null && projectionSkewLine.length() > 0) {
+        lineList.add(projectionSkewLine);
+        lineList.add(BLANK);
+      }
+      if (rotationAtMinTiltLine != null && rotationAtMinTiltLine.length() > 0) {
+        lineList.add(rotationAtMinTiltLine);
+        lineList.add(BLANK);
+      }
+      solution.addTo(lineList);
+      put(Section.SOLUTION, lineList);
+      put(Section.LOCALS, locals);
+      sectionMap.put(Section.COORDINATES, coordinates.toArray());
+      sectionMap.put(Section.RESIDUALS, residuals.toArray());
+      if (!surfaceAnalysisFound) {
+        sectionMap.put(Section.ANGLES, anglesFromFit.toArray());
+      }
+      else if (seriesFound) {
+        sectionMap.put(Section.ANGLES, anglesToSeries.toArray());
+      }
+      else if (!entriesFound || localsFound) {
+        sectionMap.put(Section.ANGLES, anglesToFile.toArray());
+      }
+      else {
+        sectionMap.put(Section.ANGLES, anglesToEntries.toArray());
+      }
+      sectionMap.put(Section.BEAMTILT, beamTilt.toArray());
+      lineList = new ArrayList<String>();
+      robust.addTo(lineList);
+      if (localsFound) {
+        lineList.add(BLANK);
+        robustSummary.addTo(lineList);
+        lineList.add(BLANK);
+      }
+      weightedResidualError.addTo(lineList);
+      if (localsFound) {
+        weightedError.addTo(lineList);
+      }
+      put(Section.ROBUST, lineList);
+      success = lastLine != null && lastLine.indexOf(SUCCESS_TAG) != -1;
+    }
+
+    private void put(final Section section, final List<String> lineList) {
+      sectionMap.put(section, lineList.toArray(new String[lineList.size()]));
+    }
+  }
+
+  /**
+   * Collects the lines from a line matching start to a line matching end, as many
+   * times as start is found.  Like pyawk in alignlog.
+   */
+  private static final class Range {
+    private final List<String> lineList = new ArrayList<String>();
+    private final Pattern start;
+    private final Pattern end;
+    private final boolean excludeEnd;
+    private final String skipMatch;
+    private final boolean skipEmpty;
+    private final boolean separator;
+
+    private boolean inRange = false;
+    private boolean gotAny = false;
+
+    private Range(final String start, final String end) {
+      this(start, end, false);
+    }
+
+    private Range(final String start, final String end, final boolean excludeEnd) {
+      this(start, end, excludeEnd, null, false, false);
+    }
+
+    private Range(final String start, final String end, final boolean excludeEnd,
+        final String skipMatch, final boolean skipEmpty, final boolean separator) {
+      this.start = Pattern.compile(start);
+      this.end = Pattern.compile(end);
+      this.excludeEnd = excludeEnd;
+      this.skipMatch = skipMatch;
+      this.skipEmpty = skipEmpty;
+      this.separator = separator;
+    }
+
+    private void add(final String line) {
+      if (!inRange && start.matcher(line).find()) {
+        inRange = true;
+        if (separator && gotAny) {
+          lineList.add(BLANK);
+        }
+        gotAny = true;
+      }
+      boolean keep = inRange;
+      if (inRange && end.matcher(line).find()) {
+        inRange = false;
+        keep = !excludeEnd;
+      }
+      if (keep) {
+        String stripped = rstrip(line);
+        if ((!skipEmpty || stripped.length() > 0)
+            && (skipMatch == null || line.indexOf(skipMatch) == -1)) {
+          lineList.add(stripped);
+        }
+      }
+    }
+
+    private void addTo(final List<String> list) {
+      list.addAll(lineList);
+    }
+
+    private String[] toArray() {
+      return lineList.toArray(new String[lineList.size()]);
+    }
+  }
+
+  /**
+   * Collects the lines that contain a string.  Like pygrep in alignlog.
+   */
+  private static final class Grep {
+    private final List<String> lineList = new ArrayList<String>();
+    private final String string;
+    private final String skipMatch;
+
+    private Grep(final String string) {
+      this(string, null);
+    }
+
+    private Grep(final String string, final String skipMatch) {
+      this.string = string;
+      this.skipMatch = skipMatch;
+    }
+
+    private void add(final String line) {
+      if (line.indexOf(string) != -1
+          && (skipMatch == null || line.indexOf(skipMatch) == -1)) {
+        lineList.add(rstrip(line));
+      }
+    }
+
+    private void addTo(final List<String> list) {
+      list.addAll(lineList);
+    }
+
+    private String[] toArray() {
+      return lineList.toArray(new String[lineList.size()]);
+    }
+  }
+
+  /**
+   * Removes trailing whitespace, like Python's rstrip().
+   */
+  private static String rstrip(final String line) {
+    int end = line.length();
+    while (end > 0 && Character.isWhitespace(line.charAt(end - 1))) {
+      end--;
+    }
+    return line.substring(0, end);
+  }
+}
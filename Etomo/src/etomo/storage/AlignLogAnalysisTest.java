@@ -0,0 +1,112 @@
+package etomo.storage;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+* <p>Description: </p>
+*
+* <p>Copyright: Copyright 2026</p>
+*
+* <p>Organization:
+* Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+* University of Colorado</p>
+*
+* @author $Author$
+*
+* @version $Revision$
+*
+* <p> $Log$ </p>
+*/
+public class AlignLogAnalysisTest extends TestCase {
+  public static final String rcsid = "$Id:$";
+
+  private static final File testDir = new File(StorageTests.TEST_ROOT_DIR,
+      "AlignLogAnalysis");
+
+  private static final String FINAL_F = "                     Final   F :       0.18E-02";
+  private static final String RATIO = "  Ratio of total measured values to all unknowns = 22464/1696 =  13.25";
+  private static final String RESIDUAL = " Residual error mean and sd:   0.243   0.259";
+  private static final String WEIGHTED = " Residual error weighted mean and sd:   0.2   0.2";
+
+  private static final String LOG = "*** Entries to program tiltalign ***\n"
+      + "  ModelFile = a.fid\n" + "  ExcludeListExtra = 9\n" + "  ExcludeList = 1-3,7\n"
+      + "*** End of entries ***\n" + "\n" + "    Variable mappings\n" + " view 1\n"
+      + "\n" + FINAL_F + "\n" + " Number of cycles :  3000   \n" + "\n"
+      + " weighted line\n" + RATIO + "\n" + "\n" + " view   rotation    tilt    deltilt\n"
+      + "   1     -12.1      60.2      0.00\n" + "\n" + RESIDUAL + "\n" + WEIGHTED + "\n"
+      + " SURFACE ANALYSIS:\n"
+      + " Unbinned thickness needed to contain centers of all fiducials =    150.5\n"
+      + " Incremental unbinned shift needed to center range of fiducials in Z =   -7.3\n"
+      + "*** Entries to program xfproduct ***\n" + "*** End of entries ***\n"
+      + "SUCCESSFULLY COMPLETED\n";
+
+  private final File file = new File(testDir, "align.log");
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    testDir.mkdirs();
+    write(LOG);
+  }
+
+  public void testSections() throws IOException, LogFile.LockException {
+    AlignLogAnalysis analysis = AlignLogAnalysis.getInstance(LogFile.getInstance(file));
+    String[] lines = analysis.getSection(AlignLogAnalysis.Section.ERROR);
+    assertEquals(4, lines.length);
+    assertEquals(FINAL_F, lines[0]);
+    assertEquals("trailing whitespace is removed", " Number of cycles :  3000",
+        lines[1]);
+    assertEquals(RATIO, lines[2]);
+    assertEquals(RESIDUAL, lines[3]);
+    lines = analysis.getSection(AlignLogAnalysis.Section.SOLUTION);
+    assertEquals(3, lines.length);
+    assertEquals("   1     -12.1      60.2      0.00", lines[1]);
+    assertEquals("", lines[2]);
+    lines = analysis.getSection(AlignLogAnalysis.Section.ANGLES);
+    assertEquals(3, lines.length);
+    assertEquals(" SURFACE ANALYSIS:", lines[0]);
+    assertEquals(0, analysis.getSection(AlignLogAnalysis.Section.BEAMTILT).length);
+  }
+
+  public void testValues() throws IOException, LogFile.LockException {
+    AlignLogAnalysis analysis = AlignLogAnalysis.getInstance(LogFile.getInstance(file));
+    List<String> lineList = analysis.getResidualErrors();
+    assertEquals(2, lineList.size());
+    assertEquals(RATIO, lineList.get(0));
+    assertEquals(RESIDUAL, lineList.get(1));
+    lineList = analysis.getWeightedResidualErrors();
+    assertEquals(1, lineList.size());
+    assertEquals(WEIGHTED, lineList.get(0));
+    assertEquals(150.5, analysis.getCenterToCenterThickness().getDouble(), 0);
+    assertEquals(-7.3, analysis.getIncrementalShiftToCenter().getDouble(), 0);
+    assertEquals("1-3,7", analysis.getExcludeList());
+    assertTrue(analysis.isSuccess());
+  }
+
+  public void testCache() throws IOException, LogFile.LockException {
+    LogFile logFile = LogFile.getInstance(file);
+    AlignLogAnalysis analysis = AlignLogAnalysis.getInstance(logFile);
+    assertSame("an unchanged log isn't read again", analysis, AlignLogAnalysis
+        .getInstance(logFile));
+    write(LOG + "ERROR: TILTALIGN - failed\n");
+    file.setLastModified(file.lastModified() + 2000);
+    AlignLogAnalysis changed = AlignLogAnalysis.getInstance(logFile);
+    assertNotSame(analysis, changed);
+    assertFalse(changed.isSuccess());
+    assertTrue("the old analysis isn't changed", analysis.isSuccess());
+  }
+
+  private void write(final String contents) throws IOException {
+    FileWriter writer = new FileWriter(file);
+    try {
+      writer.write(contents);
+    }
+    finally {
+      writer.close();
+    }
+  }
+}
@@ -26,6 +26,10 @@ import etomo.type.ProcessName;
 public final class AutofidseedLog implements Loggable {
   public static final String rcsid = "$Id:$";
 
+  private static final LogIndex.Marker[] MARKERS = new LogIndex.Marker[] {
+      LogIndex.Marker.getContainsInstance("candidate points"),
+      LogIndex.Marker.getStartsWithInstance("Final:") };
+
   private final List lineList = new ArrayList();
 
   private final String userDir;
@@ -59,20 +63,9 @@ public final class AutofidseedLog implements Loggable {
     // refresh the log file
     LogFile log = LogFile.getInstance(userDir, axisID, ProcessName.AUTOFIDSEED);
     if (log.exists()) {
-      LogFile.ReaderId readerId = log.openReader();
-      if (readerId != null && !readerId.isEmpty()) {
-        String line = log.readLine(readerId);
-        while (line != null) {
-          if (line.indexOf("candidate points")!=-1) {
-            lineList.add(line);
-          }
-          else if (line.trim().startsWith("Final:")) {
-            lineList.add(line);
-          }
-          line = log.readLine(readerId);
-        }
-        log.closeRead(readerId);
-        return lineList;
+      String[] lines = log.findLines(MARKERS);
+      for (int i = 0; i < lines.length; i++) {
+        lineList.add(lines[i]);
       }
     }
     return lineList;
@@ -0,0 +1,137 @@
+package etomo.storage;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Description: Reads the end of a file by seeking to the end and reading backwards
+ * in blocks, so that the time taken depends on the size of the tail instead of the
+ * size of the file.  Characters are decoded with the default charset, like
+ * FileReader.  Blocks are only decoded once they start at a line break, or at the
+ * start of the file, so a character is never split.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * <p> $Log$ </p>
+ */
+final class FileTail {
+  public static final String rcsid = "$Id:$";
+
+  private static final int BLOCK_SIZE = 8192;
+
+  private FileTail() {
+  }
+
+  /**
+   * @param file
+   * @param nLines
+   * @return the last nLines lines of file, or fewer if the file is shorter.  The lines
+   * are the same as the ones that BufferedReader.readLine would return.
+   * @throws IOException
+   */
+  static String[] getLastLines(final File file, final int nLines) throws IOException {
+    if (nLines <= 0) {
+      return new String[0];
+    }
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+    byte[] tail;
+    boolean partialFirstLine;
+    try {
+      // Read blocks backwards until the tail contains nLines + 1 line breaks, which
+      // guarantees that it contains nLines complete lines.
+      long end = randomAccessFile.length();
+      long start = end;
+      int nLineBreaks = 0;
+      List<byte[]> blockList = new ArrayList<byte[]>();
+      while (start > 0 && nLineBreaks <= nLines) {
+        int size = (int) Math.min(BLOCK_SIZE, start);
+        start -= size;
+        byte[] block = new byte[size];
+        randomAccessFile.seek(start);
+        randomAccessFile.readFully(block);
+        blockList.add(block);
+        for (int i = 0; i < size; i++) {
+          if (block[i] == '\n') {
+            nLineBreaks++;
+          }
+        }
+      }
+      tail = new byte[(int) (end - start)];
+      int offset = 0;
+      for (int i = blockList.size() - 1; i >= 0; i--) {
+        byte[] block = blockList.get(i);
+        System.arraycopy(block, 0, tail, offset, block.length);
+        offset += block.length;
+      }
+      partialFirstLine = start > 0;
+    }
+    finally {
+      randomAccessFile.close();
+    }
+    // Skip the partial first line before decoding, because it may start in the middle
+    // of a character.
+    int tailStart = 0;
+    if (partialFirstLine) {
+      while (tail[tailStart] != '\n') {
+        tailStart++;
+      }
+      tailStart++;
+    }
+    BufferedReader reader = new BufferedReader(new StringReader(new String(tail,
+        tailStart, tail.length - tailStart, Charset.defaultCharset().name())));
+    List<String> lineList = new ArrayList<String>();
+    String line;
+    while ((line = reader.readLine()) != null) {
+      lineList.add(line);
+    }
+    int nKept = Math.min(nLines, lineList.size());
+    return lineList.subList(lineList.size() - nKept, lineList.size()).toArray(
+        new String[nKept]);
+  }
+
+  /**
+   * Searches the last 2 * string.length() characters of file for string, so that a
+   * final line break is allowed after it.
+   * @param file
+   * @param string
+   * @return true if string was found
+   * @throws IOException
+   */
+  static boolean tailContains(final File file, final String string) throws IOException {
+    int nChars = string.length() * 2;
+    // Read enough bytes for nChars characters in any encoding, plus one character
+    // which may be cut off at the start.
+    Charset charset = Charset.defaultCharset();
+    long nBytes = (long) Math.ceil((nChars + 1)
+        * charset.newEncoder().maxBytesPerChar());
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+    byte[] tail;
+    try {
+      long end = randomAccessFile.length();
+      tail = new byte[(int) Math.min(nBytes, end)];
+      randomAccessFile.seek(end - tail.length);
+      randomAccessFile.readFully(tail);
+    }
+    finally {
+      randomAccessFile.close();
+    }
+    // A character cut off at the start is decoded as replacement characters, which
+    // are outside of the searched characters.
+    String chars = new String(tail, charset.name());
+    return chars.substring(Math.max(0, chars.length() - nChars)).indexOf(string) != -1;
+  }
+}
@@ -9,12 +9,18 @@ import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Hashtable;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import etomo.BaseManager;
 import etomo.EtomoDirector;
@@ -36,12 +42,16 @@ import etomo.util.Utilities;
  * Only one Write lock can exist at a time, but it can coexist with Read locks.
  * Multiple Read locks can exist at a time.
  * 
- * LogFile is an N'ton and stores its instances in a Hashtable, which is a
- * synchronized class.
+ * LogFile is an N'ton.  Its instances are held with weak references, so that
+ * the instances of files that are no longer used can be garbage collected.  An
+ * instance is held strongly while it is locked, and after it has been backed up,
+ * so there is only ever one instance for each file.
  * 
- * Log File is a syncrhonized class:  all of its public and package-level
- * functions are synchronized, except getInstance functions (createInstance() is
- * synchronized).</p>
+ * LogFile is thread safe.  The Lock and the open streams are guarded by a
+ * read/write lock.  Functions which change them (open, close, backup, etc) are
+ * exclusive.  Functions which use them (readLine, write, etc) are shared, so
+ * readers of the same file don't wait for each other.  Each reader has its own
+ * stream, so lines are read outside of the read/write lock.</p>
  * 
  * <p>Copyright: Copyright 2006</p>
  *
@@ -62,11 +72,18 @@ public final class LogFile {
   private static final String PUBLIC_EXCEPTION_MESSAGE = "\nPlease make a copy "
       + "of the current etomo_err.log file and inform the software developer.";
 
-  private static final Hashtable logFileHashTable = new Hashtable();
+  // Guarded by instanceMap.
+  private static final Map<String, InstanceReference> instanceMap =
+      new HashMap<String, InstanceReference>();
+  private static final ReferenceQueue<LogFile> referenceQueue =
+      new ReferenceQueue<LogFile>();
+  private static final Set<LogFile> pinnedSet = new HashSet<LogFile>();
 
+  private final ReadWriteLock stateLock = new ReentrantReadWriteLock();
   private final Lock lock;
   private ReadingTokenList readingTokenList = new ReadingTokenList();
   private final String fileAbsolutePath;
+  private final File absoluteFile;
 
   private File file = null;
   private File backupFile = null;
@@ -75,7 +92,7 @@ public final class LogFile {
   private BufferedWriter bufferedWriter = null;
   private FileInputStream inputStream = null;
   private FileOutputStream outputStream = null;
-  private boolean backedUp = false;
+  private volatile boolean backedUp = false;
   private boolean debug = false;
 
   public void dumpState() {
@@ -93,6 +110,7 @@ public final class LogFile {
   private LogFile(File file) {
     lock = new Lock(this);
     this.fileAbsolutePath = file.getAbsolutePath();
+    absoluteFile = new File(fileAbsolutePath);
   }
 
   public String toString() {
@@ -131,44 +149,70 @@ public final class LogFile {
       e.printStackTrace();
       throw e;
     }
-    LogFile logFile;
     String key = file.getAbsolutePath();
-    if ((logFile = (LogFile) logFileHashTable.get(key)) == null) {
-      // the instance doesn't exist - create it
-      logFile = createInstance(file, key);
+    synchronized (instanceMap) {
+      removeCollectedInstances();
+      InstanceReference reference = instanceMap.get(key);
+      LogFile logFile = reference == null ? null : reference.get();
+      if (logFile == null) {
+        // the instance doesn't exist or has been garbage collected - create it
+        logFile = new LogFile(file);
+        instanceMap.put(key, new InstanceReference(logFile, key));
+      }
+      return logFile;
     }
-    return logFile;
   }
 
   /**
    * For testing.  Removes all instances of LogFile.
    */
-  synchronized static void reset() {
-    logFileHashTable.clear();
+  static void reset() {
+    synchronized (instanceMap) {
+      instanceMap.clear();
+      pinnedSet.clear();
+    }
   }
 
   /**
-   * Check for the existance of the instance, because another thread could have
-   * created before this thread called createInstance().  If the instance
-   * isn't there, create an instance of LogFile and a key and add them to
-   * logFileHashTable.
-   * @param userDir
-   * @param fileName
-   * @param key
-   * @return created instance
+   * For testing.
+   * @return the number of instances that haven't been garbage collected
    */
-  private static synchronized LogFile createInstance(File file, String key) {
-    LogFile logFile;
-    // make sure that the instance wasn't created by another thread
-    if (logFileHashTable != null
-        && (logFile = (LogFile) logFileHashTable.get(key)) != null) {
-      return logFile;
+  static int getInstanceCount() {
+    synchronized (instanceMap) {
+      removeCollectedInstances();
+      return instanceMap.size();
+    }
+  }
+
+  /**
+   * Removes the instances that have been garbage collected from instanceMap.
+   */
+  private static void removeCollectedInstances() {
+    InstanceReference reference;
+    while ((reference = (InstanceReference) referenceQueue.poll()) != null) {
+      // The key may already belong to a new instance.
+      if (instanceMap.get(reference.key) == reference) {
+        instanceMap.remove(reference.key);
+      }
+    }
+  }
+
+  /**
+   * Prevents logFile from being garbage collected.
+   */
+  private static void pin(final LogFile logFile) {
+    synchronized (instanceMap) {
+      pinnedSet.add(logFile);
+    }
+  }
+
+  /**
+   * Allows logFile to be garbage collected.
+   */
+  private static void unpin(final LogFile logFile) {
+    synchronized (instanceMap) {
+      pinnedSet.remove(logFile);
     }
-    // create the instance
-    logFile = new LogFile(file);
-    // save the instance
-    logFileHashTable.put(key, logFile);
-    return logFile;
   }
 
   public static String getLineContaining(final File file, final String searchString) {
@@ -208,29 +252,50 @@ public final class LogFile {
    * @return true if backup() was called and was successful
    * @throws FileException
    */
-  public synchronized boolean backupOnce() throws LockException {
-    if (backedUp) {
-      return false;
+  public boolean backupOnce() throws LockException {
+    stateLock.writeLock().lock();
+    try {
+      if (backedUp) {
+        return false;
+      }
+      boolean backupResult = false;
+      backupResult = backup();
+      setBackedUp();
+      return backupResult;
+    }
+    finally {
+      stateLock.writeLock().unlock();
     }
-    boolean backupResult = false;
-    backupResult = backup();
-    backedUp = true;
-    return backupResult;
   }
 
   public boolean isBackedup() {
     return backedUp;
   }
 
-  public synchronized boolean doubleBackupOnce() throws LockException {
-    if (backedUp) {
-      return false;
-    }
-    boolean backupResult = false;
-    doubleBackup();
-    backupResult = backup();
+  /**
+   * The instance is kept for the rest of the session so that it isn't backed up
+   * again.
+   */
+  private void setBackedUp() {
     backedUp = true;
-    return backupResult;
+    pin(this);
+  }
+
+  public boolean doubleBackupOnce() throws LockException {
+    stateLock.writeLock().lock();
+    try {
+      if (backedUp) {
+        return false;
+      }
+      boolean backupResult = false;
+      doubleBackup();
+      backupResult = backup();
+      setBackedUp();
+      return backupResult;
+    }
+    finally {
+      stateLock.writeLock().unlock();
+    }
   }
 
   private void doubleBackup() throws LockException {
@@ -241,13 +306,19 @@ public final class LogFile {
     doubleBackupFile = null;
   }
 
-  public synchronized boolean backup() throws LockException {
-    createFile();
-    createBackupFile();
-    boolean retval = backup(file, backupFile);
-    file = null;
-    backupFile = null;
-    return retval;
+  public boolean backup() throws LockException {
+    stateLock.writeLock().lock();
+    try {
+      createFile();
+      createBackupFile();
+      boolean retval = backup(file, backupFile);
+      file = null;
+      backupFile = null;
+      return retval;
+    }
+    finally {
+      stateLock.writeLock().unlock();
+    }
   }
 
   /**
@@ -258,86 +329,128 @@ public final class LogFile {
    * @return true if backup() successful or already backed up
    * @throws FileException
    */
-  public synchronized boolean backup(final File file, final File backupFile)
+  public boolean backup(final File file, final File backupFile)
       throws LockException {
-    if (backedUp) {
-      return false;
-    }
-    if (!file.exists()) {
-      return false;
-    }
-    FileId fileId = new FileId();
-    lock.lock(LockType.FILE, fileId);
-    if (!file.exists()) {
-      // nothing to backup
-      try {
-        lock.unlock(LockType.FILE, fileId);
+    stateLock.writeLock().lock();
+    try {
+      if (backedUp) {
+        return false;
       }
-      catch (LockException e) {
-        // Don't throw a file exception because the error didn't affect the
-        // backup.
-        e.printStackTrace();
+      if (!file.exists()) {
+        return false;
       }
-      return false;
-    }
-    boolean success = true;
-    // File logFile = new File(userDir, processName.toString()
-    // + axisID.getExtension() + ".log");
-    // File backupLogFile = new File(file.getAbsolutePath() + '~');
-    // don't delete backup file unless the file to be backed up exists
-    if (backupFile.exists()) {
-      Utilities.debugPrint(backupFile.getAbsolutePath() + " exists, deleting");
-      if (!delete(backupFile)) {
-        System.err.println("Unable to delete backup log file: "
-            + backupFile.getAbsolutePath());
-        if (backupFile.exists()) {
+      FileId fileId = new FileId();
+      lock.lock(LockType.FILE, fileId);
+      if (!file.exists()) {
+        // nothing to backup
+        try {
+          lock.unlock(LockType.FILE, fileId);
+        }
+        catch (LockException e) {
+          // Don't throw a file exception because the error didn't affect the
+          // backup.
+          e.printStackTrace();
+        }
+        return false;
+      }
+      boolean success = true;
+      // File logFile = new File(userDir, processName.toString()
+      // + axisID.getExtension() + ".log");
+      // File backupLogFile = new File(file.getAbsolutePath() + '~');
+      // don't delete backup file unless the file to be backed up exists
+      if (backupFile.exists()) {
+        Utilities.debugPrint(backupFile.getAbsolutePath() + " exists, deleting");
+        if (!delete(backupFile)) {
+          System.err.println("Unable to delete backup log file: "
+              + backupFile.getAbsolutePath());
+          if (backupFile.exists()) {
+            success = false;
+            System.err.println(backupFile.getAbsolutePath() + " still exists!");
+            new Exception().printStackTrace();
+          }
+          else {
+            System.err.println(backupFile.getAbsolutePath() + " does not exist!");
+          }
+        }
+      }
+      Utilities.debugPrint(file.getAbsolutePath() + " exists");
+      String actionMessage = Utilities.prepareRenameActionMessage(file, backupFile);
+      if (!file.renameTo(backupFile)) {
+        if (file.exists()) {
+          System.err.println(file.getAbsolutePath() + " still exists");
+          new Exception().printStackTrace();
           success = false;
+        }
+        else {
+          System.err.println(file.getAbsolutePath() + " does not exist!");
+        }
+        if (backupFile.exists()) {
           System.err.println(backupFile.getAbsolutePath() + " still exists!");
           new Exception().printStackTrace();
         }
         else {
-          System.err.println(backupFile.getAbsolutePath() + " does not exist!");
+          System.err.println(backupFile.getAbsolutePath() + " does not exist");
         }
+        System.err.println("Unable to rename file to: " + backupFile.getAbsolutePath());
+        System.err.println("lock.isThrowException()=" + lock.isThrowException());
+        StringBuffer message = new StringBuffer("Unable to rename "
+            + file.getAbsolutePath() + " to " + backupFile.getAbsolutePath());
+        if (lock.isThrowException()) {
+          message.append("\nIf either of these files is open in 3dmod, close 3dmod.");
+        }
+        throw new LockException(this, fileId, message.toString());
       }
-    }
-    Utilities.debugPrint(file.getAbsolutePath() + " exists");
-    String actionMessage = Utilities.prepareRenameActionMessage(file, backupFile);
-    if (!file.renameTo(backupFile)) {
-      if (file.exists()) {
-        System.err.println(file.getAbsolutePath() + " still exists");
-        new Exception().printStackTrace();
-        success = false;
-      }
-      else {
-        System.err.println(file.getAbsolutePath() + " does not exist!");
-      }
-      if (backupFile.exists()) {
-        System.err.println(backupFile.getAbsolutePath() + " still exists!");
-        new Exception().printStackTrace();
+      else if (actionMessage != null) {
+        System.err.println(actionMessage);
       }
-      else {
-        System.err.println(backupFile.getAbsolutePath() + " does not exist");
+      // reset the File variables sinces the file names may have changed.
+      try {
+        lock.unlock(LockType.FILE, fileId);
       }
-      System.err.println("Unable to rename file to: " + backupFile.getAbsolutePath());
-      System.err.println("lock.isThrowException()=" + lock.isThrowException());
-      StringBuffer message = new StringBuffer("Unable to rename "
-          + file.getAbsolutePath() + " to " + backupFile.getAbsolutePath());
-      if (lock.isThrowException()) {
-        message.append("\nIf either of these files is open in 3dmod, close 3dmod.");
+      catch (LockException e) {
+        e.printStackTrace();
       }
-      throw new LockException(this, fileId, message.toString());
+      return success;
     }
-    else if (actionMessage != null) {
-      System.err.println(actionMessage);
+    finally {
+      stateLock.writeLock().unlock();
     }
-    // reset the File variables sinces the file names may have changed.
+  }
+
+  /**
+   * Replace the file with source by renaming source, so that the file is never seen
+   * partly written.  On Windows, where a file can't be renamed over an existing file,
+   * the file is deleted first.
+   * @param source - a file in the same directory as this file
+   * @throws IOException if source could not be renamed
+   */
+  public void replace(final File source) throws LockException, IOException {
+    stateLock.writeLock().lock();
     try {
-      lock.unlock(LockType.FILE, fileId);
+      FileId fileId = new FileId();
+      lock.lock(LockType.FILE, fileId);
+      try {
+        createFile();
+        File target = file;
+        file = null;
+        if (!source.renameTo(target)
+            && (!target.exists() || !delete(target) || !source.renameTo(target))) {
+          throw new IOException("Unable to rename " + source.getAbsolutePath() + " to "
+              + target.getAbsolutePath());
+        }
+      }
+      finally {
+        try {
+          lock.unlock(LockType.FILE, fileId);
+        }
+        catch (LockException e) {
+          e.printStackTrace();
+        }
+      }
     }
-    catch (LockException e) {
-      e.printStackTrace();
+    finally {
+      stateLock.writeLock().unlock();
     }
-    return success;
   }
 
   /**
@@ -369,190 +482,228 @@ public final class LogFile {
    * @return
    * @throws FileException
    */
-  public synchronized boolean create() throws LockException, IOException {
-    createFile();
-    if (file.exists()) {
-      return false;
-    }
-    FileId fileId = new FileId();
-    lock.lock(LockType.FILE, fileId);
-    if (file.exists()) {
-      // nothing to create
+  public boolean create() throws LockException, IOException {
+    stateLock.writeLock().lock();
+    try {
+      createFile();
+      if (file.exists()) {
+        return false;
+      }
+      FileId fileId = new FileId();
+      lock.lock(LockType.FILE, fileId);
+      if (file.exists()) {
+        // nothing to create
+        try {
+          lock.unlock(LockType.FILE, fileId);
+        }
+        catch (LockException e) {
+          // Don't throw a file exception because the error didn't affect the
+          // create.
+          e.printStackTrace();
+        }
+        return false;
+      }
+      file.createNewFile();
+      boolean success = file.exists();
       try {
         lock.unlock(LockType.FILE, fileId);
       }
       catch (LockException e) {
-        // Don't throw a file exception because the error didn't affect the
-        // create.
         e.printStackTrace();
       }
-      return false;
-    }
-    file.createNewFile();
-    boolean success = file.exists();
-    try {
-      lock.unlock(LockType.FILE, fileId);
-    }
-    catch (LockException e) {
-      e.printStackTrace();
-    }
-    if (success) {
+      if (success) {
+        file = null;
+        return true;
+      }
+      String path = file.getAbsolutePath();
       file = null;
-      return true;
+      throw new LockException(this, fileId, "Unable to create " + path);
+    }
+    finally {
+      stateLock.writeLock().unlock();
     }
-    String path = file.getAbsolutePath();
-    file = null;
-    throw new LockException(this, fileId, "Unable to create " + path);
   }
 
-  public synchronized boolean delete() throws LockException {
-    createFile();
-    if (!file.exists()) {
-      return false;
-    }
-    FileId fileId = new FileId();
-    lock.lock(LockType.FILE, fileId);
-    if (!file.exists()) {
-      // nothing to delete
+  public boolean delete() throws LockException {
+    stateLock.writeLock().lock();
+    try {
+      createFile();
+      if (!file.exists()) {
+        return false;
+      }
+      FileId fileId = new FileId();
+      lock.lock(LockType.FILE, fileId);
+      if (!file.exists()) {
+        // nothing to delete
+        try {
+          lock.unlock(LockType.FILE, fileId);
+        }
+        catch (LockException e) {
+          // Don't throw a file exception because the error didn't affect the
+          // delete.
+          e.printStackTrace();
+        }
+        return false;
+      }
+      file.delete();
+      try {
+        Thread.sleep(500);
+      }
+      catch (InterruptedException e) {
+      }
+      boolean success = !file.exists();
       try {
         lock.unlock(LockType.FILE, fileId);
       }
       catch (LockException e) {
-        // Don't throw a file exception because the error didn't affect the
-        // delete.
         e.printStackTrace();
       }
-      return false;
-    }
-    file.delete();
-    try {
-      Thread.sleep(500);
-    }
-    catch (InterruptedException e) {
-    }
-    boolean success = !file.exists();
-    try {
-      lock.unlock(LockType.FILE, fileId);
-    }
-    catch (LockException e) {
-      e.printStackTrace();
-    }
-    if (success) {
+      if (success) {
+        file = null;
+        return true;
+      }
+      String path = file.getAbsolutePath();
       file = null;
-      return true;
+      throw new LockException(this, fileId, "Unable to delete " + path);
+    }
+    finally {
+      stateLock.writeLock().unlock();
     }
-    String path = file.getAbsolutePath();
-    file = null;
-    throw new LockException(this, fileId, "Unable to delete " + path);
   }
 
-  public synchronized boolean move(LogFile target) throws LockException {
-    createFile();
-    if (!file.exists()) {
-      return false;
-    }
-    FileId fileId = new FileId();
-    lock.lock(LockType.FILE, fileId);
-    if (!file.exists()) {
-      // nothing to move
+  public boolean move(LogFile target) throws LockException {
+    stateLock.writeLock().lock();
+    try {
+      createFile();
+      if (!file.exists()) {
+        return false;
+      }
+      FileId fileId = new FileId();
+      lock.lock(LockType.FILE, fileId);
+      if (!file.exists()) {
+        // nothing to move
+        try {
+          lock.unlock(LockType.FILE, fileId);
+        }
+        catch (LockException e) {
+          // Don't throw a file exception because the error didn't affect the
+          // move.
+          e.printStackTrace();
+        }
+        return false;
+      }
       try {
-        lock.unlock(LockType.FILE, fileId);
+        target.backup();
       }
-      catch (LockException e) {
-        // Don't throw a file exception because the error didn't affect the
-        // move.
-        e.printStackTrace();
+      catch (LockException backupException) {
+        // unable to backup
+        try {
+          lock.unlock(LockType.FILE, fileId);
+        }
+        catch (LockException e) {
+          // Don't throw a file exception because the error didn't affect the
+          // move.
+          e.printStackTrace();
+        }
+
+        throw backupException;
       }
-      return false;
-    }
-    try {
-      target.backup();
-    }
-    catch (LockException backupException) {
-      // unable to backup
+      // need to get a file lock on the target for this operation
+      FileId targetFileId = new FileId();
+      boolean success;
+      // The target's Lock is guarded by the target's read/write lock.
+      target.stateLock.writeLock().lock();
       try {
-        lock.unlock(LockType.FILE, fileId);
+        target.lock.lock(LockType.FILE, targetFileId);
+        target.createFile();
+        String actionMessage = Utilities.prepareRenameActionMessage(file, target.file);
+        success = file.renameTo(target.file);
+        if (actionMessage != null && success) {
+          System.err.println(actionMessage);
+        }
+        try {
+          Thread.sleep(500);
+        }
+        catch (InterruptedException e) {
+        }
+        try {
+          lock.unlock(LockType.FILE, fileId);
+        }
+        catch (LockException e) {
+          e.printStackTrace();
+        }
+        // unlock target file lock
+        try {
+          target.lock.unlock(LockType.FILE, targetFileId);
+        }
+        catch (LockException e) {
+          e.printStackTrace();
+        }
       }
-      catch (LockException e) {
-        // Don't throw a file exception because the error didn't affect the
-        // move.
-        e.printStackTrace();
+      finally {
+        target.stateLock.writeLock().unlock();
       }
-
-      throw backupException;
-    }
-    // need to get a file lock on the target for this operation
-    FileId targetFileId = new FileId();
-    target.lock.lock(LockType.FILE, targetFileId);
-    target.createFile();
-    String actionMessage = Utilities.prepareRenameActionMessage(file, target.file);
-    boolean success = file.renameTo(target.file);
-    if (actionMessage != null && success) {
-      System.err.println(actionMessage);
-    }
-    try {
-      Thread.sleep(500);
-    }
-    catch (InterruptedException e) {
-    }
-    try {
-      lock.unlock(LockType.FILE, fileId);
-    }
-    catch (LockException e) {
-      e.printStackTrace();
-    }
-    // unlock target file lock
-    try {
-      target.lock.unlock(LockType.FILE, targetFileId);
-    }
-    catch (LockException e) {
-      e.printStackTrace();
-    }
-    if (success) {
+      if (success) {
+        file = null;
+        return true;
+      }
+      String path = file.getAbsolutePath();
       file = null;
-      return true;
+      throw new LockException(this, fileId, "Unable to rename " + path + " to "
+          + target.fileAbsolutePath);
+    }
+    finally {
+      stateLock.writeLock().unlock();
     }
-    String path = file.getAbsolutePath();
-    file = null;
-    throw new LockException(this, fileId, "Unable to rename " + path + " to "
-        + target.fileAbsolutePath);
   }
 
-  public synchronized WriterId openWriter(final boolean append) throws LockException,
+  public WriterId openWriter(final boolean append) throws LockException,
       IOException {
-    WriterId writerId = new WriterId();
-    lock.lock(LockType.WRITE, writerId);
+    stateLock.writeLock().lock();
     try {
-      createWriter(append);
-    }
-    catch (IOException e) {
+      WriterId writerId = new WriterId();
+      lock.lock(LockType.WRITE, writerId);
       try {
-        lock.unlock(LockType.WRITE, writerId);
+        createWriter(append);
       }
-      catch (LockException e0) {
-        e0.printStackTrace();
+      catch (IOException e) {
+        try {
+          lock.unlock(LockType.WRITE, writerId);
+        }
+        catch (LockException e0) {
+          e0.printStackTrace();
+        }
+        throw e;
       }
-      throw e;
+      return writerId;
+    }
+    finally {
+      stateLock.writeLock().unlock();
     }
-    return writerId;
   }
 
-  public synchronized WriterId openWriter() throws LockException, IOException {
-    WriterId writerId = new WriterId();
-    lock.lock(LockType.WRITE, writerId);
+  public WriterId openWriter() throws LockException, IOException {
+    stateLock.writeLock().lock();
     try {
-      createWriter(false);
-    }
-    catch (IOException e) {
+      WriterId writerId = new WriterId();
+      lock.lock(LockType.WRITE, writerId);
       try {
-        lock.unlock(LockType.WRITE, writerId);
+        createWriter(false);
       }
-      catch (LockException e0) {
-        e0.printStackTrace();
+      catch (IOException e) {
+        try {
+          lock.unlock(LockType.WRITE, writerId);
+        }
+        catch (LockException e0) {
+          e0.printStackTrace();
+        }
+        throw e;
       }
-      throw e;
+      return writerId;
+    }
+    finally {
+      stateLock.writeLock().unlock();
     }
-    return writerId;
   }
 
   /**
@@ -560,10 +711,16 @@ public final class LogFile {
    * @see waitForLock()
    * @return
    */
-  public synchronized WritingId openForWriting() throws LockException {
-    WritingId writingId = new WritingId();
-    lock.lock(LockType.WRITE, writingId);
-    return writingId;
+  public WritingId openForWriting() throws LockException {
+    stateLock.writeLock().lock();
+    try {
+      WritingId writingId = new WritingId();
+      lock.lock(LockType.WRITE, writingId);
+      return writingId;
+    }
+    finally {
+      stateLock.writeLock().unlock();
+    }
   }
 
   /**
@@ -575,22 +732,28 @@ public final class LogFile {
    * @return
    * @throws InputStreamException
    */
-  public synchronized InputStreamId openInputStream() throws LockException, IOException {
-    InputStreamId inputStreamId = new InputStreamId();
-    lock.lock(LockType.WRITE, inputStreamId);
+  public InputStreamId openInputStream() throws LockException, IOException {
+    stateLock.writeLock().lock();
     try {
-      createInputStream();
-    }
-    catch (IOException e) {
+      InputStreamId inputStreamId = new InputStreamId();
+      lock.lock(LockType.WRITE, inputStreamId);
       try {
-        lock.unlock(LockType.WRITE, inputStreamId);
+        createInputStream();
       }
-      catch (LockException e0) {
-        e0.printStackTrace();
+      catch (IOException e) {
+        try {
+          lock.unlock(LockType.WRITE, inputStreamId);
+        }
+        catch (LockException e0) {
+          e0.printStackTrace();
+        }
+        throw e;
       }
-      throw e;
+      return inputStreamId;
+    }
+    finally {
+      stateLock.writeLock().unlock();
     }
-    return inputStreamId;
   }
 
   /**
@@ -598,157 +761,204 @@ public final class LogFile {
    * @return
    * @throws WriteException
    */
-  public synchronized OutputStreamId openOutputStream() throws LockException, IOException {
-    OutputStreamId outputStreamId = new OutputStreamId();
-    lock.lock(LockType.WRITE, outputStreamId);
+  public OutputStreamId openOutputStream() throws LockException, IOException {
+    stateLock.writeLock().lock();
     try {
-      createOutputStream();
-    }
-    catch (IOException e) {
+      OutputStreamId outputStreamId = new OutputStreamId();
+      lock.lock(LockType.WRITE, outputStreamId);
       try {
-        lock.unlock(LockType.WRITE, outputStreamId);
+        createOutputStream();
       }
-      catch (LockException e0) {
-        e0.printStackTrace();
+      catch (IOException e) {
+        try {
+          lock.unlock(LockType.WRITE, outputStreamId);
+        }
+        catch (LockException e0) {
+          e0.printStackTrace();
+        }
+        throw e;
       }
-      throw e;
+      return outputStreamId;
+    }
+    finally {
+      stateLock.writeLock().unlock();
     }
-    return outputStreamId;
   }
 
-  public synchronized boolean closeInputStream(InputStreamId inputStreamId) {
-    if (inputStream == null) {
-      new LockException(this, inputStreamId,
-          "Must use closeForWriting() when opened with openForWriting()")
-          .printStackTrace();
-      return false;
-    }
-    // close the input stream before unlocking
+  public boolean closeInputStream(InputStreamId inputStreamId) {
+    stateLock.writeLock().lock();
     try {
-      lock.assertUnlockable(LockType.WRITE, inputStreamId);
-      closeInputStream();
-      lock.unlock(LockType.WRITE, inputStreamId);
-    }
-    catch (IOException e) {
-      e.printStackTrace();
-      return false;
+      if (inputStream == null) {
+        new LockException(this, inputStreamId,
+            "Must use closeForWriting() when opened with openForWriting()")
+            .printStackTrace();
+        return false;
+      }
+      // close the input stream before unlocking
+      try {
+        lock.assertUnlockable(LockType.WRITE, inputStreamId);
+        closeInputStream();
+        lock.unlock(LockType.WRITE, inputStreamId);
+      }
+      catch (IOException e) {
+        e.printStackTrace();
+        return false;
+      }
+      catch (LockException e) {
+        e.printStackTrace();
+        return false;
+      }
+      return true;
     }
-    catch (LockException e) {
-      e.printStackTrace();
-      return false;
+    finally {
+      stateLock.writeLock().unlock();
     }
-    return true;
   }
 
-  public synchronized boolean closeOutputStream(OutputStreamId outputStreamId) {
-    if (outputStream == null) {
-      new LockException(this, outputStreamId,
-          "Must use closeForWriting() when opened with openForWriting()")
-          .printStackTrace();
-      return false;
-    }
-    // close the input stream before unlocking
+  public boolean closeOutputStream(OutputStreamId outputStreamId) {
+    stateLock.writeLock().lock();
     try {
-      lock.assertUnlockable(LockType.WRITE, outputStreamId);
-      closeOutputStream();
-      lock.unlock(LockType.WRITE, outputStreamId);
-    }
-    catch (IOException e) {
-      e.printStackTrace();
-      return false;
+      if (outputStream == null) {
+        new LockException(this, outputStreamId,
+            "Must use closeForWriting() when opened with openForWriting()")
+            .printStackTrace();
+        return false;
+      }
+      // close the input stream before unlocking
+      try {
+        lock.assertUnlockable(LockType.WRITE, outputStreamId);
+        closeOutputStream();
+        lock.unlock(LockType.WRITE, outputStreamId);
+      }
+      catch (IOException e) {
+        e.printStackTrace();
+        return false;
+      }
+      catch (LockException e) {
+        e.printStackTrace();
+        return false;
+      }
+      return true;
     }
-    catch (LockException e) {
-      e.printStackTrace();
-      return false;
+    finally {
+      stateLock.writeLock().unlock();
     }
-    return true;
   }
 
   /**
    * Unlocks the open variable and closes the writer
    */
-  public synchronized boolean closeForWriting(WritingId writingId) {
+  public boolean closeForWriting(WritingId writingId) {
+    stateLock.writeLock().lock();
     try {
       lock.unlock(LockType.WRITE, writingId);
+      return true;
     }
     catch (LockException e) {
       e.printStackTrace();
       return false;
     }
-    return true;
+    finally {
+      stateLock.writeLock().unlock();
+    }
   }
 
-  public synchronized boolean closeWriter(WriterId writerId) {
-    if (fileWriter == null) {
-      new LockException(this, writerId,
-          "Must use closeForWriting() when opened with openForWriting()")
-          .printStackTrace();
-      return false;
-    }
-    // close the writer before unlocking
+  public boolean closeWriter(WriterId writerId) {
+    stateLock.writeLock().lock();
     try {
-      lock.assertUnlockable(LockType.WRITE, writerId);
-      closeWriter();
-      lock.unlock(LockType.WRITE, writerId);
+      if (fileWriter == null) {
+        new LockException(this, writerId,
+            "Must use closeForWriting() when opened with openForWriting()")
+            .printStackTrace();
+        return false;
+      }
+      // close the writer before unlocking
+      try {
+        lock.assertUnlockable(LockType.WRITE, writerId);
+        closeWriter();
+        lock.unlock(LockType.WRITE, writerId);
+      }
+      catch (IOException e) {
+        e.printStackTrace();
+        return false;
+      }
+      catch (LockException e) {
+        e.printStackTrace();
+        return false;
+      }
+      return true;
     }
-    catch (IOException e) {
-      e.printStackTrace();
-      return false;
+    finally {
+      stateLock.writeLock().unlock();
     }
-    catch (LockException e) {
-      e.printStackTrace();
-      return false;
-    }
-    return true;
   }
 
-  public synchronized ReaderId openReader() throws LockException, FileNotFoundException {
-    ReaderId readerId = new ReaderId();
-    lock.lock(LockType.READ, readerId);
-    createFile();
-    String idKey = ReadingTokenList.makeKey(readerId);
+  public ReaderId openReader() throws LockException, FileNotFoundException {
+    stateLock.writeLock().lock();
     try {
-      readingTokenList.openReadingToken(idKey, file, ReaderType.READER);
+      ReaderId readerId = new ReaderId();
+      lock.lock(LockType.READ, readerId);
+      createFile();
+      String idKey = ReadingTokenList.makeKey(readerId);
+      try {
+        readingTokenList.openReadingToken(idKey, file, ReaderType.READER);
+      }
+      catch (FileNotFoundException e) {
+        lock.unlock(LockType.READ, readerId);
+        throw e;
+      }
+      return readerId;
     }
-    catch (FileNotFoundException e) {
-      lock.unlock(LockType.READ, readerId);
-      throw e;
+    finally {
+      stateLock.writeLock().unlock();
     }
-    return readerId;
   }
 
-  public synchronized BigBufferReaderId openBigBufferReaderId() throws LockException,
+  public BigBufferReaderId openBigBufferReaderId() throws LockException,
       FileNotFoundException {
-    BigBufferReaderId id = new BigBufferReaderId();
-    lock.lock(LockType.READ, id);
-    createFile();
-    String idKey = ReadingTokenList.makeKey(id);
+    stateLock.writeLock().lock();
     try {
-      readingTokenList.openReadingToken(idKey, file, ReaderType.BIG_BUFFER_READER);
+      BigBufferReaderId id = new BigBufferReaderId();
+      lock.lock(LockType.READ, id);
+      createFile();
+      String idKey = ReadingTokenList.makeKey(id);
+      try {
+        readingTokenList.openReadingToken(idKey, file, ReaderType.BIG_BUFFER_READER);
+      }
+      catch (FileNotFoundException e) {
+        lock.unlock(LockType.READ, id);
+        throw e;
+      }
+      return id;
     }
-    catch (FileNotFoundException e) {
-      lock.unlock(LockType.READ, id);
-      throw e;
+    finally {
+      stateLock.writeLock().unlock();
     }
-    return id;
   }
 
-  public synchronized ReadingId openForReading() throws LockException,
+  public ReadingId openForReading() throws LockException,
       FileNotFoundException {
-    ReadingId readingId = new ReadingId();
-    lock.lock(LockType.READ, readingId);
-    createFile();
-    String idKey = ReadingTokenList.makeKey(readingId);
+    stateLock.writeLock().lock();
     try {
-      readingTokenList.openReadingToken(idKey, file, ReaderType.READING);
+      ReadingId readingId = new ReadingId();
+      lock.lock(LockType.READ, readingId);
+      createFile();
+      String idKey = ReadingTokenList.makeKey(readingId);
+      try {
+        readingTokenList.openReadingToken(idKey, file, ReaderType.READING);
+      }
+      catch (FileNotFoundException e) {
+        lock.unlock(LockType.READ, readingId);
+      }
+      return readingId;
     }
-    catch (FileNotFoundException e) {
-      lock.unlock(LockType.READ, readingId);
+    finally {
+      stateLock.writeLock().unlock();
     }
-    return readingId;
   }
 
-  public synchronized boolean closeRead(Id readId) {
+  public boolean closeRead(Id readId) {
+    stateLock.writeLock().lock();
     // close the reader before unlocking
     try {
       lock.assertUnlockable(LockType.READ, readId);
@@ -756,12 +966,15 @@ public final class LogFile {
       ReadingToken readingToken = readingTokenList.getReadingToken(ReadingTokenList
           .makeKey(readId));
       if (readingToken != null) {
-        readingToken.close();
+        synchronized (readingToken) {
+          readingToken.close();
+        }
       }
       else {
         new LockException(this, readId, "readingToken is null.").printStackTrace();
       }
       lock.unlock(LockType.READ, readId);
+      return true;
     }
     catch (IOException e) {
       e.printStackTrace();
@@ -771,7 +984,9 @@ public final class LogFile {
       e.printStackTrace();
       return false;
     }
-    return true;
+    finally {
+      stateLock.writeLock().unlock();
+    }
   }
 
   /**
@@ -782,18 +997,14 @@ public final class LogFile {
    * @throws LockException
    * @throws IOException
    */
-  public synchronized String readLine(ReaderId readId) throws LockException, IOException {
-    if (!lock.isLocked(LockType.READ, readId)) {
-      throw new LockException(this, readId);
+  public String readLine(ReaderId readId) throws LockException, IOException {
+    Reader reader = (Reader) getReadingToken(readId, ReaderType.READER);
+    if (reader == null) {
+      return null;
     }
-    createFile();
-    Reader reader = readingTokenList.getReader(ReadingTokenList.makeKey(readId));
-    if (reader != null) {
+    synchronized (reader) {
       return reader.readLine();
     }
-    else {
-      return null;
-    }
   }
 
   /**
@@ -804,20 +1015,16 @@ public final class LogFile {
    * @throws LockException
    * @throws IOException
    */
-  public synchronized boolean searchForLastLine(BigBufferReaderId id, String line)
+  public boolean searchForLastLine(BigBufferReaderId id, String line)
       throws LockException, IOException {
-    if (!lock.isLocked(LockType.READ, id)) {
-      throw new LockException(this, id);
+    BigBufferReader reader = (BigBufferReader) getReadingToken(id,
+        ReaderType.BIG_BUFFER_READER);
+    if (reader == null) {
+      return false;
     }
-    createFile();
-    BigBufferReader reader = readingTokenList.getBigBufferReader(ReadingTokenList
-        .makeKey(id));
-    if (reader != null) {
+    synchronized (reader) {
       return reader.searchForLastLine(line);
     }
-    else {
-      return false;
-    }
   }
 
   /**
@@ -828,14 +1035,13 @@ public final class LogFile {
    * @throws LockException
    * @throws IOException
    */
-  public synchronized String getLineContaining(ReaderId id, String searchString)
+  public String getLineContaining(ReaderId id, String searchString)
       throws LockException, IOException {
-    if (!lock.isLocked(LockType.READ, id)) {
-      throw new LockException(this, id);
+    Reader reader = (Reader) getReadingToken(id, ReaderType.READER);
+    if (reader == null) {
+      return null;
     }
-    createFile();
-    Reader reader = readingTokenList.getReader(ReadingTokenList.makeKey(id));
-    if (reader != null) {
+    synchronized (reader) {
       String line = reader.readLine();
       while (line != null) {
         if (line.indexOf(searchString) != -1) {
@@ -847,12 +1053,117 @@ public final class LogFile {
     return null;
   }
 
-  public synchronized void load(Properties properties, InputStreamId inputStreamId)
+  /**
+   * Reads the last lines of the file.  The file is read backwards from the end, so
+   * this doesn't depend on the size of the file.
+   * @param nLines
+   * @return the last nLines lines, or fewer if the file is shorter
+   * @throws LockException
+   * @throws IOException
+   */
+  public String[] getLastLines(final int nLines) throws LockException, IOException {
+    ReadingId id = openForReading();
+    try {
+      return FileTail.getLastLines(absoluteFile, nLines);
+    }
+    finally {
+      closeRead(id);
+    }
+  }
+
+  /**
+   * Returns true if string is in the last 2 * string.length() characters of the
+   * file, so that it can be followed by a line break.  Only the end of the file is
+   * read.
+   * @param string
+   * @return
+   * @throws LockException
+   * @throws IOException
+   */
+  public boolean tailContains(final String string) throws LockException, IOException {
+    ReadingId id = openForReading();
+    try {
+      return FileTail.tailContains(absoluteFile, string);
+    }
+    finally {
+      closeRead(id);
+    }
+  }
+
+  /**
+   * Finds the lines that match any of markers.  The file is indexed, so only the part
+   * of the file that was added since the last search is read.
+   * @param markers
+   * @return the matching lines, in the order they are in the file
+   * @throws LockException
+   * @throws IOException
+   */
+  public String[] findLines(final LogIndex.Marker[] markers) throws LockException,
+      IOException {
+    ReadingId id = openForReading();
+    try {
+      return LogIndex.getInstance(absoluteFile).findLines(markers);
+    }
+    finally {
+      closeRead(id);
+    }
+  }
+
+  /**
+   * Like findLines, for one marker.
+   * @param marker
+   * @return the first line that matches marker, or null if none do
+   * @throws LockException
+   * @throws IOException
+   */
+  public String findFirstLine(final LogIndex.Marker marker) throws LockException,
+      IOException {
+    ReadingId id = openForReading();
+    try {
+      return LogIndex.getInstance(absoluteFile).findFirstLine(marker);
+    }
+    finally {
+      closeRead(id);
+    }
+  }
+
+  /**
+   * Checks the READ lock and gets the reader that belongs to id.  Only the reader is
+   * used after this, so the read/write lock isn't held while reading.
+   * @return the reader, or null if id doesn't have a reader of readerType
+   * @throws LockException if id isn't locked
+   */
+  private ReadingToken getReadingToken(final Id id, final ReaderType readerType)
+      throws LockException {
+    stateLock.readLock().lock();
+    try {
+      if (!lock.isLocked(LockType.READ, id)) {
+        throw new LockException(this, id);
+      }
+      ReadingToken readingToken = readingTokenList.getReadingToken(ReadingTokenList
+          .makeKey(id));
+      if (readingToken == null || readingToken.getReaderType() != readerType) {
+        return null;
+      }
+      return readingToken;
+    }
+    finally {
+      stateLock.readLock().unlock();
+    }
+  }
+
+  public void load(Properties properties, InputStreamId inputStreamId)
       throws LockException, IOException {
-    if (inputStream == null || !lock.isLocked(LockType.WRITE, inputStreamId)) {
-      throw new LockException(this, inputStreamId);
+    stateLock.readLock().lock();
+    try {
+      if (inputStream == null || !lock.isLocked(LockType.WRITE, inputStreamId)) {
+        throw new LockException(this, inputStreamId);
+      }
+      properties.load(inputStream);
+    }
+    finally {
+      stateLock.readLock().unlock();
     }
-    properties.load(inputStream);
   }
 
   public void setDebug(boolean input) {
@@ -860,58 +1171,88 @@ public final class LogFile {
     readingTokenList.setDebug(debug);
   }
 
-  public synchronized void store(Properties properties, OutputStreamId outputStreamId)
+  public void store(Properties properties, OutputStreamId outputStreamId)
       throws LockException, IOException {
-    if (outputStream == null || !lock.isLocked(LockType.WRITE, outputStreamId)) {
-      throw new LockException(this, outputStreamId);
+    stateLock.readLock().lock();
+    try {
+      if (outputStream == null || !lock.isLocked(LockType.WRITE, outputStreamId)) {
+        throw new LockException(this, outputStreamId);
+      }
+      properties.store(outputStream, null);
+    }
+    finally {
+      stateLock.readLock().unlock();
     }
-    properties.store(outputStream, null);
   }
 
-  public synchronized void write(String string, WriterId writerId) throws LockException,
+  public void write(String string, WriterId writerId) throws LockException,
       IOException {
-    if (string == null) {
-      return;
-    }
-    if (fileWriter == null) {
-      throw new LockException(this, writerId, "fileWriter is null");
+    stateLock.readLock().lock();
+    try {
+      if (string == null) {
+        return;
+      }
+      if (fileWriter == null) {
+        throw new LockException(this, writerId, "fileWriter is null");
+      }
+      if (!lock.isLocked(LockType.WRITE, writerId)) {
+        throw new LockException(this, writerId, "not locked");
+      }
+      bufferedWriter.write(string);
     }
-    if (!lock.isLocked(LockType.WRITE, writerId)) {
-      throw new LockException(this, writerId, "not locked");
+    finally {
+      stateLock.readLock().unlock();
     }
-    bufferedWriter.write(string);
   }
 
-  public synchronized void write(char ch, WriterId writerId) throws LockException,
+  public void write(char ch, WriterId writerId) throws LockException,
       IOException {
-    if (fileWriter == null || !lock.isLocked(LockType.WRITE, writerId)) {
-      throw new LockException(this, writerId);
+    stateLock.readLock().lock();
+    try {
+      if (fileWriter == null || !lock.isLocked(LockType.WRITE, writerId)) {
+        throw new LockException(this, writerId);
+      }
+      bufferedWriter.write(ch);
+    }
+    finally {
+      stateLock.readLock().unlock();
     }
-    bufferedWriter.write(ch);
   }
 
-  public synchronized void write(Character ch, WriterId writerId) throws LockException,
+  public void write(Character ch, WriterId writerId) throws LockException,
       IOException {
     write(ch.charValue(), writerId);
   }
 
-  public synchronized void newLine(WriterId writerId) throws LockException, IOException {
-    if (fileWriter == null || !lock.isLocked(LockType.WRITE, writerId)) {
-      throw new LockException(this, writerId);
+  public void newLine(WriterId writerId) throws LockException, IOException {
+    stateLock.readLock().lock();
+    try {
+      if (fileWriter == null || !lock.isLocked(LockType.WRITE, writerId)) {
+        throw new LockException(this, writerId);
+      }
+      bufferedWriter.newLine();
+    }
+    finally {
+      stateLock.readLock().unlock();
     }
-    bufferedWriter.newLine();
   }
 
-  public synchronized void flush(WriterId writerId) throws LockException, IOException {
-    if (!lock.isLocked(LockType.WRITE, writerId)) {
-      throw new LockException(this, writerId);
-    }
+  public void flush(WriterId writerId) throws LockException, IOException {
+    stateLock.readLock().lock();
     try {
-      bufferedWriter.flush();
+      if (!lock.isLocked(LockType.WRITE, writerId)) {
+        throw new LockException(this, writerId);
+      }
+      try {
+        bufferedWriter.flush();
+      }
+      catch (NullPointerException e) {
+        throw new LockException(writerId,
+            "Must open with openWriter() to be able to call flush().", e);
+      }
     }
-    catch (NullPointerException e) {
-      throw new LockException(writerId,
-          "Must open with openWriter() to be able to call flush().", e);
+    finally {
+      stateLock.readLock().unlock();
     }
   }
 
@@ -1017,54 +1358,65 @@ public final class LogFile {
     }
   }
 
-  public synchronized boolean exists() {
-    createFile();
-    return file.exists();
+  public boolean exists() {
+    return absoluteFile.exists();
   }
 
-  public synchronized long lastModified() {
-    createFile();
-    return file.lastModified();
+  public long lastModified() {
+    return absoluteFile.lastModified();
   }
 
-  public synchronized String getAbsolutePath() {
-    createFile();
-    return file.getAbsolutePath();
+  public String getAbsolutePath() {
+    return fileAbsolutePath;
   }
 
-  public synchronized boolean isDirectory() {
-    createFile();
-    return file.isDirectory();
+  public boolean isDirectory() {
+    return absoluteFile.isDirectory();
   }
 
-  public synchronized String getName() {
-    createFile();
-    return file.getName();
+  public String getName() {
+    return absoluteFile.getName();
   }
 
   /**
    * @return true if the open variabled is locked.
    */
-  synchronized boolean isOpen() {
-    return lock.isLocked();
+  boolean isOpen() {
+    stateLock.readLock().lock();
+    try {
+      return lock.isLocked();
+    }
+    finally {
+      stateLock.readLock().unlock();
+    }
   }
 
   /**
    * @return true if the open variabled is locked.
    */
-  synchronized boolean isOpen(LockType lockType, Id id) {
-    return lock.isLocked(lockType, id);
+  boolean isOpen(LockType lockType, Id id) {
+    stateLock.readLock().lock();
+    try {
+      return lock.isLocked(lockType, id);
+    }
+    finally {
+      stateLock.readLock().unlock();
+    }
   }
 
-  synchronized boolean noLocks() {
+  boolean noLocks() {
+    stateLock.writeLock().lock();
     try {
       lock.assertNoLocks();
+      return true;
     }
     catch (LockException e) {
       e.printStackTrace();
       return false;
     }
-    return true;
+    finally {
+      stateLock.writeLock().unlock();
+    }
   }
 
   static final class LockType {
@@ -1180,6 +1532,9 @@ public final class LogFile {
       }
       assertLockable(lockType);
       // set the lock
+      if (!locked) {
+        pin(logFile);
+      }
       locked = true;
       // save the lock id in the variable matching the lock type
       // increment the current id
@@ -1245,6 +1600,9 @@ public final class LogFile {
       // turn off locked if all the saved ids are empty
       if (readIdHashMap.isEmpty() && writeId == NO_ID && fileId == NO_ID) {
         locked = false;
+        if (!logFile.backedUp) {
+          unpin(logFile);
+        }
       }
       return;
     }
@@ -1452,7 +1810,7 @@ public final class LogFile {
           hashMap.remove(oldKey);
           readingToken.setKey(currentKey);
           hashMap.put(currentKey, readingToken);
-
+          return;
         }
       }
       // Can't find a closed reader, so create a new one
@@ -1536,9 +1894,11 @@ public final class LogFile {
     void close() throws IOException {
       if (fileReader != null) {
         fileReader.close();
+        fileReader = null;
       }
       if (bufferedReader != null) {
         bufferedReader.close();
+        bufferedReader = null;
       }
       super.close();
     }
@@ -1573,9 +1933,11 @@ public final class LogFile {
     void close() throws IOException {
       if (fileReader != null) {
         fileReader.close();
+        fileReader = null;
       }
       if (bufferedReader != null) {
         bufferedReader.close();
+        bufferedReader = null;
       }
       super.close();
     }
@@ -1585,62 +1947,27 @@ public final class LogFile {
     }
 
     /**
-     * Searches for a string in the last characters in a file.  Finds the last characters
-     * of the file equal to 2 times the length of lastLine and searches them for lastLine.
-     * Returns true if lastLine found in this span of characters.
+     * Searches for a string in the last characters in a file.  Reads the last
+     * characters of the file equal to 2 times the length of lastLine and searches them
+     * for lastLine.  Returns true if lastLine found in this span of characters.
      * @param lastLine
      * @return
      * @throws IOException
      */
     boolean searchForLastLine(final String lastLine) throws IOException {
-      // Increase the size to handle a final end of line (linux or windows).
-      int lengthToScan = lastLine.length() * 2;
-      if (lengthToScan > SIZE) {
-        new IllegalArgumentException("String too large to scan for:" + lastLine)
-            .printStackTrace();
-        return false;
-      }
-      int nReadTemp;
-      int nRead = -1;
-      int nReadPrev = -1;
-      // Not sure if read reallocates the char array. Avoid assigning one char array to
-      // the other by using alternating reads
-      boolean first = true;
-      char[] firstCharArray = new char[SIZE];
-      char[] secondCharArray = new char[SIZE];
-      while ((nReadTemp = bufferedReader.read(first ? firstCharArray : secondCharArray)) != -1) {
-        // Save the previous number of characters read
-        nReadPrev = nRead;
-        // Save the number of characters read this time
-        nRead = nReadTemp;
-        first = !first;
-      }
-      if (nRead == -1) {
-        // Nothing was read
-        return false;
-      }
-      // Assign the apropriate char array
-      char[] charArray = null;
-      char[] charArrayPrev = null;
-      if (!first) {
-        charArray = firstCharArray;
-        charArrayPrev = secondCharArray;
-      }
-      else {
-        charArray = secondCharArray;
-        charArrayPrev = firstCharArray;
-      }
-      // Add the last characters equal to usefulLength to buffer.
-      StringBuffer buffer = new StringBuffer();
-      int usefulLength;
-      if (nRead < lengthToScan && nReadPrev > 0) {
-        // The last characters have been split in half
-        usefulLength = Math.min(nReadPrev, lengthToScan - nRead);
-        buffer.append(charArrayPrev, nReadPrev - usefulLength, usefulLength);
-      }
-      usefulLength = Math.min(nRead, lengthToScan);
-      buffer.append(charArray, nRead - usefulLength, usefulLength);
-      return buffer.toString().indexOf(lastLine) != -1;
+      return FileTail.tailContains(file, lastLine);
+    }
+  }
+
+  /**
+   * A weak reference to an instance, which remembers its key in instanceMap.
+   */
+  private static final class InstanceReference extends WeakReference<LogFile> {
+    private final String key;
+
+    private InstanceReference(final LogFile logFile, final String key) {
+      super(logFile, referenceQueue);
+      this.key = key;
     }
   }
 
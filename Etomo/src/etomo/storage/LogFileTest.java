@@ -3,6 +3,9 @@ package etomo.storage;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 
 import etomo.BaseManager;
@@ -623,6 +626,145 @@ public class LogFileTest extends TestCase {
     assertTrue(testa.noLocks());
   }
 
+  public void testTail() throws LogFile.LockException, IOException {
+    LogFile test = getInstance();
+    LogFile.WriterId writerId = test.openWriter();
+    // Make the file larger than a block, with lines that aren't all ASCII.  The
+    // file is written in the default charset.
+    String nonAscii = new String("\u00e9".getBytes());
+    StringBuffer longLine = new StringBuffer();
+    for (int i = 0; i < 3000; i++) {
+      longLine.append(nonAscii);
+    }
+    for (int i = 0; i < 10; i++) {
+      test.write(longLine.toString(), writerId);
+      test.newLine(writerId);
+    }
+    test.write("line " + nonAscii + " 1\r\nline 2", writerId);
+    test.newLine(writerId);
+    test.write("SUCCESSFULLY COMPLETED", writerId);
+    test.newLine(writerId);
+    assertTrue(test.closeWriter(writerId));
+    String[] lines = test.getLastLines(3);
+    assertEquals(3, lines.length);
+    assertEquals("line " + nonAscii + " 1", lines[0]);
+    assertEquals("line 2", lines[1]);
+    assertEquals("SUCCESSFULLY COMPLETED", lines[2]);
+    lines = test.getLastLines(5);
+    assertEquals(longLine.toString(), lines[0]);
+    assertEquals(longLine.toString(), lines[1]);
+    assertEquals(13, test.getLastLines(100).length);
+    assertTrue(test.tailContains("SUCCESSFULLY COMPLETED"));
+    assertFalse(test.tailContains("line 2"));
+    assertTrue(test.noLocks());
+  }
+
+  /**
+   * Many readers and one writer use the same file at the same time.  The readers
+   * share the file, and every lock is released at the end.
+   */
+  public void testConcurrentReaders() throws LogFile.LockException, IOException,
+      InterruptedException {
+    final int nLines = 200;
+    final int nReaders = 16;
+    final int nPasses = 20;
+    final LogFile test = getInstance();
+    LogFile.WriterId writerId = test.openWriter();
+    for (int i = 0; i < nLines; i++) {
+      test.write("line " + i, writerId);
+      test.newLine(writerId);
+    }
+    assertTrue(test.closeWriter(writerId));
+    final List<Throwable> errorList = Collections
+        .synchronizedList(new ArrayList<Throwable>());
+    Thread[] threads = new Thread[nReaders + 1];
+    for (int i = 0; i < nReaders; i++) {
+      threads[i] = new Thread() {
+        public void run() {
+          try {
+            for (int pass = 0; pass < nPasses; pass++) {
+              LogFile.ReaderId readerId = test.openReader();
+              int nRead = 0;
+              String line;
+              while ((line = test.readLine(readerId)) != null) {
+                if (nRead < nLines) {
+                  assertEquals("line " + nRead, line);
+                }
+                nRead++;
+              }
+              assertTrue(nRead >= nLines);
+              assertTrue(test.closeRead(readerId));
+            }
+          }
+          catch (Throwable e) {
+            errorList.add(e);
+          }
+        }
+      };
+    }
+    threads[nReaders] = new Thread() {
+      public void run() {
+        try {
+          for (int pass = 0; pass < nPasses; pass++) {
+            LogFile.WriterId writerId = test.openWriter(true);
+            test.write("added " + pass, writerId);
+            test.newLine(writerId);
+            assertTrue(test.closeWriter(writerId));
+          }
+        }
+        catch (Throwable e) {
+          errorList.add(e);
+        }
+      }
+    };
+    for (int i = 0; i < threads.length; i++) {
+      threads[i].start();
+    }
+    for (int i = 0; i < threads.length; i++) {
+      threads[i].join(60000);
+      assertFalse("thread " + i + " didn't finish", threads[i].isAlive());
+    }
+    assertTrue(errorList.toString(), errorList.isEmpty());
+    assertTrue(test.noLocks());
+    LogFile.ReaderId readerId = test.openReader();
+    int nRead = 0;
+    while (test.readLine(readerId) != null) {
+      nRead++;
+    }
+    assertTrue(test.closeRead(readerId));
+    assertEquals(nLines + nPasses, nRead);
+  }
+
+  /**
+   * Unused instances are garbage collected.  Instances that are locked or backed up
+   * are kept.
+   */
+  public void testInstances() throws LogFile.LockException, IOException,
+      InterruptedException {
+    LogFile.WriterId writerId = getInstance().openWriter();
+    assertTrue(getInstance().closeWriter(writerId));
+    LogFile.ReaderId readerId = getInstance().openReader();
+    for (int i = 0; i < 100; i++) {
+      LogFile.getInstance(testDir, "unused" + i + DatasetFiles.LOG_EXT);
+    }
+    collectInstances();
+    assertEquals("only the locked instance is kept", 1, LogFile.getInstanceCount());
+    assertTrue("the same instance is returned while it is locked", getInstance()
+        .closeRead(readerId));
+    assertTrue(getInstance().backupOnce());
+    collectInstances();
+    assertEquals("a backed up instance is kept", 1, LogFile.getInstanceCount());
+    assertFalse("the same instance is returned after a backup", getInstance()
+        .backupOnce());
+  }
+
+  private void collectInstances() throws InterruptedException {
+    for (int i = 0; i < 20 && LogFile.getInstanceCount() > 1; i++) {
+      System.gc();
+      Thread.sleep(50);
+    }
+  }
+
   private void assertWriteLock(LogFile test, LogFile.Id testWriteId)
       throws LogFile.LockException, FileNotFoundException, IOException {
     assertTrue("The WRITE lock should be set", test.isOpen(LogFile.LockType.WRITE,
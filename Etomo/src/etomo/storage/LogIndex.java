@@ -0,0 +1,419 @@
+package etomo.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Description: An index of the line offsets of a log file, and of the lines that
+ * match the markers that have been searched for.  The index is kept between calls, so
+ * a log that hasn't changed isn't read again, a new marker only needs one pass over
+ * the file, and when a log grows only the bytes added since the last call are
+ * read.</p>
+ *
+ * <p>A log that has been regenerated is indexed again from the start.  It is treated
+ * as regenerated if it shrinks, if its modification time changes without it growing,
+ * or if the start of the file or the end of the indexed part has changed.</p>
+ *
+ * <p>Lines end with "\n" or "\r\n", and are decoded with the default charset, like
+ * FileReader.  A last line without a line break is matched, but isn't indexed until
+ * it is finished.  Indexes are kept for the most recently used files.</p>
+ *
+ * <p>Use through LogFile.findLines and findFirstLine.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * @threadsafe
+ *
+ * <p> $Log$ </p>
+ */
+public final class LogIndex {
+  public static final String rcsid = "$Id:$";
+
+  private static final int BLOCK_SIZE = 8192;
+  private static final int FINGERPRINT_SIZE = 64;
+  private static final int MAX_INDEXES = 32;
+
+  private static final Map<File, LogIndex> indexMap = new LinkedHashMap<File, LogIndex>(
+      16, 0.75f, true) {
+    protected boolean removeEldestEntry(final Map.Entry<File, LogIndex> eldest) {
+      return size() > MAX_INDEXES;
+    }
+  };
+
+  private static final Comparator<Line> LINE_ORDER = new Comparator<Line>() {
+    public int compare(final Line line1, final Line line2) {
+      return line1.number - line2.number;
+    }
+  };
+
+  private final Map<Marker, List<Line>> matchMap = new HashMap<Marker, List<Line>>();
+  private final File file;
+
+  private long[] lineOffsets = new long[1024];
+  private int nLines = 0;
+  // Complete lines have been indexed up to here.
+  private long indexedLength = 0;
+  // The start and the end of the indexed part of the file, to check that it hasn't
+  // been replaced.
+  private byte[] headFingerprint = new byte[0];
+  private byte[] fingerprint = new byte[0];
+  private long length = -1;
+  private long lastModified = 0;
+  // The last line, if it doesn't end with a line break.
+  private String partialLine = null;
+  private long nBytesRead = 0;
+
+  private LogIndex(final File file) {
+    this.file = file;
+  }
+
+  static LogIndex getInstance(final File file) {
+    synchronized (indexMap) {
+      LogIndex index = indexMap.get(file);
+      if (index == null) {
+        index = new LogIndex(file);
+        indexMap.put(file, index);
+      }
+      return index;
+    }
+  }
+
+  /**
+   * @param markers
+   * @return the lines that match any of markers, in the order they are in the file
+   * @throws IOException
+   */
+  synchronized String[] findLines(final Marker[] markers) throws IOException {
+    update(markers);
+    List<Line> lineList = new ArrayList<Line>();
+    for (int i = 0; i < markers.length; i++) {
+      List<Line> matchList = matchMap.get(markers[i]);
+      lineList.addAll(matchList);
+    }
+    Collections.sort(lineList, LINE_ORDER);
+    List<String> stringList = new ArrayList<String>();
+    for (int i = 0; i < lineList.size(); i++) {
+      // A line may match more than one marker.
+      if (i == 0 || lineList.get(i).number != lineList.get(i - 1).number) {
+        stringList.add(lineList.get(i).text);
+      }
+    }
+    if (partialLine != null) {
+      for (int i = 0; i < markers.length; i++) {
+        if (markers[i].matches(partialLine)) {
+          stringList.add(partialLine);
+          break;
+        }
+      }
+    }
+    return stringList.toArray(new String[stringList.size()]);
+  }
+
+  /**
+   * @param marker
+   * @return the first line that matches marker, or null if there isn't one
+   * @throws IOException
+   */
+  synchronized String findFirstLine(final Marker marker) throws IOException {
+    update(new Marker[] { marker });
+    List<Line> matchList = matchMap.get(marker);
+    if (!matchList.isEmpty()) {
+      return matchList.get(0).text;
+    }
+    if (partialLine != null && marker.matches(partialLine)) {
+      return partialLine;
+    }
+    return null;
+  }
+
+  /**
+   * @return the number of complete lines in the index
+   */
+  synchronized int getLineCount() {
+    return nLines;
+  }
+
+  /**
+   * @param lineNumber - the number of a complete line, starting from 0
+   * @return the offset of the start of the line in the file
+   */
+  synchronized long getLineOffset(final int lineNumber) {
+    if (lineNumber < 0 || lineNumber >= nLines) {
+      throw new IndexOutOfBoundsException("lineNumber=" + lineNumber + ",nLines="
+          + nLines);
+    }
+    return lineOffsets[lineNumber];
+  }
+
+  /**
+   * @return the number of bytes read from the file since the index was made
+   */
+  synchronized long getBytesRead() {
+    return nBytesRead;
+  }
+
+  /**
+   * Brings the index up to date with the file, and finds the lines that match markers
+   * which haven't been searched for before.
+   * @param markers
+   * @throws IOException
+   */
+  private void update(final Marker[] markers) throws IOException {
+    long newLength = file.length();
+    long newLastModified = file.lastModified();
+    List<Marker> newMarkerList = new ArrayList<Marker>();
+    for (int i = 0; i < markers.length; i++) {
+      if (!matchMap.containsKey(markers[i]) && !newMarkerList.contains(markers[i])) {
+        newMarkerList.add(markers[i]);
+      }
+    }
+    if (newLength == length && newLastModified == lastModified
+        && newMarkerList.isEmpty()) {
+      return;
+    }
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+    try {
+      // A log that is written to grows, so a change without growth is a rewrite.
+      if (newLength < indexedLength
+          || (newLastModified != lastModified && newLength <= length)
+          || !isFingerprintMatch(randomAccessFile)) {
+        clear();
+      }
+      if (!newMarkerList.isEmpty()) {
+        // Search the lines that are already indexed for the new markers.
+        for (int i = 0; i < newMarkerList.size(); i++) {
+          matchMap.put(newMarkerList.get(i), new ArrayList<Line>());
+        }
+        scan(randomAccessFile, 0, indexedLength, newMarkerList, false);
+      }
+      scan(randomAccessFile, indexedLength, newLength, new ArrayList<Marker>(matchMap
+          .keySet()), true);
+      length = newLength;
+      lastModified = newLastModified;
+    }
+    catch (IOException e) {
+      // Start again next time.
+      clear();
+      throw e;
+    }
+    finally {
+      randomAccessFile.close();
+    }
+  }
+
+  private void clear() {
+    nLines = 0;
+    indexedLength = 0;
+    headFingerprint = new byte[0];
+    fingerprint = new byte[0];
+    length = -1;
+    lastModified = 0;
+    partialLine = null;
+    for (List<Line> matchList : matchMap.values()) {
+      matchList.clear();
+    }
+  }
+
+  private boolean isFingerprintMatch(final RandomAccessFile randomAccessFile)
+      throws IOException {
+    return isMatch(randomAccessFile, 0, headFingerprint)
+        && isMatch(randomAccessFile, indexedLength - fingerprint.length, fingerprint);
+  }
+
+  private boolean isMatch(final RandomAccessFile randomAccessFile, final long offset,
+      final byte[] expected) throws IOException {
+    if (expected.length == 0) {
+      return true;
+    }
+    byte[] bytes = readBytes(randomAccessFile, offset, expected.length);
+    for (int i = 0; i < bytes.length; i++) {
+      if (bytes[i] != expected[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private byte[] readBytes(final RandomAccessFile randomAccessFile, final long offset,
+      final int size) throws IOException {
+    byte[] bytes = new byte[size];
+    if (size > 0) {
+      randomAccessFile.seek(offset);
+      randomAccessFile.readFully(bytes);
+      nBytesRead += size;
+    }
+    return bytes;
+  }
+
+  /**
+   * Reads the file from start to end, and adds the lines that match markerList to
+   * matchMap.
+   * @param addLines - true when indexing new lines, false when searching lines that
+   * are already indexed
+   */
+  private void scan(final RandomAccessFile randomAccessFile, final long start,
+      final long end, final List<Marker> markerList, final boolean addLines)
+      throws IOException {
+    if (start >= end) {
+      return;
+    }
+    byte[] block = new byte[(int) Math.min(BLOCK_SIZE, end - start)];
+    byte[] lineBuffer = new byte[256];
+    int lineLength = 0;
+    int lineNumber = addLines ? nLines : 0;
+    long offset = start;
+    long lineOffset = start;
+    randomAccessFile.seek(start);
+    while (offset < end) {
+      int size = (int) Math.min(block.length, end - offset);
+      randomAccessFile.readFully(block, 0, size);
+      nBytesRead += size;
+      for (int i = 0; i < size; i++) {
+        if (block[i] == '\n') {
+          if (!markerList.isEmpty()) {
+            match(decode(lineBuffer, 0, lineLength), lineNumber, markerList);
+          }
+          if (addLines) {
+            addLine(lineOffset);
+          }
+          lineNumber++;
+          lineLength = 0;
+          lineOffset = offset + i + 1;
+        }
+        else {
+          if (lineLength == lineBuffer.length) {
+            byte[] newLineBuffer = new byte[lineBuffer.length * 2];
+            System.arraycopy(lineBuffer, 0, newLineBuffer, 0, lineLength);
+            lineBuffer = newLineBuffer;
+          }
+          lineBuffer[lineLength++] = block[i];
+        }
+      }
+      offset += size;
+    }
+    if (addLines) {
+      indexedLength = lineOffset;
+      partialLine = lineLength == 0 ? null : decode(lineBuffer, 0, lineLength);
+      int fingerprintSize = (int) Math.min(FINGERPRINT_SIZE, indexedLength);
+      if (headFingerprint.length < fingerprintSize) {
+        headFingerprint = readBytes(randomAccessFile, 0, fingerprintSize);
+      }
+      fingerprint = readBytes(randomAccessFile, indexedLength - fingerprintSize,
+          fingerprintSize);
+    }
+  }
+
+  private void addLine(final long offset) {
+    if (nLines == lineOffsets.length) {
+      long[] newLineOffsets = new long[lineOffsets.length * 2];
+      System.arraycopy(lineOffsets, 0, newLineOffsets, 0, nLines);
+      lineOffsets = newLineOffsets;
+    }
+    lineOffsets[nLines++] = offset;
+  }
+
+  private void match(final String text, final int lineNumber,
+      final List<Marker> markerList) {
+    Line line = null;
+    for (int i = 0; i < markerList.size(); i++) {
+      Marker marker = markerList.get(i);
+      if (marker.matches(text)) {
+        if (line == null) {
+          line = new Line(lineNumber, text);
+        }
+        matchMap.get(marker).add(line);
+      }
+    }
+  }
+
+  /**
+   * Decodes the bytes from start to end, without a "\r" at the end.
+   */
+  private static String decode(final byte[] bytes, final int start, int end)
+      throws IOException {
+    if (end > start && bytes[end - 1] == '\r') {
+      end--;
+    }
+    return new String(bytes, start, end - start, Charset.defaultCharset().name());
+  }
+
+  private static final class Line {
+    private final int number;
+    private final String text;
+
+    private Line(final int number, final String text) {
+      this.number = number;
+      this.text = text;
+    }
+  }
+
+  /**
+   * A string to look for in the lines of a log.
+   */
+  public static final class Marker {
+    private final String string;
+    private final boolean startsWith;
+
+    private Marker(final String string, final boolean startsWith) {
+      this.string = string;
+      this.startsWith = startsWith;
+    }
+
+    /**
+     * @param string
+     * @return a marker that matches the lines that start with string, ignoring leading
+     * whitespace
+     */
+    public static Marker getStartsWithInstance(final String string) {
+      return new Marker(string, true);
+    }
+
+    /**
+     * @param string
+     * @return a marker that matches the lines that contain string
+     */
+    public static Marker getContainsInstance(final String string) {
+      return new Marker(string, false);
+    }
+
+    boolean matches(final String line) {
+      if (startsWith) {
+        return line.trim().startsWith(string);
+      }
+      return line.indexOf(string) != -1;
+    }
+
+    public boolean equals(final Object object) {
+      if (!(object instanceof Marker)) {
+        return false;
+      }
+      Marker marker = (Marker) object;
+      return startsWith == marker.startsWith && string.equals(marker.string);
+    }
+
+    public int hashCode() {
+      return string.hashCode() * 2 + (startsWith ? 1 : 0);
+    }
+
+    public String toString() {
+      return (startsWith ? "startsWith:" : "contains:") + string;
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package etomo.storage;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+/**
+* <p>Description: </p>
+*
+* <p>Copyright: Copyright 2026</p>
+*
+* <p>Organization:
+* Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+* University of Colorado</p>
+*
+* @author $Author$
+*
+* @version $Revision$
+*
+* <p> $Log$ </p>
+*/
+public class LogIndexTest extends TestCase {
+  public static final String rcsid = "$Id:$";
+
+  private static final File testDir = new File(StorageTests.TEST_ROOT_DIR, "LogIndex");
+
+  private static final LogIndex.Marker RESIDUAL = LogIndex.Marker
+      .getStartsWithInstance("Residual error");
+  private static final LogIndex.Marker CANDIDATES = LogIndex.Marker
+      .getContainsInstance("candidate points");
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    testDir.mkdirs();
+  }
+
+  public void testFindLines() throws IOException, LogFile.LockException {
+    File file = new File(testDir, "find.log");
+    write(file, "start\n  Residual error 1\r\n12 candidate points\nother\n", false);
+    LogFile logFile = LogFile.getInstance(file);
+    String[] lines = logFile.findLines(new LogIndex.Marker[] { CANDIDATES, RESIDUAL });
+    assertEquals(2, lines.length);
+    assertEquals("  Residual error 1", lines[0]);
+    assertEquals("12 candidate points", lines[1]);
+    LogIndex index = LogIndex.getInstance(file.getAbsoluteFile());
+    assertEquals(4, index.getLineCount());
+    assertEquals(0, index.getLineOffset(0));
+    assertEquals(6, index.getLineOffset(1));
+    assertEquals(26, index.getLineOffset(2));
+    // Nothing is read when the file hasn't changed.
+    long bytesRead = index.getBytesRead();
+    assertEquals("  Residual error 1", logFile.findFirstLine(RESIDUAL));
+    assertEquals(bytesRead, index.getBytesRead());
+    // Only the new lines, and the fingerprints at the start of the file and the end
+    // of the index, are read when it grows, even though the modification time
+    // changed.
+    long oldLength = file.length();
+    String added = "Residual error 2\nResidual";
+    write(file, added, true);
+    file.setLastModified(file.lastModified() + 2000);
+    lines = logFile.findLines(new LogIndex.Marker[] { RESIDUAL });
+    assertEquals(2, lines.length);
+    assertEquals("Residual error 2", lines[1]);
+    assertTrue(index.getBytesRead() - bytesRead <= added.length() + 4 * 64);
+    assertEquals(5, index.getLineCount());
+    assertEquals(oldLength, index.getLineOffset(4));
+    // The last line is matched before it is finished.
+    write(file, " error 3", true);
+    lines = logFile.findLines(new LogIndex.Marker[] { RESIDUAL });
+    assertEquals(3, lines.length);
+    assertEquals("Residual error 3", lines[2]);
+    assertEquals(5, index.getLineCount());
+    // A new marker searches the whole file.
+    assertEquals("start", logFile.findFirstLine(LogIndex.Marker
+        .getStartsWithInstance("sta")));
+    // A replaced file is indexed again.
+    write(file, "Residual error 4\n", false);
+    lines = logFile.findLines(new LogIndex.Marker[] { RESIDUAL, CANDIDATES });
+    assertEquals(1, lines.length);
+    assertEquals("Residual error 4", lines[0]);
+    assertEquals(1, index.getLineCount());
+  }
+
+  public void testRegenerated() throws IOException, LogFile.LockException {
+    // The regenerated log has the same length and the same end.
+    StringBuffer trailer = new StringBuffer();
+    for (int i = 0; i < 10; i++) {
+      trailer.append("filler line\n");
+    }
+    File file = new File(testDir, "regenerated.log");
+    write(file, "Residual error 1\n" + trailer, false);
+    LogFile logFile = LogFile.getInstance(file);
+    assertEquals("Residual error 1", logFile.findFirstLine(RESIDUAL));
+    long lastModified = file.lastModified();
+    write(file, "Residual error 2\n" + trailer, false);
+    file.setLastModified(lastModified + 2000);
+    assertEquals("Residual error 2", logFile.findFirstLine(RESIDUAL));
+  }
+
+  public void testAppended() throws IOException, LogFile.LockException {
+    StringBuffer buffer = new StringBuffer("Residual error 1\n");
+    for (int i = 0; i < 1000; i++) {
+      buffer.append("filler line ").append(i).append('\n');
+    }
+    File file = new File(testDir, "appended.log");
+    write(file, buffer.toString(), false);
+    LogFile logFile = LogFile.getInstance(file);
+    assertEquals(1, logFile.findLines(new LogIndex.Marker[] { RESIDUAL }).length);
+    LogIndex index = LogIndex.getInstance(file.getAbsoluteFile());
+    long bytesRead = index.getBytesRead();
+    long lastModified = file.lastModified();
+    String added = "Residual error 2\n";
+    write(file, added, true);
+    file.setLastModified(lastModified + 2000);
+    String[] lines = logFile.findLines(new LogIndex.Marker[] { RESIDUAL });
+    assertEquals(2, lines.length);
+    assertEquals("Residual error 2", lines[1]);
+    assertTrue("only the appended bytes and the fingerprints are read", index
+        .getBytesRead() - bytesRead <= added.length() + 4 * 64);
+    assertEquals(1002, index.getLineCount());
+  }
+
+  public void testRegeneratedLonger() throws IOException, LogFile.LockException {
+    // The regenerated log is longer, and the end of the old index is unchanged.
+    StringBuffer trailer = new StringBuffer();
+    for (int i = 0; i < 10; i++) {
+      trailer.append("filler line\n");
+    }
+    File file = new File(testDir, "regeneratedLonger.log");
+    write(file, "Residual error 1\n" + trailer, false);
+    LogFile logFile = LogFile.getInstance(file);
+    assertEquals("Residual error 1", logFile.findFirstLine(RESIDUAL));
+    long lastModified = file.lastModified();
+    write(file, "Residual error 2\n" + trailer + "Residual error 3\n", false);
+    file.setLastModified(lastModified + 2000);
+    String[] lines = logFile.findLines(new LogIndex.Marker[] { RESIDUAL });
+    assertEquals(2, lines.length);
+    assertEquals("Residual error 2", lines[0]);
+    assertEquals("Residual error 3", lines[1]);
+  }
+
+  private void write(final File file, final String contents, final boolean append)
+      throws IOException {
+    FileWriter writer = new FileWriter(file, append);
+    try {
+      writer.write(contents);
+    }
+    finally {
+      writer.close();
+    }
+  }
+}
@@ -0,0 +1,555 @@
+package etomo.storage;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * <p>Description: Gives access to the lines of a text file of any size without reading
+ * it into the heap.  The file is read in blocks through a FileChannel, and only a few
+ * blocks are kept in memory.  A line index is built on a background thread.  The index
+ * only holds the offset of every LINES_PER_CHECKPOINT'th line, so it stays small; a
+ * line is found by going to the checkpoint before it and counting line breaks.</p>
+ *
+ * <p>The file is only open while a block is being read, so it can be renamed or
+ * deleted while it is displayed, even on Windows.</p>
+ *
+ * <p>Call refresh() to pick up changes to the file.  Added bytes are indexed; if the
+ * file shrinks or its start changes, it has been replaced and is indexed again from
+ * the start.  When the modification time changes, the file may have been rewritten,
+ * so the index is checked against the file in the background and the file is indexed
+ * again from the first line that has moved.  Lines end with "\n" or "\r\n" and are
+ * decoded with the default charset, like FileReader.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * @threadsafe
+ *
+ * <p> $Log$ </p>
+ */
+public final class PagedTextFile {
+  public static final String rcsid = "$Id:$";
+
+  static final int LINES_PER_CHECKPOINT = 64;
+
+  private static final int BLOCK_SHIFT = 16;
+  private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+  // Blocks kept in memory by each BlockReader.
+  private static final int MAX_BLOCKS = 16;
+  private static final int HEAD_SIZE = 64;
+  // Longer lines are cut off.
+  private static final int MAX_LINE_LENGTH = 1 << 14;
+  private static final byte[] NO_BYTES = new byte[0];
+
+  private final String charsetName = Charset.defaultCharset().name();
+  private final File file;
+  // Used by getLine and refresh.
+  private final BlockReader reader;
+  // Used by the indexer thread, so that indexing doesn't push the displayed lines out
+  // of reader.
+  private final BlockReader indexReader;
+
+  private long length = 0;
+  private long lastModified = 0;
+  // The start of the file, to see if it has been replaced.
+  private byte[] head = NO_BYTES;
+  private long[] checkpoints = new long[256];
+  private int nLines = 0;
+  private long scannedLength = 0;
+  private byte lastScannedByte = '\n';
+  // True while the indexed part of the file is being checked after the file was
+  // modified.  Lines are read with the old index until a line is found to have moved.
+  private boolean verifying = false;
+  private long verifiedLength = 0;
+  private int verifiedLines = 0;
+  private Thread indexer = null;
+  private boolean closed = false;
+  private boolean changed = false;
+
+  /**
+   * @param file
+   * @throws FileNotFoundException if file doesn't exist
+   * @throws IOException
+   */
+  public PagedTextFile(final File file) throws FileNotFoundException, IOException {
+    this.file = file;
+    if (!file.exists()) {
+      throw new FileNotFoundException(file.getAbsolutePath() + " does not exist");
+    }
+    reader = new BlockReader(file);
+    indexReader = new BlockReader(file);
+    refresh();
+  }
+
+  /**
+   * Indexes any bytes added to the file since the last call.  The indexing is done in
+   * the background.
+   * @return true if the file has changed
+   * @throws IOException
+   */
+  public synchronized boolean refresh() throws IOException {
+    if (closed) {
+      return false;
+    }
+    long newLength = file.length();
+    long newLastModified = file.lastModified();
+    if (!changed && newLength == length && newLastModified == lastModified) {
+      return false;
+    }
+    if (changed || newLength < length) {
+      reset();
+    }
+    else if (newLastModified != lastModified) {
+      // The file may have been rewritten.
+      reader.clear();
+      indexReader.clear();
+      verifying = true;
+      verifiedLength = 0;
+      verifiedLines = 0;
+    }
+    lastModified = newLastModified;
+    setLength(newLength);
+    try {
+      if (!isHeadMatch()) {
+        reset();
+        setLength(newLength);
+      }
+      if (head.length < HEAD_SIZE) {
+        head = getBytes(0, (int) Math.min(HEAD_SIZE, length));
+      }
+    }
+    catch (IOException e) {
+      changed = true;
+      throw e;
+    }
+    if (indexer == null && (verifying || scannedLength < length)) {
+      indexer = new Thread(new Runnable() {
+        public void run() {
+          index();
+        }
+      }, "Index-" + file.getName());
+      indexer.setDaemon(true);
+      indexer.setPriority(Thread.NORM_PRIORITY - 1);
+      indexer.start();
+    }
+    return true;
+  }
+
+  /**
+   * @return the number of lines that have been indexed.  The last line is counted
+   * when indexing is finished, even if it doesn't end with a line break.
+   */
+  public synchronized int getLineCount() {
+    if (scannedLength == length && length > 0 && lastScannedByte != '\n') {
+      return nLines + 1;
+    }
+    return nLines;
+  }
+
+  public synchronized boolean isIndexing() {
+    return indexer != null;
+  }
+
+  /**
+   * @return the length of the indexed part of the file
+   */
+  public synchronized long getLength() {
+    return length;
+  }
+
+  /**
+   * @param index
+   * @return the line, without the line break, or null if index is out of range.  Very
+   * long lines are cut off.
+   * @throws IOException
+   */
+  public synchronized String getLine(final int index) throws IOException {
+    if (index < 0 || index >= getLineCount()) {
+      return null;
+    }
+    try {
+      long start = getLineStart(reader, index);
+      long end = start;
+      long limit = Math.min(length, start + MAX_LINE_LENGTH);
+      while (end < limit && reader.byteAt(end) != '\n') {
+        end++;
+      }
+      if (end > start && reader.byteAt(end - 1) == '\r') {
+        end--;
+      }
+      return new String(getBytes(start, (int) (end - start)), charsetName);
+    }
+    catch (IOException e) {
+      // The file was truncated by another program.
+      changed = true;
+      throw e;
+    }
+  }
+
+  /**
+   * Searches for text, starting at the start of line fromLine and going forward, or
+   * starting at the end of the line before fromLine and going backward.  Searches
+   * stop if the thread is interrupted.
+   * @param text - must not contain a line break
+   * @param fromLine
+   * @param forward
+   * @param ignoreCase - ignores the case of ASCII letters
+   * @return the index of the line that contains text, or -1 if it wasn't found
+   * @throws IOException
+   */
+  public int find(final String text, final int fromLine, final boolean forward,
+      final boolean ignoreCase) throws IOException {
+    byte[] pattern = text.getBytes(charsetName);
+    if (pattern.length == 0) {
+      return -1;
+    }
+    if (ignoreCase) {
+      for (int i = 0; i < pattern.length; i++) {
+        pattern[i] = toLowerCase(pattern[i]);
+      }
+    }
+    // Searches run without the lock, so they need their own reader.
+    BlockReader searchReader = new BlockReader(file);
+    long length;
+    long start;
+    synchronized (this) {
+      int lineCount = getLineCount();
+      if (fromLine < 0 || fromLine > lineCount) {
+        return -1;
+      }
+      length = this.length;
+      searchReader.setLength(length);
+      try {
+        start = fromLine == lineCount ? length : getLineStart(searchReader, fromLine);
+        // Going backward, start at the end of the line before fromLine.
+        if (!forward && start > 0 && searchReader.byteAt(start - 1) == '\n') {
+          start--;
+        }
+      }
+      catch (IOException e) {
+        changed = true;
+        throw e;
+      }
+    }
+    try {
+      if (forward) {
+        int line = fromLine;
+        for (long pos = start; pos + pattern.length <= length; pos++) {
+          if ((pos & 0xffff) == 0 && Thread.currentThread().isInterrupted()) {
+            return -1;
+          }
+          byte b = searchReader.byteAt(pos);
+          if (b == '\n') {
+            line++;
+          }
+          else if (isMatch(searchReader, pos, pattern, ignoreCase)) {
+            return line;
+          }
+        }
+      }
+      else {
+        int line = fromLine - 1;
+        for (long pos = start - 1; pos >= 0; pos--) {
+          if ((pos & 0xffff) == 0 && Thread.currentThread().isInterrupted()) {
+            return -1;
+          }
+          byte b = searchReader.byteAt(pos);
+          if (b == '\n') {
+            line--;
+          }
+          else if (pos + pattern.length <= length
+              && isMatch(searchReader, pos, pattern, ignoreCase)) {
+            return line;
+          }
+        }
+      }
+    }
+    catch (IOException e) {
+      synchronized (this) {
+        changed = true;
+      }
+      throw e;
+    }
+    return -1;
+  }
+
+  /**
+   * Stops indexing and releases the blocks.
+   */
+  public synchronized void close() {
+    closed = true;
+    reset();
+    notifyAll();
+  }
+
+  /**
+   * Waits until the file is indexed.
+   * @throws InterruptedException
+   */
+  synchronized void waitForIndex() throws InterruptedException {
+    while (indexer != null) {
+      wait();
+    }
+  }
+
+  /**
+   * Runs on the indexer thread.  Takes the lock for each block, so that lines can be
+   * read while the file is being indexed.
+   */
+  private void index() {
+    while (true) {
+      synchronized (this) {
+        if (closed || (!verifying && scannedLength >= length)) {
+          indexer = null;
+          notifyAll();
+          return;
+        }
+        try {
+          if (verifying) {
+            verifyBlock();
+          }
+          else {
+            indexBlock();
+          }
+        }
+        catch (IOException e) {
+          changed = true;
+          indexer = null;
+          notifyAll();
+          return;
+        }
+      }
+      Thread.yield();
+    }
+  }
+
+  private void indexBlock() throws IOException {
+    long end = Math.min(length, scannedLength + BLOCK_SIZE);
+    for (long pos = scannedLength; pos < end; pos++) {
+      lastScannedByte = indexReader.byteAt(pos);
+      if (lastScannedByte == '\n') {
+        nLines++;
+        if (nLines % LINES_PER_CHECKPOINT == 0) {
+          addCheckpoint(pos + 1);
+        }
+      }
+    }
+    scannedLength = end;
+  }
+
+  /**
+   * Checks a block of the indexed part of the file against the index.  Only the
+   * checkpoints and the line count are stored, so the index is still good if they
+   * haven't changed.  If a checkpoint has moved, the file is indexed again from there.
+   */
+  private void verifyBlock() throws IOException {
+    long end = Math.min(scannedLength, verifiedLength + BLOCK_SIZE);
+    for (long pos = verifiedLength; pos < end; pos++) {
+      if (indexReader.byteAt(pos) == '\n') {
+        verifiedLines++;
+        if (verifiedLines % LINES_PER_CHECKPOINT == 0
+            && (verifiedLines > nLines || checkpoints[verifiedLines
+                / LINES_PER_CHECKPOINT] != pos + 1)) {
+          nLines = verifiedLines;
+          addCheckpoint(pos + 1);
+          scannedLength = pos + 1;
+          lastScannedByte = '\n';
+          verifying = false;
+          return;
+        }
+      }
+    }
+    verifiedLength = end;
+    if (verifiedLength == scannedLength) {
+      nLines = verifiedLines;
+      if (scannedLength > 0) {
+        lastScannedByte = indexReader.byteAt(scannedLength - 1);
+      }
+      verifying = false;
+    }
+  }
+
+  private void addCheckpoint(final long offset) {
+    int index = nLines / LINES_PER_CHECKPOINT;
+    if (index == checkpoints.length) {
+      long[] newCheckpoints = new long[checkpoints.length * 2];
+      System.arraycopy(checkpoints, 0, newCheckpoints, 0, checkpoints.length);
+      checkpoints = newCheckpoints;
+    }
+    checkpoints[index] = offset;
+  }
+
+  private long getLineStart(final BlockReader blockReader, final int index)
+      throws IOException {
+    long pos = checkpoints[index / LINES_PER_CHECKPOINT];
+    for (int n = index % LINES_PER_CHECKPOINT; n > 0; pos++) {
+      if (blockReader.byteAt(pos) == '\n') {
+        n--;
+      }
+    }
+    return pos;
+  }
+
+  private void setLength(final long newLength) {
+    length = newLength;
+    reader.setLength(newLength);
+    indexReader.setLength(newLength);
+  }
+
+  private void reset() {
+    setLength(0);
+    head = NO_BYTES;
+    nLines = 0;
+    scannedLength = 0;
+    lastScannedByte = '\n';
+    verifying = false;
+    changed = false;
+  }
+
+  private boolean isHeadMatch() throws IOException {
+    for (int i = 0; i < head.length; i++) {
+      if (reader.byteAt(i) != head[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private byte[] getBytes(final long start, final int size) throws IOException {
+    byte[] bytes = new byte[size];
+    for (int i = 0; i < size; i++) {
+      bytes[i] = reader.byteAt(start + i);
+    }
+    return bytes;
+  }
+
+  private static boolean isMatch(final BlockReader blockReader, final long pos,
+      final byte[] pattern, final boolean ignoreCase) throws IOException {
+    for (int i = 0; i < pattern.length; i++) {
+      byte b = blockReader.byteAt(pos + i);
+      if (ignoreCase) {
+        b = toLowerCase(b);
+      }
+      if (b != pattern[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static byte toLowerCase(final byte b) {
+    if (b >= 'A' && b <= 'Z') {
+      return (byte) (b + 'a' - 'A');
+    }
+    return b;
+  }
+
+  /**
+   * Reads blocks of the file and keeps the most recently used ones.  The file is
+   * opened for each block that is read.  Not thread safe.
+   */
+  private static final class BlockReader {
+    private final long[] blockIndexes = new long[MAX_BLOCKS];
+    private final byte[][] blocks = new byte[MAX_BLOCKS][];
+    private final long[] lastUsed = new long[MAX_BLOCKS];
+    private final File file;
+
+    private long length = 0;
+    private long useCount = 0;
+    private int lastBlock = -1;
+
+    private BlockReader(final File file) {
+      this.file = file;
+    }
+
+    private void clear() {
+      for (int i = 0; i < MAX_BLOCKS; i++) {
+        blocks[i] = null;
+      }
+      lastBlock = -1;
+    }
+
+    /**
+     * Sets the part of the file that can be read.  Drops blocks that may have changed.
+     */
+    private void setLength(final long newLength) {
+      for (int i = 0; i < MAX_BLOCKS; i++) {
+        if (blocks[i] != null && (newLength < length || blocks[i].length < BLOCK_SIZE)) {
+          blocks[i] = null;
+        }
+      }
+      lastBlock = -1;
+      length = newLength;
+    }
+
+    private byte byteAt(final long pos) throws IOException {
+      if (pos >= length) {
+        throw new IOException(file.getName() + " has changed");
+      }
+      long blockIndex = pos >> BLOCK_SHIFT;
+      int offset = (int) (pos & (BLOCK_SIZE - 1));
+      if (lastBlock == -1 || blockIndexes[lastBlock] != blockIndex) {
+        lastBlock = getBlock(blockIndex);
+      }
+      return blocks[lastBlock][offset];
+    }
+
+    /**
+     * @return the slot of the block, after reading it into the least recently used
+     * slot if necessary
+     */
+    private int getBlock(final long blockIndex) throws IOException {
+      int slot = -1;
+      for (int i = 0; i < MAX_BLOCKS; i++) {
+        if (blocks[i] == null) {
+          if (slot == -1 || blocks[slot] != null) {
+            slot = i;
+          }
+        }
+        else if (blockIndexes[i] == blockIndex) {
+          lastUsed[i] = ++useCount;
+          return i;
+        }
+        else if (slot == -1 || (blocks[slot] != null && lastUsed[i] < lastUsed[slot])) {
+          slot = i;
+        }
+      }
+      blocks[slot] = read(blockIndex);
+      blockIndexes[slot] = blockIndex;
+      lastUsed[slot] = ++useCount;
+      return slot;
+    }
+
+    private byte[] read(final long blockIndex) throws IOException {
+      long start = blockIndex << BLOCK_SHIFT;
+      int size = (int) Math.min(BLOCK_SIZE, length - start);
+      ByteBuffer buffer = ByteBuffer.allocate(size);
+      RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+      try {
+        FileChannel channel = randomAccessFile.getChannel();
+        while (buffer.hasRemaining()) {
+          if (channel.read(buffer, start + buffer.position()) == -1) {
+            // The file is shorter than expected.
+            throw new IOException(file.getName() + " has changed");
+          }
+        }
+      }
+      finally {
+        randomAccessFile.close();
+      }
+      return buffer.array();
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package etomo.storage;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+/**
+* <p>Description: </p>
+*
+* <p>Copyright: Copyright 2026</p>
+*
+* <p>Organization:
+* Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+* University of Colorado</p>
+*
+* @author $Author$
+*
+* @version $Revision$
+*
+* <p> $Log$ </p>
+*/
+public class PagedTextFileTest extends TestCase {
+  public static final String rcsid = "$Id:$";
+
+  private static final File testDir = new File(StorageTests.TEST_ROOT_DIR,
+      "PagedTextFile");
+
+  private final File file = new File(testDir, "paged.log");
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    testDir.mkdirs();
+  }
+
+  public void testLines() throws IOException, InterruptedException {
+    int nLines = PagedTextFile.LINES_PER_CHECKPOINT * 3 + 5;
+    StringBuffer buffer = new StringBuffer();
+    for (int i = 0; i < nLines; i++) {
+      buffer.append("line ").append(i).append(i % 2 == 0 ? "\n" : "\r\n");
+    }
+    write(buffer.toString() + "last", false);
+    PagedTextFile pagedFile = new PagedTextFile(file);
+    try {
+      pagedFile.waitForIndex();
+      assertEquals("the last line doesn't need a line break", nLines + 1, pagedFile
+          .getLineCount());
+      assertEquals("line 0", pagedFile.getLine(0));
+      assertEquals("line 1", pagedFile.getLine(1));
+      assertEquals("line 64", pagedFile.getLine(PagedTextFile.LINES_PER_CHECKPOINT));
+      assertEquals("line " + (nLines - 1), pagedFile.getLine(nLines - 1));
+      assertEquals("last", pagedFile.getLine(nLines));
+      assertNull(pagedFile.getLine(nLines + 1));
+      // Follow the end of the file.
+      assertFalse(pagedFile.refresh());
+      write(" line\nadded\n", true);
+      assertTrue(pagedFile.refresh());
+      pagedFile.waitForIndex();
+      assertEquals(nLines + 2, pagedFile.getLineCount());
+      assertEquals("last line", pagedFile.getLine(nLines));
+      assertEquals("added", pagedFile.getLine(nLines + 1));
+      // A replaced file is indexed again.
+      write("new\n", false);
+      assertTrue(pagedFile.refresh());
+      pagedFile.waitForIndex();
+      assertEquals(1, pagedFile.getLineCount());
+      assertEquals("new", pagedFile.getLine(0));
+    }
+    finally {
+      pagedFile.close();
+    }
+  }
+
+  public void testManyBlocks() throws IOException, InterruptedException {
+    // More blocks than a reader keeps in memory.
+    int nLines = 100000;
+    StringBuffer buffer = new StringBuffer();
+    for (int i = 0; i < nLines; i++) {
+      buffer.append("line ").append(i).append('\n');
+    }
+    write(buffer.toString(), false);
+    PagedTextFile pagedFile = new PagedTextFile(file);
+    try {
+      pagedFile.waitForIndex();
+      assertEquals(nLines, pagedFile.getLineCount());
+      for (int i = 0; i < nLines; i += 997) {
+        assertEquals("line " + i, pagedFile.getLine(i));
+      }
+      assertEquals("line 0", pagedFile.getLine(0));
+      assertEquals("line " + (nLines - 1), pagedFile.getLine(nLines - 1));
+      assertEquals(nLines - 1, pagedFile.find("line " + (nLines - 1), 0, true, false));
+      assertEquals(19999, pagedFile.find("line 1", nLines, false, false));
+    }
+    finally {
+      pagedFile.close();
+    }
+  }
+
+  public void testRewritten() throws IOException, InterruptedException {
+    // The rewritten file has the same start and length, but different lines.
+    StringBuffer buffer = new StringBuffer();
+    for (int i = 0; i < 200; i++) {
+      buffer.append("ab\n");
+    }
+    write(buffer.toString(), false);
+    PagedTextFile pagedFile = new PagedTextFile(file);
+    try {
+      pagedFile.waitForIndex();
+      assertEquals(200, pagedFile.getLineCount());
+      long lastModified = file.lastModified();
+      buffer = new StringBuffer();
+      for (int i = 0; i < 30; i++) {
+        buffer.append("ab\n");
+      }
+      for (int i = 0; i < 255; i++) {
+        buffer.append("c\n");
+      }
+      write(buffer.toString(), false);
+      file.setLastModified(lastModified + 2000);
+      assertTrue(pagedFile.refresh());
+      pagedFile.waitForIndex();
+      assertEquals(285, pagedFile.getLineCount());
+      assertEquals("ab", pagedFile.getLine(29));
+      assertEquals("c", pagedFile.getLine(30));
+      assertEquals("c", pagedFile.getLine(284));
+      // Same lines with different contents.
+      write(buffer.toString().replace('c', 'd'), false);
+      file.setLastModified(lastModified + 4000);
+      assertTrue(pagedFile.refresh());
+      pagedFile.waitForIndex();
+      assertEquals(285, pagedFile.getLineCount());
+      assertEquals("d", pagedFile.getLine(284));
+    }
+    finally {
+      pagedFile.close();
+    }
+  }
+
+  public void testFind() throws IOException, InterruptedException {
+    write("zero\nOne match\ntwo\nthree match\nfour", false);
+    PagedTextFile pagedFile = new PagedTextFile(file);
+    try {
+      pagedFile.waitForIndex();
+      assertEquals(1, pagedFile.find("match", 0, true, false));
+      assertEquals(1, pagedFile.find("match", 1, true, false));
+      assertEquals(3, pagedFile.find("match", 2, true, false));
+      assertEquals(-1, pagedFile.find("match", 4, true, false));
+      assertEquals(-1, pagedFile.find("one", 0, true, false));
+      assertEquals(1, pagedFile.find("one", 0, true, true));
+      assertEquals(3, pagedFile.find("match", 5, false, false));
+      assertEquals(1, pagedFile.find("match", 3, false, false));
+      assertEquals(-1, pagedFile.find("match", 1, false, false));
+      assertEquals(4, pagedFile.find("four", 5, false, false));
+      assertEquals(0, pagedFile.find("zero", 1, false, false));
+    }
+    finally {
+      pagedFile.close();
+    }
+  }
+
+  private void write(final String contents, final boolean append) throws IOException {
+    FileWriter writer = new FileWriter(file, append);
+    try {
+      writer.write(contents);
+    }
+    finally {
+      writer.close();
+    }
+  }
+}
@@ -4,6 +4,7 @@ import java.io.*;
 import java.util.*;
 
 import etomo.EtomoDirector;
+import etomo.process.MonitorScheduler;
 
 /**
  * <p>Description: Keeps a Properties instance that mirrors a properties file.
@@ -15,6 +16,13 @@ import etomo.EtomoDirector;
  * file so this allows synchronization of multiple ParameterStore instances that
  * write to the same file (however there is no reason to have multiple
  * instances that write to the same file).</p>
+ * <p>
+ * In write-behind mode, storeProperties and auto-stored saves only update the
+ * properties in memory and schedule a write for WRITE_BEHIND_DELAY milliseconds
+ * later, so saves made close together are written once, outside of the calling
+ * thread.  Pending writes are done by flushAll when Etomo exits, or by a shutdown
+ * hook if it exits some other way.  The file is always written to a temporary
+ * file which is then renamed over the file.</p>
  *
  * <p>Copyright: Copyright (c) 2002</p>
  *
@@ -97,12 +105,39 @@ import etomo.EtomoDirector;
 public final class ParameterStore {
   public static final String rcsid = "$Id$";
 
+  static final long WRITE_BEHIND_DELAY = 500;
+
+  // Instances with unwritten changes.  Also synchronizes shutdownHookAdded.
+  private static final Set<ParameterStore> pendingSet =
+      new LinkedHashSet<ParameterStore>();
+  private static boolean shutdownHookAdded = false;
+
   private final Properties properties = new Properties();
+  // Prevents two threads from writing the file at the same time.
+  private final Object writeLock = new Object();
+  private final Runnable writeBehindTask = new Runnable() {
+    public void run() {
+      try {
+        flush();
+      }
+      catch (LogFile.LockException e) {
+        e.printStackTrace();
+        System.err.println("Unable to write " + dataFile.getAbsolutePath());
+        addPending();
+      }
+      catch (IOException e) {
+        e.printStackTrace();
+        System.err.println("Unable to write " + dataFile.getAbsolutePath());
+        addPending();
+      }
+    }
+  };
 
   // initialized in initialize()
   private LogFile dataFile = null;
 
   private boolean autoStore = true;
+  private boolean writeBehind = false;
   private int debug = 0;
 
   private ParameterStore() {
@@ -151,27 +186,161 @@ public final class ParameterStore {
   }
 
   /**
-   * Saves properties to the paramFile.
+   * Saves properties to the paramFile.  In write-behind mode, schedules the save
+   * instead.
    * @throws IOException
    */
   public void storeProperties() throws LogFile.LockException, IOException {
     // If the file has not been set, don't save.
-    if (dataFile != null) {
+    if (dataFile == null) {
+      return;
+    }
+    if (isWriteBehind()) {
+      scheduleWrite();
+    }
+    else {
+      write();
+    }
+  }
+
+  /**
+   * Write any scheduled save now.
+   * @throws IOException
+   */
+  public void flush() throws LogFile.LockException, IOException {
+    boolean pending;
+    synchronized (pendingSet) {
+      pending = pendingSet.remove(this);
+    }
+    if (pending) {
+      write();
+    }
+  }
+
+  /**
+   * Write every scheduled save now.  Called when Etomo exits.  Errors are printed.
+   */
+  public static void flushAll() {
+    ParameterStore[] pendingArray;
+    synchronized (pendingSet) {
+      pendingArray = pendingSet.toArray(new ParameterStore[pendingSet.size()]);
+    }
+    for (int i = 0; i < pendingArray.length; i++) {
+      try {
+        pendingArray[i].flush();
+      }
+      catch (LogFile.LockException e) {
+        e.printStackTrace();
+        System.err.println("Unable to write " + pendingArray[i].getAbsolutePath());
+      }
+      catch (IOException e) {
+        e.printStackTrace();
+        System.err.println("Unable to write " + pendingArray[i].getAbsolutePath());
+      }
+    }
+  }
+
+  /**
+   * @return true if a save is scheduled and hasn't been written yet
+   */
+  boolean isPending() {
+    synchronized (pendingSet) {
+      return pendingSet.contains(this);
+    }
+  }
+
+  /**
+   * Turn write-behind mode on or off.  Turning it off doesn't cancel a scheduled save;
+   * call flush to write it immediately.
+   * @param writeBehind
+   */
+  public void setWriteBehind(boolean writeBehind) {
+    synchronized (pendingSet) {
+      this.writeBehind = writeBehind;
+      if (writeBehind && !shutdownHookAdded) {
+        shutdownHookAdded = true;
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+          public void run() {
+            flushAll();
+          }
+        }, "ParameterStore.flushAll"));
+      }
+    }
+  }
+
+  private boolean isWriteBehind() {
+    synchronized (pendingSet) {
+      return writeBehind;
+    }
+  }
+
+  /**
+   * Schedule a write, unless one is already scheduled.  If the scheduler has been
+   * shut down, the write is left for flushAll.
+   */
+  private void scheduleWrite() {
+    synchronized (pendingSet) {
+      if (!pendingSet.add(this)) {
+        return;
+      }
+    }
+    MonitorScheduler.INSTANCE.execute("ParameterStore", writeBehindTask,
+        WRITE_BEHIND_DELAY);
+  }
+
+  /**
+   * Keep this instance pending without scheduling it again.
+   */
+  private void addPending() {
+    synchronized (pendingSet) {
+      pendingSet.add(this);
+    }
+  }
+
+  /**
+   * Writes a copy of properties to a temporary file, backs up the file the first
+   * time, and then renames the temporary file over the file.
+   * @throws IOException
+   */
+  private void write() throws LogFile.LockException, IOException {
+    synchronized (writeLock) {
+      Properties copy;
       synchronized (dataFile) {
-        if (!dataFile.isDirectory()) {
+        if (dataFile.isDirectory()) {
+          throw new IOException(dataFile.getAbsolutePath() + " is a directory.");
+        }
+        copy = (Properties) properties.clone();
+      }
+      File file = new File(dataFile.getAbsolutePath());
+      String prefix = file.getName();
+      // Temporary file prefixes must be at least three characters.
+      while (prefix.length() < 3) {
+        prefix += "_";
+      }
+      File temp = File.createTempFile(prefix, ".tmp", file.getAbsoluteFile()
+          .getParentFile());
+      try {
+        FileOutputStream outputStream = new FileOutputStream(temp);
+        try {
+          copy.store(outputStream, null);
+        }
+        finally {
+          outputStream.close();
+        }
+        synchronized (dataFile) {
           if (dataFile.getName().endsWith(EtomoDirector.USER_CONFIG_FILE_EXT)) {
             dataFile.backupOnce();
           }
           else {
             dataFile.doubleBackupOnce();
           }
+          dataFile.replace(temp);
         }
-        if (!dataFile.exists()) {
-          dataFile.create();
+      }
+      finally {
+        if (temp.exists()) {
+          temp.delete();
         }
-        LogFile.OutputStreamId outputStreamId = dataFile.openOutputStream();
-        dataFile.store(properties, outputStreamId);
-        dataFile.closeOutputStream(outputStreamId);
       }
     }
   }
@@ -182,7 +351,8 @@ public final class ParameterStore {
 
   /**
    * When autoStore is true (default), the paramFile is updated each time
-   * save(Storable) is called.  When autoStore is false, storeProperties must be
+   * save(Storable) is called (or, in write-behind mode, the update is scheduled).
+   * When autoStore is false, storeProperties must be
    * called to write properties to the paramFile.
    * @param autoStore
    */
@@ -204,14 +374,16 @@ public final class ParameterStore {
         if (storable != null) {
           storable.store(properties);
         }
-        if (autoStore) {
-          storeProperties();
-        }
         if (debug == 1) {
           System.err.println("save:JoinState.Join.Version="
               + properties.getProperty("JoinState.Join.Version"));
         }
       }
+      // Writing locks dataFile after writeLock, so it can't be called while dataFile
+      // is locked.
+      if (autoStore) {
+        storeProperties();
+      }
     }
   }
 
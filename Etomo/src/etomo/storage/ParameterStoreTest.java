@@ -230,6 +230,54 @@ public final class ParameterStoreTest extends TestCase {
     LogFile.reset();
   }
 
+  public void testWriteBehind() throws LogFile.LockException, IOException,
+      InterruptedException {
+    //TEMP
+    if (Utilities.isWindowsOS()) {
+      return;
+    }
+    ParameterStore psTest = ParameterStore.getInstance(testFile);
+    psTest.setWriteBehind(true);
+    Data testData = new Data(6, 7.8, "nine", 10);
+    psTest.save(testData);
+    assertTrue("save should be scheduled", psTest.isPending());
+    Data reloadData = new Data();
+    ParameterStore.getInstance(testFile).load(reloadData);
+    assertTrue("file should not be written yet.\nreloadData=" + reloadData
+        + ",setupData=" + setupData, reloadData.equals(setupData));
+    Data newData = new Data(11, 12.13, "fourteen", 15);
+    psTest.save(newData);
+    psTest.flush();
+    assertFalse(psTest.isPending());
+    ParameterStore.getInstance(testFile).load(reloadData);
+    assertTrue("flush should write the last save.\nreloadData=" + reloadData
+        + ",newData=" + newData, reloadData.equals(newData));
+    Data backupData = new Data();
+    ParameterStore.getInstance(backupFile).load(backupData);
+    assertTrue("file should be backed up.\nbackupData=" + backupData + ",setupData="
+        + setupData, backupData.equals(setupData));
+    // scheduled write
+    psTest.save(testData);
+    long start = System.currentTimeMillis();
+    while (psTest.isPending()) {
+      assertTrue("scheduled save was not written",
+          System.currentTimeMillis() - start < 20 * ParameterStore.WRITE_BEHIND_DELAY);
+      Thread.sleep(ParameterStore.WRITE_BEHIND_DELAY / 5);
+    }
+    // the write may still be finishing
+    psTest.setWriteBehind(false);
+    psTest.storeProperties();
+    ParameterStore.getInstance(testFile).load(reloadData);
+    assertTrue("scheduled save should be written.\nreloadData=" + reloadData
+        + ",testData=" + testData, reloadData.equals(testData));
+    File[] files = testDir.listFiles();
+    for (int i = 0; i < files.length; i++) {
+      assertFalse("temporary file left behind:  " + files[i],
+          files[i].getName().endsWith(".tmp"));
+    }
+    LogFile.reset();
+  }
+
   private final class Data implements Storable {
     private static final String I_KEY = "i";
     private static final String D_KEY = "d";
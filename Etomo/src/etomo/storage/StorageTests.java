@@ -42,6 +42,9 @@ public class StorageTests {
     TestSuite suite = new TestSuite("Tests:  " + TEST_DIR);
     // $JUnit-BEGIN$
     suite.addTestSuite(LogFileTest.class);
+    suite.addTestSuite(LogIndexTest.class);
+    suite.addTestSuite(AlignLogAnalysisTest.class);
+    suite.addTestSuite(PagedTextFileTest.class);
     suite.addTestSuite(ParameterStoreTest.class);
     suite.addTestSuite(JoinInfoFileTest.class);
     suite.addTestSuite(TomogramFileFilterTest.class);
@@ -3,10 +3,10 @@ package etomo.storage;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 
-import etomo.process.AlignLogGenerator;
 import etomo.type.AxisID;
 import etomo.type.ConstEtomoNumber;
 import etomo.type.EtomoNumber;
+import etomo.type.ProcessName;
 
 /**
  * <p>Description: Class for reading the tasurfaceangles.log file.</p>
@@ -39,8 +39,6 @@ import etomo.type.EtomoNumber;
 public final class TaAnglesLog {
   public static final String rcsid = "$Id$";
 
-  private static final String CENTER_TO_CENTER_THICKNESS_TAG = "Unbinned thickness needed to contain centers of all fiducials";
-
   private final String userDir;
   private final AxisID axisID;
 
@@ -64,29 +62,12 @@ public final class TaAnglesLog {
    */
   public ConstEtomoNumber getCenterToCenterThickness() throws LogFile.LockException,
       FileNotFoundException, IOException {
-    EtomoNumber centerToCenterThickness = new EtomoNumber(EtomoNumber.Type.DOUBLE);
     //refresh the log file
-    LogFile taAnglesLog = LogFile.getInstance(userDir, axisID,
-        AlignLogGenerator.ANGLES_LOG_NAME);
-    if (taAnglesLog.exists()) {
-      LogFile.ReaderId readerId = taAnglesLog.openReader();
-      if (readerId != null && !readerId.isEmpty()) {
-        String line = taAnglesLog.readLine(readerId);
-        while (line != null) {
-          line = line.trim();
-          if (line
-              .startsWith("Unbinned thickness needed to contain centers of all fiducials")) {
-            String[] stringArray = line.split("\\s+");
-            centerToCenterThickness.set(stringArray[10]);
-            taAnglesLog.closeRead(readerId);
-            return centerToCenterThickness;
-          }
-          line = taAnglesLog.readLine(readerId);
-        }
-        taAnglesLog.closeRead(readerId);
-      }
+    LogFile alignLog = LogFile.getInstance(userDir, axisID, ProcessName.ALIGN);
+    if (alignLog.exists()) {
+      return AlignLogAnalysis.getInstance(alignLog).getCenterToCenterThickness();
     }
-    return centerToCenterThickness;
+    return new EtomoNumber(EtomoNumber.Type.DOUBLE);
   }
 
   /**
@@ -94,28 +75,11 @@ public final class TaAnglesLog {
    */
   public ConstEtomoNumber getIncrementalShiftToCenter() throws LogFile.LockException,
       FileNotFoundException, IOException {
-    EtomoNumber incrementalShiftToCenter = new EtomoNumber(EtomoNumber.Type.DOUBLE);
     //refresh the log file
-    LogFile taAnglesLog = LogFile.getInstance(userDir, axisID,
-        AlignLogGenerator.ANGLES_LOG_NAME);
-    if (taAnglesLog.exists()) {
-      LogFile.ReaderId readerId = taAnglesLog.openReader();
-      if (readerId != null && !readerId.isEmpty()) {
-        String line = taAnglesLog.readLine(readerId);
-        while (line != null) {
-          line = line.trim();
-          if (line
-              .startsWith("Incremental unbinned shift needed to center range of fiducials in Z")) {
-            String[] stringArray = line.split("\\s+");
-            incrementalShiftToCenter.set(stringArray[12]);
-            taAnglesLog.closeRead(readerId);
-            return incrementalShiftToCenter;
-          }
-          line = taAnglesLog.readLine(readerId);
-        }
-        taAnglesLog.closeRead(readerId);
-      }
+    LogFile alignLog = LogFile.getInstance(userDir, axisID, ProcessName.ALIGN);
+    if (alignLog.exists()) {
+      return AlignLogAnalysis.getInstance(alignLog).getIncrementalShiftToCenter();
     }
-    return incrementalShiftToCenter;
+    return new EtomoNumber(EtomoNumber.Type.DOUBLE);
   }
 }
@@ -5,7 +5,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import etomo.process.AlignLogGenerator;
 import etomo.type.AxisID;
 import etomo.type.ProcessName;
 
@@ -47,7 +46,7 @@ import etomo.type.ProcessName;
 public final class TaErrorLog implements Loggable {
   public static final String rcsid = "$Id$";
 
-  private final List lineList = new ArrayList();
+  private final List<String> lineList = new ArrayList<String>();
 
   private final String userDir;
   private final AxisID axisID;
@@ -74,34 +73,13 @@ public final class TaErrorLog implements Loggable {
   /**
    * Get a message to be logged in the LogPanel.
    */
-  public List getLogMessage() throws LogFile.LockException, FileNotFoundException,
+  public List<String> getLogMessage() throws LogFile.LockException, FileNotFoundException,
       IOException {
     lineList.clear();
     //refresh the log file
-    LogFile taErrorLog = LogFile.getInstance(userDir, axisID,
-        AlignLogGenerator.ERROR_LOG_NAME);
-    if (taErrorLog.exists()) {
-      LogFile.ReaderId readerId = taErrorLog.openReader();
-      if (readerId != null && !readerId.isEmpty()) {
-        String line = taErrorLog.readLine(readerId);
-        boolean globalRatioFound = false;
-        while (line != null) {
-          if (!globalRatioFound
-              && line.trim().startsWith("Ratio of total measured values to all unknowns")) {
-            globalRatioFound = true;
-            lineList.add(line);
-          }
-          else if (line.trim().startsWith("Residual error mean and sd")
-              && line.indexOf("Local area") == -1) {
-            lineList.add(line);
-          }
-          else if (line.trim().startsWith("Residual error local mean")) {
-            lineList.add(line);
-          }
-          line = taErrorLog.readLine(readerId);
-        }
-        taErrorLog.closeRead(readerId);
-      }
+    LogFile alignLog = LogFile.getInstance(userDir, axisID, ProcessName.ALIGN);
+    if (alignLog.exists()) {
+      lineList.addAll(AlignLogAnalysis.getInstance(alignLog).getResidualErrors());
     }
     return lineList;
   }
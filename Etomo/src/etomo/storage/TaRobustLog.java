@@ -5,7 +5,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import etomo.process.AlignLogGenerator;
 import etomo.type.AxisID;
 import etomo.type.ProcessName;
 
@@ -27,7 +26,7 @@ import etomo.type.ProcessName;
 public final class TaRobustLog implements Loggable {
   public static final String rcsid = "$Id:$";
 
-  private final List lineList = new ArrayList();
+  private final List<String> lineList = new ArrayList<String>();
 
   private final String userDir;
   private final AxisID axisID;
@@ -54,28 +53,13 @@ public final class TaRobustLog implements Loggable {
   /**
    * Get a message to be logged in the LogPanel.
    */
-  public List getLogMessage() throws LogFile.LockException, FileNotFoundException,
+  public List<String> getLogMessage() throws LogFile.LockException, FileNotFoundException,
       IOException {
     lineList.clear();
     // refresh the log file
-    LogFile taRobustLog = LogFile.getInstance(userDir, axisID,
-        AlignLogGenerator.ROBUST_LOG_NAME);
-    if (taRobustLog.exists()) {
-      LogFile.ReaderId readerId = taRobustLog.openReader();
-      if (readerId != null && !readerId.isEmpty()) {
-        String line = taRobustLog.readLine(readerId);
-        while (line != null) {
-          if (line.trim().startsWith("Residual error weighted mean")
-              && line.indexOf("Local area") == -1) {
-            lineList.add(line);
-          }
-          else if (line.trim().startsWith("Weighted error local mean")) {
-            lineList.add(line);
-          }
-          line = taRobustLog.readLine(readerId);
-        }
-        taRobustLog.closeRead(readerId);
-      }
+    LogFile alignLog = LogFile.getInstance(userDir, axisID, ProcessName.ALIGN);
+    if (alignLog.exists()) {
+      lineList.addAll(AlignLogAnalysis.getInstance(alignLog).getWeightedResidualErrors());
     }
     return lineList;
   }
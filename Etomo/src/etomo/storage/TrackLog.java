@@ -41,6 +41,9 @@ import etomo.type.ProcessName;
 public final class TrackLog implements Loggable {
   public static final String rcsid = "$Id$";
 
+  private static final LogIndex.Marker TOTAL_POINTS_MISSING = LogIndex.Marker
+      .getStartsWithInstance("Total points missing");
+
   private final List lineList = new ArrayList();
 
   private final String userDir;
@@ -74,18 +77,9 @@ public final class TrackLog implements Loggable {
     //refresh the log file
     LogFile trackLog = LogFile.getInstance(userDir, axisID, ProcessName.TRACK);
     if (trackLog.exists()) {
-      LogFile.ReaderId readerId = trackLog.openReader();
-      if (readerId != null && !readerId.isEmpty()) {
-        String line = trackLog.readLine(readerId);
-        while (line != null) {
-          if (line.trim().startsWith("Total points missing")) {
-            lineList.add(line);
-            trackLog.closeRead(readerId);
-            return lineList;
-          }
-          line = trackLog.readLine(readerId);
-        }
-        trackLog.closeRead(readerId);
+      String line = trackLog.findFirstLine(TOTAL_POINTS_MISSING);
+      if (line != null) {
+        lineList.add(line);
       }
     }
     return lineList;
@@ -13,8 +13,10 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * <p>Description:  Data storage for an autodoc file.
@@ -105,12 +107,22 @@ final class Autodoc extends WriteOnlyStatementList implements WritableAutodoc {
   // data
   private final List sectionList = new ArrayList();
   private final HashMap sectionMap = new HashMap();
+  // The indices in sectionList of the sections of each type, in order, keyed by the
+  // section type key.  Built as the sections are added.
+  private final Map<String, List<Integer>> sectionTypeIndex =
+      new HashMap<String, List<Integer>>();
+  // Results of getAttributeValues, keyed by section type, attribute name, and
+  // multi-line.  Only used when the autodoc is not writable.  Synchronized on itself,
+  // because read-only autodocs are shared.
+  private final Map<String, HashMap> attributeValuesCache =
+      new HashMap<String, HashMap>();
   private final List statementList = new ArrayList();
   private final AttributeList attributeList;
   private String currentDelimiter = AutodocTokenizer.DEFAULT_DELIMITER;
   private boolean debug = false;
   private boolean writable = false;
   private boolean exists = true;
+  private long lastModified = 0;
 
   Autodoc(String autodocName) {
     this(false, autodocName);
@@ -156,8 +168,18 @@ final class Autodoc extends WriteOnlyStatementList implements WritableAutodoc {
     existingSection = (Section) sectionMap.get(key);
     if (existingSection == null) {
       Section newSection = new Section(type, name, this);
+      String typeKey = newSection.getTypeToken().getKey();
+      List<Integer> indexList = sectionTypeIndex.get(typeKey);
+      if (indexList == null) {
+        indexList = new ArrayList<Integer>();
+        sectionTypeIndex.put(typeKey, indexList);
+      }
+      indexList.add(new Integer(sectionList.size()));
       sectionList.add(newSection);
       sectionMap.put(newSection.getKey(), newSection);
+      synchronized (attributeValuesCache) {
+        attributeValuesCache.clear();
+      }
       return newSection;
     }
     return existingSection;
@@ -313,14 +335,14 @@ final class Autodoc extends WriteOnlyStatementList implements WritableAutodoc {
    * the type parameter.  Returns the SectionLocation index.
    */
   public SectionLocation getSectionLocation(String type) {
-    Section section = null;
-    for (int i = 0; i < sectionList.size(); i++) {
-      section = (Section) sectionList.get(i);
-      if (section.equalsType(type)) {
-        return new SectionLocation(type, i);
-      }
+    if (type == null) {
+      return getSectionLocation();
     }
-    return null;
+    List<Integer> indexList = sectionTypeIndex.get(Token.convertToKey(type));
+    if (indexList == null) {
+      return null;
+    }
+    return new SectionLocation(type, indexList.get(0).intValue());
   }
 
   public SectionLocation getSectionLocation() {
@@ -338,15 +360,31 @@ final class Autodoc extends WriteOnlyStatementList implements WritableAutodoc {
     if (location == null) {
       return null;
     }
-    Section section = null;
-    for (int i = location.getIndex(); i < sectionList.size(); i++) {
-      section = (Section) sectionList.get(i);
-      if (section.equalsType(location.getType())) {
-        location.setIndex(i + 1);
-        return section;
+    int index = location.getIndex();
+    String type = location.getType();
+    if (type == null) {
+      // Every section matches a null type.
+      if (index < 0 || index >= sectionList.size()) {
+        return null;
       }
+      location.setIndex(index + 1);
+      return (Section) sectionList.get(index);
     }
-    return null;
+    List<Integer> indexList = sectionTypeIndex.get(Token.convertToKey(type));
+    if (indexList == null) {
+      return null;
+    }
+    // Find the first section of this type at or after index.
+    int position = Collections.binarySearch(indexList, new Integer(index));
+    if (position < 0) {
+      position = -position - 1;
+    }
+    if (position >= indexList.size()) {
+      return null;
+    }
+    index = indexList.get(position).intValue();
+    location.setIndex(index + 1);
+    return (Section) sectionList.get(index);
   }
 
   public HashMap getAttributeValues(String sectionType, String attributeName) {
@@ -367,8 +405,9 @@ final class Autodoc extends WriteOnlyStatementList implements WritableAutodoc {
   /**
    * Returns a HashMap containing a list of attribute values, keyed by
    * sectionName.  The elements in each list is using section type and attribute
-   * name.  Each list is saved in attributeValuesCache.  If a saved list is
-   * requested, then the cached HashMap is returned.
+   * name.  Unless the autodoc is writable, each list is saved in
+   * attributeValuesCache.  If a saved list is requested, then the cached HashMap is
+   * returned, so the caller must not modify it.
    * @param sectionType
    * @param attributeName
    * @return
@@ -378,6 +417,17 @@ final class Autodoc extends WriteOnlyStatementList implements WritableAutodoc {
     if (sectionType == null || attributeName == null) {
       return null;
     }
+    String cacheKey = null;
+    if (!writable) {
+      cacheKey = Token.convertToKey(sectionType) + '\n' + attributeName + '\n'
+          + multiLine;
+      synchronized (attributeValuesCache) {
+        HashMap attributeValues = attributeValuesCache.get(cacheKey);
+        if (attributeValues != null) {
+          return attributeValues;
+        }
+      }
+    }
     // Create attributeValues
     HashMap attributeValues = new HashMap();
     SectionLocation sectionLocation = getSectionLocation(sectionType);
@@ -400,6 +450,11 @@ final class Autodoc extends WriteOnlyStatementList implements WritableAutodoc {
       // Go to next section
       section = nextSection(sectionLocation);
     }
+    if (cacheKey != null) {
+      synchronized (attributeValuesCache) {
+        attributeValuesCache.put(cacheKey, attributeValues);
+      }
+    }
     return attributeValues;
   }
 
@@ -520,6 +575,13 @@ final class Autodoc extends WriteOnlyStatementList implements WritableAutodoc {
     return exists && autodocFile != null;
   }
 
+  /**
+   * @return true if the autodoc file has changed since it was parsed
+   */
+  boolean isModified() {
+    return autodocFile != null && autodocFile.lastModified() != lastModified;
+  }
+
   /**
    * Gets the autodoc file as a LogFile.
    * @param autodocDir
@@ -692,7 +754,10 @@ final class Autodoc extends WriteOnlyStatementList implements WritableAutodoc {
     if (autodocFile == null) {
       return;
     }
-    parser = new AutodocParser(this, false, true, debug, false);
+    lastModified = autodocFile.lastModified();
+    // Standard autodocs don't change, so their tokens can be cached.
+    parser = new AutodocParser(this, false, true, debug, false, debug ? null
+        : AutodocTokenCache.getInstance());
     if (storeData) {
       parser.initialize();
       parser.parse();
@@ -723,7 +788,10 @@ final class Autodoc extends WriteOnlyStatementList implements WritableAutodoc {
     if (autodocFile == null) {
       return;
     }
-    parser = new AutodocParser(this, false, true, debug, false);
+    lastModified = autodocFile.lastModified();
+    // Standard autodocs don't change, so their tokens can be cached.
+    parser = new AutodocParser(this, false, true, debug, false, debug ? null
+        : AutodocTokenCache.getInstance());
     if (storeData) {
       parser.initialize();
       parser.parse();
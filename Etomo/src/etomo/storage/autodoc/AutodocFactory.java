@@ -4,12 +4,19 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import etomo.BaseManager;
 import etomo.EtomoDirector;
 import etomo.storage.AutodocFilter;
 import etomo.storage.LogFile;
 import etomo.type.AxisID;
+import etomo.util.Utilities;
 
 /**
  * <p>Description: </p>
@@ -155,6 +162,9 @@ public final class AutodocFactory {
   private static Autodoc ETOMO_INSTANCE = null;
 
   private static final HashMap UITEST_AXIS_MAP = new HashMap();
+  // Autodocs loaded by prefetch, keyed by name.  Synchronized on itself.
+  private static final Map<String, Future<Autodoc>> PREFETCH_MAP =
+      new HashMap<String, Future<Autodoc>>();
 
   private AutodocFactory() {
   }
@@ -173,7 +183,17 @@ public final class AutodocFactory {
     if (autodoc != null) {
       return autodoc;
     }
-    autodoc = new Autodoc(name);
+    autodoc = getPrefetchedAutodoc(name);
+    if (autodoc != null) {
+      return autodoc;
+    }
+    return newInstance(manager, name, axisID);
+  }
+
+  private static Autodoc newInstance(final BaseManager manager, final String name,
+      final AxisID axisID) throws FileNotFoundException, IOException,
+      LogFile.LockException {
+    Autodoc autodoc = new Autodoc(name);
     if (name.equals(UITEST)) {
       autodoc.initializeUITest(manager, name, axisID);
     }
@@ -186,6 +206,75 @@ public final class AutodocFactory {
     return autodoc;
   }
 
+  /**
+   * Returns a task which loads an autodoc.  Once the task has run,
+   * getInstance(BaseManager, String, AxisID) returns the loaded autodoc instead of
+   * loading it again, until the autodoc file changes.  Run the task on a background
+   * thread.  If the task will not be run, it must be cancelled.
+   * @param manager
+   * @param name
+   * @param axisID
+   * @return the task
+   */
+  public static FutureTask<Autodoc> prefetch(final BaseManager manager,
+      final String name, final AxisID axisID) {
+    if (name == null) {
+      throw new IllegalStateException("name is null");
+    }
+    // Check the name.
+    getExistingAutodoc(name);
+    FutureTask<Autodoc> task = new FutureTask<Autodoc>(new Callable<Autodoc>() {
+      public Autodoc call() throws Exception {
+        Utilities.timestamp("prefetch", name + EXTENSION, Utilities.STARTED_STATUS);
+        Autodoc autodoc = newInstance(manager, name, axisID);
+        Utilities.timestamp("prefetch", name + EXTENSION, Utilities.FINISHED_STATUS);
+        return autodoc;
+      }
+    });
+    synchronized (PREFETCH_MAP) {
+      PREFETCH_MAP.put(name, task);
+    }
+    return task;
+  }
+
+  /**
+   * Waits for a prefetched autodoc to finish loading.
+   * @param name
+   * @return the prefetched autodoc, or null if it wasn't prefetched, failed to load,
+   * has changed since it was loaded, or has no file (for example when cpu.adoc
+   * hasn't been created) - a missing file can't be checked for changes
+   */
+  private static Autodoc getPrefetchedAutodoc(final String name) {
+    Future<Autodoc> future;
+    synchronized (PREFETCH_MAP) {
+      future = PREFETCH_MAP.get(name);
+    }
+    if (future == null) {
+      return null;
+    }
+    Autodoc autodoc = null;
+    try {
+      autodoc = future.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    catch (CancellationException e) {
+    }
+    catch (ExecutionException e) {
+      e.getCause().printStackTrace();
+    }
+    if (autodoc == null || !autodoc.exists() || autodoc.isModified()) {
+      synchronized (PREFETCH_MAP) {
+        if (PREFETCH_MAP.get(name) == future) {
+          PREFETCH_MAP.remove(name);
+        }
+      }
+      return null;
+    }
+    return autodoc;
+  }
+
   public static ReadOnlyAutodoc getDebugInstance(BaseManager manager, String name,
       AxisID axisID) throws FileNotFoundException, IOException, LogFile.LockException {
     if (name == null) {
@@ -371,6 +460,9 @@ public final class AutodocFactory {
 
   public static void setAbsoluteDir(String absoluteDir) {
     Autodoc.setAbsoluteDir(absoluteDir);
+    synchronized (PREFETCH_MAP) {
+      PREFETCH_MAP.clear();
+    }
   }
 
   private static Autodoc getExistingUITestAxisAutodoc(File autodocFile) {
@@ -481,6 +573,9 @@ public final class AutodocFactory {
    * @param name
    */
   public static void resetInstance(String name) {
+    synchronized (PREFETCH_MAP) {
+      PREFETCH_MAP.remove(name);
+    }
     if (name.equals(TILTXCORR)) {
       TILTXCORR_INSTANCE = null;
     }
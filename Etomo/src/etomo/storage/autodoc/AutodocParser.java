@@ -342,6 +342,15 @@ final class AutodocParser {
 
   AutodocParser(final Autodoc autodoc, final boolean allowAltComment,
       final boolean versionRequired, final boolean debug, final boolean peetVariant) {
+    this(autodoc, allowAltComment, versionRequired, debug, peetVariant, null);
+  }
+
+  /**
+   * @param cache - when not null, the tokens are read from and saved to the cache
+   */
+  AutodocParser(final Autodoc autodoc, final boolean allowAltComment,
+      final boolean versionRequired, final boolean debug, final boolean peetVariant,
+      final AutodocTokenCache cache) {
     this.debug = debug;
     this.peetVariant = peetVariant;
     if (autodoc == null) {
@@ -349,7 +358,8 @@ final class AutodocParser {
     }
     this.autodoc = autodoc;
     name = new String(autodoc.getName());
-    tokenizer = new AutodocTokenizer(autodoc.getAutodocFile(), allowAltComment, debug);
+    tokenizer = new AutodocTokenizer(autodoc.getAutodocFile(), allowAltComment, debug,
+        cache);
     this.versionRequired = versionRequired;
   }
 
@@ -389,6 +399,9 @@ final class AutodocParser {
       }
     }
     postprocess();
+    if (!error) {
+      tokenizer.saveCache();
+    }
   }
 
   /** 
@@ -2,7 +2,9 @@ package etomo.storage.autodoc;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.util.HashMap;
 
 import etomo.BaseManager;
 import etomo.EtomoDirector;
@@ -67,6 +69,45 @@ public final class AutodocTest extends TestCase {
     assertFalse(autodoc.isError());
   }
 
+  public void testSectionIndex() throws LogFile.LockException, IOException {
+    File file = new File(new File(AutodocTests.TEST_ROOT_DIR, TEST_DIR_NAME),
+        "index.adoc");
+    FileWriter writer = new FileWriter(file);
+    try {
+      writer.write("Version = 1.0\n\n[Field = A]\nshort = a\n[Other = X]\nshort = x\n"
+          + "[Field = B]\nshort = b\n[Other = Y]\n[Field = C]\n");
+    }
+    finally {
+      writer.close();
+    }
+    ReadOnlyAutodoc autodoc = AutodocFactory.getInstance(manager, file, false);
+    assertFalse(autodoc.isError());
+    assertSections(autodoc, "Field", new String[] { "A", "B", "C" });
+    assertSections(autodoc, "other", new String[] { "X", "Y" });
+    assertSections(autodoc, null, new String[] { "A", "X", "B", "Y", "C" });
+    assertNull(autodoc.getSectionLocation("Missing"));
+    assertFalse(autodoc.sectionExists("Missing"));
+    HashMap values = autodoc.getAttributeValues("Field", "short");
+    assertEquals(2, values.size());
+    assertEquals("a", values.get("A"));
+    assertEquals("b", values.get("B"));
+    assertSame("values should be cached", values,
+        autodoc.getAttributeValues("Field", "short"));
+    assertNotSame(values, autodoc.getAttributeMultiLineValues("Field", "short"));
+  }
+
+  private void assertSections(final ReadOnlyAutodoc autodoc, final String type,
+      final String[] names) {
+    SectionLocation location = type == null ? autodoc.getSectionLocation() : autodoc
+        .getSectionLocation(type);
+    for (int i = 0; i < names.length; i++) {
+      ReadOnlySection section = autodoc.nextSection(location);
+      assertNotNull(type + " section " + i, section);
+      assertEquals(names[i], section.getName());
+    }
+    assertNull(autodoc.nextSection(location));
+  }
+
   // Standard autodocs
 
   public void testBeadtrack() throws FileNotFoundException, IOException,
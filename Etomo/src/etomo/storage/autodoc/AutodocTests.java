@@ -29,6 +29,7 @@ public class AutodocTests {
   public static Test suite() {
     TestSuite suite = new TestSuite("Tests:  " + TEST_DIR);
     //$JUnit-BEGIN$
+    suite.addTestSuite(AutodocTokenCacheTest.class);
     suite.addTestSuite(AutodocTest.class);
     //suite.addTest(new AutodocTest("testCpu"));
     //$JUnit-END$
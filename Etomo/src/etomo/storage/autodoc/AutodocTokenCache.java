@@ -0,0 +1,302 @@
+package etomo.storage.autodoc;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import etomo.ui.swing.Token;
+
+/**
+ * <p>Description: Saves the tokens that AutodocTokenizer makes from an autodoc file,
+ * so that the next time the autodoc is loaded it doesn't have to be tokenized.  The
+ * tokens are saved in a binary file in the user's cache directory, one file per
+ * autodoc.  A saved file is memory mapped when the autodoc is loaded, and the tokens
+ * are decoded as the parser asks for them.</p>
+ *
+ * <p>Each saved file contains a key made from the autodoc's absolute path, size,
+ * modification time, AutodocFactory.VERSION, and the tokenizer settings.  The saved
+ * tokens are only used when the key matches.  The parser still runs on the saved
+ * tokens, so errors in the autodoc are reported the same way each time.</p>
+ *
+ * <p>File format:  MAGIC, FORMAT, key, number of tokens, tokens, MAGIC.  Each token is
+ * a type index from TYPES followed by the length of its value (NULL_VALUE when there
+ * isn't one) and the value's characters.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * @threadsafe
+ *
+ * <p> $Log$ </p>
+ */
+final class AutodocTokenCache {
+  public static final String rcsid = "$Id:$";
+
+  static final String CACHE_DIR_NAME = ".etomocache";
+  static final String EXTENSION = ".tokens";
+
+  private static final String AUTODOC_DIR_NAME = "autodoc";
+  private static final int MAGIC = 0x41646f63;
+  // Increment when the file format or the tokenizer changes.
+  private static final int FORMAT = 2;
+  private static final char NULL_VALUE = 0xffff;
+  private static final Token.Type[] TYPES = new Token.Type[] { Token.Type.NULL,
+      Token.Type.EOF, Token.Type.EOL, Token.Type.ALPHANUM, Token.Type.SYMBOL,
+      Token.Type.WHITESPACE, Token.Type.COMMENT, Token.Type.SEPARATOR, Token.Type.OPEN,
+      Token.Type.CLOSE, Token.Type.DELIMITER, Token.Type.WORD, Token.Type.KEYWORD,
+      Token.Type.ANYTHING, Token.Type.SUBOPEN, Token.Type.SUBCLOSE, Token.Type.NUMERIC,
+      Token.Type.ALPHABETIC, Token.Type.QUOTE };
+
+  private static AutodocTokenCache INSTANCE = null;
+  private static boolean instanceCreated = false;
+
+  private final File cacheDir;
+
+  AutodocTokenCache(final File cacheDir) {
+    this.cacheDir = cacheDir;
+  }
+
+  /**
+   * @return the cache in the user's home directory, or null if there is no home
+   * directory
+   */
+  static synchronized AutodocTokenCache getInstance() {
+    if (!instanceCreated) {
+      instanceCreated = true;
+      String home = System.getProperty("user.home");
+      if (home != null && !home.matches("\\s*")) {
+        INSTANCE = new AutodocTokenCache(new File(new File(home, CACHE_DIR_NAME),
+            AUTODOC_DIR_NAME));
+      }
+    }
+    return INSTANCE;
+  }
+
+  /**
+   * @param source - the autodoc file
+   * @param allowAltComment - the tokenizer setting
+   * @return the saved tokens for source, or null if they aren't saved or are out of
+   * date
+   */
+  Reader getReader(final File source, final boolean allowAltComment) {
+    File file = getFile(source);
+    if (!file.isFile()) {
+      return null;
+    }
+    String key = getKey(source, allowAltComment);
+    try {
+      FileInputStream stream = new FileInputStream(file);
+      try {
+        FileChannel channel = stream.getChannel();
+        // The mapping stays valid after the channel is closed.
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel
+            .size());
+        if (buffer.limit() < 16 || buffer.getInt(buffer.limit() - 4) != MAGIC
+            || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT
+            || !key.equals(getString(buffer))) {
+          return null;
+        }
+        int nTokens = buffer.getInt();
+        return new Reader(buffer, nTokens);
+      }
+      finally {
+        stream.close();
+      }
+    }
+    catch (IOException e) {
+      e.printStackTrace();
+      return null;
+    }
+    catch (BufferUnderflowException e) {
+      // Damaged file.
+      return null;
+    }
+  }
+
+  /**
+   * @param source - the autodoc file, which is about to be tokenized
+   * @param allowAltComment - the tokenizer setting
+   * @return a writer for saving the tokens of source
+   */
+  Writer getWriter(final File source, final boolean allowAltComment) {
+    return new Writer(source, allowAltComment);
+  }
+
+  private File getFile(final File source) {
+    // The hash separates autodocs with the same name in different directories.
+    return new File(cacheDir, source.getName() + "."
+        + Integer.toHexString(source.getAbsolutePath().hashCode()) + EXTENSION);
+  }
+
+  private static String getKey(final File source, final boolean allowAltComment) {
+    return source.getAbsolutePath() + "\n" + source.length() + "\n"
+        + source.lastModified() + "\n" + AutodocFactory.VERSION + "\n" + allowAltComment;
+  }
+
+  private static String getString(final MappedByteBuffer buffer) {
+    char length = buffer.getChar();
+    if (length == NULL_VALUE) {
+      return null;
+    }
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      chars[i] = buffer.getChar();
+    }
+    return new String(chars);
+  }
+
+  private static void writeString(final DataOutputStream stream, final String string)
+      throws IOException {
+    if (string == null) {
+      stream.writeChar(NULL_VALUE);
+      return;
+    }
+    stream.writeChar(string.length());
+    stream.writeChars(string);
+  }
+
+  /**
+   * Decodes saved tokens.  Not thread safe; used by one tokenizer.
+   */
+  static final class Reader {
+    private final int nTokens;
+
+    private MappedByteBuffer buffer;
+    private int index = 0;
+
+    private Reader(final MappedByteBuffer buffer, final int nTokens) {
+      this.buffer = buffer;
+      this.nTokens = nTokens;
+    }
+
+    /**
+     * @return the next saved token.  Returns EOF tokens after the last token.
+     */
+    Token next() {
+      Token token = new Token();
+      if (index >= nTokens) {
+        buffer = null;
+        token.set(Token.Type.EOF);
+        return token;
+      }
+      index++;
+      Token.Type type = TYPES[buffer.get()];
+      String value = getString(buffer);
+      if (value == null) {
+        token.set(type);
+      }
+      else {
+        token.set(type, value);
+      }
+      return token;
+    }
+  }
+
+  /**
+   * Saves tokens as they are made.  Not thread safe; used by one tokenizer.
+   */
+  final class Writer {
+    private final List<Token> tokenList = new ArrayList<Token>();
+    private final File source;
+    private final boolean allowAltComment;
+    private final String key;
+
+    private boolean done = false;
+    private boolean saveable = true;
+
+    private Writer(final File source, final boolean allowAltComment) {
+      this.source = source;
+      this.allowAltComment = allowAltComment;
+      key = getKey(source, allowAltComment);
+    }
+
+    /**
+     * Adds a token.  Tokens after the first EOF are ignored.
+     * @param token
+     */
+    void add(final Token token) {
+      if (done) {
+        return;
+      }
+      if (token.is(Token.Type.EOF)) {
+        done = true;
+      }
+      String value = token.getValue();
+      if (value != null && value.length() >= NULL_VALUE) {
+        saveable = false;
+      }
+      tokenList.add(new Token(token));
+    }
+
+    /**
+     * Saves the tokens if the whole file was tokenized and the file hasn't changed
+     * since tokenizing started.  The file is written under a temporary name and then
+     * renamed, so that a partly written file is never read.  Failing to save is not an
+     * error; the autodoc will just be tokenized again next time.
+     */
+    void save() {
+      if (!done || !saveable || !key.equals(getKey(source, allowAltComment))) {
+        return;
+      }
+      if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+        return;
+      }
+      File file = getFile(source);
+      File temp = null;
+      try {
+        temp = File.createTempFile(source.getName(), ".tmp", cacheDir);
+        DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(
+            new FileOutputStream(temp)));
+        try {
+          stream.writeInt(MAGIC);
+          stream.writeInt(FORMAT);
+          writeString(stream, key);
+          stream.writeInt(tokenList.size());
+          for (int i = 0; i < tokenList.size(); i++) {
+            Token token = tokenList.get(i);
+            stream.writeByte(getTypeIndex(token.getType()));
+            writeString(stream, token.getValue());
+          }
+          stream.writeInt(MAGIC);
+        }
+        finally {
+          stream.close();
+        }
+        // Windows won't rename over an existing file.
+        if (!temp.renameTo(file) && (!file.delete() || !temp.renameTo(file))) {
+          temp.delete();
+        }
+      }
+      catch (IOException e) {
+        e.printStackTrace();
+        if (temp != null) {
+          temp.delete();
+        }
+      }
+    }
+
+    private int getTypeIndex(final Token.Type type) throws IOException {
+      for (int i = 0; i < TYPES.length; i++) {
+        if (TYPES[i] == type) {
+          return i;
+        }
+      }
+      throw new IOException("Unknown token type " + type + ".");
+    }
+  }
+}
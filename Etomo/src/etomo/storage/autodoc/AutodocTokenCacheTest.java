@@ -0,0 +1,140 @@
+package etomo.storage.autodoc;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import etomo.storage.LogFile;
+import etomo.ui.swing.Token;
+import junit.framework.TestCase;
+
+/**
+* <p>Description: </p>
+*
+* <p>Copyright: Copyright 2026</p>
+*
+* <p>Organization:
+* Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+* University of Colorado</p>
+*
+* @author $Author$
+*
+* @version $Revision$
+*
+* <p> $Log$ </p>
+*/
+public class AutodocTokenCacheTest extends TestCase {
+  public static final String rcsid = "$Id:$";
+
+  private static final File testDir = new File(AutodocTests.TEST_ROOT_DIR,
+      "AutodocTokenCache");
+  private static final String CONTENTS = "Version = 1.0\n# comment\n\n[Field = A]\n"
+      + "short = a\nlong = two\n  lines\n[[Sub = x]]\nsub.name = 'quoted value'\n[[]]\n"
+      + "[Field = B]\nKeyValueDelimiter = ==\nshort == b\n";
+
+  private final File cacheDir = new File(testDir, "cache");
+  private final File source = new File(testDir, "test.adoc");
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    testDir.mkdirs();
+    File[] files = cacheDir.listFiles();
+    for (int i = 0; files != null && i < files.length; i++) {
+      files[i].delete();
+    }
+    write(CONTENTS);
+  }
+
+  public void testTokens() throws IOException, LogFile.LockException {
+    AutodocTokenCache cache = new AutodocTokenCache(cacheDir);
+    AutodocTokenizer tokenizer = new AutodocTokenizer(LogFile.getInstance(source),
+        false, false, cache);
+    tokenizer.initialize();
+    assertFalse(tokenizer.isCached());
+    List<Token> tokenList = readTokens(tokenizer);
+    tokenizer.saveCache();
+    assertEquals(1, cacheDir.listFiles().length);
+
+    tokenizer = new AutodocTokenizer(LogFile.getInstance(source), false, false, cache);
+    tokenizer.initialize();
+    assertTrue(tokenizer.isCached());
+    List<Token> cachedTokenList = readTokens(tokenizer);
+    assertEquals(tokenList.size(), cachedTokenList.size());
+    for (int i = 0; i < tokenList.size(); i++) {
+      Token token = tokenList.get(i);
+      Token cachedToken = cachedTokenList.get(i);
+      assertSame("token " + i, token.getType(), cachedToken.getType());
+      assertEquals("token " + i, token.getValue(), cachedToken.getValue());
+    }
+    assertTrue("EOF is repeated", tokenizer.next().is(Token.Type.EOF));
+
+    tokenizer = new AutodocTokenizer(LogFile.getInstance(source), true, false, cache);
+    tokenizer.initialize();
+    assertFalse("the tokenizer settings are part of the key", tokenizer.isCached());
+  }
+
+  public void testOutOfDate() throws IOException, LogFile.LockException {
+    AutodocTokenCache cache = new AutodocTokenCache(cacheDir);
+    AutodocTokenizer tokenizer = new AutodocTokenizer(LogFile.getInstance(source),
+        false, false, cache);
+    tokenizer.initialize();
+    readTokens(tokenizer);
+    tokenizer.saveCache();
+    long lastModified = source.lastModified();
+    write(CONTENTS + "added = 1\n");
+    source.setLastModified(lastModified + 2000);
+    tokenizer = new AutodocTokenizer(LogFile.getInstance(source), false, false, cache);
+    tokenizer.initialize();
+    assertFalse(tokenizer.isCached());
+    List<Token> tokenList = readTokens(tokenizer);
+    assertEquals("1", tokenList.get(tokenList.size() - 3).getValue());
+  }
+
+  public void testParse() throws IOException, LogFile.LockException {
+    AutodocTokenCache cache = new AutodocTokenCache(cacheDir);
+    Autodoc autodoc = parse(cache);
+    Autodoc cachedAutodoc = parse(cache);
+    assertEquals(1, cacheDir.listFiles().length);
+    assertEquals(autodoc.getAttributeValues("Field", "short"), cachedAutodoc
+        .getAttributeValues("Field", "short"));
+    assertEquals("b", cachedAutodoc.getAttributeValues("Field", "short").get("B"));
+    ReadOnlySection section = cachedAutodoc.getSection("Field", "A");
+    assertEquals("two lines", section.getAttribute("long").getValue());
+    ReadOnlySection subsection = section.getSection("Sub", "x");
+    assertEquals("quoted value", subsection.getAttribute("sub").getAttribute("name")
+        .getValue());
+  }
+
+  private Autodoc parse(final AutodocTokenCache cache) throws IOException,
+      LogFile.LockException {
+    Autodoc autodoc = new Autodoc("test");
+    autodoc.initialize(null, source, false, false, false, false);
+    AutodocParser parser = new AutodocParser(autodoc, false, false, false, false, cache);
+    parser.initialize();
+    parser.parse();
+    assertFalse(parser.isError());
+    return autodoc;
+  }
+
+  private List<Token> readTokens(final AutodocTokenizer tokenizer) throws IOException {
+    List<Token> tokenList = new ArrayList<Token>();
+    Token token;
+    do {
+      token = tokenizer.next();
+      tokenList.add(token);
+    } while (!token.is(Token.Type.EOF));
+    return tokenList;
+  }
+
+  private void write(final String contents) throws IOException {
+    FileWriter writer = new FileWriter(source);
+    try {
+      writer.write(contents);
+    }
+    finally {
+      writer.close();
+    }
+  }
+}
@@ -1,11 +1,13 @@
 package etomo.storage.autodoc;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.lang.IllegalStateException;
 
 import etomo.storage.LogFile;
 import etomo.ui.swing.Token;
+import etomo.util.PrimativeLexer;
 import etomo.util.PrimativeTokenizer;
 
 /**
@@ -159,20 +161,35 @@ public final class AutodocTokenizer {
       + SEPARATOR_CHAR + OPEN_CHAR.charValue() + CLOSE_CHAR.charValue());
 
   private String delimiterString = DEFAULT_DELIMITER;
-  private PrimativeTokenizer primativeTokenizer = null;
-  private Token primativeToken = null;
+  private final PrimativeLexer lexer;
+  private final StringBuffer wordBuffer = new StringBuffer();
+  private final StringBuffer delimiterBuffer = new StringBuffer();
+
   private Token autodocToken = null;
-  private Token token = new Token();
-  private Token nextToken = new Token();
-  private boolean useNextToken = false;
-  private StringBuffer wordBuffer = null;
+  private Token token = null;
+  private Token nextToken = null;
   private boolean debug = false;
   private boolean lookAhead = false;
+  private final LogFile file;
+  private final AutodocTokenCache cache;
+  private AutodocTokenCache.Reader cacheReader = null;
+  private AutodocTokenCache.Writer cacheWriter = null;
 
   AutodocTokenizer(LogFile file, boolean allowAltComment, boolean debug) {
+    this(file, allowAltComment, debug, null);
+  }
+
+  /**
+   * @param cache - when not null, tokens are read from the cache if they have been
+   * saved, and saved by saveCache if they haven't
+   */
+  AutodocTokenizer(final LogFile file, final boolean allowAltComment,
+      final boolean debug, final AutodocTokenCache cache) {
+    this.file = file;
+    this.cache = cache;
     this.allowAltComment = allowAltComment;
     this.debug = debug;
-    primativeTokenizer = new PrimativeTokenizer(file, debug);
+    lexer = new PrimativeLexer(file);
     if (allowAltComment) {
       restrictedSymbols.append(ALT_COMMENT_CHAR);
     }
@@ -186,7 +203,35 @@ public final class AutodocTokenizer {
   }
 
   void initialize() throws FileNotFoundException, IOException, LogFile.LockException {
-    primativeTokenizer.initialize();
+    cacheReader = null;
+    cacheWriter = null;
+    if (cache != null) {
+      File source = new File(file.getAbsolutePath());
+      cacheReader = cache.getReader(source, allowAltComment);
+      if (cacheReader != null) {
+        return;
+      }
+      cacheWriter = cache.getWriter(source, allowAltComment);
+    }
+    lexer.initialize();
+  }
+
+  /**
+   * @return true if the tokens are coming from the cache
+   */
+  boolean isCached() {
+    return cacheReader != null;
+  }
+
+  /**
+   * Saves the tokens returned by next() to the cache, if they weren't read from it.
+   * Call after the last token has been read.
+   */
+  void saveCache() {
+    if (cacheWriter != null) {
+      cacheWriter.save();
+      cacheWriter = null;
+    }
   }
 
   Token getToken() {
@@ -202,7 +247,7 @@ public final class AutodocTokenizer {
       return false;
     }
     char character;
-    String symbols = primativeTokenizer.getSymbols();
+    String symbols = PrimativeLexer.SYMBOLS;
     for (int i = 0; i < delimiterString.length(); i++) {
       character = delimiterString.charAt(i);
       if (restrictedSymbols.toString().indexOf(character) != -1) {
@@ -217,15 +262,23 @@ public final class AutodocTokenizer {
   }
 
   Token next() throws IOException {
-    if (useNextToken) {
-      useNextToken = false;
-      autodocToken = new Token(nextToken);
+    if (cacheReader != null) {
+      autodocToken = cacheReader.next();
       return autodocToken;
     }
-    if (!lookAhead) {
-      primativeToken = primativeTokenizer.next();
+    if (nextToken != null) {
+      autodocToken = nextToken;
+      nextToken = null;
+    }
+    else {
+      if (!lookAhead) {
+        nextPrimative();
+      }
+      autodocToken = findToken();
+    }
+    if (cacheWriter != null) {
+      cacheWriter.add(autodocToken);
     }
-    autodocToken = new Token(findToken());
     return autodocToken;
   }
 
@@ -247,15 +300,29 @@ public final class AutodocTokenizer {
   }
 
   void testPrimativeTokenizer(boolean tokens) throws IOException, LogFile.LockException {
-    primativeTokenizer.test(tokens);
+    new PrimativeTokenizer(file, debug).test(tokens);
   }
 
   void testStreamTokenizer(boolean tokens, boolean details) throws IOException,
       LogFile.LockException {
-    primativeTokenizer.testStreamTokenizer(tokens, details);
+    new PrimativeTokenizer(file, debug).testStreamTokenizer(tokens, details);
   }
 
+  /**
+   * Goes to the next primative token.
+   */
+  private void nextPrimative() throws IOException {
+    lexer.next();
+    if (debug) {
+      System.out.println(lexer.getType() + " " + lexer.getValue());
+    }
+  }
+
+  /**
+   * @return a new token
+   */
   private Token findToken() throws IOException {
+    token = new Token();
     boolean buildingWord = false;
     lookAhead = false;
     do {
@@ -267,10 +334,10 @@ public final class AutodocTokenizer {
         }
         return token;
       }
-      if (primativeToken.is(Token.Type.ALPHANUM)) {
+      if (lexer.is(Token.Type.ALPHANUM)) {
         buildingWord = true;
         buildWord();
-        primativeToken = primativeTokenizer.next();
+        nextPrimative();
       }
       else {
         if (findDelimiter()) {
@@ -295,26 +362,27 @@ public final class AutodocTokenizer {
    * @return
    */
   private boolean findSimpleToken() {
-    if (primativeToken.is(Token.Type.EOF) || primativeToken.is(Token.Type.EOL)
-        || primativeToken.is(Token.Type.WHITESPACE)) {
-      token.copy(primativeToken);
+    if (lexer.is(Token.Type.EOF) || lexer.is(Token.Type.EOL)) {
+      token.set(lexer.getType());
+    }
+    else if (lexer.is(Token.Type.WHITESPACE)) {
+      token.set(Token.Type.WHITESPACE, lexer.getValue());
     }
-    else if (primativeToken.equals(Token.Type.SYMBOL, COMMENT_CHAR)) {
+    else if (lexer.isSymbol(COMMENT_CHAR)) {
       token.set(Token.Type.COMMENT, COMMENT_CHAR);
     }
-    else if (allowAltComment
-        && primativeToken.equals(Token.Type.SYMBOL, ALT_COMMENT_CHAR)) {
+    else if (allowAltComment && lexer.isSymbol(ALT_COMMENT_CHAR)) {
       token.set(Token.Type.COMMENT, ALT_COMMENT_CHAR);
     }
-    else if (primativeToken.equals(Token.Type.SYMBOL, SEPARATOR_CHAR)) {
+    else if (lexer.isSymbol(SEPARATOR_CHAR)) {
       token.set(Token.Type.SEPARATOR, SEPARATOR_CHAR);
     }
-    else if (primativeToken.equals(Token.Type.SYMBOL, delimiterString)) {
+    else if (delimiterString.length() == 1 && lexer.isSymbol(delimiterString.charAt(0))) {
       // Found a one character DELIMITER.
       token.set(Token.Type.DELIMITER, delimiterString);
     }
-    else if (primativeToken.equals(Token.Type.SYMBOL, QUOTE_LIST)) {
-      token.set(Token.Type.QUOTE, primativeToken.getChar());
+    else if (isQuote()) {
+      token.set(Token.Type.QUOTE, lexer.getChar());
     }
     else {
       return false;
@@ -323,16 +391,16 @@ public final class AutodocTokenizer {
   }
 
   private boolean findLookAheadToken() throws IOException {
-    if (primativeToken.equals(Token.Type.SYMBOL, OPEN_CHAR)) {
-      if (matchWithLookAhead(Token.Type.SYMBOL, OPEN_CHAR)) {
+    if (lexer.isSymbol(OPEN_CHAR.charValue())) {
+      if (matchWithLookAhead(OPEN_CHAR.charValue())) {
         token.set(Token.Type.SUBOPEN, OPEN_CHAR.toString() + OPEN_CHAR.toString());
       }
       else {
         token.set(Token.Type.OPEN, OPEN_CHAR);
       }
     }
-    else if (primativeToken.equals(Token.Type.SYMBOL, CLOSE_CHAR)) {
-      if (matchWithLookAhead(Token.Type.SYMBOL, CLOSE_CHAR)) {
+    else if (lexer.isSymbol(CLOSE_CHAR.charValue())) {
+      if (matchWithLookAhead(CLOSE_CHAR.charValue())) {
         token.set(Token.Type.SUBCLOSE, CLOSE_CHAR.toString() + CLOSE_CHAR.toString());
       }
       else {
@@ -345,18 +413,25 @@ public final class AutodocTokenizer {
     return true;
   }
 
+  private boolean isQuote() {
+    for (int i = 0; i < QUOTE_LIST.length; i++) {
+      if (lexer.isSymbol(QUOTE_LIST[i])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
-   * Looks ahead to match a type and character.  If the match fails, set
+   * Looks ahead to match a symbol.  If the match fails, set
    * lookAhead to true.
-   * @param matchType
    * @param matchChar
    * @return
    * @throws IOException
    */
-  private boolean matchWithLookAhead(Token.Type matchType, Character matchChar)
-      throws IOException {
-    primativeToken = primativeTokenizer.next();
-    if (primativeToken.equals(matchType, matchChar)) {
+  private boolean matchWithLookAhead(char matchChar) throws IOException {
+    nextPrimative();
+    if (lexer.isSymbol(matchChar)) {
       return true;
     }
     lookAhead = true;
@@ -374,15 +449,12 @@ public final class AutodocTokenizer {
   private boolean findDelimiter() throws IOException {
     int length = delimiterString.length();
     int index = 0;
-    StringBuffer delimiterBuffer = null;
+    delimiterBuffer.setLength(0);
     boolean success = false;
-    char symbol = primativeToken.getChar();
+    char symbol = lexer.getChar();
     // attempt to build a delimiter that matches delimiterString
-    while (!success && primativeToken.is(Token.Type.SYMBOL) && index < length
+    while (!success && lexer.is(Token.Type.SYMBOL) && index < length
         && delimiterString.charAt(index) == symbol) {
-      if (delimiterBuffer == null) {
-        delimiterBuffer = new StringBuffer();
-      }
       delimiterBuffer.append(symbol);
       if (index == length - 1) {
         // found the whole delimiterString - succeed
@@ -391,23 +463,23 @@ public final class AutodocTokenizer {
       else {
         // haven't matched the entire delimiter string - get next primative token
         index++;
-        primativeToken = primativeTokenizer.next();
+        nextPrimative();
       }
-      symbol = primativeToken.getChar();
+      symbol = lexer.getChar();
     }
     if (success) {
       token.set(Token.Type.DELIMITER, delimiterBuffer);
       return true;
     }
     // delimiter match failed - build a word
-    if (delimiterBuffer == null) {
+    if (delimiterBuffer.length() == 0) {
       // never went into delimiter string recongnition loop - build a word from
-      // the current primativeToken
+      // the current primative token
       buildWord();
-      primativeToken = primativeTokenizer.next();
+      nextPrimative();
     }
     else {
-      buildWord(delimiterBuffer);
+      wordBuffer.append(delimiterBuffer);
     }
     return false;
   }
@@ -416,24 +488,7 @@ public final class AutodocTokenizer {
    * Start or add to a word.
    */
   private void buildWord() {
-    if (wordBuffer == null) {
-      wordBuffer = new StringBuffer(primativeToken.getValue());
-    }
-    else {
-      wordBuffer.append(primativeToken.getValue());
-    }
-  }
-
-  /**
-   * Start or add to a word
-   */
-  private void buildWord(StringBuffer buffer) {
-    if (wordBuffer == null) {
-      wordBuffer = new StringBuffer(buffer.toString());
-    }
-    else {
-      wordBuffer.append(buffer);
-    }
+    lexer.appendTo(wordBuffer);
   }
 
   /**
@@ -443,11 +498,11 @@ public final class AutodocTokenizer {
   private void makeWord() {
     // The entire word was found - the current token will have to wait until
     // the next time next() is called.
-    nextToken.copy(token);
-    useNextToken = true;
+    nextToken = token;
     // Make the WORD token
+    token = new Token();
     token.set(Token.Type.WORD, wordBuffer);
-    wordBuffer = null;
+    wordBuffer.setLength(0);
     // Convert the token to a KEYWORD token if necessary
     findKeyword();
   }
@@ -2,6 +2,7 @@ package etomo.type;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 import etomo.BaseManager;
@@ -9,6 +10,7 @@ import etomo.comscript.MakejoincomParam;
 import etomo.ui.LogProperties;
 import etomo.ui.swing.JoinDialog;
 import etomo.ui.swing.UIHarness;
+import etomo.util.ParallelHeaderReader;
 import etomo.util.Utilities;
 
 /**
@@ -349,6 +351,18 @@ public final class JoinMetaData extends BaseMetaData implements ConstJoinMetaDat
     if (sectionTableRowsSize < 1) {
       return;
     }
+    // Read the section headers in parallel, so that loading the rows doesn't have to
+    // wait for them one at a time.
+    List<File> sectionList = new ArrayList<File>();
+    for (int i = 0; i < sectionTableRowsSize; i++) {
+      File section = SectionTableRowData.getSetupSection(props, prepend, i + 1);
+      if (section != null) {
+        sectionList.add(section);
+      }
+    }
+    if (!sectionList.isEmpty()) {
+      ParallelHeaderReader.readAll(manager, manager.getPropertyUserDir(), sectionList);
+    }
     sectionTableData = new ArrayList(sectionTableRowsSize);
     for (int i = 0; i < sectionTableRowsSize; i++) {
       SectionTableRowData row = new SectionTableRowData(manager, i + 1);
@@ -427,11 +427,47 @@ public class SectionTableRowData extends ConstSectionTableRowData {
     if (header == null) {
       return false;
     }
+    setSetupHeader(header);
+    return true;
+  }
+
+  /**
+   * Set setup section without reading its header.  Call setSetupHeader when the
+   * header has been read.
+   * @param setupSection
+   */
+  public void setSetupSectionFile(File setupSection) {
+    this.setupSection = setupSection;
+  }
+
+  /**
+   * Sets setupXMax, setupYMax, and setupZMax from the setup section header.
+   * @param header
+   */
+  public void setSetupHeader(MRCHeader header) {
     setupXMax = header.getNColumns();
     setupYMax = header.getNRows();
     setupZMax = header.getNSections();
     setupFinalEnd.setDisplayValue(setupZMax);
-    return true;
+  }
+
+  /**
+   * Gets the setup section of a row from the properties object without loading the
+   * row.
+   * @param props
+   * @param prepend
+   * @param rowNumber
+   * @return null if the row has no section
+   */
+  public static File getSetupSection(Properties props, String prepend, int rowNumber) {
+    EtomoNumber number = new EtomoNumber("RowNumber");
+    number.set(rowNumber);
+    String sectionName = props.getProperty(createPrepend(prepend, number) + "."
+        + setupSectionString, null);
+    if (sectionName == null) {
+      return null;
+    }
+    return new File(sectionName);
   }
 
   /**
@@ -40,6 +40,10 @@ final class Column {
     list.add(cell);
   }
 
+  synchronized void remove(Cell cell) {
+    list.remove(cell);
+  }
+
   void setEnabled(boolean enable) {
     enabled = enable;
     for (int i = 0; i < list.size(); i++) {
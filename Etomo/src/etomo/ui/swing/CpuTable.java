@@ -9,6 +9,7 @@ import javax.swing.JPanel;
 import etomo.BaseManager;
 import etomo.comscript.IntermittentCommand;
 import etomo.comscript.LoadAverageParam;
+import etomo.process.LoadAverageMonitor;
 import etomo.storage.CpuAdoc;
 import etomo.storage.Network;
 import etomo.storage.Node;
@@ -55,6 +56,7 @@ class CpuTable extends ProcessorTable {
   private final HeaderCell header2Users = new HeaderCell();
 
   private final boolean usersColumn;
+  private final boolean freeMemoryColumn = LoadAverageMonitor.isLocalSamplingAvailable();
 
   CpuTable(final BaseManager manager, final ParallelPanel parent, final AxisID axisID) {
     super(manager, parent, axisID, false);
@@ -147,6 +149,10 @@ class CpuTable extends ProcessorTable {
     return usersColumn;
   }
 
+  final boolean useFreeMemoryColumn() {
+    return freeMemoryColumn;
+  }
+
   final IntermittentCommand getIntermittentCommand(final String computer) {
     return LoadAverageParam.getInstance(computer, manager);
   }
@@ -212,6 +212,12 @@ final class HeaderCell implements Cell {
     children.add(child);
   }
 
+  void removeChild(Cell child) {
+    if (children != null) {
+      children.remove(child);
+    }
+  }
+
   void setText() {
     text = "";
     setText("");
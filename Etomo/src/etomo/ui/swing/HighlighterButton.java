@@ -87,6 +87,11 @@ final class HighlighterButton {
     columnHeader.addChild(cell);
   }
 
+  void removeHeaders(HeaderCell rowHeader, HeaderCell columnHeader) {
+    rowHeader.removeChild(cell);
+    columnHeader.removeChild(cell);
+  }
+
   boolean isHighlighted() {
     return cell.isSelected();
   }
@@ -161,6 +161,19 @@ abstract class InputCell implements Cell {
     columnHeader.addChild(this);
   }
 
+  /**
+   * Stop receiving messages from the row and column headers.  For cells that are
+   * thrown away before the headers.
+   */
+  void removeHeaders() {
+    if (rowHeader != null) {
+      rowHeader.removeChild(this);
+    }
+    if (columnHeader != null) {
+      columnHeader.removeChild(this);
+    }
+  }
+
   /**
    * Message from row header or column header that their label has changed.
    */
@@ -36,6 +36,16 @@ public interface LoadDisplay {
   public void endLoad();
 
   public void setLoad(String computer, String[] loadArray);
+
+  /**
+   * @param busyCPUs - the sum of the fraction of time that each CPU was busy
+   * @param numberCPUs - the number of CPUs in the computer
+   * @param fullyBusyCPUs - the number of CPUs which were nearly always busy
+   */
+  public void setCPUUtilization(String computer, double busyCPUs, int numberCPUs,
+      int fullyBusyCPUs);
+
+  public void setFreeMemory(String computer, long availableKB, long totalKB);
 }
 /**
 * <p> $Log$
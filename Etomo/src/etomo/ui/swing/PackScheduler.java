@@ -0,0 +1,219 @@
+package etomo.ui.swing;
+
+import java.awt.Component;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.swing.SwingUtilities;
+
+import etomo.BaseManager;
+import etomo.type.AxisID;
+import etomo.util.Utilities;
+
+/**
+ * <p>Description: Collects pack requests and runs them together on the next turn of
+ * the event dispatch thread.  Expanding a table or switching to advanced can ask for
+ * several packs in a row, each of which lays out the whole frame.  Requests for the
+ * same frame are merged:  each manager is packed once, each axis of the frame is
+ * repainted and packed once, and a request for the whole frame replaces the axis
+ * requests.  The merged pack is as strong as the strongest request.</p>
+ *
+ * <p>Call flush() when a layout is needed right away.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * @threadsafe
+ *
+ * <p> $Log$ </p>
+ */
+final class PackScheduler {
+  public static final String rcsid = "$Id:$";
+
+  // How strong a pack is; merged requests use the strongest.  AUTO_FIT calls
+  // pack(false), which only packs when the user has turned on auto-fit.  PACK calls
+  // pack().  FORCE calls pack(true).
+  static final int AUTO_FIT = 0;
+  static final int PACK = 1;
+  static final int FORCE = 2;
+
+  // Stands for the whole frame in Request.axisMap.
+  private static final Object WHOLE_FRAME = new Object();
+
+  private final Map<AbstractFrame, Request> requestMap =
+      new LinkedHashMap<AbstractFrame, Request>();
+  private final Runnable flusher = new Runnable() {
+    public void run() {
+      flush();
+    }
+  };
+
+  private boolean scheduled = false;
+  private long requestCount = 0;
+  private long packCount = 0;
+
+  /**
+   * Asks for a pack on the next turn of the event dispatch thread.
+   * @param manager - may be null
+   * @param frame
+   * @param axisID - null to pack the whole frame
+   * @param strength - AUTO_FIT, PACK, or FORCE
+   */
+  synchronized void schedule(final BaseManager manager, final AbstractFrame frame,
+      final AxisID axisID, final int strength) {
+    if (frame == null) {
+      return;
+    }
+    requestCount++;
+    Request request = requestMap.get(frame);
+    if (request == null) {
+      request = new Request(frame);
+      requestMap.put(frame, request);
+    }
+    request.add(manager, axisID, strength);
+    if (!scheduled) {
+      scheduled = true;
+      SwingUtilities.invokeLater(flusher);
+    }
+  }
+
+  /**
+   * Runs the waiting packs now.  When it is called from another thread, it waits for
+   * the event dispatch thread to run them.
+   */
+  void flush() {
+    if (!SwingUtilities.isEventDispatchThread()) {
+      try {
+        SwingUtilities.invokeAndWait(flusher);
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      catch (InvocationTargetException e) {
+        e.getCause().printStackTrace();
+      }
+      return;
+    }
+    List<Request> requestList;
+    synchronized (this) {
+      scheduled = false;
+      if (requestMap.isEmpty()) {
+        return;
+      }
+      requestList = new ArrayList<Request>(requestMap.values());
+      requestMap.clear();
+    }
+    int nPacks = 0;
+    for (int i = 0; i < requestList.size(); i++) {
+      nPacks += requestList.get(i).pack();
+    }
+    long avoided;
+    synchronized (this) {
+      packCount += nPacks;
+      avoided = requestCount - packCount;
+    }
+    Utilities.debugPrint("PackScheduler:  " + avoided + " packs avoided", false);
+  }
+
+  /**
+   * @return the number of requested packs that were merged into other packs
+   */
+  synchronized long getAvoidedPackCount() {
+    return requestCount - packCount;
+  }
+
+  private static final class Request {
+    private final Set<BaseManager> managerSet = new LinkedHashSet<BaseManager>();
+    // Maps AxisID or WHOLE_FRAME to the strongest pack asked for.
+    private final Map<Object, Integer> axisMap = new LinkedHashMap<Object, Integer>();
+    private final AbstractFrame frame;
+
+    private BaseManager lastManager = null;
+    private boolean wasVisible = false;
+
+    private Request(final AbstractFrame frame) {
+      this.frame = frame;
+    }
+
+    private void add(final BaseManager manager, final AxisID axisID, final int strength) {
+      if (manager != null) {
+        managerSet.add(manager);
+        lastManager = manager;
+      }
+      wasVisible = wasVisible || frame.isVisible();
+      Object key = axisID == null ? WHOLE_FRAME : axisID;
+      int newStrength = strength;
+      if (key == WHOLE_FRAME || axisMap.containsKey(WHOLE_FRAME)) {
+        // A pack of the whole frame covers the axes.
+        Iterator<Integer> i = axisMap.values().iterator();
+        while (i.hasNext()) {
+          newStrength = Math.max(newStrength, i.next().intValue());
+        }
+        axisMap.clear();
+        key = WHOLE_FRAME;
+      }
+      else if (axisMap.containsKey(key)) {
+        newStrength = Math.max(newStrength, axisMap.get(key).intValue());
+      }
+      axisMap.put(key, new Integer(newStrength));
+    }
+
+    /**
+     * @return the number of frame packs done, or skipped because they weren't needed
+     */
+    private int pack() {
+      if (wasVisible && !frame.isVisible()) {
+        // The frame was closed before the pack ran.  Packing would display it again.
+        return axisMap.size();
+      }
+      Iterator<BaseManager> managerIterator = managerSet.iterator();
+      while (managerIterator.hasNext()) {
+        managerIterator.next().pack();
+      }
+      Iterator<Map.Entry<Object, Integer>> i = axisMap.entrySet().iterator();
+      while (i.hasNext()) {
+        Map.Entry<Object, Integer> entry = i.next();
+        int strength = entry.getValue().intValue();
+        if (entry.getKey() == WHOLE_FRAME) {
+          frame.repaint();
+          if (strength == PACK) {
+            frame.pack();
+          }
+          else {
+            frame.pack(strength == FORCE);
+          }
+        }
+        else {
+          AxisID axisID = (AxisID) entry.getKey();
+          frame.repaint(axisID);
+          if (strength == PACK) {
+            frame.pack(axisID);
+          }
+          else {
+            frame.pack(axisID, strength == FORCE);
+          }
+        }
+      }
+      if (lastManager != null) {
+        Component focusComponent = lastManager.getFocusComponent();
+        if (focusComponent != null) {
+          focusComponent.requestFocus();
+        }
+      }
+      return axisMap.size();
+    }
+  }
+}
@@ -0,0 +1,530 @@
+package etomo.ui.swing;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.SystemColor;
+import java.awt.Toolkit;
+import java.awt.datatransfer.StringSelection;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseMotionAdapter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import javax.swing.AbstractAction;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import etomo.storage.PagedTextFile;
+
+/**
+ * <p>Description: Displays a log file of any size.  The file is paged and indexed by
+ * PagedTextFile, and only the lines that are visible are read and painted, so the
+ * heap used doesn't depend on the size of the file.  Has an
+ * incremental search, and can follow the end of a log that is being written.  Lines
+ * can be selected with the mouse and copied with Ctrl-C.</p>
+ *
+ * <p>Call close() when the panel is no longer needed.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * <p> $Log$ </p>
+ */
+final class PagedLogPanel {
+  public static final String rcsid = "$Id:$";
+
+  private static final int REFRESH_INTERVAL = 500;
+  private static final int TAB_SIZE = 8;
+  private static final int MAX_COPY_LINES = 100000;
+  private static final Color MATCH_LINE_COLOR = new Color(255, 255, 200);
+  private static final Color MATCH_COLOR = new Color(255, 200, 0);
+
+  private final JPanel pnlRoot = new JPanel(new BorderLayout());
+  private final JTextField tfFind = new JTextField(20);
+  private final JButton btnNext = new JButton("Next");
+  private final JButton btnPrevious = new JButton("Previous");
+  private final JCheckBox cbFollow = new JCheckBox("Follow end");
+  private final JLabel lStatus = new JLabel();
+  private final LineView lineView = new LineView();
+  private final JScrollPane scrollPane = new JScrollPane(lineView);
+  private final PagedTextFile pagedFile;
+  private final Timer timer;
+
+  private Thread searchThread = null;
+  // Used to ignore the results of searches that have been replaced.
+  private int searchGeneration = 0;
+  private String findText = null;
+  private int matchLine = -1;
+  private String message = null;
+
+  private PagedLogPanel(final PagedTextFile pagedFile) {
+    this.pagedFile = pagedFile;
+    timer = new Timer(REFRESH_INTERVAL, new ActionListener() {
+      public void actionPerformed(final ActionEvent event) {
+        refresh();
+      }
+    });
+  }
+
+  /**
+   * @param file
+   * @return a panel which displays file
+   * @throws FileNotFoundException if file doesn't exist
+   * @throws IOException
+   */
+  static PagedLogPanel getInstance(final File file) throws FileNotFoundException,
+      IOException {
+    PagedLogPanel instance = new PagedLogPanel(new PagedTextFile(file));
+    instance.createPanel();
+    instance.addListeners();
+    instance.refresh();
+    instance.timer.start();
+    return instance;
+  }
+
+  private void createPanel() {
+    JPanel pnlFind = new JPanel(new FlowLayout(FlowLayout.LEFT));
+    pnlFind.add(new JLabel("Find:"));
+    pnlFind.add(tfFind);
+    pnlFind.add(btnNext);
+    pnlFind.add(btnPrevious);
+    pnlFind.add(cbFollow);
+    pnlFind.add(lStatus);
+    pnlRoot.add(pnlFind, BorderLayout.NORTH);
+    pnlRoot.add(scrollPane, BorderLayout.CENTER);
+    scrollPane.getViewport().setBackground(Color.white);
+    btnNext.setToolTipText("Find the next line that contains the text (Enter).");
+    btnPrevious.setToolTipText("Find the previous line that contains the text.");
+    cbFollow.setToolTipText("Keep the end of the log in view as it is written.");
+  }
+
+  private void addListeners() {
+    tfFind.getDocument().addDocumentListener(new DocumentListener() {
+      public void insertUpdate(final DocumentEvent event) {
+        findIncremental();
+      }
+
+      public void removeUpdate(final DocumentEvent event) {
+        findIncremental();
+      }
+
+      public void changedUpdate(final DocumentEvent event) {
+      }
+    });
+    ActionListener findNext = new ActionListener() {
+      public void actionPerformed(final ActionEvent event) {
+        find(matchLine == -1 ? getFirstVisibleLine() : matchLine + 1, true);
+      }
+    };
+    tfFind.addActionListener(findNext);
+    btnNext.addActionListener(findNext);
+    btnPrevious.addActionListener(new ActionListener() {
+      public void actionPerformed(final ActionEvent event) {
+        find(matchLine == -1 ? getFirstVisibleLine() : matchLine, false);
+      }
+    });
+    cbFollow.addActionListener(new ActionListener() {
+      public void actionPerformed(final ActionEvent event) {
+        if (cbFollow.isSelected()) {
+          lineView.showLine(lineView.lineCount - 1);
+        }
+      }
+    });
+  }
+
+  Component getComponent() {
+    return pnlRoot;
+  }
+
+  /**
+   * Stops following the file and releases it.
+   */
+  void close() {
+    timer.stop();
+    if (searchThread != null) {
+      searchThread.interrupt();
+      searchThread = null;
+    }
+    pagedFile.close();
+  }
+
+  /**
+   * Picks up lines that have been indexed or added to the file.
+   */
+  private void refresh() {
+    boolean changed = false;
+    try {
+      changed = pagedFile.refresh();
+    }
+    catch (IOException e) {
+      message = e.getMessage();
+    }
+    int lineCount = pagedFile.getLineCount();
+    if (lineCount != lineView.lineCount) {
+      if (lineCount < lineView.lineCount) {
+        matchLine = -1;
+        lineView.clearSelection();
+      }
+      lineView.setLineCount(lineCount);
+      if (cbFollow.isSelected()) {
+        lineView.showLine(lineCount - 1);
+      }
+    }
+    else if (changed) {
+      lineView.repaint();
+    }
+    updateStatus();
+  }
+
+  private void updateStatus() {
+    StringBuffer status = new StringBuffer();
+    status.append(lineView.lineCount).append(" lines");
+    if (pagedFile.isIndexing()) {
+      status.append(", indexing");
+    }
+    if (message != null) {
+      status.append(" - ").append(message);
+    }
+    lStatus.setText(status.toString());
+  }
+
+  private int getFirstVisibleLine() {
+    return lineView.getLine(scrollPane.getViewport().getViewPosition().y);
+  }
+
+  /**
+   * Searches from the current match, or from the top of the view, as the text is
+   * typed.
+   */
+  private void findIncremental() {
+    find(matchLine == -1 ? getFirstVisibleLine() : matchLine, true);
+  }
+
+  /**
+   * Searches on a separate thread.  A search that is still running is stopped.
+   */
+  private void find(final int fromLine, final boolean forward) {
+    if (searchThread != null) {
+      searchThread.interrupt();
+      searchThread = null;
+    }
+    final String text = tfFind.getText();
+    final int generation = ++searchGeneration;
+    message = null;
+    if (text.length() == 0) {
+      findText = null;
+      matchLine = -1;
+      lineView.repaint();
+      updateStatus();
+      return;
+    }
+    searchThread = new Thread(new Runnable() {
+      public void run() {
+        int line = -1;
+        String error = null;
+        try {
+          line = pagedFile.find(text, fromLine, forward, true);
+        }
+        catch (IOException e) {
+          error = e.getMessage();
+        }
+        if (Thread.currentThread().isInterrupted()) {
+          return;
+        }
+        final int foundLine = line;
+        final String foundError = error;
+        SwingUtilities.invokeLater(new Runnable() {
+          public void run() {
+            showMatch(generation, text, foundLine, foundError);
+          }
+        });
+      }
+    }, "Find");
+    searchThread.setDaemon(true);
+    searchThread.start();
+  }
+
+  private void showMatch(final int generation, final String text, final int line,
+      final String error) {
+    if (generation != searchGeneration) {
+      return;
+    }
+    searchThread = null;
+    if (error != null) {
+      message = error;
+    }
+    else if (line == -1) {
+      message = "\"" + text + "\" not found";
+      Toolkit.getDefaultToolkit().beep();
+    }
+    else {
+      findText = text;
+      matchLine = line;
+      lineView.showLine(line);
+      lineView.repaint();
+    }
+    updateStatus();
+  }
+
+  /**
+   * Replaces tabs with spaces.
+   */
+  private static String expandTabs(final String line) {
+    if (line.indexOf('\t') == -1) {
+      return line;
+    }
+    StringBuffer buffer = new StringBuffer();
+    for (int i = 0; i < line.length(); i++) {
+      char ch = line.charAt(i);
+      if (ch == '\t') {
+        do {
+          buffer.append(' ');
+        } while (buffer.length() % TAB_SIZE != 0);
+      }
+      else {
+        buffer.append(ch);
+      }
+    }
+    return buffer.toString();
+  }
+
+  /**
+   * Paints the visible lines.  Its height is the height of all the lines.
+   */
+  private final class LineView extends JComponent implements Scrollable {
+    private static final int MARGIN = 4;
+
+    private int lineCount = 0;
+    // Grows to fit the longest line that has been painted.
+    private int nColumns = 80;
+    private int anchorLine = -1;
+    private int leadLine = -1;
+
+    private LineView() {
+      setFont(new Font("monospaced", Font.PLAIN, 12));
+      setOpaque(true);
+      setBackground(Color.white);
+      setFocusable(true);
+      addMouseListener(new MouseAdapter() {
+        public void mousePressed(final MouseEvent event) {
+          requestFocusInWindow();
+          int line = getLine(event.getY());
+          if (!event.isShiftDown() || anchorLine == -1) {
+            anchorLine = line;
+          }
+          leadLine = line;
+          repaint();
+        }
+      });
+      addMouseMotionListener(new MouseMotionAdapter() {
+        public void mouseDragged(final MouseEvent event) {
+          leadLine = getLine(event.getY());
+          scrollRectToVisible(new Rectangle(event.getX(), event.getY(), 1, 1));
+          repaint();
+        }
+      });
+      getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_C, InputEvent.CTRL_DOWN_MASK),
+          "copy");
+      getActionMap().put("copy", new AbstractAction() {
+        public void actionPerformed(final ActionEvent event) {
+          copy();
+        }
+      });
+    }
+
+    private void setLineCount(final int lineCount) {
+      this.lineCount = lineCount;
+      revalidate();
+      repaint();
+    }
+
+    private void clearSelection() {
+      anchorLine = -1;
+      leadLine = -1;
+    }
+
+    private int getLineHeight() {
+      return getFontMetrics(getFont()).getHeight();
+    }
+
+    private int getLine(final int y) {
+      return Math.max(0, Math.min(lineCount - 1, y / getLineHeight()));
+    }
+
+    private void showLine(final int line) {
+      if (line < 0) {
+        return;
+      }
+      int lineHeight = getLineHeight();
+      Rectangle visibleRect = getVisibleRect();
+      scrollRectToVisible(new Rectangle(visibleRect.x, line * lineHeight,
+          visibleRect.width, lineHeight));
+    }
+
+    public Dimension getPreferredSize() {
+      FontMetrics fontMetrics = getFontMetrics(getFont());
+      return new Dimension(nColumns * fontMetrics.charWidth('m') + 2 * MARGIN,
+          lineCount * fontMetrics.getHeight());
+    }
+
+    protected void paintComponent(final Graphics graphics) {
+      Rectangle clip = graphics.getClipBounds();
+      graphics.setColor(getBackground());
+      graphics.fillRect(clip.x, clip.y, clip.width, clip.height);
+      if (lineCount == 0) {
+        return;
+      }
+      FontMetrics fontMetrics = graphics.getFontMetrics(getFont());
+      int lineHeight = fontMetrics.getHeight();
+      int first = getLine(clip.y);
+      int last = getLine(clip.y + clip.height);
+      int selectionStart = Math.min(anchorLine, leadLine);
+      int selectionEnd = Math.max(anchorLine, leadLine);
+      boolean widthChanged = false;
+      // Paint relative to the first line, because text positions are converted to
+      // float, which isn't precise enough for the end of a very long log.
+      Graphics lineGraphics = graphics.create();
+      try {
+        lineGraphics.translate(0, first * lineHeight);
+        lineGraphics.setFont(getFont());
+        for (int i = first; i <= last; i++) {
+          String line;
+          try {
+            line = pagedFile.getLine(i);
+          }
+          catch (IOException e) {
+            line = e.getMessage();
+          }
+          if (line == null) {
+            break;
+          }
+          line = expandTabs(line);
+          if (line.length() > nColumns) {
+            nColumns = line.length();
+            widthChanged = true;
+          }
+          int y = (i - first) * lineHeight;
+          if (i >= selectionStart && i <= selectionEnd && selectionStart != -1) {
+            lineGraphics.setColor(SystemColor.textHighlight);
+            lineGraphics.fillRect(clip.x, y, clip.width, lineHeight);
+          }
+          else if (i == matchLine) {
+            lineGraphics.setColor(MATCH_LINE_COLOR);
+            lineGraphics.fillRect(clip.x, y, clip.width, lineHeight);
+          }
+          if (i == matchLine && findText != null) {
+            int index = line.toLowerCase().indexOf(findText.toLowerCase());
+            if (index != -1) {
+              lineGraphics.setColor(MATCH_COLOR);
+              lineGraphics.fillRect(MARGIN
+                  + fontMetrics.stringWidth(line.substring(0, index)), y, fontMetrics
+                  .stringWidth(line.substring(index, index + findText.length())),
+                  lineHeight);
+            }
+          }
+          lineGraphics.setColor(getForeground());
+          lineGraphics.drawString(line, MARGIN, y + fontMetrics.getAscent());
+        }
+      }
+      finally {
+        lineGraphics.dispose();
+      }
+      if (widthChanged) {
+        SwingUtilities.invokeLater(new Runnable() {
+          public void run() {
+            revalidate();
+          }
+        });
+      }
+    }
+
+    /**
+     * Copies the selected lines to the clipboard.
+     */
+    private void copy() {
+      if (anchorLine == -1) {
+        return;
+      }
+      int start = Math.min(anchorLine, leadLine);
+      int end = Math.min(Math.max(anchorLine, leadLine), start + MAX_COPY_LINES - 1);
+      StringBuffer buffer = new StringBuffer();
+      try {
+        for (int i = start; i <= end; i++) {
+          String line = pagedFile.getLine(i);
+          if (line == null) {
+            break;
+          }
+          buffer.append(line).append('\n');
+        }
+      }
+      catch (IOException e) {
+        message = e.getMessage();
+        updateStatus();
+        return;
+      }
+      StringSelection selection = new StringSelection(buffer.toString());
+      Toolkit.getDefaultToolkit().getSystemClipboard().setContents(selection, selection);
+    }
+
+    public Dimension getPreferredScrollableViewportSize() {
+      return getPreferredSize();
+    }
+
+    public int getScrollableUnitIncrement(final Rectangle visibleRect,
+        final int orientation, final int direction) {
+      if (orientation == SwingConstants.VERTICAL) {
+        return getLineHeight();
+      }
+      return getFontMetrics(getFont()).charWidth('m');
+    }
+
+    public int getScrollableBlockIncrement(final Rectangle visibleRect,
+        final int orientation, final int direction) {
+      if (orientation == SwingConstants.VERTICAL) {
+        return Math.max(getLineHeight(), visibleRect.height - getLineHeight());
+      }
+      return visibleRect.width;
+    }
+
+    public boolean getScrollableTracksViewportWidth() {
+      // Fill the viewport when the lines are narrower than it.
+      return getParent() != null && getParent().getWidth() > getPreferredSize().width;
+    }
+
+    public boolean getScrollableTracksViewportHeight() {
+      return getParent() != null && getParent().getHeight() > getPreferredSize().height;
+    }
+  }
+}
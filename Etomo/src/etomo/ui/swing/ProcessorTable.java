@@ -3,13 +3,23 @@ package etomo.ui.swing;
 import java.awt.Container;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
+import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.border.LineBorder;
 
 import etomo.BaseManager;
@@ -44,7 +54,15 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
     Viewable {
   public static final String rcsid = "$Id$";
 
+  // Sorting and hiding rows as loads arrive is done at most once in this many
+  // milliseconds, so that the rows don't jump around.
+  private static final int VIEW_REFRESH_DELAY = 2000;
+
   private final JPanel rootPanel = new JPanel();
+  private final JPanel bodyPanel = new JPanel();
+  private final JPanel optionsPanel = new JPanel();
+  private final CheckBox cbSortByLoad = new CheckBox("Sort by load");
+  private final CheckBox cbHideUnavailable = new CheckBox("Hide unavailable");
   private JPanel tablePanel;
   private GridBagLayout layout = null;
   private GridBagConstraints constraints = null;
@@ -53,6 +71,7 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
   private final HeaderCell header1CPUType = new HeaderCell("CPU Type");
   private final HeaderCell header1Speed = new HeaderCell("Speed");
   private final HeaderCell header1RAM = new HeaderCell("RAM");
+  private final HeaderCell header1FreeRAM = new HeaderCell("Free RAM");
   private final HeaderCell header1OS = new HeaderCell("OS");
   private final HeaderCell header1Restarts = new HeaderCell("Restarts");
   private final HeaderCell header1Finished = new HeaderCell("Finished");
@@ -63,6 +82,7 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
   private final HeaderCell header2CPUType = new HeaderCell();
   private final HeaderCell header2Speed = new HeaderCell();
   private final HeaderCell header2RAM = new HeaderCell();
+  private final HeaderCell header2FreeRAM = new HeaderCell("GB");
   private final HeaderCell header2OS = new HeaderCell();
   private final HeaderCell header2Restarts = new HeaderCell();
   private final HeaderCell header2Finished = new HeaderCell("Chunks");
@@ -76,6 +96,12 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
   final AxisID axisID;
   final BaseManager manager;
   private final LoadMonitor loadMonitor;
+  // Updates from the monitor threads.
+  private final RowUpdateQueue updateQueue = new RowUpdateQueue(new Runnable() {
+    public void run() {
+      msgRowsUpdated();
+    }
+  });
 
   private boolean numberColumn = false;
   private boolean typeColumn = false;
@@ -87,6 +113,7 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
   private boolean scrolling = false;
   private boolean expanded = false;
   private boolean stopped = true;
+  private Timer viewTimer = null;
 
   abstract int getSize();
 
@@ -111,6 +138,8 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
 
   abstract boolean useUsersColumn();
 
+  abstract boolean useFreeMemoryColumn();
+
   abstract IntermittentCommand getIntermittentCommand(String computer);
 
   abstract void setHeaderLoadToolTipText();
@@ -150,8 +179,21 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
   void createTable() {
     expanded = true;
     initTable();
-    rootPanel.setLayout(new BoxLayout(rootPanel, BoxLayout.X_AXIS));
+    rowList.updateView(expanded, false, false);
+    rootPanel.setLayout(new BoxLayout(rootPanel, BoxLayout.Y_AXIS));
     rootPanel.setBorder(LineBorder.createBlackLineBorder());
+    bodyPanel.setLayout(new BoxLayout(bodyPanel, BoxLayout.X_AXIS));
+    optionsPanel.setLayout(new BoxLayout(optionsPanel, BoxLayout.X_AXIS));
+    optionsPanel.add(cbSortByLoad);
+    optionsPanel.add(cbHideUnavailable);
+    optionsPanel.add(Box.createHorizontalGlue());
+    ActionListener optionListener = new ActionListener() {
+      public void actionPerformed(final ActionEvent event) {
+        msgViewOptionChanged();
+      }
+    };
+    cbSortByLoad.addActionListener(optionListener);
+    cbHideUnavailable.addActionListener(optionListener);
     build();
   }
 
@@ -160,7 +202,7 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
       return;
     }
     this.expanded = expanded;
-    rowList.setContractedIndex(expanded);
+    updateView();
     build();
   }
 
@@ -170,9 +212,16 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
 
   void build() {
     rootPanel.removeAll();
+    bodyPanel.removeAll();
     buildTable();
-    rootPanel.add(tablePanel);
-    rootPanel.add(viewport.getPagingPanel());
+    bodyPanel.add(tablePanel);
+    bodyPanel.add(viewport.getPagingPanel());
+    rootPanel.add(bodyPanel);
+    // The sort and hide options are only needed when the table is too big to see all
+    // at once.
+    if (expanded && rowList.size() > viewport.getSize()) {
+      rootPanel.add(optionsPanel);
+    }
     // configure
     UIHarness.INSTANCE.repaintWindow(manager);
   }
@@ -242,6 +291,53 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
     UIHarness.INSTANCE.pack(axisID, manager);
   }
 
+  /**
+   * Rebuilds the list of displayed rows.
+   * @return true if the displayed rows changed
+   */
+  private boolean updateView() {
+    return rowList.updateView(expanded, cbSortByLoad.isSelected(), cbHideUnavailable
+        .isSelected());
+  }
+
+  private void msgViewOptionChanged() {
+    updateView();
+    build();
+    UIHarness.INSTANCE.pack(axisID, manager);
+  }
+
+  /**
+   * Called after a batch of updates from the monitors.  Sorts and hides rows when the
+   * loads change, but not more often than every VIEW_REFRESH_DELAY milliseconds.
+   */
+  private void msgRowsUpdated() {
+    if (!cbSortByLoad.isSelected() && !cbHideUnavailable.isSelected()) {
+      return;
+    }
+    if (viewTimer == null) {
+      viewTimer = new Timer(VIEW_REFRESH_DELAY, new ActionListener() {
+        public void actionPerformed(final ActionEvent event) {
+          if (updateView()) {
+            build();
+            UIHarness.INSTANCE.pack(axisID, manager);
+          }
+        }
+      });
+      viewTimer.setRepeats(false);
+    }
+    if (!viewTimer.isRunning()) {
+      viewTimer.start();
+    }
+  }
+
+  /**
+   * Keeps only one queue selected.
+   * @param row - the selected queue
+   */
+  void msgQueueSelected(final ProcessorTableRow row) {
+    rowList.setOthersUnselected(row);
+  }
+
   private void buildTable() {
     tablePanel = new JPanel();
     layout = new GridBagLayout();
@@ -264,6 +360,9 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
     header1NumberCPUs.add(tablePanel, layout, constraints);
     addHeader1Load(tablePanel, layout, constraints);
     addHeader1Users(tablePanel, layout, constraints);
+    if (useFreeMemoryColumn()) {
+      header1FreeRAM.add(tablePanel, layout, constraints);
+    }
     if (useTypeColumn()) {
       header1CPUType.add(tablePanel, layout, constraints);
     }
@@ -293,6 +392,9 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
     }
     addHeader2Load(tablePanel, layout, constraints);
     addHeader2Users(tablePanel, layout, constraints);
+    if (useFreeMemoryColumn()) {
+      header2FreeRAM.add(tablePanel, layout, constraints);
+    }
     if (useTypeColumn()) {
       header2CPUType.add(tablePanel, layout, constraints);
     }
@@ -331,7 +433,38 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
   }
 
   public void resetResults() {
-    rowList.resetResults();
+    updateTable(new Runnable() {
+      public void run() {
+        rowList.resetResults();
+      }
+    });
+  }
+
+  /**
+   * Runs an update of one row on the event dispatch thread.
+   * @param computer
+   * @param field - the field the update replaces, so that only the latest update to
+   * the field is run, or null if the update must always be run
+   * @param update
+   */
+  private void updateRow(final String computer, final String field,
+      final Runnable update) {
+    updateQueue.post(field == null ? null : computer + "|" + field, update);
+  }
+
+  /**
+   * Runs an update of the whole table.  On the event dispatch thread, the waiting row
+   * updates are run first and then the update is run right away.
+   * @param update
+   */
+  private void updateTable(final Runnable update) {
+    if (SwingUtilities.isEventDispatchThread()) {
+      updateQueue.flush();
+      update.run();
+    }
+    else {
+      updateQueue.post(null, update);
+    }
   }
 
   int getTotalSuccesses() {
@@ -403,7 +536,7 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
   }
 
   public int size() {
-    return rowList.size(expanded);
+    return rowList.getViewSize();
   }
 
   private ProcessorTableRow getRow(final String computer) {
@@ -411,32 +544,45 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
   }
 
   public void addRestart(final String computer) {
-    ProcessorTableRow row = getRow(computer);
-    if (row == null) {
-      return;
-    }
-    row.addRestart();
+    updateRow(computer, null, new Runnable() {
+      public void run() {
+        ProcessorTableRow row = getRow(computer);
+        if (row != null) {
+          row.addRestart();
+        }
+      }
+    });
   }
 
   public void addSuccess(final String computer) {
-    ProcessorTableRow row = getRow(computer);
-    if (row == null) {
-      return;
-    }
-    row.addSuccess();
+    updateRow(computer, null, new Runnable() {
+      public void run() {
+        ProcessorTableRow row = getRow(computer);
+        if (row != null) {
+          row.addSuccess();
+        }
+      }
+    });
   }
 
   public void setComputerMap(final Map<String, String> computerMap) {
-    rowList.setComputerMap(computerMap);
-    parent.msgComputerMapSet();
+    updateTable(new Runnable() {
+      public void run() {
+        rowList.setComputerMap(computerMap);
+        parent.msgComputerMapSet();
+      }
+    });
   }
 
   public void msgDropped(final String computer, final String reason) {
-    ProcessorTableRow row = getRow(computer);
-    if (row == null) {
-      return;
-    }
-    row.msgDropped(reason);
+    updateRow(computer, null, new Runnable() {
+      public void run() {
+        ProcessorTableRow row = getRow(computer);
+        if (row != null) {
+          row.msgDropped(reason);
+        }
+      }
+    });
   }
 
   String getHelpMessage() {
@@ -486,17 +632,61 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
 
   public void setLoad(final String computer, final double load1, final double load5,
       final int users, final String usersTooltip) {
-    ((ProcessorTableRow) rowList.get(computer))
-        .setLoad(load1, load5, users, usersTooltip);
+    updateRow(computer, "load", new Runnable() {
+      public void run() {
+        ProcessorTableRow row = getRow(computer);
+        if (row != null) {
+          row.setLoad(load1, load5, users, usersTooltip);
+        }
+      }
+    });
   }
 
   public void setLoad(final String computer, final String[] loadArray) {
-    ((ProcessorTableRow) rowList.get(computer)).setLoad(loadArray);
+    updateRow(computer, "load", new Runnable() {
+      public void run() {
+        ProcessorTableRow row = getRow(computer);
+        if (row != null) {
+          row.setLoad(loadArray);
+        }
+      }
+    });
   }
 
   public void setCPUUsage(final String computer, final double cpuUsage,
       final ConstEtomoNumber numberOfProcessors) {
-    ((ProcessorTableRow) rowList.get(computer)).setCPUUsage(cpuUsage, numberOfProcessors);
+    updateRow(computer, "cpuUsage", new Runnable() {
+      public void run() {
+        ProcessorTableRow row = getRow(computer);
+        if (row != null) {
+          row.setCPUUsage(cpuUsage, numberOfProcessors);
+        }
+      }
+    });
+  }
+
+  public void setCPUUtilization(final String computer, final double busyCPUs,
+      final int numberCPUs, final int fullyBusyCPUs) {
+    updateRow(computer, "cpuUtilization", new Runnable() {
+      public void run() {
+        ProcessorTableRow row = getRow(computer);
+        if (row != null) {
+          row.setCPUUtilization(busyCPUs, numberCPUs, fullyBusyCPUs);
+        }
+      }
+    });
+  }
+
+  public void setFreeMemory(final String computer, final long availableKB,
+      final long totalKB) {
+    updateRow(computer, "freeMemory", new Runnable() {
+      public void run() {
+        ProcessorTableRow row = getRow(computer);
+        if (row != null) {
+          row.setFreeMemory(availableKB, totalKB);
+        }
+      }
+    });
   }
 
   /**
@@ -506,11 +696,22 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
    */
   public void msgLoadFailed(final String computer, final String reason,
       final String tooltip) {
-    ((ProcessorTableRow) rowList.get(computer)).clearLoad(reason, tooltip);
+    updateRow(computer, null, new Runnable() {
+      public void run() {
+        ProcessorTableRow row = getRow(computer);
+        if (row != null) {
+          row.clearLoad(reason, tooltip);
+        }
+      }
+    });
   }
 
   public void msgStartingProcessOnSelectedComputers() {
-    clearFailureReason(true);
+    updateTable(new Runnable() {
+      public void run() {
+        clearFailureReason(true);
+      }
+    });
   }
 
   /**
@@ -520,9 +721,15 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
    * failure reason.
    */
   public void msgStartingProcess(final String computer, final String failureReason1,
-      String failureReason2) {
-    ((ProcessorTableRow) rowList.get(computer)).clearFailureReason(failureReason1,
-        failureReason2);
+      final String failureReason2) {
+    updateRow(computer, null, new Runnable() {
+      public void run() {
+        ProcessorTableRow row = getRow(computer);
+        if (row != null) {
+          row.clearFailureReason(failureReason1, failureReason2);
+        }
+      }
+    });
   }
 
   void clearFailureReason(final boolean selectedComputers) {
@@ -601,6 +808,10 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
       header1RAM.setToolTipText(text);
       header2RAM.setToolTipText(text);
     }
+    text = "The amount of RAM available for new processes on this computer.  Only "
+        + "shown for the local computer.";
+    header1FreeRAM.setToolTipText(text);
+    header2FreeRAM.setToolTipText(text);
     if (header1OS != null) {
       text = "The operating system of each computer.";
       header1OS.setToolTipText(text);
@@ -612,9 +823,15 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
   }
 
   private static final class RowList {
+    private static final Comparator<ProcessorTableRow> LOAD_COMPARATOR =
+        new LoadComparator();
+
     private final List list = new ArrayList();
-    // Contracted index for use when the table is not expanded..
-    private final List contractedIndex = new ArrayList();
+    private final Map<String, ProcessorTableRow> computerMap =
+        new HashMap<String, ProcessorTableRow>();
+    // The displayed rows in the order they are displayed.
+    private final List<ProcessorTableRow> viewList =
+        new ArrayList<ProcessorTableRow>();
 
     private RowList() {
     }
@@ -642,28 +859,32 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
 
     private void add(final ProcessorTableRow row) {
       list.add(row);
+      String computer = row.getComputer();
+      if (!computerMap.containsKey(computer)) {
+        computerMap.put(computer, row);
+      }
     }
 
     private void display(final boolean expanded, final Viewport viewport) {
-      for (int i = 0; i < size(expanded); i++) {
-        ProcessorTableRow row;
-        if (expanded) {
-          row = get(i);
-        }
-        else {
-          row = (ProcessorTableRow) contractedIndex.get(i);
+      // Throw away the cells of the rows that aren't displayed.
+      Set<ProcessorTableRow> viewSet = new HashSet<ProcessorTableRow>(viewList);
+      for (int i = 0; i < size(); i++) {
+        ProcessorTableRow row = get(i);
+        if (!viewSet.contains(row)) {
+          row.deleteRow();
+          row.releaseCells();
         }
+      }
+      for (int i = 0; i < viewList.size(); i++) {
+        ProcessorTableRow row = viewList.get(i);
         row.deleteRow();
         row.setColumns();
         row.display(i, viewport);
       }
     }
 
-    private int size(final boolean expanded) {
-      if (expanded) {
-        return size();
-      }
-      return contractedIndex.size();
+    private int getViewSize() {
+      return viewList.size();
     }
 
     private int size() {
@@ -678,23 +899,44 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
     }
 
     private ProcessorTableRow get(final String computer) {
+      return computerMap.get(computer);
+    }
+
+    /**
+     * Rebuilds the list of displayed rows.  When the table is contracted, only the
+     * selected rows are displayed.  Selected rows are never hidden.
+     * @param expanded
+     * @param sortByLoad - display the least loaded rows first
+     * @param hideUnavailable - hide rows that don't have a load
+     * @return true if the displayed rows or their order changed
+     */
+    private boolean updateView(final boolean expanded, final boolean sortByLoad,
+        final boolean hideUnavailable) {
+      List<ProcessorTableRow> newViewList = new ArrayList<ProcessorTableRow>();
       for (int i = 0; i < size(); i++) {
         ProcessorTableRow row = get(i);
-        if (row.equals(computer)) {
-          return row;
+        if (row.isSelected()
+            || (expanded && (!hideUnavailable || !Double.isNaN(row.getLoadPerCpu())))) {
+          newViewList.add(row);
         }
       }
-      return null;
+      if (sortByLoad) {
+        // The sort is stable, so rows with the same load stay in cpu.adoc order.
+        Collections.sort(newViewList, LOAD_COMPARATOR);
+      }
+      if (newViewList.equals(viewList)) {
+        return false;
+      }
+      viewList.clear();
+      viewList.addAll(newViewList);
+      return true;
     }
 
-    private void setContractedIndex(final boolean expanded) {
-      contractedIndex.clear();
-      if (!expanded) {
-        for (int i = 0; i < size(); i++) {
-          ProcessorTableRow row = get(i);
-          if (row.isSelected()) {
-            contractedIndex.add(row);
-          }
+    private void setOthersUnselected(final ProcessorTableRow selectedRow) {
+      for (int i = 0; i < size(); i++) {
+        ProcessorTableRow row = get(i);
+        if (row != selectedRow && row.isSelected()) {
+          row.setSelected(false);
         }
       }
     }
@@ -782,6 +1024,23 @@ abstract class ProcessorTable implements Storable, ParallelProgressDisplay, Load
       }
     }
   }
+
+  /**
+   * Orders rows by load per CPU.  Rows without a load go last.
+   */
+  private static final class LoadComparator implements Comparator<ProcessorTableRow> {
+    public int compare(final ProcessorTableRow row1, final ProcessorTableRow row2) {
+      double load1 = row1.getLoadPerCpu();
+      double load2 = row2.getLoadPerCpu();
+      if (Double.isNaN(load1)) {
+        return Double.isNaN(load2) ? 0 : 1;
+      }
+      if (Double.isNaN(load2)) {
+        return -1;
+      }
+      return Double.compare(load1, load2);
+    }
+  }
 }
 /**
  * <p> $Log$
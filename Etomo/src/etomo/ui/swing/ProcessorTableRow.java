@@ -6,7 +6,6 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.Properties;
 
-import javax.swing.ButtonGroup;
 import javax.swing.JPanel;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
@@ -38,49 +37,54 @@ final class ProcessorTableRow implements Storable {
   private static final String STORE_CPUS_SELECTED = "CPUsSelected";
   private static final int DEFAULT_CPUS_SELECTED = 1;
 
-  private final FieldCell cellNumberCpus = FieldCell.getIneditableInstance();
-  private final FieldCell cellLoad1 = FieldCell.getIneditableInstance();
-  private final FieldCell cellLoad5 = FieldCell.getIneditableInstance();
-  private final FieldCell cellUsers = FieldCell.getIneditableInstance();
-  private final FieldCell cellCPUUsage = FieldCell.getIneditableInstance();
-  private final FieldCell cellRestarts = FieldCell.getIneditableInstance();
-  private final FieldCell cellSuccesses = FieldCell.getIneditableInstance();
-  private final FieldCell cellFailureReason = FieldCell.getIneditableInstance();
-  private final FieldCell cellSpeed = FieldCell.getIneditableInstance();
-  private final FieldCell cellMemory = FieldCell.getIneditableInstance();
-  private final FieldCell cellOS = FieldCell.getIneditableInstance();
-  private final FieldCell cellCPUType = FieldCell.getIneditableInstance();
+  // The values of the fields that change.  The Swing cells are only created while the
+  // row is in the viewport.
+  private final Value load1 = new Value();
+  private final Value load5 = new Value();
+  private final Value users = new Value();
+  private final Value freeMemory = new Value();
+  private final Value cpuUsage = new Value();
+  private final Value restarts = new Value();
+  private final Value successes = new Value();
+  private final Value failureReason = new Value();
 
   private final boolean displayQueues;
   private final int numRowsInTable;
+  private final Value[] loadArray;
+  private final String[] deviceArray;
   /**
    * A computer or queue.
    */
-  private final ToggleCell cellComputer;
-  private final FieldCell[] cellLoadArray;
-  private final String[] deviceArray;
+  private final String computerName;
+  private final String cpuType;
+  private final int numCpus;
+  private final String speed;
+  private final String memory;
+  private final String os;
 
   private ProcessorTable table = null;
-  private InputCell cellCPUsSelected = null;
-  private String computerName;
-  private String cpuType = null;
-  private int numCpus = 1;
-  private String speed = null;
-  private String memory = null;
-  private String os = null;
-  private boolean rowInitialized = false;
   private boolean numberColumn = false;
   private boolean typeColumn = false;
   private boolean speedColumn = false;
   private boolean memoryColumn = false;
   private boolean osColumn = false;
   private boolean usersColumn = false;
+  private boolean freeMemoryColumn = false;
   private boolean displayed = false;
   private boolean loadWarning = true;
+  private boolean selected = false;
+  private boolean selectionEnabled = true;
+  private boolean computerWarning = false;
+  private int cpusSelected = DEFAULT_CPUS_SELECTED;
+  private int successCount = EtomoNumber.INTEGER_NULL_VALUE;
+  private int restartCount = EtomoNumber.INTEGER_NULL_VALUE;
+  // The load divided by the number of CPUs.  NaN when there is no load.
+  private double loadPerCpu = Double.NaN;
+  private Cells cells = null;
 
   private ProcessorTableRow(final ProcessorTable table, final Node node,
-      final int numCpus, final boolean displayQueues, final ButtonGroup queueButtonGroup,
-      final int queueLoadArraySize, final int numRowsInTable) {
+      final int numCpus, final boolean displayQueues, final int queueLoadArraySize,
+      final int numRowsInTable) {
     this.table = table;
     this.numRowsInTable = numRowsInTable;
     computerName = node.getName();
@@ -88,35 +92,32 @@ final class ProcessorTableRow implements Storable {
     this.numCpus = numCpus;
     speed = node.getSpeed();
     memory = node.getMemory();
-    deviceArray= node.getGpuDeviceArray();
+    deviceArray = node.getGpuDeviceArray();
     os = node.getOs();
     this.displayQueues = displayQueues;
     if (displayQueues) {
-      cellComputer = new RadioButtonCell(queueButtonGroup);
-      cellLoadArray = new FieldCell[queueLoadArraySize];
+      loadArray = new Value[queueLoadArraySize];
       for (int i = 0; i < queueLoadArraySize; i++) {
-        cellLoadArray[i] = FieldCell.getIneditableInstance();
+        loadArray[i] = new Value();
       }
     }
     else {
-      cellComputer = new CheckBoxCell();
-      cellLoadArray = null;
+      loadArray = null;
     }
   }
 
   static ProcessorTableRow getComputerInstance(final ProcessorTable table,
       final Node node, final int numCpus, final int numRowsInTable) {
-    ProcessorTableRow instance = new ProcessorTableRow(table, node, numCpus, false, null,
-        0, numRowsInTable);
+    ProcessorTableRow instance = new ProcessorTableRow(table, node, numCpus, false, 0,
+        numRowsInTable);
     instance.initRow();
     return instance;
   }
 
   static ProcessorTableRow getQueueInstance(final ProcessorTable table, final Node node,
-      final int numCpus, final ButtonGroup buttonGroup, final int loadArraySize,
-      final int numRowsInTable) {
+      final int numCpus, final int loadArraySize, final int numRowsInTable) {
     ProcessorTableRow instance = new ProcessorTableRow(table, node, numCpus, true,
-        buttonGroup, loadArraySize, numRowsInTable);
+        loadArraySize, numRowsInTable);
     instance.initRow();
     return instance;
   }
@@ -128,23 +129,20 @@ final class ProcessorTableRow implements Storable {
   public void store(Properties props, String prepend) {
     String group;
     if (prepend == "") {
-      prepend = cellComputer.getLabel();
+      prepend = computerName;
     }
     else {
-      prepend += "." + cellComputer.getLabel();
+      prepend += "." + computerName;
     }
     group = prepend + ".";
     props.setProperty(group + STORE_SELECTED, String.valueOf(isSelected()));
-    if (cellCPUsSelected == null) {
-      return;
-    }
     if (numCpus == 1) {
-      props.setProperty(group + STORE_CPUS_SELECTED,
-          String.valueOf(((FieldCell) cellCPUsSelected).getValue()));
+      props.setProperty(group + STORE_CPUS_SELECTED, String.valueOf(cpusSelected));
     }
-    else if (cellCPUsSelected != null) {
+    else {
+      // The spinner shows zero when the row is not selected.
       props.setProperty(group + STORE_CPUS_SELECTED,
-          String.valueOf(((SpinnerCell) cellCPUsSelected).getIntValue()));
+          String.valueOf(selected ? cpusSelected : 0));
     }
   }
 
@@ -161,55 +159,31 @@ final class ProcessorTableRow implements Storable {
   public void load(Properties props, String prepend) {
     String group;
     if (prepend == "") {
-      prepend = cellComputer.getLabel();
+      prepend = computerName;
     }
     else {
-      prepend += "." + cellComputer.getLabel();
+      prepend += "." + computerName;
     }
     group = prepend + ".";
     boolean selected = Boolean
         .valueOf(props.getProperty(group + STORE_SELECTED, "false")).booleanValue();
     setSelected(selected);
-    if (numCpus > 1 && isSelected() && cellCPUsSelected != null) {
-      ((SpinnerCell) cellCPUsSelected).setValue(Integer.parseInt(props.getProperty(group
-          + STORE_CPUS_SELECTED, Integer.toString(DEFAULT_CPUS_SELECTED))));
+    if (numCpus > 1 && isSelected()) {
+      setCPUsSelected(props.getProperty(group + STORE_CPUS_SELECTED,
+          Integer.toString(DEFAULT_CPUS_SELECTED)));
     }
   }
 
   private void initRow() {
-    rowInitialized = true;
-    cellComputer.setLabel(computerName);
-    cellComputer.addActionListener(new ProcessorTableRowActionListener(this));
-    if (displayQueues) {
-      cellComputer.addChangeListener(new PTRComputerChangeListener(this));
-    }
-    if (cpuType != null) {
-      cellCPUType.setValue(cpuType);
-    }
-    if (numCpus > 1) {
-      cellCPUsSelected = SpinnerCell.getIntInstance(0, numCpus);
-      SpinnerCell spinnerCell = (SpinnerCell) cellCPUsSelected;
-      spinnerCell.addChangeListener(new PTRCPUChangeListener(this));
-      spinnerCell.setValue(DEFAULT_CPUS_SELECTED);
-      spinnerCell.setDisabledValue(0);
-    }
-    else {
-      cellCPUsSelected = FieldCell.getIneditableInstance();
-      ((FieldCell) cellCPUsSelected).setValue(1);
-    }
-    cellNumberCpus.setValue(numCpus);
-    cellSpeed.setValue(speed);
-    cellMemory.setEditable(false);
-    cellMemory.setValue(memory);
-    cellOS.setValue(os);
     updateSelected(false);
   }
 
   void turnOffLoadWarning() {
     loadWarning = false;
-    cellCPUUsage.setWarning(false);
-    cellLoad1.setWarning(false);
-    cellLoad5.setWarning(false);
+    cpuUsage.setWarning(false);
+    load1.setWarning(false);
+    load5.setWarning(false);
+    freeMemory.setWarning(false);
   }
 
   void setNumberColumn(boolean numberColumn) {
@@ -236,6 +210,10 @@ final class ProcessorTableRow implements Storable {
     this.usersColumn = usersColumn;
   }
 
+  void setFreeMemoryColumn(boolean freeMemoryColumn) {
+    this.freeMemoryColumn = freeMemoryColumn;
+  }
+
   boolean isDisplayed() {
     return displayed;
   }
@@ -251,13 +229,24 @@ final class ProcessorTableRow implements Storable {
     setMemoryColumn(table.useMemoryColumn());
     setOSColumn(table.useOSColumn());
     setUsersColumn(table.useUsersColumn());
+    setFreeMemoryColumn(table.useFreeMemoryColumn());
   }
 
+  /**
+   * Display the row if it is inside the viewport.  Otherwise the row's cells are
+   * thrown away.
+   * @param index
+   * @param viewport
+   */
   void display(int index, Viewport viewport) {
     displayed = true;
     if (!viewport.inViewport(index)) {
+      releaseCells();
       return;
     }
+    if (cells == null) {
+      cells = new Cells();
+    }
     // create row
     JPanel panel = table.getTablePanel();
     GridBagLayout layout = table.getTableLayout();
@@ -267,201 +256,279 @@ final class ProcessorTableRow implements Storable {
     constraints.weightx = 0.0;
     constraints.gridheight = 1;
     constraints.gridwidth = 1;
-    cellComputer.add(panel, layout, constraints);
+    cells.cellComputer.add(panel, layout, constraints);
     constraints.weightx = 0.0;
-    cellCPUsSelected.add(panel, layout, constraints);
+    cells.cellCPUsSelected.add(panel, layout, constraints);
     if (numberColumn) {
-      cellNumberCpus.add(panel, layout, constraints);
+      cells.cellNumberCpus.add(panel, layout, constraints);
     }
     if (Utilities.isWindowsOS()) {
-      cellCPUUsage.add(panel, layout, constraints);
+      cells.cellCPUUsage.add(panel, layout, constraints);
     }
     else {
       if (displayQueues) {
-        for (int i = 0; i < cellLoadArray.length; i++) {
-          cellLoadArray[i].add(panel, layout, constraints);
+        for (int i = 0; i < cells.cellLoadArray.length; i++) {
+          cells.cellLoadArray[i].add(panel, layout, constraints);
         }
       }
       else {
-        cellLoad1.add(panel, layout, constraints);
-        cellLoad5.add(panel, layout, constraints);
+        cells.cellLoad1.add(panel, layout, constraints);
+        cells.cellLoad5.add(panel, layout, constraints);
         if (usersColumn) {
-          cellUsers.add(panel, layout, constraints);
+          cells.cellUsers.add(panel, layout, constraints);
+        }
+        if (freeMemoryColumn) {
+          cells.cellFreeMemory.add(panel, layout, constraints);
         }
       }
     }
     if (typeColumn) {
-      cellCPUType.add(panel, layout, constraints);
+      cells.cellCPUType.add(panel, layout, constraints);
     }
     if (speedColumn) {
-      cellSpeed.add(panel, layout, constraints);
+      cells.cellSpeed.add(panel, layout, constraints);
     }
     if (memoryColumn) {
-      cellMemory.add(panel, layout, constraints);
+      cells.cellMemory.add(panel, layout, constraints);
     }
     if (osColumn) {
-      cellOS.add(panel, layout, constraints);
+      cells.cellOS.add(panel, layout, constraints);
     }
-    cellRestarts.add(panel, layout, constraints);
-    cellSuccesses.add(panel, layout, constraints);
+    cells.cellRestarts.add(panel, layout, constraints);
+    cells.cellSuccesses.add(panel, layout, constraints);
     constraints.gridwidth = GridBagConstraints.REMAINDER;
-    cellFailureReason.add(panel, layout, constraints);
+    cells.cellFailureReason.add(panel, layout, constraints);
   }
 
-  void performAction() {
-    updateSelected(cellComputer.isSelected());
+  /**
+   * Throws away the row's cells.  The values are kept.
+   */
+  void releaseCells() {
+    if (cells != null) {
+      cells.release();
+      cells = null;
+    }
   }
 
-  void stateChangedCPU() {
-    table.msgCPUsSelectedChanged();
+  void performAction() {
+    if (displayQueues && !cells.cellComputer.isSelected()) {
+      // The queues are radio buttons, so clicking on the selected queue doesn't
+      // unselect it.
+      cells.cellComputer.setSelected(true);
+      return;
+    }
+    updateSelected(cells.cellComputer.isSelected());
   }
 
-  void stateChangedComputer() {
-    if (!displayQueues) {
-      return;
+  void stateChangedCPU() {
+    if (selected && cells != null) {
+      cpusSelected = ((SpinnerCell) cells.cellCPUsSelected).getIntValue();
     }
-    // handle radio button changes
-    updateSelected(cellComputer.isSelected());
+    table.msgCPUsSelectedChanged();
   }
 
   final void msgDropped(String reason) {
     setSelected(false);
-    cellFailureReason.setValue(reason);
-    cellFailureReason
+    failureReason.setValue(reason);
+    failureReason
         .setToolTipText("This computer was dropped from the current distributed process.");
   }
 
   public void setSelected(boolean selected) {
     // Do not allow the row to be unselected if it is disabled and the only row.
-    if (!selected && numRowsInTable == 1 && !cellComputer.isEnabled()) {
+    if (!selected && numRowsInTable == 1 && !selectionEnabled) {
       return;
     }
-    cellComputer.setSelected(selected);
+    if (cells != null) {
+      cells.cellComputer.setSelected(selected);
+    }
     updateSelected(selected);
   }
 
   public void enableSelectionField(final boolean enabled) {
-    cellComputer.setEnabled(enabled);
+    selectionEnabled = enabled;
+    if (cells != null) {
+      cells.cellComputer.setEnabled(enabled);
+    }
   }
 
   public void setCPUsSelected(String cpusSelected) {
+    this.cpusSelected = Integer.parseInt(cpusSelected);
+    if (cells == null) {
+      return;
+    }
     if (numCpus == 1) {
-      ((FieldCell) cellCPUsSelected).setValue(Integer.parseInt(cpusSelected));
+      ((FieldCell) cells.cellCPUsSelected).setValue(this.cpusSelected);
     }
     else {
-      ((SpinnerCell) cellCPUsSelected).setValue(Integer.parseInt(cpusSelected));
+      ((SpinnerCell) cells.cellCPUsSelected).setValue(this.cpusSelected);
     }
   }
 
   private void updateSelected(boolean selected) {
-    cellCPUsSelected.setEnabled(selected);
+    this.selected = selected;
+    if (!selected && numCpus > 1 && cpusSelected == 0) {
+      // Like the spinner, come back with at least one CPU when the row is selected.
+      cpusSelected = 1;
+    }
+    if (cells != null) {
+      cells.cellCPUsSelected.setEnabled(selected);
+    }
     setSelectedError();
+    if (displayQueues && selected) {
+      table.msgQueueSelected(this);
+    }
     table.msgCPUsSelectedChanged();
   }
 
   private void setSelectedError() {
     boolean noloadAverage;
     if (displayQueues) {
-      noloadAverage = cellLoadArray[0].isEmpty() || cellLoadArray[0].equals("NA");
+      noloadAverage = loadArray[0].isEmpty() || loadArray[0].equals("NA");
     }
     else if (Utilities.isWindowsOS()) {
-      noloadAverage = cellCPUUsage.isEmpty();
+      noloadAverage = cpuUsage.isEmpty();
     }
     else {
-      noloadAverage = cellLoad1.isEmpty();
+      noloadAverage = load1.isEmpty();
+    }
+    setComputerWarning(selected && noloadAverage);
+  }
+
+  private void setComputerWarning(final boolean warning) {
+    computerWarning = warning;
+    if (cells != null) {
+      cells.cellComputer.setWarning(warning);
     }
-    cellComputer.setWarning(cellComputer.isSelected() && noloadAverage);
   }
 
   final boolean isSelected() {
-    return cellComputer.isSelected();
+    return selected;
   }
 
   final void getParameters(ProcesschunksParam param) {
     int numCpus = getCPUsSelected();
     if (!displayQueues && numCpus > 0) {
-      param.addMachineName(cellComputer.getLabel(), numCpus, deviceArray);
+      param.addMachineName(computerName, numCpus, deviceArray);
     }
   }
 
   int getSuccesses() {
-    return cellSuccesses.getIntValue();
+    return successCount;
   }
 
   int getCPUsSelected() {
     if (!isSelected()) {
       return 0;
     }
-    if (cellCPUsSelected instanceof SpinnerCell) {
-      return ((SpinnerCell) cellCPUsSelected).getIntValue();
-    }
-    int cpusSelected = ((FieldCell) cellCPUsSelected).getIntValue();
     if (cpusSelected == EtomoNumber.INTEGER_NULL_VALUE) {
-      cpusSelected = 0;
+      return 0;
     }
     return cpusSelected;
   }
 
+  /**
+   * @return the load divided by the number of CPUs, or NaN if the row has no load
+   */
+  double getLoadPerCpu() {
+    return loadPerCpu;
+  }
+
   boolean equals(String computer) {
-    if (cellComputer.getLabel().equals(computer)) {
+    if (computerName.equals(computer)) {
       return true;
     }
     return false;
   }
 
   void addSuccess() {
-    int successes = cellSuccesses.getIntValue();
-    if (successes == EtomoNumber.INTEGER_NULL_VALUE) {
-      successes = 1;
+    if (successCount == EtomoNumber.INTEGER_NULL_VALUE) {
+      successCount = 1;
     }
     else {
-      successes++;
+      successCount++;
     }
-    cellSuccesses.setValue(successes);
+    successes.setValue(String.valueOf(successCount));
   }
 
   void resetResults() {
-    cellSuccesses.setValue();
-    cellRestarts.setValue();
-    cellRestarts.setError(false);
-    cellRestarts.setWarning(false);
+    successCount = EtomoNumber.INTEGER_NULL_VALUE;
+    restartCount = EtomoNumber.INTEGER_NULL_VALUE;
+    successes.setValue();
+    restarts.setValue();
+    restarts.setError(false);
+    restarts.setWarning(false);
   }
 
   void addRestart() {
-    int restarts = cellRestarts.getIntValue();
-    if (restarts == EtomoNumber.INTEGER_NULL_VALUE) {
-      restarts = 1;
+    if (restartCount == EtomoNumber.INTEGER_NULL_VALUE) {
+      restartCount = 1;
     }
     else {
-      restarts++;
+      restartCount++;
     }
-    cellRestarts.setValue(restarts);
-    if (restarts >= ProcesschunksParam.DROP_VALUE) {
-      cellRestarts.setError(true);
+    restarts.setValue(String.valueOf(restartCount));
+    if (restartCount >= ProcesschunksParam.DROP_VALUE) {
+      restarts.setError(true);
     }
-    else if (restarts > 0) {
-      cellRestarts.setWarning(true);
+    else if (restartCount > 0) {
+      restarts.setWarning(true);
     }
   }
 
   void setLoad(double load1, double load5, int users, String usersTooltip) {
-    int numberCpus = cellNumberCpus.getIntValue();
-    setLoad(cellLoad1, load1, numberCpus);
-    setLoad(cellLoad5, load5, numberCpus);
-    cellComputer.setWarning(false);
+    setLoad(this.load1, load1, numCpus);
+    setLoad(this.load5, load5, numCpus);
+    loadPerCpu = load1 / Math.max(1, numCpus);
+    setComputerWarning(false);
     if (usersColumn) {
-      cellUsers.setValue(users);
-      cellUsers.setToolTipText(usersTooltip);
+      this.users.setValue(String.valueOf(users));
+      this.users.setToolTipText(usersTooltip);
+    }
+  }
+
+  /**
+   * Describes the CPU utilization in the load tooltips.
+   */
+  void setCPUUtilization(double busyCPUs, int numberCPUs, int fullyBusyCPUs) {
+    String tooltip = "CPU utilization:  " + Math.round(busyCPUs * 10) / 10.0 + " of "
+        + numberCPUs + " CPUs busy, " + fullyBusyCPUs + " of them fully.";
+    load1.setToolTipText(tooltip);
+    load5.setToolTipText(tooltip);
+  }
+
+  void setFreeMemory(long availableKB, long totalKB) {
+    if (availableKB < 0) {
+      freeMemory.setValue();
+      return;
+    }
+    double availableGB = Math.round(availableKB / 104857.6) / 10.0;
+    if (loadWarning && totalKB > 0) {
+      freeMemory.setWarning(availableKB < totalKB / 10);
+    }
+    freeMemory.setValue(String.valueOf(availableGB));
+    if (totalKB > 0) {
+      freeMemory.setToolTipText(availableGB + " of "
+          + Math.round(totalKB / 104857.6) / 10.0 + " GB available.");
     }
   }
 
   void setLoad(String[] loadArray) {
     for (int i = 0; i < loadArray.length; i++) {
-      if (i < cellLoadArray.length) {
-        cellLoadArray[i].setValue(loadArray[i]);
+      if (i < this.loadArray.length) {
+        this.loadArray[i].setValue(loadArray[i]);
+      }
+    }
+    loadPerCpu = Double.NaN;
+    if (loadArray.length > 0 && loadArray[0] != null) {
+      try {
+        loadPerCpu = Double.parseDouble(loadArray[0].trim()) / Math.max(1, numCpus);
+      }
+      catch (NumberFormatException e) {
+        // not a number, such as NA
       }
     }
-    cellComputer.setWarning(false);
+    setComputerWarning(false);
   }
 
   void setCPUUsage(double cpuUsage, final ConstEtomoNumber numberOfProcessors) {
@@ -473,30 +540,34 @@ final class ProcessorTableRow implements Storable {
       usage = cpuUsage * numberOfProcessors.getInt() / 100.0;
     }
     if (loadWarning) {
-      cellCPUUsage.setWarning(cpuUsage > 75);
+      this.cpuUsage.setWarning(cpuUsage > 75);
     }
-    cellCPUUsage.setValue(usage);
-    cellComputer.setWarning(false);
+    this.cpuUsage.setValue(String.valueOf(usage));
+    loadPerCpu = cpuUsage / 100.0;
+    setComputerWarning(false);
   }
 
   final void clearLoad(String reason, String tooltip) {
     String loadName;
     if (Utilities.isWindowsOS()) {
       loadName = "CPU usage";
-      cellCPUUsage.setValue();
-      cellCPUUsage.setWarning(false);
+      cpuUsage.setValue();
+      cpuUsage.setWarning(false);
     }
     else {
       loadName = "load averages";
-      cellLoad1.setValue();
-      cellLoad1.setWarning(false);
-      cellLoad5.setValue();
-      cellLoad5.setWarning(false);
-      cellUsers.setValue();
-    }
+      load1.setValue();
+      load1.setWarning(false);
+      load5.setValue();
+      load5.setWarning(false);
+      users.setValue();
+      freeMemory.setValue();
+      freeMemory.setWarning(false);
+    }
+    loadPerCpu = Double.NaN;
     setSelectedError();
-    cellFailureReason.setValue(reason);
-    cellFailureReason.setToolTipText(tooltip);
+    failureReason.setValue(reason);
+    failureReason.setToolTipText(tooltip);
     // cellFailureReason.setToolTipText("Unable to get the " + loadName
     // + " for this computer.");
   }
@@ -508,7 +579,7 @@ final class ProcessorTableRow implements Storable {
    * failure reason.
    */
   final void clearFailureReason(String failureReason1, String failureReason2) {
-    String value = cellFailureReason.getValue();
+    String value = failureReason.getValue();
     if (value == null || (!value.equals(failureReason1) && !value.equals(failureReason2))) {
       return;
     }
@@ -516,34 +587,197 @@ final class ProcessorTableRow implements Storable {
   }
 
   final void clearFailureReason() {
-    cellFailureReason.setValue();
-    cellFailureReason.setToolTipText(null);
+    failureReason.setValue();
+    failureReason.setToolTipText(null);
   }
 
-  private final void setLoad(FieldCell cellLoad, double load, int numberCpus) {
+  private final void setLoad(Value load, double value, int numberCpus) {
     if (loadWarning) {
-      cellLoad.setWarning(load >= numberCpus);
+      load.setWarning(value >= numberCpus);
     }
-    cellLoad.setValue(load);
+    load.setValue(String.valueOf(value));
   }
 
-  final int getHeight() {
-    return cellComputer.getHeight();
+  final String getComputer() {
+    return computerName;
   }
 
-  final String getComputer() {
-    return cellComputer.getLabel();
+  /**
+   * The value and state of a field that changes.  Uses the cell when the row has
+   * cells.
+   */
+  private static final class Value {
+    private String value = null;
+    private boolean warning = false;
+    private boolean error = false;
+    private String toolTipText = null;
+    private FieldCell cell = null;
+
+    private FieldCell createCell() {
+      cell = FieldCell.getIneditableInstance();
+      if (value != null) {
+        cell.setValue(value);
+      }
+      if (error) {
+        cell.setError(true);
+      }
+      else if (warning) {
+        cell.setWarning(true);
+      }
+      if (toolTipText != null) {
+        cell.setToolTipText(toolTipText);
+      }
+      return cell;
+    }
+
+    private void releaseCell() {
+      cell = null;
+    }
+
+    private String getValue() {
+      if (value == null) {
+        return "";
+      }
+      return value;
+    }
+
+    private boolean isEmpty() {
+      return value == null || value.matches("\\s*");
+    }
+
+    private boolean equals(final String string) {
+      return value != null && value.equals(string);
+    }
+
+    private void setValue() {
+      value = null;
+      if (cell != null) {
+        cell.setValue();
+      }
+    }
+
+    private void setValue(final String value) {
+      this.value = value;
+      if (cell != null) {
+        cell.setValue(value);
+      }
+    }
+
+    /**
+     * Works like InputCell.setWarning:  turning on the warning turns off the error.
+     */
+    private void setWarning(final boolean warning) {
+      if (warning) {
+        error = false;
+      }
+      this.warning = warning;
+      if (cell != null) {
+        cell.setWarning(warning);
+      }
+    }
+
+    /**
+     * Works like InputCell.setError:  turning on the error turns off the warning.
+     */
+    private void setError(final boolean error) {
+      if (error) {
+        warning = false;
+      }
+      this.error = error;
+      if (cell != null) {
+        cell.setError(error);
+      }
+    }
+
+    private void setToolTipText(final String toolTipText) {
+      this.toolTipText = toolTipText;
+      if (cell != null) {
+        cell.setToolTipText(toolTipText);
+      }
+    }
   }
 
-  /* final int getWidth() { int width = 0; width += cellComputer.getWidth(); width +=
-   * cellCPUsSelected.getWidth(); if (numberColumn) { width += cellNumberCpus.getWidth();
-   * } if (Utilities.isWindowsOS()) { width += cellCPUUsage.getWidth(); } else { width +=
-   * cellLoad1.getWidth(); width += cellLoad5.getWidth(); if (usersColumn) { width +=
-   * cellUsers.getWidth(); } } if (typeColumn) { width += cellCPUType.getWidth(); } if
-   * (speedColumn) { width += cellSpeed.getWidth(); } if (memoryColumn) { width +=
-   * cellMemory.getWidth(); } if (osColumn) { width += cellOS.getWidth(); } width +=
-   * cellRestarts.getWidth(); width += cellSuccesses.getWidth(); width +=
-   * cellFailureReason.getWidth(); return width + 3; } */
+  /**
+   * The Swing cells of a row that is in the viewport.
+   */
+  private final class Cells {
+    private final FieldCell cellNumberCpus = FieldCell.getIneditableInstance();
+    private final FieldCell cellLoad1 = load1.createCell();
+    private final FieldCell cellLoad5 = load5.createCell();
+    private final FieldCell cellUsers = users.createCell();
+    private final FieldCell cellFreeMemory = freeMemory.createCell();
+    private final FieldCell cellCPUUsage = cpuUsage.createCell();
+    private final FieldCell cellRestarts = restarts.createCell();
+    private final FieldCell cellSuccesses = successes.createCell();
+    private final FieldCell cellFailureReason = failureReason.createCell();
+    private final FieldCell cellSpeed = FieldCell.getIneditableInstance();
+    private final FieldCell cellMemory = FieldCell.getIneditableInstance();
+    private final FieldCell cellOS = FieldCell.getIneditableInstance();
+    private final FieldCell cellCPUType = FieldCell.getIneditableInstance();
+    private final ToggleCell cellComputer;
+    private final FieldCell[] cellLoadArray;
+    private final InputCell cellCPUsSelected;
+
+    private Cells() {
+      if (displayQueues) {
+        // The table keeps one queue selected, so the radio buttons aren't put in a
+        // group.
+        cellComputer = new RadioButtonCell(null);
+        cellLoadArray = new FieldCell[loadArray.length];
+        for (int i = 0; i < loadArray.length; i++) {
+          cellLoadArray[i] = loadArray[i].createCell();
+        }
+      }
+      else {
+        cellComputer = new CheckBoxCell();
+        cellLoadArray = null;
+      }
+      cellComputer.setLabel(computerName);
+      cellComputer.setSelected(selected);
+      cellComputer.setEnabled(selectionEnabled);
+      cellComputer.setWarning(computerWarning);
+      cellComputer.addActionListener(new ProcessorTableRowActionListener(
+          ProcessorTableRow.this));
+      if (cpuType != null) {
+        cellCPUType.setValue(cpuType);
+      }
+      if (numCpus > 1) {
+        SpinnerCell spinnerCell = SpinnerCell.getIntInstance(0, numCpus);
+        spinnerCell.setDisabledValue(0);
+        spinnerCell.setValue(cpusSelected);
+        spinnerCell.setEnabled(selected);
+        spinnerCell.addChangeListener(new PTRCPUChangeListener(ProcessorTableRow.this));
+        cellCPUsSelected = spinnerCell;
+      }
+      else {
+        FieldCell fieldCell = FieldCell.getIneditableInstance();
+        fieldCell.setValue(cpusSelected);
+        fieldCell.setEnabled(selected);
+        cellCPUsSelected = fieldCell;
+      }
+      cellNumberCpus.setValue(numCpus);
+      cellSpeed.setValue(speed);
+      cellMemory.setEditable(false);
+      cellMemory.setValue(memory);
+      cellOS.setValue(os);
+    }
+
+    private void release() {
+      load1.releaseCell();
+      load5.releaseCell();
+      users.releaseCell();
+      freeMemory.releaseCell();
+      cpuUsage.releaseCell();
+      restarts.releaseCell();
+      successes.releaseCell();
+      failureReason.releaseCell();
+      if (loadArray != null) {
+        for (int i = 0; i < loadArray.length; i++) {
+          loadArray[i].releaseCell();
+        }
+      }
+    }
+  }
 
   private class ProcessorTableRowActionListener implements ActionListener {
     ProcessorTableRow adaptee;
@@ -568,18 +802,6 @@ final class ProcessorTableRow implements Storable {
       adaptee.stateChangedCPU();
     }
   }
-
-  private class PTRComputerChangeListener implements ChangeListener {
-    ProcessorTableRow adaptee;
-
-    PTRComputerChangeListener(ProcessorTableRow adaptee) {
-      this.adaptee = adaptee;
-    }
-
-    public void stateChanged(ChangeEvent event) {
-      adaptee.stateChangedComputer();
-    }
-  }
 }
 /**
  * <p> $Log$
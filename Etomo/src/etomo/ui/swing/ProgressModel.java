@@ -0,0 +1,312 @@
+package etomo.ui.swing;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import etomo.type.ProcessEndState;
+
+/**
+ * <p>Description: The state of one axis' progress bar.  Process monitors change it
+ * from their own threads without locking:  each change replaces an immutable State.
+ * The event dispatch thread picks up the latest State at most FRAME_RATE times a
+ * second and passes it to the Display, so states that would have been replaced
+ * before anyone could see them are never displayed, and a busy monitor posts no
+ * more than one runnable to the event dispatch thread.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * @threadsafe
+ *
+ * <p> $Log$ </p>
+ */
+final class ProgressModel {
+  public static final String rcsid = "$Id:$";
+
+  static final int FRAME_RATE = 10;
+
+  private static final Dispatcher DISPATCHER = new Dispatcher();
+
+  private final AtomicReference<State> state = new AtomicReference<State>(
+      State.INITIAL);
+  // True while this model is waiting to be picked up by the dispatcher.
+  private final AtomicBoolean dirty = new AtomicBoolean(false);
+  private final Display display;
+
+  // Only used on the event dispatch thread.
+  private State shown = State.INITIAL;
+
+  ProgressModel(final Display display) {
+    this.display = display;
+  }
+
+  void setLabel(final String label) {
+    State oldState;
+    State newState;
+    do {
+      oldState = state.get();
+      newState = new State(oldState);
+      newState.label = label;
+      newState.stopped = false;
+    } while (!state.compareAndSet(oldState, newState));
+    changed();
+  }
+
+  /**
+   * Runs the progress bar on its own and times the process.
+   */
+  void start() {
+    long startTime = System.currentTimeMillis();
+    State oldState;
+    State newState;
+    do {
+      oldState = state.get();
+      newState = new State(oldState);
+      newState.indeterminate = true;
+      newState.barString = "";
+      newState.stopped = false;
+      newState.startTime = startTime;
+      newState.modeCount++;
+    } while (!state.compareAndSet(oldState, newState));
+    changed();
+  }
+
+  void stop(final ProcessEndState endState, final String statusString) {
+    StringBuffer message = new StringBuffer(endState.toString());
+    if (statusString != null) {
+      message.append(":  " + statusString);
+    }
+    State oldState;
+    State newState;
+    do {
+      oldState = state.get();
+      newState = new State(oldState);
+      newState.indeterminate = false;
+      newState.value = 0;
+      newState.barString = message.toString();
+      newState.stopped = true;
+      newState.modeCount++;
+    } while (!state.compareAndSet(oldState, newState));
+    changed();
+  }
+
+  void setMaximum(final int maximum) {
+    State oldState;
+    State newState;
+    do {
+      oldState = state.get();
+      newState = new State(oldState);
+      newState.maximum = maximum;
+      newState.indeterminate = false;
+      newState.stopped = false;
+      newState.modeCount++;
+    } while (!state.compareAndSet(oldState, newState));
+    changed();
+  }
+
+  void setMinimum(final int minimum) {
+    State oldState;
+    State newState;
+    do {
+      oldState = state.get();
+      newState = new State(oldState);
+      newState.minimum = minimum;
+      newState.stopped = false;
+    } while (!state.compareAndSet(oldState, newState));
+    changed();
+  }
+
+  void setValue(final int value) {
+    State oldState;
+    State newState;
+    do {
+      oldState = state.get();
+      newState = new State(oldState);
+      newState.value = value;
+      newState.stopped = false;
+    } while (!state.compareAndSet(oldState, newState));
+    changed();
+  }
+
+  void setValue(final int value, final String barString) {
+    State oldState;
+    State newState;
+    do {
+      oldState = state.get();
+      newState = new State(oldState);
+      newState.value = value;
+      newState.barString = barString;
+      newState.stopped = false;
+    } while (!state.compareAndSet(oldState, newState));
+    changed();
+  }
+
+  /**
+   * @return the state that is being displayed.  Must be called on the event dispatch
+   * thread.
+   */
+  State getShownState() {
+    return shown;
+  }
+
+  private void changed() {
+    if (dirty.compareAndSet(false, true)) {
+      DISPATCHER.add(this);
+    }
+  }
+
+  /**
+   * Displays the latest state, if it hasn't been displayed.  Runs on the event
+   * dispatch thread.
+   */
+  private void pull() {
+    // Clear the flag first, so that a change made after the state is read is picked
+    // up next time.
+    dirty.set(false);
+    State newState = state.get();
+    if (newState != shown) {
+      State oldState = shown;
+      shown = newState;
+      display.show(oldState, newState);
+    }
+  }
+
+  /**
+   * Displays a State on the event dispatch thread.
+   */
+  interface Display {
+    void show(State oldState, State newState);
+  }
+
+  /**
+   * A snapshot of the progress bar.  Not changed after it is passed to
+   * AtomicReference.compareAndSet.
+   */
+  static final class State {
+    private static final State INITIAL = new State();
+
+    private String label = null;
+    private int minimum = 0;
+    private int maximum = 100;
+    private int value = 0;
+    private String barString = null;
+    private boolean indeterminate = false;
+    private boolean stopped = true;
+    private long startTime = 0;
+    // Incremented by start, stop, and setMaximum.
+    private int modeCount = 0;
+
+    private State() {
+    }
+
+    private State(final State state) {
+      label = state.label;
+      minimum = state.minimum;
+      maximum = state.maximum;
+      value = state.value;
+      barString = state.barString;
+      indeterminate = state.indeterminate;
+      stopped = state.stopped;
+      startTime = state.startTime;
+      modeCount = state.modeCount;
+    }
+
+    String getLabel() {
+      return label;
+    }
+
+    int getMinimum() {
+      return minimum;
+    }
+
+    int getMaximum() {
+      return maximum;
+    }
+
+    int getValue() {
+      return value;
+    }
+
+    String getBarString() {
+      return barString;
+    }
+
+    boolean isIndeterminate() {
+      return indeterminate;
+    }
+
+    boolean isStopped() {
+      return stopped;
+    }
+
+    long getStartTime() {
+      return startTime;
+    }
+
+    int getModeCount() {
+      return modeCount;
+    }
+  }
+
+  /**
+   * Pulls the changed models on the event dispatch thread.  Its timer only runs while
+   * models are changing.
+   */
+  private static final class Dispatcher implements ActionListener {
+    private final ConcurrentLinkedQueue<ProgressModel> queue =
+        new ConcurrentLinkedQueue<ProgressModel>();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final Runnable starter = new Runnable() {
+      public void run() {
+        // Show the first change right away.
+        actionPerformed(null);
+        if (running.get()) {
+          timer.start();
+        }
+      }
+    };
+
+    // Only used on the event dispatch thread.
+    private Timer timer = null;
+
+    private void add(final ProgressModel model) {
+      queue.add(model);
+      if (running.compareAndSet(false, true)) {
+        SwingUtilities.invokeLater(starter);
+      }
+    }
+
+    public void actionPerformed(final ActionEvent event) {
+      if (timer == null) {
+        timer = new Timer(1000 / FRAME_RATE, this);
+      }
+      ProgressModel model = queue.poll();
+      if (model == null) {
+        // Nothing changed since the last frame.
+        timer.stop();
+        running.set(false);
+        if (!queue.isEmpty() && running.compareAndSet(false, true)) {
+          timer.start();
+        }
+        return;
+      }
+      while (model != null) {
+        model.pull();
+        model = queue.poll();
+      }
+    }
+  }
+}
@@ -99,7 +99,6 @@ import javax.swing.BoxLayout;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JProgressBar;
-import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 
 import etomo.BaseManager;
@@ -107,7 +106,12 @@ import etomo.type.AxisID;
 import etomo.type.ProcessEndState;
 import etomo.util.Utilities;
 
-public final class ProgressPanel {
+/**
+ * The setters may be called from any thread.  They change a ProgressModel, which
+ * passes the latest state to show() on the event dispatch thread a few times a
+ * second.
+ */
+public final class ProgressPanel implements ProgressModel.Display {
   public static final String rcsid = "$Id$";
 
   public static final String NAME = "the-progress-bar";
@@ -118,21 +122,10 @@ public final class ProgressPanel {
   private final JPanel progressPanel = new JPanel();
   private final JLabel taskLabel = new JLabel();
   private final JProgressBar progressBar = new JProgressBar();
+  private final ProgressModel model = new ProgressModel(this);
   private final BaseManager manager;
   private final AxisID axisID;
 
-  // Keep these around so that SwingUtilities.invokeLater can update the
-  // the UI status 
-  private int counter = 0;
-  private int value;
-  private int maximum;
-  private int minimum;
-  private long startTime;
-  private String barString;
-  private String label;
-  //stopped: IMPORTANT: The stop action should turn this boolean on, all other
-  //actions, except increment should turn this off.
-  private boolean stopped = true;
   private int nPacked = 0;
 
   //required - instantiate once
@@ -180,150 +173,34 @@ public final class ProgressPanel {
   }
 
   void setLabel(final String newLabel) {
-    stopped = false;
-    label = newLabel;
-    SwingUtilities.invokeLater(new SetLabelLater());
-  }
-
-  private final class SetLabelLater implements Runnable {
-    public void run() {
-      setTaskLabel();
-      revalidate();
-      repaint();
-      pack();
-    }
+    model.setLabel(newLabel);
   }
 
   void start() {
-    stopped = false;
     //  Setting the progress bar indeterminate causes it to move on its own
-    counter = 0;
-    startTime = System.currentTimeMillis();
-    SwingUtilities.invokeLater(new StartLater());
-  }
-
-  private final class StartLater implements Runnable {
-    public void run() {
-      JProgressBar progressBar = getProgressBar();
-      progressBar.setIndeterminate(true);
-      progressBar.setString("");
-      progressBar.setStringPainted(true);
-      startTimer();
-      pack();
-    }
+    model.start();
   }
 
   void stop(ProcessEndState state, final String statusString) {
-    stopped = true;
-    counter = 0;
     if (state == null) {
       state = ProcessEndState.DONE;
     }
-    SwingUtilities.invokeLater(new StopLater(state, statusString));
-  }
-
-  private final class StopLater implements Runnable {
-    private final ProcessEndState state;
-    private final String statusString;
-
-    private StopLater(final ProcessEndState state, final String statusString) {
-      this.state = state;
-      this.statusString = statusString;
-    }
-
-    public void run() {
-      stopTimer();
-      JProgressBar progressBar = getProgressBar();
-      setProgressBarCounter();
-      progressBar.setIndeterminate(false);
-      StringBuffer message = new StringBuffer(state.toString());
-      if (statusString != null) {
-        message.append(":  " + statusString);
-      }
-      progressBar.setString(message.toString());
-      progressBar.setStringPainted(true);
-      pack();
-    }
-  }
-
-  private void increment() {
-    SwingUtilities.invokeLater(new IncrementLater(stopped));
-  }
-
-  private final class IncrementLater implements Runnable {
-    private boolean stopped = false;
-
-    private IncrementLater(final boolean stopped) {
-      this.stopped = stopped;
-    }
-
-    public void run() {
-      //Fixing a bug during kill process where the timer doesn't stop:  the 
-      //progress bar goes to determinate mode and increments based on the timer.
-      //
-      //If the progress bar is stopped this call should never happen.
-      //If the timer did not stop before it generated the event that caused
-      //increment to be called, then the timer will never stop.
-      //
-      //Tell the timer to stop each time this function is called incorrectly.
-      if (stopped) {
-        return;
-      }
-      setProgressBarValue();
-      //  Put the elapsed time into the progress bar string
-      getProgressBar()
-          .setString(
-              "Elapsed time: "
-                  + Utilities.millisToMinAndSecs(System.currentTimeMillis()
-                      - getStartTime()));
-      validate();
-      repaint();
-      incrementCounter();
-      restartTimer();
-      pack();
-    }
+    model.stop(state, statusString);
   }
 
   /**
    * @param n
    */
   void setMaximum(final int n) {
-    stopped = false;
-    maximum = n;
-    SwingUtilities.invokeLater(new SetMaximumLater());
-  }
-
-  private final class SetMaximumLater implements Runnable {
-    public void run() {
-      setProgressBarMaximum();
-      getProgressBar().setIndeterminate(false);
-      getProgressBar().setStringPainted(true);
-      pack();
-    }
+    model.setMaximum(n);
   }
 
   void setMinimum(final int n) {
-    stopped = false;
-    minimum = n;
-    SwingUtilities.invokeLater(new SetMinimumLater());
-  }
-
-  private final class SetMinimumLater implements Runnable {
-    public void run() {
-      setProgressBarMinimum();
-    }
+    model.setMinimum(n);
   }
 
   void setValue(final int n) {
-    stopped = false;
-    value = n;
-    SwingUtilities.invokeLater(new SetValueLater());
-  }
-
-  private final class SetValueLater implements Runnable {
-    public void run() {
-      setProgressBarValue();
-    }
+    model.setValue(n);
   }
 
   /**
@@ -332,17 +209,86 @@ public final class ProgressPanel {
    * @param string
    */
   void setValue(final int n, final String string) {
-    stopped = false;
-    value = n;
-    barString = string;
-    SwingUtilities.invokeLater(new SetValueAndStringLater());
+    model.setValue(n, string);
+  }
+
+  /**
+   * Updates the progress bar with the changes between oldState and newState.  Called
+   * by the model on the event dispatch thread.
+   */
+  public void show(final ProgressModel.State oldState,
+      final ProgressModel.State newState) {
+    boolean pack = false;
+    if (!equals(newState.getLabel(), oldState.getLabel())) {
+      taskLabel.setText(newState.getLabel());
+      panel.revalidate();
+      panel.repaint();
+      pack = true;
+    }
+    if (newState.getMinimum() != oldState.getMinimum()) {
+      progressBar.setMinimum(newState.getMinimum());
+    }
+    if (newState.getMaximum() != oldState.getMaximum()) {
+      progressBar.setMaximum(newState.getMaximum());
+    }
+    if (newState.isIndeterminate() != oldState.isIndeterminate()) {
+      progressBar.setIndeterminate(newState.isIndeterminate());
+    }
+    if (newState.getValue() != oldState.getValue()) {
+      progressBar.setValue(newState.getValue());
+    }
+    boolean modeChanged = newState.getModeCount() != oldState.getModeCount();
+    if (modeChanged || !equals(newState.getBarString(), oldState.getBarString())) {
+      progressBar.setString(newState.getBarString());
+    }
+    if (modeChanged) {
+      // Started, stopped, or given a maximum.
+      progressBar.setStringPainted(true);
+      if (newState.isStopped()) {
+        timer.stop();
+      }
+      else if (newState.isIndeterminate()) {
+        timer.start();
+      }
+      pack = true;
+    }
+    if (pack) {
+      pack();
+    }
   }
 
-  private final class SetValueAndStringLater implements Runnable {
-    public void run() {
-      setProgressBarValue();
-      setProgressBarString();
+  private static boolean equals(final String string1, final String string2) {
+    if (string1 == null) {
+      return string2 == null;
     }
+    return string1.equals(string2);
+  }
+
+  /**
+   * Shows the elapsed time.  Runs on the event dispatch thread.
+   */
+  private void increment() {
+    //Fixing a bug during kill process where the timer doesn't stop:  the 
+    //progress bar goes to determinate mode and increments based on the timer.
+    //
+    //If the timer did not stop before it generated the event that caused
+    //increment to be called, then the timer will never stop.
+    //
+    //Tell the timer to stop each time this function is called incorrectly.
+    ProgressModel.State state = model.getShownState();
+    if (state.isStopped()) {
+      timer.stop();
+      return;
+    }
+    progressBar.setValue(state.getValue());
+    //  Put the elapsed time into the progress bar string
+    progressBar.setString("Elapsed time: "
+        + Utilities.millisToMinAndSecs(System.currentTimeMillis()
+            - state.getStartTime()));
+    panel.validate();
+    panel.repaint();
+    timer.restart();
+    pack();
   }
 
   Container getContainer() {
@@ -370,66 +316,6 @@ public final class ProgressPanel {
     return progressBar.getValue();
   }
 
-  private void setTaskLabel() {
-    taskLabel.setText(label);
-  }
-
-  private void revalidate() {
-    panel.revalidate();
-  }
-
-  private void repaint() {
-    panel.repaint();
-  }
-
-  private void validate() {
-    panel.validate();
-  }
-
-  private JProgressBar getProgressBar() {
-    return progressBar;
-  }
-
-  private void restartTimer() {
-    timer.restart();
-  }
-
-  private void startTimer() {
-    timer.start();
-  }
-
-  private void stopTimer() {
-    timer.stop();
-  }
-
-  private void setProgressBarCounter() {
-    progressBar.setValue(counter);
-  }
-
-  private void setProgressBarValue() {
-    progressBar.setValue(value);
-  }
-
-  private void incrementCounter() {
-    counter++;
-  }
-
-  private void setProgressBarMaximum() {
-    progressBar.setMaximum(maximum);
-  }
-
-  private void setProgressBarMinimum() {
-    progressBar.setMinimum(minimum);
-  }
-
-  private void setProgressBarString() {
-    progressBar.setString(barString);
-  }
-
-  private long getStartTime() {
-    return startTime;
-  }
-
   private static final class ProgressTimerActionListener implements ActionListener {
     private final ProgressPanel panel;
 
@@ -441,4 +327,4 @@ public final class ProgressPanel {
       panel.increment();
     }
   }
-}
\ No newline at end of file
+}
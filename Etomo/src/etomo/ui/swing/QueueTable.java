@@ -3,7 +3,6 @@ package etomo.ui.swing;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 
-import javax.swing.ButtonGroup;
 import javax.swing.JPanel;
 
 import etomo.BaseManager;
@@ -49,7 +48,6 @@ final class QueueTable extends ProcessorTable {
 
   private HeaderCell[] header1LoadArray = null;
   private HeaderCell[] header2LoadArray = null;
-  private ButtonGroup buttonGroup = null;
 
   QueueTable(final BaseManager manager, final ParallelPanel parent, final AxisID axisID) {
     super(manager, parent, axisID, true);
@@ -94,7 +92,6 @@ final class QueueTable extends ProcessorTable {
   }
 
   int getSize() {
-    buttonGroup = new ButtonGroup();
     return Network.getNumQueues(manager, axisID, manager.getPropertyUserDir());
   }
 
@@ -109,7 +106,6 @@ final class QueueTable extends ProcessorTable {
             processorTable,
             node,
             node.getNumber(),
-            buttonGroup,
             Math.max(
                 1,
                 CpuAdoc.INSTANCE.getLoadUnits(manager, axisID,
@@ -155,6 +151,10 @@ final class QueueTable extends ProcessorTable {
     return false;
   }
 
+  boolean useFreeMemoryColumn() {
+    return false;
+  }
+
   void getParameters(final ProcesschunksParam param) {
     String queue = getFirstSelectedComputer();
     Node node = Network.getQueue(manager, queue, axisID, manager.getPropertyUserDir());
@@ -0,0 +1,139 @@
+package etomo.ui.swing;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Description: Sections of the join table that are waiting to be rotated with clip
+ * rotx, in the order they were added.  One section is rotated at a time; the next one
+ * is started when the current rotation succeeds or fails.  The rows stay in the table
+ * while they wait, and rows that the user deletes are dropped from the queue.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * <p> $Log$ </p>
+ */
+final class RotationQueue<R> {
+  public static final String rcsid = "$Id:$";
+
+  private final List<Entry<R>> entryList = new ArrayList<Entry<R>>();
+  private final Rotator<R> rotator;
+
+  // The section being rotated.  Null when nothing is being rotated.
+  private Entry<R> current = null;
+
+  RotationQueue(final Rotator<R> rotator) {
+    this.rotator = rotator;
+  }
+
+  /**
+   * Queues a section and starts rotating it if nothing else is being rotated.
+   * @param row
+   * @param tomogram
+   */
+  void add(final R row, final File tomogram) {
+    entryList.add(new Entry<R>(row, tomogram));
+    rotateNext();
+  }
+
+  boolean isRotating() {
+    return current != null;
+  }
+
+  /**
+   * Call when the current rotation has succeeded or failed.  Call rotateNext after
+   * the row has been updated.
+   * @return the row of the section that was being rotated, or null if it was deleted
+   */
+  R msgRotationDone() {
+    if (current == null) {
+      return null;
+    }
+    R row = current.row;
+    current = null;
+    if (row == null || !rotator.contains(row)) {
+      return null;
+    }
+    return row;
+  }
+
+  /**
+   * Starts rotating the next queued section, unless a rotation is already running.
+   * Sections whose rows have been deleted are skipped.
+   */
+  void rotateNext() {
+    while (current == null && !entryList.isEmpty()) {
+      Entry<R> entry = entryList.remove(0);
+      if (!rotator.contains(entry.row)) {
+        continue;
+      }
+      current = entry;
+      rotator.rotate(entry.tomogram);
+    }
+  }
+
+  /**
+   * Drops the sections whose rows have been deleted.
+   * @return the section that is being rotated or that is waiting to be rotated, or
+   * null if there are none
+   */
+  File getWaitingSection() {
+    for (int i = entryList.size() - 1; i >= 0; i--) {
+      if (!rotator.contains(entryList.get(i).row)) {
+        entryList.remove(i);
+      }
+    }
+    if (current != null && current.row != null && rotator.contains(current.row)) {
+      return current.tomogram;
+    }
+    if (!entryList.isEmpty()) {
+      return entryList.get(0).tomogram;
+    }
+    return null;
+  }
+
+  /**
+   * Drops the waiting sections.  A rotation that is running is not stopped, but its
+   * result will be treated as if its row had been deleted.
+   */
+  void clear() {
+    entryList.clear();
+    if (current != null) {
+      current = new Entry<R>(null, current.tomogram);
+    }
+  }
+
+  /**
+   * Runs the rotations for the queue.
+   */
+  interface Rotator<R> {
+    /**
+     * @return true if row is still in the table
+     */
+    boolean contains(R row);
+
+    /**
+     * Starts rotating tomogram.  When the rotation is done, call msgRotationDone.
+     */
+    void rotate(File tomogram);
+  }
+
+  private static final class Entry<R> {
+    private final R row;
+    private final File tomogram;
+
+    private Entry(final R row, final File tomogram) {
+      this.row = row;
+      this.tomogram = tomogram;
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package etomo.ui.swing;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * <p>Description: Tests for RotationQueue.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * <p> $Log$ </p>
+ */
+public final class RotationQueueTest extends TestCase {
+  public static final String rcsid = "$Id:$";
+
+  private final List<String> rowList = new ArrayList<String>();
+  private final List<File> rotatedList = new ArrayList<File>();
+  private final RotationQueue<String> queue = new RotationQueue<String>(
+      new RotationQueue.Rotator<String>() {
+        public boolean contains(final String row) {
+          return rowList.contains(row);
+        }
+
+        public void rotate(final File tomogram) {
+          rotatedList.add(tomogram);
+        }
+      });
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    rowList.add("a");
+    rowList.add("b");
+    rowList.add("c");
+  }
+
+  public void testOneAtATime() {
+    queue.add("a", new File("a.rec"));
+    queue.add("b", new File("b.rec"));
+    assertTrue(queue.isRotating());
+    assertEquals("the second rotation waits", 1, rotatedList.size());
+    assertEquals("a", queue.msgRotationDone());
+    assertFalse(queue.isRotating());
+    queue.rotateNext();
+    assertEquals(new File("b.rec"), rotatedList.get(1));
+    assertEquals("b", queue.msgRotationDone());
+    queue.rotateNext();
+    assertFalse(queue.isRotating());
+    assertNull(queue.getWaitingSection());
+  }
+
+  public void testFailure() {
+    queue.add("a", new File("a.rec"));
+    queue.add("b", new File("b.rec"));
+    // The rotation of a fails and its row is deleted.
+    assertEquals("a", queue.msgRotationDone());
+    rowList.remove("a");
+    queue.rotateNext();
+    assertEquals("the next rotation starts after a failure", 2, rotatedList.size());
+    assertEquals(new File("b.rec"), queue.getWaitingSection());
+    assertEquals("b", queue.msgRotationDone());
+    queue.rotateNext();
+    assertNull("nothing is left to wait for", queue.getWaitingSection());
+  }
+
+  public void testFailureToStart() {
+    final List<String> failedList = new ArrayList<String>();
+    final List<RotationQueue<String>> holder = new ArrayList<RotationQueue<String>>();
+    // clip fails to start, so the rotation fails while it is being started.
+    holder.add(new RotationQueue<String>(new RotationQueue.Rotator<String>() {
+      public boolean contains(final String row) {
+        return rowList.contains(row);
+      }
+
+      public void rotate(final File tomogram) {
+        rotatedList.add(tomogram);
+        failedList.add(holder.get(0).msgRotationDone());
+        holder.get(0).rotateNext();
+      }
+    }));
+    holder.get(0).add("a", new File("a.rec"));
+    holder.get(0).add("b", new File("b.rec"));
+    assertEquals(2, rotatedList.size());
+    assertEquals(2, failedList.size());
+    assertFalse(holder.get(0).isRotating());
+    assertNull(holder.get(0).getWaitingSection());
+  }
+
+  public void testDeletedRows() {
+    queue.add("a", new File("a.rec"));
+    queue.add("b", new File("b.rec"));
+    queue.add("c", new File("c.rec"));
+    rowList.remove("a");
+    rowList.remove("b");
+    assertEquals("deleted rows are not waited for", new File("c.rec"), queue
+        .getWaitingSection());
+    assertNull("the row of the finished rotation was deleted", queue.msgRotationDone());
+    queue.rotateNext();
+    assertEquals(2, rotatedList.size());
+    assertEquals(new File("c.rec"), rotatedList.get(1));
+  }
+
+  public void testClear() {
+    queue.add("a", new File("a.rec"));
+    queue.add("b", new File("b.rec"));
+    queue.clear();
+    assertTrue("the running rotation isn't stopped", queue.isRotating());
+    assertNull(queue.getWaitingSection());
+    assertNull(queue.msgRotationDone());
+    queue.rotateNext();
+    assertEquals(1, rotatedList.size());
+  }
+}
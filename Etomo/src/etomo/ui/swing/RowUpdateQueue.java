@@ -0,0 +1,111 @@
+package etomo.ui.swing;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * <p>Description: Collects table row updates posted by monitor threads and runs them
+ * together on the event dispatch thread, at most FRAME_RATE times a second.  An
+ * update posted with a key replaces the waiting update with the same key, so a row
+ * whose load changes several times between frames is only updated once.  Updates
+ * run in the order they were posted.  After each batch the listener is run, so that
+ * the table can sort and filter its rows once per batch.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * @threadsafe
+ *
+ * <p> $Log$ </p>
+ */
+final class RowUpdateQueue {
+  public static final String rcsid = "$Id:$";
+
+  static final int FRAME_RATE = 10;
+
+  private final Map<Object, Runnable> updateMap = new LinkedHashMap<Object, Runnable>();
+  private final Runnable listener;
+  private final Runnable starter = new Runnable() {
+    public void run() {
+      if (timer == null) {
+        timer = new Timer(1000 / FRAME_RATE, new ActionListener() {
+          public void actionPerformed(final ActionEvent event) {
+            flush();
+          }
+        });
+        timer.setRepeats(false);
+      }
+      if (!timer.isRunning()) {
+        timer.start();
+      }
+    }
+  };
+
+  private boolean scheduled = false;
+  // Only used on the event dispatch thread.
+  private Timer timer = null;
+
+  /**
+   * @param listener - run on the event dispatch thread after a batch of updates
+   */
+  RowUpdateQueue(final Runnable listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Runs an update on the event dispatch thread with the next batch.
+   * @param key - the key of an update that can replace earlier updates with the same
+   * key, or null if the update must always run
+   * @param update
+   */
+  synchronized void post(final Object key, final Runnable update) {
+    if (key == null) {
+      updateMap.put(new Object(), update);
+    }
+    else {
+      // Move the replacement to the end, so that it runs after the updates that
+      // were posted before it.
+      updateMap.remove(key);
+      updateMap.put(key, update);
+    }
+    if (!scheduled) {
+      scheduled = true;
+      SwingUtilities.invokeLater(starter);
+    }
+  }
+
+  /**
+   * Runs the waiting updates now.  Must be called on the event dispatch thread.
+   */
+  void flush() {
+    List<Runnable> updateList;
+    synchronized (this) {
+      scheduled = false;
+      if (updateMap.isEmpty()) {
+        return;
+      }
+      updateList = new ArrayList<Runnable>(updateMap.values());
+      updateMap.clear();
+    }
+    for (int i = 0; i < updateList.size(); i++) {
+      updateList.get(i).run();
+    }
+    if (listener != null) {
+      listener.run();
+    }
+  }
+}
@@ -13,6 +13,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Future;
 
 import javax.swing.BoxLayout;
 import javax.swing.JFileChooser;
@@ -35,6 +36,7 @@ import etomo.type.Run3dmodMenuOptions;
 import etomo.type.SectionTableRowData;
 import etomo.util.InvalidParameterException;
 import etomo.util.MRCHeader;
+import etomo.util.ParallelHeaderReader;
 import etomo.util.Utilities;
 
 /**
@@ -499,9 +501,31 @@ final class SectionTablePanel implements ContextMenu, Expandable,
   private BinnedXY3dmodButton b3bOpen3dmod;
 
   private int mode = JoinDialog.SETUP_MODE;
-  private boolean rotating = false;
   private final JoinState state;
   private File lastLocation = null;
+  // Added sections whose headers are being read in the background, in the order they
+  // were added.
+  private final List<PendingSection> pendingSectionList = new ArrayList<PendingSection>();
+  private final Runnable headerReadListener = new Runnable() {
+    public void run() {
+      processPendingSections(false);
+    }
+  };
+  private boolean processingPendingSections = false;
+  // Sections that are being rotated or are waiting to be rotated.  Their rows stay in
+  // the table.
+  private final RotationQueue<SectionTableRow> rotationQueue =
+      new RotationQueue<SectionTableRow>(new RotationQueue.Rotator<SectionTableRow>() {
+        public boolean contains(final SectionTableRow row) {
+          return rowList.indexOf(row) != -1;
+        }
+
+        public void rotate(final File tomogram) {
+          btnAddSection.setEnabled(false);
+          btnInvertTable.setEnabled(false);
+          manager.rotx(tomogram, joinDialog.getWorkingDir(), null);
+        }
+      });
 
   /**
    * Creates the panel and table.
@@ -821,6 +845,16 @@ final class SectionTablePanel implements ContextMenu, Expandable,
     setMode();
   }
 
+  /**
+   * Keeps track of the highlighted row, so that only one row is highlighted.
+   * @param row
+   * @param highlight
+   */
+  void msgRowHighlighted(final SectionTableRow row, final boolean highlight) {
+    rowList.msgRowHighlighted(row, highlight);
+    setMode();
+  }
+
   /**
    * enable buttons made on the current mode parameter
    *
@@ -848,7 +882,7 @@ final class SectionTablePanel implements ContextMenu, Expandable,
     case JoinDialog.SETUP_MODE:
     case JoinDialog.SAMPLE_NOT_PRODUCED_MODE:
     case JoinDialog.CHANGING_SAMPLE_MODE:
-      if (!rotating) {
+      if (!rotationQueue.isRotating()) {
         btnAddSection.setEnabled(true);
         btnInvertTable.setEnabled(true);
       }
@@ -919,9 +953,17 @@ final class SectionTablePanel implements ContextMenu, Expandable,
     return layout;
   }
 
+  /**
+   * Called when a rotation fails.  The section that was being rotated is removed, and
+   * the next rotation is started.
+   */
   void enableAddSection() {
-    rotating = false;
+    SectionTableRow row = rotationQueue.msgRotationDone();
+    if (row != null) {
+      deleteSection(rowList.indexOf(row));
+    }
     setMode();
+    rotationQueue.rotateNext();
   }
 
   boolean equals(final ConstJoinMetaData metaData) {
@@ -1000,6 +1042,10 @@ final class SectionTablePanel implements ContextMenu, Expandable,
     manager.getMainPanel().repaint();
   }
 
+  /**
+   * Adds the chosen sections to the table right away and reads their headers in the
+   * background.  The headers are checked in processPendingSections.
+   */
   private void addSection() {
     StringBuffer invalidBuffer = new StringBuffer();
     if (!Utilities.isValidFile(joinDialog.getWorkingDir(),
@@ -1011,42 +1057,99 @@ final class SectionTablePanel implements ContextMenu, Expandable,
     //  Open up the file chooser in the working directory
     FileChooser chooser = new FileChooser(lastLocation == null ? new File(manager
         .getPropertyUserDir()) : lastLocation);
-    chooser.setDialogTitle("Choose a section");
+    chooser.setDialogTitle("Choose sections");
     TomogramFileFilter tomogramFilter = new TomogramFileFilter();
     chooser.setFileFilter(tomogramFilter);
     chooser.setPreferredSize(FixedDim.fileChooser);
     chooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
+    chooser.setMultiSelectionEnabled(true);
     int returnVal = chooser.showOpenDialog(pnlBorder.getContainer());
     if (returnVal == JFileChooser.APPROVE_OPTION) {
-      File tomogram = chooser.getSelectedFile();
-      lastLocation = tomogram.getParentFile();
-      if (isDuplicate(tomogram)) {
-        return;
+      File[] tomograms = chooser.getSelectedFiles();
+      if (tomograms == null || tomograms.length == 0) {
+        tomograms = new File[] { chooser.getSelectedFile() };
       }
-      MRCHeader header = MRCHeader.getInstance(manager.getPropertyUserDir(), tomogram
-          .getAbsolutePath(), AxisID.ONLY);
-      if (!readHeader(header)) {
-        return;
+      lastLocation = tomograms[0].getParentFile();
+      for (int i = 0; i < tomograms.length; i++) {
+        File tomogram = tomograms[i];
+        if (isDuplicate(tomogram)) {
+          continue;
+        }
+        SectionTableRow row = addSection(tomogram, false);
+        if (row != null) {
+          pendingSectionList.add(new PendingSection(row, tomogram, ParallelHeaderReader
+              .read(manager, manager.getPropertyUserDir(), tomogram,
+                  headerReadListener)));
+        }
       }
-      rotating = true;
-      btnAddSection.setEnabled(false);
-      btnInvertTable.setEnabled(false);
-      if (header.getNRows() < header.getNSections()) {
-        //The tomogram may not be flipped
-        //Ask user if can rotate the tomogram
-        String msgFlipped[] = {
-            "It looks like you didn't rotate the tomogram in Post Processing",
-            "bacause the tomogram is thicker in Z then it is long in Y.", flipWarning[0],
-            flipWarning[1],
-            "Should Etomo use the clip rotx command to rotate -90 degrees in X?" };
-        if (uiHarness.openYesNoDialog(manager, msgFlipped, AxisID.ONLY)) {
-          manager.rotx(tomogram, joinDialog.getWorkingDir(), null);
+      uiHarness.pack(AxisID.ONLY, manager);
+    }
+  }
+
+  /**
+   * Checks the headers of added sections that have been read, in the order that the
+   * sections were added.  A section is removed if the user doesn't want it.  A
+   * section that is going to be rotated is queued and keeps its place in the table.
+   * @param wait - when true, wait for all of the headers to be read
+   */
+  private void processPendingSections(final boolean wait) {
+    // Dialogs let other header read messages run.
+    if (processingPendingSections) {
+      return;
+    }
+    processingPendingSections = true;
+    try {
+      while (!pendingSectionList.isEmpty()) {
+        PendingSection pendingSection = pendingSectionList.get(0);
+        if (!wait && !pendingSection.future.isDone()) {
           return;
         }
+        pendingSectionList.remove(0);
+        processPendingSection(pendingSection);
       }
-      addSection(tomogram);
-      uiHarness.pack(AxisID.ONLY, manager);
     }
+    finally {
+      processingPendingSections = false;
+    }
+  }
+
+  private void processPendingSection(final PendingSection pendingSection) {
+    SectionTableRow row = pendingSection.row;
+    if (rowList.indexOf(row) == -1) {
+      // deleted by the user
+      return;
+    }
+    File tomogram = pendingSection.tomogram;
+    // The header was read in the background, so this just returns the result.  A
+    // failed read is done again here so that the error can be reported.
+    MRCHeader header = MRCHeader.getInstance(manager.getPropertyUserDir(), tomogram
+        .getAbsolutePath(), AxisID.ONLY);
+    if (!readHeader(header)) {
+      deleteSection(rowList.indexOf(row));
+      return;
+    }
+    if (header.getNRows() < header.getNSections()) {
+      //The tomogram may not be flipped
+      //Ask user if can rotate the tomogram
+      String msgFlipped[] = {
+          "It looks like you didn't rotate " + tomogram.getName() + " in Post Processing",
+          "bacause the tomogram is thicker in Z then it is long in Y.", flipWarning[0],
+          flipWarning[1],
+          "Should Etomo use the clip rotx command to rotate -90 degrees in X?" };
+      if (uiHarness.openYesNoDialog(manager, msgFlipped, AxisID.ONLY)) {
+        rotationQueue.add(row, tomogram);
+        return;
+      }
+    }
+    row.msgSetupHeaderRead(header);
+    joinDialog.msgRowChange();
+  }
+
+  /**
+   * Waits for the headers of added sections, so that the table is complete.
+   */
+  private void finishPendingSections() {
+    processPendingSections(true);
   }
 
   private boolean readHeader(final MRCHeader header) {
@@ -1104,23 +1207,45 @@ final class SectionTablePanel implements ContextMenu, Expandable,
     return false;
   }
 
+  /**
+   * Called when a rotation is done.  The rotated section replaces the original one in
+   * its row.  It is added to the end of the table if that row has been deleted.
+   * @param tomogram - the rotated section
+   */
   void addSection(final File tomogram) {
-    rotating = false;
+    SectionTableRow row = rotationQueue.msgRotationDone();
+    if (row != null) {
+      row.msgSectionRotated(tomogram);
+      setMode();
+      joinDialog.msgRowChange();
+      manager.getMainPanel().repaint();
+    }
+    else {
+      addSection(tomogram, true);
+    }
+    rotationQueue.rotateNext();
+  }
+
+  /**
+   * @param readHeader - false if the header is being read in the background
+   * @return the new row, or null if the section wasn't added
+   */
+  private SectionTableRow addSection(final File tomogram, final boolean readHeader) {
     setMode();
     if (!tomogram.exists()) {
       uiHarness.openMessageDialog(manager, tomogram.getAbsolutePath()
           + " does not exist.", "File Error", AxisID.ONLY);
-      return;
+      return null;
     }
     if (!tomogram.isFile()) {
       uiHarness.openMessageDialog(manager,
           tomogram.getAbsolutePath() + " is not a file.", "File Error", AxisID.ONLY);
-      return;
+      return null;
     }
     //Sections are only added in the Setup tab, so assume that the join
     //expand button is contracted.
     int index = rowList.add(manager, this, tomogram, button1ExpandSections.isExpanded(),
-        mode);
+        mode, readHeader);
     viewport.adjustViewport(index);
     rowList.removeRows();
     rowList.displayRows(pnlTable, viewport);
@@ -1128,6 +1253,7 @@ final class SectionTablePanel implements ContextMenu, Expandable,
     joinDialog.setNumSections(rowList.size());
     joinDialog.msgRowChange();
     manager.getMainPanel().repaint();
+    return rowList.get(index);
   }
 
   /**
@@ -1143,6 +1269,14 @@ final class SectionTablePanel implements ContextMenu, Expandable,
         + rowList.getSetupSectionText(index) + "?", AxisID.ONLY)) {
       return;
     }
+    deleteSection(index);
+  }
+
+  /**
+   * Remove the row at index without asking.
+   * @param index
+   */
+  private void deleteSection(final int index) {
     //  rowList.removeRows(index);
     rowList.deleteSection(index);
     rowList.removeRows();
@@ -1152,12 +1286,14 @@ final class SectionTablePanel implements ContextMenu, Expandable,
     state.deleteRow(index);
     rowList.configureRows();
     joinDialog.setNumSections(rowList.size());
-    enableRowButtons(-1);
+    enableRowButtons(rowList.getHighlightedRowIndex());
     joinDialog.msgRowChange();
     manager.getMainPanel().repaint();
   }
 
   void deleteSections() {
+    pendingSectionList.clear();
+    rotationQueue.clear();
     rowList.deleteSections();
     manager.getMainPanel().repaint();
   }
@@ -1205,11 +1341,20 @@ final class SectionTablePanel implements ContextMenu, Expandable,
   }
 
   boolean getMetaData(JoinMetaData metaData) {
+    finishPendingSections();
     metaData.resetSectionTableData();
     return rowList.getMetaData(metaData, manager);
   }
 
   boolean validateMakejoincom() {
+    finishPendingSections();
+    File rotatingSection = rotationQueue.getWaitingSection();
+    if (rotatingSection != null) {
+      uiHarness.openMessageDialog(manager, "Please wait until "
+          + rotatingSection.getName() + " has been rotated.", "Entry Error",
+          AxisID.ONLY);
+      return false;
+    }
     return rowList.validateMakejoincom();
   }
 
@@ -1245,14 +1390,17 @@ final class SectionTablePanel implements ContextMenu, Expandable,
   }
 
   int getXMax() {
+    finishPendingSections();
     return rowList.getXMax();
   }
 
   int getYMax() {
+    finishPendingSections();
     return rowList.getYMax();
   }
 
   int getZMax() {
+    finishPendingSections();
     return rowList.getZMax();
   }
 
@@ -1319,6 +1467,7 @@ final class SectionTablePanel implements ContextMenu, Expandable,
     if (rowList.size() == 0) {
       return;
     }
+    finishPendingSections();
     //synchronize setup columns to join columns when the user gets to the join
     //tab or the model tab
     if (curTab == JoinDialog.Tab.JOIN || curTab == JoinDialog.Tab.REJOIN
@@ -1422,6 +1571,8 @@ final class SectionTablePanel implements ContextMenu, Expandable,
 
     private final BaseManager manager;
 
+    private SectionTableRow highlightedRow = null;
+
     private RowList(BaseManager manager) {
       this.manager = manager;
     }
@@ -1460,12 +1611,32 @@ final class SectionTablePanel implements ContextMenu, Expandable,
     }
 
     private int getHighlightedRowIndex() {
-      for (int i = 0; i < list.size(); i++) {
-        if (get(i).isHighlighted()) {
-          return i;
+      if (highlightedRow == null) {
+        return -1;
+      }
+      return list.indexOf(highlightedRow);
+    }
+
+    /**
+     * Turns off the highlight in the previously highlighted row.
+     * @param row
+     * @param highlight
+     */
+    private void msgRowHighlighted(final SectionTableRow row, final boolean highlight) {
+      if (highlight) {
+        SectionTableRow oldRow = highlightedRow;
+        highlightedRow = row;
+        if (oldRow != null && oldRow != row) {
+          oldRow.setHighlighterSelected(false);
         }
       }
-      return -1;
+      else if (row == highlightedRow) {
+        highlightedRow = null;
+      }
+    }
+
+    private int indexOf(final SectionTableRow row) {
+      return list.indexOf(row);
     }
 
     private int setInverted(final JoinInfoFile joinInfoFile) throws LogFile.LockException {
@@ -1572,12 +1743,14 @@ final class SectionTablePanel implements ContextMenu, Expandable,
      * @param tomogram
      * @param expanded
      * @param mode
+     * @param readHeader
      * @return The index of the new row
      */
     private int add(final JoinManager manager, final SectionTablePanel table,
-        final File tomogram, final boolean expanded, final int mode) {
+        final File tomogram, final boolean expanded, final int mode,
+        final boolean readHeader) {
       SectionTableRow row = new SectionTableRow(manager, table, list.size() + 1,
-          tomogram, expanded);
+          tomogram, expanded, readHeader);
       row.setMode(mode);
       row.setNames();
       list.add(row);
@@ -1601,15 +1774,19 @@ final class SectionTablePanel implements ContextMenu, Expandable,
     private void deleteSection(final int index) {
       SectionTableRow row = remove(index);
       if (row != null) {
-        row.remove();
+        if (row == highlightedRow) {
+          highlightedRow = null;
+        }
+        row.releaseCells();
         row.removeImod();
       }
     }
 
     private void deleteSections() {
+      highlightedRow = null;
       while (list.size() > 0) {
         SectionTableRow row = remove(0);
-        row.remove();
+        row.releaseCells();
       }
     }
 
@@ -1763,6 +1940,22 @@ final class SectionTablePanel implements ContextMenu, Expandable,
     }
   }
 
+  /**
+   * An added section whose header is being read.
+   */
+  private static final class PendingSection {
+    private final SectionTableRow row;
+    private final File tomogram;
+    private final Future<MRCHeader> future;
+
+    private PendingSection(final SectionTableRow row, final File tomogram,
+        final Future<MRCHeader> future) {
+      this.row = row;
+      this.tomogram = tomogram;
+      this.future = future;
+    }
+  }
+
   private static final class SectionTableActionListener implements ActionListener {
 
     private final SectionTablePanel adaptee;
@@ -13,8 +13,10 @@ import etomo.type.ConstEtomoNumber;
 import etomo.type.ConstSectionTableRowData;
 import etomo.type.Run3dmodMenuOptions;
 import etomo.type.SectionTableRowData;
+import etomo.type.EtomoNumber;
 import etomo.type.SlicerAngles;
 import etomo.util.DatasetFiles;
+import etomo.util.MRCHeader;
 
 /**
  * <p>Description: Manages the fields, buttons, state, and data of one row of
@@ -254,36 +256,39 @@ public final class SectionTableRow implements Highlightable {
 
   static final String INVERTED_WARNING = "The handedness of structures will change in inverted sections.";
 
-  private final FieldCell setupSection = FieldCell.getIneditableInstance();
-  private final FieldCell joinSection = FieldCell.getIneditableInstance();
-  private final FieldCell sampleBottomStart = FieldCell.getEditableInstance();
-  private final FieldCell sampleBottomEnd = FieldCell.getEditableInstance();
-  private final FieldCell sampleTopStart = FieldCell.getEditableInstance();
-  private final FieldCell sampleTopEnd = FieldCell.getEditableInstance();
-  private final FieldCell slicesInSample = FieldCell.getIneditableInstance();
-  private final HeaderCell currentChunk = new HeaderCell();
-  private final FieldCell referenceSection = FieldCell.getIneditableInstance();
-  private final FieldCell currentSection = FieldCell.getIneditableInstance();
-  private final FieldCell setupFinalStart = FieldCell.getEditableInstance();
-  private final FieldCell setupFinalEnd = FieldCell.getEditableInstance();
-  private final FieldCell joinFinalStart = FieldCell.getEditableInstance();
-  private final FieldCell joinFinalEnd = FieldCell.getEditableInstance();
-  private final FieldCell rotationAngleX = FieldCell.getEditableInstance();
-  private final FieldCell rotationAngleY = FieldCell.getEditableInstance();
-  private final FieldCell rotationAngleZ = FieldCell.getEditableInstance();
+  // The values of the editable fields.  The Swing cells are only created while the row
+  // is in the viewport.
+  private final Field sampleBottomStart = new Field();
+  private final Field sampleBottomEnd = new Field();
+  private final Field sampleTopStart = new Field();
+  private final Field sampleTopEnd = new Field();
+  private final Field setupFinalStart = new Field();
+  private final Field setupFinalEnd = new Field();
+  private final Field joinFinalStart = new Field();
+  private final Field joinFinalEnd = new Field();
+  private final Field rotationAngleX = new Field();
+  private final Field rotationAngleY = new Field();
+  private final Field rotationAngleZ = new Field();
 
   private final JoinManager manager;
   private final SectionTablePanel table;
-  private final HighlighterButton highlighterButton;
 
   private SectionTableRowData data;
-  private final HeaderCell rowNumber = new HeaderCell(
-      (int) (30 * UIParameters.INSTANCE.getFontSizeAdjustment()));
   private int imodIndex = -1;
   private int imodRotIndex = -1;
   private boolean sectionExpanded = false;
   private boolean valid = true;
   private boolean inverted = false;
+  private boolean highlighted = false;
+  private boolean joinFinalStartHighlight = false;
+  private boolean joinFinalEndHighlight = false;
+  // Align tab values, set by setupCurTab.
+  private String slicesInSample = "";
+  private int slicesInSampleEnd = EtomoNumber.INTEGER_NULL_VALUE;
+  private String currentChunk = "";
+  private String referenceSection = "";
+  private String currentSection = "";
+  private Cells cells = null;
 
   /**
    * Create colors, fields, and buttons.  Add the row to the table
@@ -292,11 +297,24 @@ public final class SectionTableRow implements Highlightable {
    */
   public SectionTableRow(JoinManager manager, SectionTablePanel table, int rowNumber,
       File tomogram, boolean sectionExpanded) {
+    this(manager, table, rowNumber, tomogram, sectionExpanded, true);
+  }
+
+  /**
+   * @param readHeader - false if the header of the tomogram is being read in the
+   * background.  Call msgSetupHeaderRead when it has been read.
+   */
+  SectionTableRow(JoinManager manager, SectionTablePanel table, int rowNumber,
+      File tomogram, boolean sectionExpanded, boolean readHeader) {
     this(manager, table, sectionExpanded);
     data = new SectionTableRowData(manager, rowNumber);
-    data.setSetupSection(tomogram);
-    displayData(rowNumber);
-    setToolTipText();
+    if (readHeader) {
+      data.setSetupSection(tomogram);
+    }
+    else {
+      data.setSetupSectionFile(tomogram);
+    }
+    displayData();
   }
 
   public SectionTableRow(JoinManager manager, SectionTablePanel table,
@@ -304,8 +322,7 @@ public final class SectionTableRow implements Highlightable {
     this(manager, table, sectionExpanded);
     this.data = new SectionTableRowData(manager, data);
     this.sectionExpanded = sectionExpanded;
-    displayData(data.getRowNumber().getInt());
-    setToolTipText();
+    displayData();
   }
 
   private SectionTableRow(JoinManager manager, SectionTablePanel table,
@@ -313,32 +330,16 @@ public final class SectionTableRow implements Highlightable {
     this.manager = manager;
     this.table = table;
     this.sectionExpanded = sectionExpanded;
-    highlighterButton = HighlighterButton.getInstance(this, table);
   }
 
   public String toString() {
-    return "[" + setupSection + "]";
+    return "[" + getSetupSectionText() + "]";
   }
 
   void setNames() {
-    sampleBottomStart.setHeaders(SectionTablePanel.LABEL, rowNumber,
-        table.getSampleHeaderCell());
-    sampleBottomEnd.setHeaders(SectionTablePanel.LABEL, rowNumber,
-        table.getSampleHeaderCell());
-    sampleTopStart.setHeaders(SectionTablePanel.LABEL, rowNumber,
-        table.getSampleHeaderCell());
-    sampleTopEnd.setHeaders(SectionTablePanel.LABEL, rowNumber,
-        table.getSampleHeaderCell());
-    rotationAngleX.setHeaders(SectionTablePanel.LABEL, rowNumber,
-        table.getRotationHeaderCell());
-    rotationAngleY.setHeaders(SectionTablePanel.LABEL, rowNumber,
-        table.getRotationHeaderCell());
-    rotationAngleZ.setHeaders(SectionTablePanel.LABEL, rowNumber,
-        table.getRotationHeaderCell());
-    joinFinalStart.setHeaders(SectionTablePanel.LABEL, rowNumber,
-        table.getJoinFinalHeaderCell());
-    joinFinalEnd.setHeaders(SectionTablePanel.LABEL, rowNumber,
-        table.getJoinFinalHeaderCell());
+    if (cells != null) {
+      cells.setNames();
+    }
   }
 
   void setInUse() {
@@ -365,29 +366,21 @@ public final class SectionTableRow implements Highlightable {
   }
 
   void remove() {
-    rowNumber.remove();
-    highlighterButton.remove();
-    setupSection.remove();
-    sampleBottomStart.remove();
-    sampleBottomEnd.remove();
-    sampleTopStart.remove();
-    sampleTopEnd.remove();
-    setupFinalStart.remove();
-    setupFinalEnd.remove();
-    joinFinalStart.remove();
-    joinFinalEnd.remove();
-    rotationAngleX.remove();
-    rotationAngleY.remove();
-    rotationAngleZ.remove();
-    // align
-    slicesInSample.remove();
-    currentChunk.remove();
-    referenceSection.remove();
-    currentSection.remove();
-    // join
-    joinSection.remove();
-    joinFinalStart.remove();
-    joinFinalEnd.remove();
+    if (cells != null) {
+      cells.remove();
+    }
+  }
+
+  /**
+   * Takes the row's cells out of the table and throws them away.  The values are
+   * kept.
+   */
+  void releaseCells() {
+    if (cells != null) {
+      cells.remove();
+      cells.release();
+      cells = null;
+    }
   }
 
   final void removeImod() {
@@ -396,16 +389,22 @@ public final class SectionTableRow implements Highlightable {
   }
 
   void setJoinFinalStartHighlight(boolean highlight) {
-    setCellHighlight(highlight, joinFinalStart);
+    joinFinalStartHighlight = highlight;
+    if (cells != null) {
+      setCellHighlight(highlight, cells.joinFinalStart);
+    }
   }
 
   void setJoinFinalEndHighlight(boolean highlight) {
-    setCellHighlight(highlight, joinFinalEnd);
+    joinFinalEndHighlight = highlight;
+    if (cells != null) {
+      setCellHighlight(highlight, cells.joinFinalEnd);
+    }
   }
 
   private void setCellHighlight(boolean highlight, InputCell cell) {
     // avoid turning off highlighting in a highlighted row
-    if (!highlight && highlighterButton.isHighlighted()) {
+    if (!highlight && highlighted) {
       return;
     }
     cell.setHighlight(highlight);
@@ -443,25 +442,9 @@ public final class SectionTableRow implements Highlightable {
       return;
     }
     this.inverted = inverted.is();
-    String tooltip = null;
-    if (this.inverted) {
-      tooltip = "This section is inverted.  " + INVERTED_WARNING;
-    }
-    rowNumber.setWarning(this.inverted, tooltip);
-    setupSection.setWarning(this.inverted, tooltip);
-    joinSection.setWarning(this.inverted, tooltip);
-    sampleBottomStart.setWarning(this.inverted, tooltip);
-    sampleBottomEnd.setWarning(this.inverted, tooltip);
-    sampleTopStart.setWarning(this.inverted, tooltip);
-    sampleTopEnd.setWarning(this.inverted, tooltip);
-    slicesInSample.setWarning(this.inverted, tooltip);
-    setupFinalStart.setWarning(this.inverted, tooltip);
-    setupFinalEnd.setWarning(this.inverted, tooltip);
-    joinFinalStart.setWarning(this.inverted, tooltip);
-    joinFinalEnd.setWarning(this.inverted, tooltip);
-    rotationAngleX.setWarning(this.inverted, tooltip);
-    rotationAngleY.setWarning(this.inverted, tooltip);
-    rotationAngleZ.setWarning(this.inverted, tooltip);
+    if (cells != null) {
+      cells.setInverted();
+    }
   }
 
   private int totalInRange(ConstEtomoNumber start, ConstEtomoNumber end) {
@@ -476,7 +459,7 @@ public final class SectionTableRow implements Highlightable {
     if (prevRow == null) {
       return 0;
     }
-    return prevRow.slicesInSample.getEndValue();
+    return prevRow.slicesInSampleEnd;
   }
 
   private int getBottomSampleSlices(SectionTableRow prevRow) {
@@ -512,33 +495,48 @@ public final class SectionTableRow implements Highlightable {
       int topSampleSlices = getTopSampleSlices(totalRows, rowNum);
       int prevTopSampleSlices = getPrevTopSampleSlices(prevRow);
 
-      slicesInSample.setRangeValue(prevSampleEnd + 1, prevSampleEnd + bottomSampleSlices
-          + topSampleSlices);
+      slicesInSampleEnd = prevSampleEnd + bottomSampleSlices + topSampleSlices;
+      slicesInSample = getRangeText(prevSampleEnd + 1, slicesInSampleEnd);
       if (prevRow == null) {
-        currentChunk.setText("");
-        currentSection.setValue();
-        referenceSection.setValue();
+        currentChunk = "";
+        currentSection = "";
+        referenceSection = "";
       }
       else {
-        currentChunk.setText(rowNum.toString());
-        currentSection.setRangeValue(prevSampleEnd + 1, prevSampleEnd
+        currentChunk = rowNum.toString();
+        currentSection = getRangeText(prevSampleEnd + 1, prevSampleEnd
             + bottomSampleSlices);
-        referenceSection.setRangeValue(prevSampleEnd - prevTopSampleSlices + 1,
+        referenceSection = getRangeText(prevSampleEnd - prevTopSampleSlices + 1,
             prevSampleEnd);
       }
+      if (cells != null) {
+        cells.setAlignValues();
+      }
     }
   }
 
+  private static String getRangeText(int start, int end) {
+    return start + " - " + end;
+  }
+
   /**
    * Remove row from display.  Display the row if it is inside the viewer.
+   * Otherwise the row's cells are thrown away.
    * @param index
    * @param viewer
    * @param panel
    */
   void display(int index, JPanel panel, Viewport viewport) {
     if (!viewport.inViewport(index)) {
+      releaseCells();
       return;
     }
+    if (cells == null) {
+      cells = new Cells();
+      if (highlighted) {
+        cells.highlighterButton.setSelected(true);
+      }
+    }
     if (table.isSetupTab()) {
       addSetup(panel);
     }
@@ -559,23 +557,23 @@ public final class SectionTableRow implements Highlightable {
     constraints.weightx = 0.0;
     constraints.weighty = 0.1;
     constraints.gridwidth = 1;
-    rowNumber.add(panel, layout, constraints);
-    highlighterButton.add(panel, layout, constraints);
+    cells.rowNumber.add(panel, layout, constraints);
+    cells.highlighterButton.add(panel, layout, constraints);
     constraints.weightx = 0.2;
     constraints.gridwidth = 2;
-    setupSection.add(panel, layout, constraints);
+    cells.setupSection.add(panel, layout, constraints);
     constraints.weightx = 0.1;
     constraints.gridwidth = 1;
-    sampleBottomStart.add(panel, layout, constraints);
-    sampleBottomEnd.add(panel, layout, constraints);
-    sampleTopStart.add(panel, layout, constraints);
-    sampleTopEnd.add(panel, layout, constraints);
-    setupFinalStart.add(panel, layout, constraints);
-    setupFinalEnd.add(panel, layout, constraints);
-    rotationAngleX.add(panel, layout, constraints);
-    rotationAngleY.add(panel, layout, constraints);
+    cells.sampleBottomStart.add(panel, layout, constraints);
+    cells.sampleBottomEnd.add(panel, layout, constraints);
+    cells.sampleTopStart.add(panel, layout, constraints);
+    cells.sampleTopEnd.add(panel, layout, constraints);
+    cells.setupFinalStart.add(panel, layout, constraints);
+    cells.setupFinalEnd.add(panel, layout, constraints);
+    cells.rotationAngleX.add(panel, layout, constraints);
+    cells.rotationAngleY.add(panel, layout, constraints);
     constraints.gridwidth = GridBagConstraints.REMAINDER;
-    rotationAngleZ.add(panel, layout, constraints);
+    cells.rotationAngleZ.add(panel, layout, constraints);
   }
 
   private void addAlign(JPanel panel) {
@@ -584,17 +582,17 @@ public final class SectionTableRow implements Highlightable {
     constraints.weightx = 0.0;
     constraints.weighty = 0.1;
     constraints.gridwidth = 1;
-    rowNumber.add(panel, layout, constraints);
+    cells.rowNumber.add(panel, layout, constraints);
     constraints.weightx = 0.2;
     constraints.gridwidth = 2;
-    setupSection.add(panel, layout, constraints);
+    cells.setupSection.add(panel, layout, constraints);
     constraints.weightx = 0.1;
     constraints.gridwidth = 1;
-    slicesInSample.add(panel, layout, constraints);
-    currentChunk.add(panel, layout, constraints);
-    referenceSection.add(panel, layout, constraints);
+    cells.slicesInSample.add(panel, layout, constraints);
+    cells.currentChunk.add(panel, layout, constraints);
+    cells.referenceSection.add(panel, layout, constraints);
     constraints.gridwidth = GridBagConstraints.REMAINDER;
-    currentSection.add(panel, layout, constraints);
+    cells.currentSection.add(panel, layout, constraints);
   }
 
   private void addJoin(JPanel panel) {
@@ -603,16 +601,16 @@ public final class SectionTableRow implements Highlightable {
     constraints.weightx = 0.0;
     constraints.weighty = 0.1;
     constraints.gridwidth = 1;
-    rowNumber.add(panel, layout, constraints);
-    highlighterButton.add(panel, layout, constraints);
+    cells.rowNumber.add(panel, layout, constraints);
+    cells.highlighterButton.add(panel, layout, constraints);
     constraints.weightx = 0.2;
     constraints.gridwidth = 2;
-    joinSection.add(panel, layout, constraints);
+    cells.joinSection.add(panel, layout, constraints);
     constraints.weightx = 0.1;
     constraints.gridwidth = 1;
-    joinFinalStart.add(panel, layout, constraints);
+    cells.joinFinalStart.add(panel, layout, constraints);
     constraints.gridwidth = GridBagConstraints.REMAINDER;
-    joinFinalEnd.add(panel, layout, constraints);
+    cells.joinFinalEnd.add(panel, layout, constraints);
     joinFinalStart.setEditable(true);
     joinFinalEnd.setEditable(true);
   }
@@ -623,11 +621,6 @@ public final class SectionTableRow implements Highlightable {
     joinFinalEnd.setEditable(false);
   }
 
-  private void displayData(int rowNumber) {
-    this.rowNumber.setText(String.valueOf(rowNumber));
-    displayData();
-  }
-
   /**
    * Copy field from data to the screen.
    * Copy all fields stored in data that can be displayed on the screen
@@ -649,6 +642,33 @@ public final class SectionTableRow implements Highlightable {
     setInverted(data.getInverted());
   }
 
+  /**
+   * Sets the maximum values from the setup section header, which has been read in the
+   * background.  The final end is filled in if it is still showing the old default.
+   * @param header
+   */
+  void msgSetupHeaderRead(MRCHeader header) {
+    String oldSetupFinalEnd = data.getSetupFinalEnd().toString();
+    data.setSetupHeader(header);
+    if (setupFinalEnd.getValue().equals(oldSetupFinalEnd)) {
+      setupFinalEnd.setValue(data.getSetupFinalEnd().toString());
+    }
+  }
+
+  /**
+   * Replaces the setup section with its rotated version, keeping the row where it is.
+   * Reads the header of the rotated section.
+   * @param rotatedTomogram
+   */
+  void msgSectionRotated(File rotatedTomogram) {
+    String oldSetupFinalEnd = data.getSetupFinalEnd().toString();
+    data.setSetupSection(rotatedTomogram);
+    setSectionText();
+    if (setupFinalEnd.getValue().equals(oldSetupFinalEnd)) {
+      setupFinalEnd.setValue(data.getSetupFinalEnd().toString());
+    }
+  }
+
   /**
    * Copy data from screen to data.
    * Copies all fields that can be modified on the screen and are stored in data
@@ -660,7 +680,7 @@ public final class SectionTableRow implements Highlightable {
   private boolean retrieveData(boolean displayErrorMessage) {
     data.setInverted(inverted);
     valid = true;
-    String errorInfo = "\nInvalid number in section " + rowNumber.getText();
+    String errorInfo = "\nInvalid number in section " + getRowNumberText();
     String errorTitle = "Invalid Number";
     String errorMessage = data.setSampleBottomStart(sampleBottomStart.getValue())
         .validate(null);
@@ -732,9 +752,13 @@ public final class SectionTableRow implements Highlightable {
     return valid;
   }
 
+  private String getRowNumberText() {
+    return data.getRowNumber().toString();
+  }
+
   boolean validateMakejoincom(String maxRow) {
     retrieveData(false);
-    String rowNumberText = rowNumber.getText();
+    String rowNumberText = getRowNumberText();
     if (!validate(data.getSampleBottomStart(), data.getSampleBottomEnd(), true,
         rowNumberText.equals("1"))) {
       return false;
@@ -754,7 +778,7 @@ public final class SectionTableRow implements Highlightable {
     if (start.isNull() && !end.isNull()) {
       UIHarness.INSTANCE.openMessageDialog(manager, start.getDescription()
           + " cannot be empty when " + end.getDescription()
-          + " has been entered.  Invalid numbers in section " + rowNumber.getText(),
+          + " has been entered.  Invalid numbers in section " + getRowNumberText(),
           "Entry Error", AxisID.ONLY);
       valid = false;
       return valid;
@@ -762,7 +786,7 @@ public final class SectionTableRow implements Highlightable {
     if (!start.isNull() && end.isNull()) {
       UIHarness.INSTANCE.openMessageDialog(manager, end.getDescription()
           + " cannot be empty when " + start.getDescription()
-          + " has been entered.  Invalid numbers in section " + rowNumber.getText(),
+          + " has been entered.  Invalid numbers in section " + getRowNumberText(),
           "Entry Error", AxisID.ONLY);
       valid = false;
       return valid;
@@ -778,7 +802,7 @@ public final class SectionTableRow implements Highlightable {
       if (start.getInt() > end.getInt()) {
         UIHarness.INSTANCE.openMessageDialog(manager, start.getDescription()
             + " must be less then or equal to " + start.getDescription()
-            + ".  Invalid numbers in section " + rowNumber.getText(), "Entry Error",
+            + ".  Invalid numbers in section " + getRowNumberText(), "Entry Error",
             AxisID.ONLY);
         valid = false;
         return valid;
@@ -787,14 +811,14 @@ public final class SectionTableRow implements Highlightable {
     if (!optional) {
       if (start.isNull()) {
         UIHarness.INSTANCE.openMessageDialog(manager, start.getDescription()
-            + " is required in section " + rowNumber.getText(), "Entry Error",
+            + " is required in section " + getRowNumberText(), "Entry Error",
             AxisID.ONLY);
         valid = false;
         return valid;
       }
       if (end.isNull()) {
         UIHarness.INSTANCE.openMessageDialog(manager, end.getDescription()
-            + " is required in section " + rowNumber.getText(), "Entry Error",
+            + " is required in section " + getRowNumberText(), "Entry Error",
             AxisID.ONLY);
         valid = false;
         return valid;
@@ -819,25 +843,25 @@ public final class SectionTableRow implements Highlightable {
   }
 
   private void setSectionText() {
+    if (cells == null) {
+      return;
+    }
     File section = data.getSetupSection();
     if (section != null) {
-      if (sectionExpanded) {
-        setupSection.setValue(section.getAbsolutePath());
-      }
-      else {
-        setupSection.setValue(section.getName());
-      }
+      cells.setupSection.setValue(getSectionText(section));
     }
     section = data.getJoinSection();
     if (section == null) {
       return;
     }
+    cells.joinSection.setValue(getSectionText(section));
+  }
+
+  private String getSectionText(File section) {
     if (sectionExpanded) {
-      joinSection.setValue(section.getAbsolutePath());
-    }
-    else {
-      joinSection.setValue(section.getName());
+      return section.getAbsolutePath();
     }
+    return section.getName();
   }
 
   void swapBottomTop() {
@@ -853,7 +877,9 @@ public final class SectionTableRow implements Highlightable {
 
   void setRowNumber(int rowNumber) {
     data.setRowNumber(rowNumber);
-    this.rowNumber.setText(String.valueOf(rowNumber));
+    if (cells != null) {
+      cells.rowNumber.setText(String.valueOf(rowNumber));
+    }
   }
 
   /* void setImodIndex(int imodIndex) { this.imodIndex = imodIndex; } void
@@ -869,25 +895,25 @@ public final class SectionTableRow implements Highlightable {
    * on whether the highlighter button is selected.
    *
    */
+  void setHighlighterSelected(final boolean select) {
+    if (cells != null) {
+      cells.highlighterButton.setSelected(select);
+    }
+    else {
+      highlight(select);
+    }
+  }
+
   public void highlight(boolean highlight) {
-    setupSection.setHighlight(highlight);
-    joinSection.setHighlight(highlight);
-    sampleBottomStart.setHighlight(highlight);
-    sampleBottomEnd.setHighlight(highlight);
-    sampleTopStart.setHighlight(highlight);
-    sampleTopEnd.setHighlight(highlight);
-    slicesInSample.setHighlight(highlight);
-    setupFinalStart.setHighlight(highlight);
-    setupFinalEnd.setHighlight(highlight);
-    joinFinalStart.setHighlight(highlight);
-    joinFinalEnd.setHighlight(highlight);
-    rotationAngleX.setHighlight(highlight);
-    rotationAngleY.setHighlight(highlight);
-    rotationAngleZ.setHighlight(highlight);
+    highlighted = highlight;
+    if (cells != null) {
+      cells.highlight(highlight);
+    }
+    table.msgRowHighlighted(this, highlight);
   }
 
   boolean isHighlighted() {
-    return highlighterButton.isHighlighted();
+    return highlighted;
   }
 
   File getSetupSectionFile() {
@@ -899,7 +925,11 @@ public final class SectionTableRow implements Highlightable {
   }
 
   String getSetupSectionText() {
-    return setupSection.getValue();
+    File section = data.getSetupSection();
+    if (section == null) {
+      return "";
+    }
+    return getSectionText(section);
   }
 
   int getXMax() {
@@ -1006,8 +1036,235 @@ public final class SectionTableRow implements Highlightable {
     displayData();
   }
 
-  private void setToolTipText() {
-    highlighterButton.setToolTipText("Press to select the section.");
-    currentChunk.setToolTipText("The number of the chunk in Midas.");
+  /**
+   * The value and state of an editable field.  Uses the cell when the row has cells.
+   */
+  private static final class Field {
+    private String value = "";
+    private boolean editable = true;
+    private boolean inUse = true;
+    private FieldCell cell = null;
+
+    private FieldCell createCell() {
+      cell = FieldCell.getEditableInstance();
+      cell.setValue(value);
+      cell.setEditable(editable);
+      cell.setInUse(inUse);
+      return cell;
+    }
+
+    /**
+     * Keeps the value of the cell and lets go of the cell.
+     */
+    private void releaseCell() {
+      value = cell.getValue();
+      cell = null;
+    }
+
+    private String getValue() {
+      if (cell != null) {
+        return cell.getValue();
+      }
+      return value;
+    }
+
+    private void setValue(final String value) {
+      if (cell != null) {
+        cell.setValue(value);
+      }
+      else {
+        this.value = value;
+      }
+    }
+
+    private void setEditable(final boolean editable) {
+      this.editable = editable;
+      if (cell != null) {
+        cell.setEditable(editable);
+      }
+    }
+
+    private void setInUse(final boolean inUse) {
+      this.inUse = inUse;
+      if (cell != null) {
+        cell.setInUse(inUse);
+      }
+    }
+  }
+
+  /**
+   * The Swing cells of a row that is in the viewport.
+   */
+  private final class Cells {
+    private final HeaderCell rowNumber = new HeaderCell(
+        (int) (30 * UIParameters.INSTANCE.getFontSizeAdjustment()));
+    // The table keeps track of the highlighted row, so the button isn't put in a group.
+    private final HighlighterButton highlighterButton = HighlighterButton.getInstance(
+        SectionTableRow.this, null);
+    private final FieldCell setupSection = FieldCell.getIneditableInstance();
+    private final FieldCell joinSection = FieldCell.getIneditableInstance();
+    private final FieldCell sampleBottomStart = SectionTableRow.this.sampleBottomStart
+        .createCell();
+    private final FieldCell sampleBottomEnd = SectionTableRow.this.sampleBottomEnd
+        .createCell();
+    private final FieldCell sampleTopStart = SectionTableRow.this.sampleTopStart
+        .createCell();
+    private final FieldCell sampleTopEnd = SectionTableRow.this.sampleTopEnd.createCell();
+    private final FieldCell slicesInSample = FieldCell.getIneditableInstance();
+    private final HeaderCell currentChunk = new HeaderCell();
+    private final FieldCell referenceSection = FieldCell.getIneditableInstance();
+    private final FieldCell currentSection = FieldCell.getIneditableInstance();
+    private final FieldCell setupFinalStart = SectionTableRow.this.setupFinalStart
+        .createCell();
+    private final FieldCell setupFinalEnd = SectionTableRow.this.setupFinalEnd
+        .createCell();
+    private final FieldCell joinFinalStart = SectionTableRow.this.joinFinalStart
+        .createCell();
+    private final FieldCell joinFinalEnd = SectionTableRow.this.joinFinalEnd.createCell();
+    private final FieldCell rotationAngleX = SectionTableRow.this.rotationAngleX
+        .createCell();
+    private final FieldCell rotationAngleY = SectionTableRow.this.rotationAngleY
+        .createCell();
+    private final FieldCell rotationAngleZ = SectionTableRow.this.rotationAngleZ
+        .createCell();
+
+    private Cells() {
+      rowNumber.setText(getRowNumberText());
+      if (data.getSetupSection() != null) {
+        setupSection.setValue(getSectionText(data.getSetupSection()));
+      }
+      if (data.getJoinSection() != null) {
+        joinSection.setValue(getSectionText(data.getJoinSection()));
+      }
+      setAlignValues();
+      highlighterButton.setToolTipText("Press to select the section.");
+      currentChunk.setToolTipText("The number of the chunk in Midas.");
+      setNames();
+      setInverted();
+      if (joinFinalStartHighlight) {
+        joinFinalStart.setHighlight(true);
+      }
+      if (joinFinalEndHighlight) {
+        joinFinalEnd.setHighlight(true);
+      }
+    }
+
+    private void setNames() {
+      sampleBottomStart.setHeaders(SectionTablePanel.LABEL, rowNumber,
+          table.getSampleHeaderCell());
+      sampleBottomEnd.setHeaders(SectionTablePanel.LABEL, rowNumber,
+          table.getSampleHeaderCell());
+      sampleTopStart.setHeaders(SectionTablePanel.LABEL, rowNumber,
+          table.getSampleHeaderCell());
+      sampleTopEnd.setHeaders(SectionTablePanel.LABEL, rowNumber,
+          table.getSampleHeaderCell());
+      rotationAngleX.setHeaders(SectionTablePanel.LABEL, rowNumber,
+          table.getRotationHeaderCell());
+      rotationAngleY.setHeaders(SectionTablePanel.LABEL, rowNumber,
+          table.getRotationHeaderCell());
+      rotationAngleZ.setHeaders(SectionTablePanel.LABEL, rowNumber,
+          table.getRotationHeaderCell());
+      joinFinalStart.setHeaders(SectionTablePanel.LABEL, rowNumber,
+          table.getJoinFinalHeaderCell());
+      joinFinalEnd.setHeaders(SectionTablePanel.LABEL, rowNumber,
+          table.getJoinFinalHeaderCell());
+    }
+
+    private void setAlignValues() {
+      slicesInSample.setValue(SectionTableRow.this.slicesInSample);
+      currentChunk.setText(SectionTableRow.this.currentChunk);
+      referenceSection.setValue(SectionTableRow.this.referenceSection);
+      currentSection.setValue(SectionTableRow.this.currentSection);
+    }
+
+    private void setInverted() {
+      String tooltip = null;
+      if (inverted) {
+        tooltip = "This section is inverted.  " + INVERTED_WARNING;
+      }
+      rowNumber.setWarning(inverted, tooltip);
+      setupSection.setWarning(inverted, tooltip);
+      joinSection.setWarning(inverted, tooltip);
+      sampleBottomStart.setWarning(inverted, tooltip);
+      sampleBottomEnd.setWarning(inverted, tooltip);
+      sampleTopStart.setWarning(inverted, tooltip);
+      sampleTopEnd.setWarning(inverted, tooltip);
+      slicesInSample.setWarning(inverted, tooltip);
+      setupFinalStart.setWarning(inverted, tooltip);
+      setupFinalEnd.setWarning(inverted, tooltip);
+      joinFinalStart.setWarning(inverted, tooltip);
+      joinFinalEnd.setWarning(inverted, tooltip);
+      rotationAngleX.setWarning(inverted, tooltip);
+      rotationAngleY.setWarning(inverted, tooltip);
+      rotationAngleZ.setWarning(inverted, tooltip);
+    }
+
+    private void highlight(boolean highlight) {
+      setupSection.setHighlight(highlight);
+      joinSection.setHighlight(highlight);
+      sampleBottomStart.setHighlight(highlight);
+      sampleBottomEnd.setHighlight(highlight);
+      sampleTopStart.setHighlight(highlight);
+      sampleTopEnd.setHighlight(highlight);
+      slicesInSample.setHighlight(highlight);
+      setupFinalStart.setHighlight(highlight);
+      setupFinalEnd.setHighlight(highlight);
+      joinFinalStart.setHighlight(highlight);
+      joinFinalEnd.setHighlight(highlight);
+      rotationAngleX.setHighlight(highlight);
+      rotationAngleY.setHighlight(highlight);
+      rotationAngleZ.setHighlight(highlight);
+    }
+
+    private void remove() {
+      rowNumber.remove();
+      highlighterButton.remove();
+      setupSection.remove();
+      sampleBottomStart.remove();
+      sampleBottomEnd.remove();
+      sampleTopStart.remove();
+      sampleTopEnd.remove();
+      setupFinalStart.remove();
+      setupFinalEnd.remove();
+      joinFinalStart.remove();
+      joinFinalEnd.remove();
+      rotationAngleX.remove();
+      rotationAngleY.remove();
+      rotationAngleZ.remove();
+      // align
+      slicesInSample.remove();
+      currentChunk.remove();
+      referenceSection.remove();
+      currentSection.remove();
+      // join
+      joinSection.remove();
+    }
+
+    /**
+     * Saves the values and disconnects the cells from the table, so that they can be
+     * garbage collected.
+     */
+    private void release() {
+      SectionTableRow.this.sampleBottomStart.releaseCell();
+      SectionTableRow.this.sampleBottomEnd.releaseCell();
+      SectionTableRow.this.sampleTopStart.releaseCell();
+      SectionTableRow.this.sampleTopEnd.releaseCell();
+      SectionTableRow.this.setupFinalStart.releaseCell();
+      SectionTableRow.this.setupFinalEnd.releaseCell();
+      SectionTableRow.this.joinFinalStart.releaseCell();
+      SectionTableRow.this.joinFinalEnd.releaseCell();
+      SectionTableRow.this.rotationAngleX.releaseCell();
+      SectionTableRow.this.rotationAngleY.releaseCell();
+      SectionTableRow.this.rotationAngleZ.releaseCell();
+      sampleBottomStart.removeHeaders();
+      sampleBottomEnd.removeHeaders();
+      sampleTopStart.removeHeaders();
+      sampleTopEnd.removeHeaders();
+      rotationAngleX.removeHeaders();
+      rotationAngleY.removeHeaders();
+      rotationAngleZ.removeHeaders();
+      joinFinalStart.removeHeaders();
+      joinFinalEnd.removeHeaders();
+    }
   }
-}
\ No newline at end of file
+}
@@ -1,21 +1,17 @@
 package etomo.ui.swing;
 
 import java.awt.Container;
-import java.awt.Font;
-
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
-import javax.swing.JEditorPane;
 import javax.swing.JFrame;
-import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.WindowConstants;
 
 import etomo.BaseManager;
-import etomo.EtomoDirector;
 import etomo.type.AxisID;
 
 /**
@@ -88,181 +84,54 @@ import etomo.type.AxisID;
 final class TabbedTextWindow extends JFrame {
   public static final String rcsid = "$Id$";
 
+  private final List<PagedLogPanel> logPanelList = new ArrayList<PagedLogPanel>();
   private final AxisID axisID;
   private final String label;
 
-  boolean displayWholeLog = true;
-  boolean displayResiduals = true;
-  boolean displaySolutions = true;
-  boolean displayEverythingElse = true;
-
   TabbedTextWindow(String label, AxisID axisID) {
     this.label = label;
     this.axisID = axisID;
   }
 
   /**
-   * Open the array of files
+   * Open the array of files.  The files are paged in as they are viewed, so there is
+   * no limit on their size.
    * @param files
+   * @return true
    * @throws IOException
    * @throws FileNotFoundException
    */
   boolean openFiles(BaseManager manager, String[] files, String[] labels, AxisID axisID)
       throws IOException, FileNotFoundException {
-    checkSize(files);
-    StringBuffer error = null;
-    JTabbedPane tabPane = null;
-    //DisplayEverythingElse is the last boolean to be turned off if there is a
-    //memory limitation, so use to decide if a tabbed pane should be displayed.
-    if (displayEverythingElse) {
-      tabPane = new JTabbedPane();
-      Container mainPanel = getContentPane();
-      mainPanel.add(tabPane);
-      setTitle(label);
-      setSize(625, 800);
-      setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
-    }
-    else {
-      error = new StringBuffer();
-      error.append("Unable to display log files:  ");
-    }
-    for (int i = 0; i < files.length; i++) {
-      File file = new File(files[i]);
-      String fileName = file.getName();
-      if (displayEverythingElse) {
-        JEditorPane editorPane = new JEditorPane();
-        editorPane.setFont(new Font("monospaced", Font.PLAIN, 12));
-        JScrollPane scrollPane = new JScrollPane(editorPane);
-        try {
-          tabPane.add(labels[i], scrollPane);
-          if (fileName.startsWith("align")) {
-            display(displayWholeLog, editorPane, file);
-          }
-          else if (fileName.startsWith("taResiduals")) {
-            display(displayResiduals, editorPane, file);
-          }
-          else if (fileName.startsWith("taSolution")) {
-            display(displaySolutions, editorPane, file);
-          }
-          else {
-            display(true, editorPane, file);
-          }
-        }
-        catch (OutOfMemoryError e) {
-          e.printStackTrace();
-          if (tabPane != null) {
-            tabPane.removeAll();
-          }
-          UIHarness.INSTANCE.openMessageDialog(manager,
-              "WARNING:  Ran out of memory.  Will not display log file."
-                  + "\nPlease close open log file windows or exit Etomo.",
-              "Out of Memory");
-          throw e;
-        }
-      }
-      else {
-        error.append(fileName);
-        if (i < files.length - 1) {
-          error.append(", ");
-        }
+    JTabbedPane tabPane = new JTabbedPane();
+    try {
+      for (int i = 0; i < files.length; i++) {
+        PagedLogPanel logPanel = PagedLogPanel.getInstance(new File(files[i]));
+        logPanelList.add(logPanel);
+        tabPane.add(labels[i], logPanel.getComponent());
       }
     }
-    if (!displayEverythingElse) {
-      error.append(".  Not enough available memory.  Close unnecessary windows.");
-      UIHarness.INSTANCE.openMessageDialog(manager, error.toString(),
-          "Memory Limitation", axisID);
+    catch (IOException e) {
+      close();
+      throw e;
     }
-    return displayEverythingElse;
+    Container mainPanel = getContentPane();
+    mainPanel.add(tabPane);
+    setTitle(label);
+    setSize(625, 800);
+    setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+    return true;
   }
 
-  /**
-   * Decide which files to display.  Do not display the whole log if it is
-   * over 200K.  Do not display the residual log if it is over 1MB.  Do not
-   * display the solutions log if it is too big to fit into the available
-   * memory.  Do not display all the other logs if they are too big to fit into
-   * the available memory.
-   * @param files
-   */
-  private void checkSize(String[] files) {
-    long wholeLogSize = 0;
-    long residualsSize = 0;
-    long solutionsSize = 0;
-    for (int i = 0; i < files.length; i++) {
-      File file = new File(files[i]);
-      String fileName = file.getName();
-      if (fileName.startsWith("align")) {
-        wholeLogSize = file.length();
-        if (wholeLogSize <= 200 * 1024) {
-          return;
-        }
-      }
-      else if (fileName.startsWith("taResiduals")) {
-        residualsSize = file.length();
-      }
-      else if (fileName.startsWith("taSolution")) {
-        solutionsSize = file.length();
-      }
-      if (wholeLogSize > 0 && residualsSize > 0 && solutionsSize > 0) {
-        break;
-      }
-    }
-    //Whole log is bigger then 200k
-    displayWholeLog = false;
-    long everythingElseSize = wholeLogSize - residualsSize - solutionsSize;
-    if (residualsSize > 1 * 1024.0 * 1024.0) {
-      //Residuals log is bigger then 1MB
-      displayResiduals = false;
-      residualsSize = 0;
-    }
-    long memory = EtomoDirector.INSTANCE.getAvailableMemory();
-    //Available is available memory - padding.
-    //In linux java begins to get unreliable when it has between 14MB -17MB
-    //memory available.
-    long dangerArea = 15 * 1024 * 1024;
-    long available = memory - Math.max(dangerArea, everythingElseSize * 3);
-    //AverageFactor was calculated for bug# 1099 by opening log files and taking
-    //the average.
-    int overhead = 8;
-    if (available >= overhead * (residualsSize + solutionsSize + everythingElseSize)) {
-      return;
-    }
-    //Not enough space.  Turn off residuals if they are still being displayed.
-    if (displayResiduals) {
-      displayResiduals = false;
-      if (available >= overhead * (solutionsSize + everythingElseSize)) {
-        return;
-      }
-    }
-    //Still not enough space.  Turn off solutions.
-    displaySolutions = false;
-    //Reduce the padding for minimal log file display.
-    available = memory - dangerArea;
-    if (available >= overhead * everythingElseSize) {
-      return;
-    }
-    //Not enough space.  Turn off everything.
-    displayEverythingElse = false;
+  public void dispose() {
+    close();
+    super.dispose();
   }
 
-  /**forum.java.sun.com/thread.jspa?threadID=5269840&messageID=10133229
-   * Read a file into the editor pane.  If displayFile is false, place an error
-   * message in the editor pane instead.
-   * @param displayFile
-   * @param editorPane
-   * @param file
-   * @throws IOException
-   * @throws FileNotFoundException
-   */
-  private void display(boolean displayFile, JEditorPane editorPane, File file)
-      throws IOException, FileNotFoundException {
-    if (displayFile) {
-      FileReader reader = new FileReader(file);
-      editorPane.read(reader, file);
-      reader.close();
-    }
-    else {
-      editorPane.setText(file.getName() + " is too large to display");
+  private void close() {
+    for (int i = 0; i < logPanelList.size(); i++) {
+      logPanelList.get(i).close();
     }
-    editorPane.setEditable(false);
+    logPanelList.clear();
   }
-}
\ No newline at end of file
+}
@@ -2,16 +2,12 @@ package etomo.ui.swing;
 
 import java.awt.BorderLayout;
 import java.awt.Container;
-import java.awt.Font;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
 
-import javax.swing.JEditorPane;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
-import javax.swing.JScrollPane;
 import javax.swing.WindowConstants;
 
 /**
@@ -73,15 +69,10 @@ public class TextPageWindow extends JFrame {
 
   Container mainPanel;
   String filename;
-  JEditorPane editorPane = new JEditorPane();
-  JScrollPane scrollPane = new JScrollPane(editorPane);
-  FileReader reader;
+  private PagedLogPanel logPanel = null;
 
   public TextPageWindow() {
-    editorPane.setFont(new Font("monospaced", Font.PLAIN, 12));
-    //editorPane.setEditorKit(new StyledEditorKit());
     mainPanel = getContentPane();
-    mainPanel.add(scrollPane, BorderLayout.CENTER);
     setSize(625, 800);
     setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
   }
@@ -100,10 +91,14 @@ public class TextPageWindow extends JFrame {
 
   public boolean setFile() {
     try {
-      reader = new FileReader(filename);
-      editorPane.read(reader, filename);
-      editorPane.setEditable(false);
-      reader.close();
+      PagedLogPanel newLogPanel = PagedLogPanel.getInstance(new File(filename));
+      if (logPanel != null) {
+        mainPanel.remove(logPanel.getComponent());
+        logPanel.close();
+      }
+      logPanel = newLogPanel;
+      mainPanel.add(logPanel.getComponent(), BorderLayout.CENTER);
+      validate();
     }
     catch (FileNotFoundException except) {
       String[] messages = new String[2];
@@ -121,4 +116,11 @@ public class TextPageWindow extends JFrame {
     }
     return true;
   }
+
+  public void dispose() {
+    if (logPanel != null) {
+      logPanel.close();
+    }
+    super.dispose();
+  }
 }
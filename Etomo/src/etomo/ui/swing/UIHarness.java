@@ -43,6 +43,7 @@ public final class UIHarness {
   public static final UIHarness INSTANCE = new UIHarness();
 
   private final Hashtable managerFrameTable = new Hashtable();
+  private final PackScheduler packScheduler = new PackScheduler();
 
   private boolean initialized = false;
   private boolean headless = false;
@@ -323,23 +324,35 @@ public final class UIHarness {
     }
   }
 
+  /**
+   * Packs on the next turn of the event dispatch thread.  Packs that are asked for
+   * before then are done together.  Call flushPack() to pack right away.
+   * @param manager
+   */
   public void pack(BaseManager manager) {
     if (isHead()) {
-      if (manager != null) {
-        manager.pack();
-      }
-      AbstractFrame abstractFrame = getFrame(manager);
-      abstractFrame.repaint();
-      abstractFrame.pack();
-      if (manager != null) {
-        Component focusComponent = manager.getFocusComponent();
-        if (focusComponent != null) {
-          focusComponent.requestFocus();
-        }
-      }
+      packScheduler.schedule(manager, getFrame(manager), null, PackScheduler.PACK);
     }
   }
 
+  /**
+   * Runs the packs that are waiting, so that the layout is done before the caller
+   * continues.  The packs are run on the event dispatch thread; a caller on another
+   * thread waits for them.
+   */
+  public void flushPack() {
+    if (isHead()) {
+      packScheduler.flush();
+    }
+  }
+
+  /**
+   * @return the number of packs that were merged into other packs
+   */
+  public long getAvoidedPackCount() {
+    return packScheduler.getAvoidedPackCount();
+  }
+
   public void cancel(final BaseManager manager) {
     if (isHead()) {
       AbstractFrame frame = getFrame(manager);
@@ -371,50 +384,21 @@ public final class UIHarness {
 
   public void pack(boolean force, BaseManager manager) {
     if (isHead()) {
-      manager.pack();
-      AbstractFrame abstractFrame = getFrame(manager);
-      abstractFrame.repaint();
-      abstractFrame.pack(force);
-      if (manager != null) {
-        Component focusComponent = manager.getFocusComponent();
-        if (focusComponent != null) {
-          focusComponent.requestFocus();
-        }
-      }
+      packScheduler.schedule(manager, getFrame(manager), null,
+          force ? PackScheduler.FORCE : PackScheduler.AUTO_FIT);
     }
   }
 
   public void pack(AxisID axisID, BaseManager manager) {
     if (isHead()) {
-      manager.pack();
-      AbstractFrame abstractFrame = getFrame(manager);
-      abstractFrame.repaint(axisID);
-      abstractFrame.pack(axisID);
-      Component focusComponent = manager.getFocusComponent();
-      // System.out.println("focusComponent=" + focusComponent);
-      if (focusComponent != null) {
-        focusComponent.requestFocus();
-      }
-      // else {
-      // new Exception().printStackTrace();
-      // }
+      packScheduler.schedule(manager, getFrame(manager), axisID, PackScheduler.PACK);
     }
   }
 
   public void pack(AxisID axisID, boolean force, BaseManager manager) {
     if (isHead()) {
-      manager.pack();
-      AbstractFrame abstractFrame = getFrame(manager);
-      abstractFrame.repaint(axisID);
-      abstractFrame.pack(axisID, force);
-      Component focusComponent = manager.getFocusComponent();
-      // System.out.println("focusComponent=" + focusComponent);
-      if (focusComponent != null) {
-        focusComponent.requestFocus();
-      }
-      // else {
-      // new Exception().printStackTrace();
-      // }
+      packScheduler.schedule(manager, getFrame(manager), axisID,
+          force ? PackScheduler.FORCE : PackScheduler.AUTO_FIT);
     }
   }
 
@@ -41,6 +41,7 @@ public final class UITests {
     TestSuite suite = new TestSuite("Tests:  " + TEST_DIR);
     //$JUnit-BEGIN$
     suite.addTestSuite(RadioTextFieldTest.class);
+    suite.addTestSuite(RotationQueueTest.class);
     //$JUnit-END$
     return suite;
   }
@@ -179,6 +179,13 @@ final class Viewport {
     return changed;
   }
 
+  /**
+   * @return the number of rows in the viewport
+   */
+  int getSize() {
+    return size;
+  }
+
   /**
    * @return The Component containing paging buttons.
    */
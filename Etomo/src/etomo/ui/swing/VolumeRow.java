@@ -150,47 +150,44 @@ import etomo.util.FilePath;
 final class VolumeRow implements Highlightable {
   public static final String rcsid = "$Id$";
 
-  private final HeaderCell number = new HeaderCell();
-
-  private final HighlighterButton btnHighlighter;
-  private final FieldCell fnVolume;
-  private final FileButtonCell fbFnVolume;
-  private final FieldCell fnModParticle;
-  private final FileButtonCell fbFnModParticle;
-  private final FieldCell initMotlFile;
-  private final FileButtonCell fbInitMotlFile;
-  private final FieldCell tiltRangeMin;
-  private final FieldCell tiltRangeMax;
+  // The values are kept in Fields.  The Swing cells are only created while the row is
+  // in the viewport, so that a table with thousands of volumes is quick to load.
+  private final Field fnVolume;
+  private final Field fnModParticle;
+  private final Field initMotlFile;
+  private final Field tiltRangeMin;
+  private final Field tiltRangeMax;
+  private final Field tiltRangeMultiAxes;
   private final VolumeTable table;
   private final JPanel panel;
   private final GridBagLayout layout;
   private final GridBagConstraints constraints;
   private final BaseManager manager;
-  private final FieldCell tiltRangeMultiAxes;
-  private final FileButtonCell fbTiltRangeMultiAxes;
+  private final VolumeFileFilter volumeFileFilter;
 
   private int imodIndex = -1;
   private int index;
+  private boolean highlighted = false;
+  private Column initMotlFileColumn = null;
+  private Column tiltRangeColumn = null;
+  private Cells cells = null;
 
   static VolumeRow getInstance(final BaseManager manager, final int index,
       final VolumeTable table, final JPanel panel, final GridBagLayout layout,
       final GridBagConstraints constraints, final VolumeFileFilter volumeFileFilter) {
-    VolumeRow instance = new VolumeRow(manager, index, table, panel, layout, constraints,
+    return new VolumeRow(manager, index, table, panel, layout, constraints,
         volumeFileFilter);
-    instance.addActionTargets();
-    instance.setTooltips();
-    return instance;
   }
 
   static VolumeRow getInstance(final BaseManager manager, final File fnVolume,
       final File fnModParticle, final File tiltRangeMultiAxesFile, final int index,
       final VolumeTable table, final JPanel panel, final GridBagLayout layout,
       final GridBagConstraints constraints, final VolumeFileFilter volumeFileFilter) {
-    VolumeRow instance = new VolumeRow(manager, fnVolume, fnModParticle,
-        tiltRangeMultiAxesFile, index, table, panel, layout, constraints,
-        volumeFileFilter);
-    instance.addActionTargets();
-    instance.setTooltips();
+    VolumeRow instance = new VolumeRow(manager, index, table, panel, layout,
+        constraints, volumeFileFilter);
+    instance.setValue(instance.fnVolume, fnVolume);
+    instance.setValue(instance.fnModParticle, fnModParticle);
+    instance.setValue(instance.tiltRangeMultiAxes, tiltRangeMultiAxesFile);
     return instance;
   }
 
@@ -198,19 +195,16 @@ final class VolumeRow implements Highlightable {
       final String fnModParticle, final String tiltRangeMultiAxesFile, final int index,
       final VolumeTable table, final JPanel panel, final GridBagLayout layout,
       final GridBagConstraints constraints, final VolumeFileFilter volumeFileFilter) {
-    VolumeRow instance = new VolumeRow(manager, fnVolume, fnModParticle,
-        tiltRangeMultiAxesFile, index, table, panel, layout, constraints,
-        volumeFileFilter);
-    instance.addActionTargets();
-    instance.setTooltips();
+    VolumeRow instance = new VolumeRow(manager, index, table, panel, layout,
+        constraints, volumeFileFilter);
+    instance.setValue(instance.fnVolume, fnVolume);
+    instance.setValue(instance.fnModParticle, fnModParticle);
+    instance.setValue(instance.tiltRangeMultiAxes, tiltRangeMultiAxesFile);
     return instance;
   }
 
   static VolumeRow getInstance(final VolumeRow volumeRow, final int index) {
-    VolumeRow instance = new VolumeRow(volumeRow, index);
-    instance.addActionTargets();
-    instance.setTooltips();
-    return instance;
+    return new VolumeRow(volumeRow, index);
   }
 
   private VolumeRow(final BaseManager manager, final int index, final VolumeTable table,
@@ -222,133 +216,31 @@ final class VolumeRow implements Highlightable {
     this.panel = panel;
     this.layout = layout;
     this.constraints = constraints;
-    number.setText(String.valueOf(index + 1));
-    btnHighlighter = HighlighterButton.getInstance(this, table);
+    this.volumeFileFilter = volumeFileFilter;
     String rootDir = manager.getPropertyUserDir();
-    fnVolume = FieldCell.getExpandableInstance(rootDir);
-    // setValue(fnVolume, fnVolumeFile);
-    fbFnVolume = FileButtonCell.getInstance(table);
-    fbFnVolume.setFileFilter(volumeFileFilter);
-    fnModParticle = FieldCell.getExpandableInstance(rootDir);
-    // setValue(fnModParticle, fnModParticleFile);
-    fbFnModParticle = FileButtonCell.getInstance(table);
-    fbFnModParticle.setFileFilter(new ModelFileFilter());
-    initMotlFile = FieldCell.getExpandableInstance(rootDir);
-    fbInitMotlFile = FileButtonCell.getInstance(table);
-    fbInitMotlFile.setFileFilter(new MotlFileFilter());
-    tiltRangeMin = FieldCell.getEditableMatlabInstance();
-    tiltRangeMax = FieldCell.getEditableMatlabInstance();
-    tiltRangeMultiAxes = FieldCell.getExpandableInstance(rootDir);
-    fbTiltRangeMultiAxes = FileButtonCell.getInstance(table);
-    fbTiltRangeMultiAxes.setFileFilter(volumeFileFilter);
+    fnVolume = new Field(rootDir);
+    fnModParticle = new Field(rootDir);
+    initMotlFile = new Field(rootDir);
+    tiltRangeMin = new Field(null);
+    tiltRangeMax = new Field(null);
+    tiltRangeMultiAxes = new Field(rootDir);
   }
 
   private VolumeRow(final VolumeRow volumeRow, final int index) {
-    manager = volumeRow.manager;
-    this.index = index;
-    table = volumeRow.table;
-    panel = volumeRow.panel;
-    layout = volumeRow.layout;
-    constraints = volumeRow.constraints;
-    String rootDir = manager.getPropertyUserDir();
-    number.setText(String.valueOf(index + 1));
-    btnHighlighter = HighlighterButton.getInstance(this, table);
-    fnVolume = FieldCell.getInstance(volumeRow.fnVolume);
-    fbFnVolume = FileButtonCell.getInstance(volumeRow.fbFnVolume);
-    fnModParticle = FieldCell.getInstance(volumeRow.fnModParticle);
-    fbFnModParticle = FileButtonCell.getInstance(volumeRow.fbFnModParticle);
-    initMotlFile = FieldCell.getInstance(volumeRow.initMotlFile);
-    fbInitMotlFile = FileButtonCell.getInstance(volumeRow.fbInitMotlFile);
-    tiltRangeMin = FieldCell.getInstance(volumeRow.tiltRangeMin);
-    tiltRangeMax = FieldCell.getInstance(volumeRow.tiltRangeMax);
-    tiltRangeMultiAxes = FieldCell.getInstance(volumeRow.tiltRangeMultiAxes);
-    fbTiltRangeMultiAxes = FileButtonCell.getInstance(volumeRow.fbTiltRangeMultiAxes);
-  }
-
-  private VolumeRow(final BaseManager manager, final File fnVolumeFile,
-      final File fnModParticleFile, final File tiltRangeMultiAxesFile, final int index,
-      final VolumeTable table, final JPanel panel, final GridBagLayout layout,
-      final GridBagConstraints constraints, final VolumeFileFilter volumeFileFilter) {
-    this.manager = manager;
-    this.index = index;
-    this.table = table;
-    this.panel = panel;
-    this.layout = layout;
-    this.constraints = constraints;
-    number.setText(String.valueOf(index + 1));
-    btnHighlighter = HighlighterButton.getInstance(this, table);
-    String rootDir = manager.getPropertyUserDir();
-    fnVolume = FieldCell.getExpandableInstance(rootDir);
-    setValue(fnVolume, fnVolumeFile);
-    fbFnVolume = FileButtonCell.getInstance(table);
-    fbFnVolume.setFileFilter(volumeFileFilter);
-    fnModParticle = FieldCell.getExpandableInstance(rootDir);
-    setValue(fnModParticle, fnModParticleFile);
-    fbFnModParticle = FileButtonCell.getInstance(table);
-    fbFnModParticle.setFileFilter(new ModelFileFilter());
-    initMotlFile = FieldCell.getExpandableInstance(rootDir);
-    fbInitMotlFile = FileButtonCell.getInstance(table);
-    fbInitMotlFile.setFileFilter(new MotlFileFilter());
-    tiltRangeMin = FieldCell.getEditableMatlabInstance();
-    tiltRangeMax = FieldCell.getEditableMatlabInstance();
-    tiltRangeMultiAxes = FieldCell.getExpandableInstance(rootDir);
-    setValue(tiltRangeMultiAxes, tiltRangeMultiAxesFile);
-    fbTiltRangeMultiAxes = FileButtonCell.getInstance(table);
-    fbTiltRangeMultiAxes.setFileFilter(volumeFileFilter);
-  }
-
-  private VolumeRow(final BaseManager manager, final String fnVolumeFile,
-      final String fnModParticleFile, final String tiltRangeMultiAxesFile,
-      final int index, final VolumeTable table, final JPanel panel,
-      final GridBagLayout layout, final GridBagConstraints constraints,
-      final VolumeFileFilter volumeFileFilter) {
-    this.manager = manager;
-    this.index = index;
-    this.table = table;
-    this.panel = panel;
-    this.layout = layout;
-    this.constraints = constraints;
-    number.setText(String.valueOf(index + 1));
-    btnHighlighter = HighlighterButton.getInstance(this, table);
-    String rootDir = manager.getPropertyUserDir();
-    fnVolume = FieldCell.getExpandableInstance(rootDir);
-    setValue(fnVolume, fnVolumeFile);
-    fbFnVolume = FileButtonCell.getInstance(table);
-    fbFnVolume.setFileFilter(volumeFileFilter);
-    fnModParticle = FieldCell.getExpandableInstance(rootDir);
-    setValue(fnModParticle, fnModParticleFile);
-    fbFnModParticle = FileButtonCell.getInstance(table);
-    fbFnModParticle.setFileFilter(new ModelFileFilter());
-    initMotlFile = FieldCell.getExpandableInstance(rootDir);
-    fbInitMotlFile = FileButtonCell.getInstance(table);
-    fbInitMotlFile.setFileFilter(new MotlFileFilter());
-    tiltRangeMin = FieldCell.getEditableMatlabInstance();
-    tiltRangeMax = FieldCell.getEditableMatlabInstance();
-    tiltRangeMultiAxes = FieldCell.getExpandableInstance(rootDir);
-    setValue(tiltRangeMultiAxes, tiltRangeMultiAxesFile);
-    fbTiltRangeMultiAxes = FileButtonCell.getInstance(table);
-    fbTiltRangeMultiAxes.setFileFilter(volumeFileFilter);
-  }
-
-  private void addActionTargets() {
-    fbFnVolume.setActionTarget(fnVolume);
-    fbFnModParticle.setActionTarget(fnModParticle);
-    fbInitMotlFile.setActionTarget(initMotlFile);
-    fbTiltRangeMultiAxes.setActionTarget(tiltRangeMultiAxes);
+    this(volumeRow.manager, index, volumeRow.table, volumeRow.panel, volumeRow.layout,
+        volumeRow.constraints, volumeRow.volumeFileFilter);
+    fnVolume.copy(volumeRow.fnVolume);
+    fnModParticle.copy(volumeRow.fnModParticle);
+    initMotlFile.copy(volumeRow.initMotlFile);
+    tiltRangeMin.copy(volumeRow.tiltRangeMin);
+    tiltRangeMax.copy(volumeRow.tiltRangeMax);
+    tiltRangeMultiAxes.copy(volumeRow.tiltRangeMultiAxes);
   }
 
   void setNames() {
-    btnHighlighter.setHeaders(VolumeTable.LABEL, number,
-        table.getVolumeNumberHeaderCell());
-    setHeaders(fnVolume, fbFnVolume, table.getFnVolumeHeaderCell());
-    setHeaders(fnModParticle, fbFnModParticle, table.getFnModParticleHeaderCell());
-    setHeaders(initMotlFile, fbInitMotlFile, table.getInitMotlFileHeaderCell());
-    setHeaders(tiltRangeMultiAxes, fbTiltRangeMultiAxes,
-        table.getTiltRangeMultiAxesHeaderCell());
-    fbInitMotlFile.setLabel(VolumeTable.INIT_MOTL_FILE_HEADER1 + " "
-        + VolumeTable.INIT_MOTL_FILE_HEADER2);
-    tiltRangeMin.setHeaders(VolumeTable.LABEL, number, table.getTiltRangeHeaderCell());
-    tiltRangeMax.setHeaders(VolumeTable.LABEL, number, table.getTiltRangeHeaderCell());
+    if (cells != null) {
+      cells.setNames();
+    }
   }
 
   /**
@@ -356,74 +248,73 @@ final class VolumeRow implements Highlightable {
    * changeable field (volume, model, and MOTL).
    */
   int getTextSize(final boolean isTiltRangeMultiAxes) {
-    return Math.max(fnVolume.getValue().length(), 6)
-        + Math.max(fnModParticle.getValue().length(), 5)
-        + Math.max(initMotlFile.getValue().length(), 5)
-        + (isTiltRangeMultiAxes ? Math.max(tiltRangeMultiAxes.getValue().length(), 5) : 0);
-  }
-
-  void setHeaders(final FieldCell fieldCell, final FileButtonCell fileButtonCell,
-      final HeaderCell headerCell) {
-    fieldCell.setHeaders(VolumeTable.LABEL, number, headerCell);
-    fileButtonCell.setHeaders(VolumeTable.LABEL, number, headerCell);
+    return Math.max(fnVolume.getText(table.isFnVolumeExpanded()).length(), 6)
+        + Math.max(fnModParticle.getText(table.isFnModParticleExpanded()).length(), 5)
+        + Math.max(initMotlFile.getText(table.isInitMotlFileExpanded()).length(), 5)
+        + (isTiltRangeMultiAxes ? Math.max(
+            tiltRangeMultiAxes.getText(table.isTiltRangeMultiAxesExpanded()).length(), 5)
+            : 0);
   }
 
   void setHighlighterSelected(final boolean select) {
-    btnHighlighter.setSelected(select);
+    if (cells != null) {
+      cells.btnHighlighter.setSelected(select);
+    }
+    else {
+      highlight(select);
+    }
   }
 
   public void highlight(final boolean highlight) {
-    fnVolume.setHighlight(highlight);
-    fnModParticle.setHighlight(highlight);
-    initMotlFile.setHighlight(highlight);
-    tiltRangeMultiAxes.setHighlight(highlight);
-    tiltRangeMin.setHighlight(highlight);
-    tiltRangeMax.setHighlight(highlight);
-    tiltRangeMultiAxes.setHighlight(highlight);
+    highlighted = highlight;
+    if (cells != null) {
+      cells.highlight(highlight);
+    }
+    table.msgRowHighlighted(this, highlight);
   }
 
   void remove() {
-    number.remove();
-    btnHighlighter.remove();
-    fnVolume.remove();
-    fbFnVolume.remove();
-    fnModParticle.remove();
-    fbFnModParticle.remove();
-    initMotlFile.remove();
-    fbInitMotlFile.remove();
-    tiltRangeMin.remove();
-    tiltRangeMax.remove();
-    tiltRangeMultiAxes.remove();
-    fbTiltRangeMultiAxes.remove();
+    if (cells != null) {
+      cells.remove();
+    }
   }
 
+  /**
+   * Displays the row if it is in the viewport.  Otherwise the row's cells are thrown
+   * away.
+   * @param index
+   * @param viewport
+   */
   void display(int index, Viewport viewport) {
     if (!viewport.inViewport(index)) {
+      releaseCells();
       return;
     }
-    constraints.gridwidth = 1;
-    number.add(panel, layout, constraints);
-    btnHighlighter.add(panel, layout, constraints);
-    fnVolume.add(panel, layout, constraints);
-    fbFnVolume.add(panel, layout, constraints);
-    fnModParticle.add(panel, layout, constraints);
-    fbFnModParticle.add(panel, layout, constraints);
-    initMotlFile.add(panel, layout, constraints);
-    fbInitMotlFile.add(panel, layout, constraints);
-    if (!table.isTiltRangeMultiAxes()) {
-      tiltRangeMin.add(panel, layout, constraints);
-      constraints.gridwidth = GridBagConstraints.REMAINDER;
-      tiltRangeMax.add(panel, layout, constraints);
+    if (cells == null) {
+      cells = new Cells();
+      if (highlighted) {
+        cells.btnHighlighter.setSelected(true);
+      }
     }
-    else {
-      tiltRangeMultiAxes.add(panel, layout, constraints);
-      constraints.gridwidth = GridBagConstraints.REMAINDER;
-      fbTiltRangeMultiAxes.add(panel, layout, constraints);
+    cells.display();
+  }
+
+  /**
+   * Takes the row's cells out of the table and throws them away.  The values are
+   * kept.
+   */
+  void releaseCells() {
+    if (cells != null) {
+      cells.remove();
+      cells.release();
+      cells = null;
     }
   }
 
   void expandFnVolume(final boolean expanded) {
-    fnVolume.expand(expanded);
+    if (cells != null) {
+      cells.fnVolume.expand(expanded);
+    }
   }
 
   int getIndex() {
@@ -432,26 +323,34 @@ final class VolumeRow implements Highlightable {
 
   void setIndex(int index) {
     this.index = index;
-    number.setText(String.valueOf(index + 1));
+    if (cells != null) {
+      cells.number.setText(String.valueOf(index + 1));
+    }
   }
 
   void expandFnModParticle(final boolean expanded) {
-    fnModParticle.expand(expanded);
+    if (cells != null) {
+      cells.fnModParticle.expand(expanded);
+    }
   }
 
   void expandInitMotlFile(final boolean expanded) {
-    initMotlFile.expand(expanded);
+    if (cells != null) {
+      cells.initMotlFile.expand(expanded);
+    }
   }
 
   void expandTiltRangeMultiAxes(final boolean expanded) {
-    tiltRangeMultiAxes.expand(expanded);
+    if (cells != null) {
+      cells.tiltRangeMultiAxes.expand(expanded);
+    }
   }
 
   void getParameters(final PeetMetaData metaData) {
     metaData.setInitMotlFile(initMotlFile.getExpandedValue(), index);
     metaData.setTiltRangeMin(tiltRangeMin.getValue(), index);
     metaData.setTiltRangeMax(tiltRangeMax.getValue(), index);
-    metaData.setTiltRangeMultiAxesFile(tiltRangeMultiAxes.getValue(), index);
+    metaData.setTiltRangeMultiAxesFile(tiltRangeMultiAxes.getExpandedValue(), index);
   }
 
   /**
@@ -513,7 +412,7 @@ final class VolumeRow implements Highlightable {
         && !FilePath.buildAbsoluteFile(manager.getPropertyUserDir(),
             fnVolume.getExpandedValue()).exists()) {
       if (!fixIncorrectPath(fnVolume, choosePathEveryRow, table.isFnVolumeExpanded(),
-          fbFnVolume.getFileFilter())) {
+          volumeFileFilter)) {
         return false;
       }
     }
@@ -521,7 +420,7 @@ final class VolumeRow implements Highlightable {
         && !FilePath.buildAbsoluteFile(manager.getPropertyUserDir(),
             fnModParticle.getExpandedValue()).exists()) {
       if (!fixIncorrectPath(fnModParticle, false, table.isFnModParticleExpanded(),
-          fbFnModParticle.getFileFilter())) {
+          new ModelFileFilter())) {
         return false;
       }
     }
@@ -529,7 +428,7 @@ final class VolumeRow implements Highlightable {
         && !FilePath.buildAbsoluteFile(manager.getPropertyUserDir(),
             initMotlFile.getExpandedValue()).exists()) {
       if (!fixIncorrectPath(initMotlFile, false, table.isInitMotlFileExpanded(),
-          fbInitMotlFile.getFileFilter())) {
+          new MotlFileFilter())) {
         return false;
       }
     }
@@ -537,7 +436,7 @@ final class VolumeRow implements Highlightable {
         && !FilePath.buildAbsoluteFile(manager.getPropertyUserDir(),
             tiltRangeMultiAxes.getExpandedValue()).exists()) {
       if (!fixIncorrectPath(tiltRangeMultiAxes, false, table.isInitMotlFileExpanded(),
-          fbTiltRangeMultiAxes.getFileFilter())) {
+          volumeFileFilter)) {
         return false;
       }
     }
@@ -550,8 +449,8 @@ final class VolumeRow implements Highlightable {
    * @param choosePathEveryRow
    * @return false if the user cancels the file selector
    */
-  private boolean fixIncorrectPath(FieldCell fieldCell, boolean choosePath,
-      boolean expand, final FileFilter fileFilter) {
+  private boolean fixIncorrectPath(Field field, boolean choosePath, boolean expand,
+      final FileFilter fileFilter) {
     File newFile = null;
     while (newFile == null || !newFile.exists()) {
       // Have the user choose the location of the file if they haven't chosen
@@ -561,7 +460,7 @@ final class VolumeRow implements Highlightable {
           || (newFile != null && !newFile.exists())) {
         JFileChooser fileChooser = table.getFileChooserInstance();
         fileChooser.setSelectedFile(FilePath.buildAbsoluteFile(
-            manager.getPropertyUserDir(), fieldCell.getExpandedValue()));
+            manager.getPropertyUserDir(), field.getExpandedValue()));
         fileChooser.setPreferredSize(UIParameters.INSTANCE.getFileChooserDimension());
         fileChooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
         fileChooser.setFileFilter(fileFilter);
@@ -572,15 +471,15 @@ final class VolumeRow implements Highlightable {
         newFile = fileChooser.getSelectedFile();
         if (newFile != null && newFile.exists()) {
           table.setCorrectPath(newFile.getParent());
-          setValue(fieldCell, newFile);
-          fieldCell.expand(expand);
+          setValue(field, newFile);
+          field.expand(expand);
         }
       }
       else if (!table.isCorrectPathNull()) {
-        newFile = new File(table.getCorrectPath(), fieldCell.getContractedValue());
+        newFile = new File(table.getCorrectPath(), field.getContractedValue());
         if (newFile.exists()) {
-          setValue(fieldCell, newFile);
-          fieldCell.expand(expand);
+          setValue(field, newFile);
+          field.expand(expand);
         }
       }
     }
@@ -612,7 +511,7 @@ final class VolumeRow implements Highlightable {
       volume.setTiltRangeEnd(tiltRangeMax.getValue());
     }
     else {
-      volume.setTiltRangeMultiAxes(tiltRangeMultiAxes.getValue());
+      volume.setTiltRangeMultiAxes(tiltRangeMultiAxes.getExpandedValue());
     }
   }
 
@@ -638,15 +537,17 @@ final class VolumeRow implements Highlightable {
   }
 
   void registerInitMotlFileColumn(Column column) {
-    column.add(initMotlFile);
-    column.add(fbInitMotlFile);
+    initMotlFileColumn = column;
+    if (cells != null) {
+      cells.registerInitMotlFileColumn();
+    }
   }
 
   void registerTiltRangeColumn(final Column column) {
-    column.add(tiltRangeMin);
-    column.add(tiltRangeMax);
-    column.add(tiltRangeMultiAxes);
-    column.add(fbTiltRangeMultiAxes);
+    tiltRangeColumn = column;
+    if (cells != null) {
+      cells.registerTiltRangeColumn();
+    }
   }
 
   void imodVolume(Run3dmodMenuOptions menuOptions) {
@@ -659,20 +560,21 @@ final class VolumeRow implements Highlightable {
    * @return null if valid
    */
   String validateRun(final boolean tiltRangeRequired, final boolean isTiltRangeMultiAxes) {
+    String number = String.valueOf(index + 1);
     if (fnModParticle.isEmpty()) {
-      return VolumeTable.LABEL + ":  In row " + number.getText() + ", "
+      return VolumeTable.LABEL + ":  In row " + number + ", "
           + VolumeTable.FN_MOD_PARTICLE_HEADER1 + " must not be empty.";
     }
     if (tiltRangeRequired) {
       if (!isTiltRangeMultiAxes) {
         if (tiltRangeMin.isEmpty() || tiltRangeMax.isEmpty()) {
-          return VolumeTable.LABEL + ":  In row " + number.getText() + ", "
+          return VolumeTable.LABEL + ":  In row " + number + ", "
               + VolumeTable.TILT_RANGE_HEADER1_LABEL + " is required.";
         }
       }
       else {
         if (tiltRangeMultiAxes.isEmpty()) {
-          return VolumeTable.LABEL + ":  In row " + number.getText() + ", "
+          return VolumeTable.LABEL + ":  In row " + number + ", "
               + VolumeTable.getTiltRangeMultiAxesLabel() + " is required.";
         }
       }
@@ -681,32 +583,32 @@ final class VolumeRow implements Highlightable {
   }
 
   /**
-   * Sets the contracted and expanded values of the fieldCell while preserving the
+   * Sets the contracted and expanded values of the field while preserving the
    * filePath string.
-   * @param fieldCell
+   * @param field
    * @param filePath
    */
-  private void setValue(final FieldCell fieldCell, final String filePath) {
+  private void setValue(final Field field, final String filePath) {
     // Don't override existing values with null value.
     if (filePath == null || filePath.matches("\\s*")) {
       return;
     }
     // Preserve the text of the filePath.
-    fieldCell.setValue(filePath);
+    field.setValue(filePath);
   }
 
   /**
-   * Sets the contracted and expanded values of the fieldCell with the file name and a
+   * Sets the contracted and expanded values of the field with the file name and a
    * relative path from propertyUserDir to the file.
-   * @param fieldCell
+   * @param field
    * @param file
    */
-  private void setValue(final FieldCell fieldCell, final File file) {
+  private void setValue(final Field field, final File file) {
     // Don't override existing values with null value.
     if (file == null) {
       return;
     }
-    fieldCell.setValue(file);
+    field.setValue(file);
   }
 
   void setInitMotlFile(String initMotlFile) {
@@ -767,31 +669,329 @@ final class VolumeRow implements Highlightable {
   }
 
   boolean isHighlighted() {
-    return btnHighlighter.isHighlighted();
-  }
-
-  private void setTooltips() {
-    fnVolume.setToolTipText("The filename of the tomogram in MRC format.");
-    fbFnVolume.setToolTipText("Select a filename of the tomogram in MRC format.");
-    fnModParticle.setToolTipText("The filename of the IMOD model specifying particle "
-        + "positions in the tomogram.");
-    fbFnModParticle
-        .setToolTipText("Select a filename of the IMOD model specifying particle "
-            + "positions in the tomogram.");
-    initMotlFile.setToolTipText("The name of a .csv file containing an initial motive "
-        + "list with orientations and shifts.");
-    fbInitMotlFile
-        .setToolTipText("Select a .csv file with initial orientations and shifts");
-    String tooltip = " tilt angle (in degrees) used "
-        + "during image acquisition for this tomogram.  Used only if missing "
-        + "wedge compensation is enabled.";
-    tiltRangeMin.setToolTipText("The minimum" + tooltip);
-    tiltRangeMax.setToolTipText("The maximum" + tooltip);
-    tiltRangeMultiAxes
-        .setToolTipText("A binary mask file in MRC format with 0's and 1's indicating "
-            + "missing and valid regions in Fourier space, respectively, for this "
-            + "volume.  The mask should be cubical, with an even number of voxels, at "
-            + "least as large as the largest dimension of the reference, along each "
-            + "edge.");
+    return highlighted;
+  }
+
+  /**
+   * The value of one column.  Holds the value itself when the row has no cells, and
+   * uses the cell when it has one.
+   */
+  private static final class Field {
+    private final String rootDir;
+
+    // The expanded value, used while there is no cell.
+    private String value = "";
+    private FieldCell cell = null;
+
+    /**
+     * @param rootDir - the directory that file paths are relative to; null if the
+     * field doesn't hold a file
+     */
+    private Field(final String rootDir) {
+      this.rootDir = rootDir;
+    }
+
+    private void copy(final Field field) {
+      setValue(field.getExpandedValue());
+    }
+
+    /**
+     * Creates the cell and gives it the value.
+     */
+    private FieldCell createCell(final boolean expanded) {
+      if (rootDir == null) {
+        cell = FieldCell.getEditableMatlabInstance();
+        cell.setValue(value);
+      }
+      else {
+        cell = FieldCell.getExpandableInstance(rootDir);
+        cell.setValue(value);
+        cell.expand(expanded);
+      }
+      return cell;
+    }
+
+    /**
+     * Keeps the value of the cell and lets go of the cell.
+     */
+    private void releaseCell() {
+      value = getExpandedValue();
+      cell = null;
+    }
+
+    private boolean isEmpty() {
+      if (cell != null) {
+        return cell.isEmpty();
+      }
+      return value == null || value.matches("\\s*");
+    }
+
+    private void setValue(final String value) {
+      if (cell != null) {
+        cell.setValue(value);
+      }
+      else {
+        this.value = value;
+      }
+    }
+
+    private void setValue(final File file) {
+      if (cell != null) {
+        cell.setValue(file);
+      }
+      else if (rootDir == null) {
+        value = file.getAbsolutePath();
+      }
+      else {
+        value = FilePath.getRelativePath(rootDir, file);
+      }
+    }
+
+    private void setValue() {
+      if (cell != null) {
+        cell.setValue();
+      }
+      else {
+        value = "";
+      }
+    }
+
+    private void expand(final boolean expand) {
+      if (cell != null) {
+        cell.expand(expand);
+      }
+    }
+
+    /**
+     * @return the text in the field.  Don't use for file fields:  the text of a cell
+     * depends on whether its column is expanded.  Use getExpandedValue.
+     */
+    private String getValue() {
+      if (cell != null) {
+        return cell.getValue();
+      }
+      return value;
+    }
+
+    /**
+     * @return the text that the field would show
+     */
+    private String getText(final boolean expanded) {
+      if (cell != null) {
+        return cell.getValue();
+      }
+      if (expanded || rootDir == null || !FilePath.isPath(value)) {
+        return value;
+      }
+      return FilePath.getFileName(value);
+    }
+
+    private String getExpandedValue() {
+      if (cell != null) {
+        return cell.getExpandedValue();
+      }
+      if (value == null || value.matches("\\s*")) {
+        return "";
+      }
+      return value;
+    }
+
+    private String getContractedValue() {
+      if (cell != null) {
+        return cell.getContractedValue();
+      }
+      return FilePath.getFileName(value);
+    }
+  }
+
+  /**
+   * The Swing cells of a row that is in the viewport.
+   */
+  private final class Cells {
+    private final HeaderCell number = new HeaderCell();
+    private final HighlighterButton btnHighlighter;
+    private final FieldCell fnVolume;
+    private final FileButtonCell fbFnVolume;
+    private final FieldCell fnModParticle;
+    private final FileButtonCell fbFnModParticle;
+    private final FieldCell initMotlFile;
+    private final FileButtonCell fbInitMotlFile;
+    private final FieldCell tiltRangeMin;
+    private final FieldCell tiltRangeMax;
+    private final FieldCell tiltRangeMultiAxes;
+    private final FileButtonCell fbTiltRangeMultiAxes;
+
+    private Cells() {
+      number.setText(String.valueOf(index + 1));
+      // The table keeps track of the highlighted row, so the button isn't put in a
+      // group.
+      btnHighlighter = HighlighterButton.getInstance(VolumeRow.this, null);
+      fnVolume = VolumeRow.this.fnVolume.createCell(table.isFnVolumeExpanded());
+      fbFnVolume = FileButtonCell.getInstance(table);
+      fbFnVolume.setFileFilter(volumeFileFilter);
+      fnModParticle = VolumeRow.this.fnModParticle.createCell(table
+          .isFnModParticleExpanded());
+      fbFnModParticle = FileButtonCell.getInstance(table);
+      fbFnModParticle.setFileFilter(new ModelFileFilter());
+      initMotlFile = VolumeRow.this.initMotlFile.createCell(table
+          .isInitMotlFileExpanded());
+      fbInitMotlFile = FileButtonCell.getInstance(table);
+      fbInitMotlFile.setFileFilter(new MotlFileFilter());
+      tiltRangeMin = VolumeRow.this.tiltRangeMin.createCell(true);
+      tiltRangeMax = VolumeRow.this.tiltRangeMax.createCell(true);
+      tiltRangeMultiAxes = VolumeRow.this.tiltRangeMultiAxes.createCell(table
+          .isTiltRangeMultiAxesExpanded());
+      fbTiltRangeMultiAxes = FileButtonCell.getInstance(table);
+      fbTiltRangeMultiAxes.setFileFilter(volumeFileFilter);
+      fbFnVolume.setActionTarget(fnVolume);
+      fbFnModParticle.setActionTarget(fnModParticle);
+      fbInitMotlFile.setActionTarget(initMotlFile);
+      fbTiltRangeMultiAxes.setActionTarget(tiltRangeMultiAxes);
+      setTooltips();
+      registerInitMotlFileColumn();
+      registerTiltRangeColumn();
+      setNames();
+    }
+
+    private void setNames() {
+      btnHighlighter.setHeaders(VolumeTable.LABEL, number,
+          table.getVolumeNumberHeaderCell());
+      setHeaders(fnVolume, fbFnVolume, table.getFnVolumeHeaderCell());
+      setHeaders(fnModParticle, fbFnModParticle, table.getFnModParticleHeaderCell());
+      setHeaders(initMotlFile, fbInitMotlFile, table.getInitMotlFileHeaderCell());
+      setHeaders(tiltRangeMultiAxes, fbTiltRangeMultiAxes,
+          table.getTiltRangeMultiAxesHeaderCell());
+      fbInitMotlFile.setLabel(VolumeTable.INIT_MOTL_FILE_HEADER1 + " "
+          + VolumeTable.INIT_MOTL_FILE_HEADER2);
+      tiltRangeMin.setHeaders(VolumeTable.LABEL, number, table.getTiltRangeHeaderCell());
+      tiltRangeMax.setHeaders(VolumeTable.LABEL, number, table.getTiltRangeHeaderCell());
+    }
+
+    private void setHeaders(final FieldCell fieldCell,
+        final FileButtonCell fileButtonCell, final HeaderCell headerCell) {
+      fieldCell.setHeaders(VolumeTable.LABEL, number, headerCell);
+      fileButtonCell.setHeaders(VolumeTable.LABEL, number, headerCell);
+    }
+
+    private void registerInitMotlFileColumn() {
+      if (initMotlFileColumn != null) {
+        initMotlFileColumn.add(initMotlFile);
+        initMotlFileColumn.add(fbInitMotlFile);
+      }
+    }
+
+    private void registerTiltRangeColumn() {
+      if (tiltRangeColumn != null) {
+        tiltRangeColumn.add(tiltRangeMin);
+        tiltRangeColumn.add(tiltRangeMax);
+        tiltRangeColumn.add(tiltRangeMultiAxes);
+        tiltRangeColumn.add(fbTiltRangeMultiAxes);
+      }
+    }
+
+    private void highlight(final boolean highlight) {
+      fnVolume.setHighlight(highlight);
+      fnModParticle.setHighlight(highlight);
+      initMotlFile.setHighlight(highlight);
+      tiltRangeMin.setHighlight(highlight);
+      tiltRangeMax.setHighlight(highlight);
+      tiltRangeMultiAxes.setHighlight(highlight);
+    }
+
+    private void remove() {
+      number.remove();
+      btnHighlighter.remove();
+      fnVolume.remove();
+      fbFnVolume.remove();
+      fnModParticle.remove();
+      fbFnModParticle.remove();
+      initMotlFile.remove();
+      fbInitMotlFile.remove();
+      tiltRangeMin.remove();
+      tiltRangeMax.remove();
+      tiltRangeMultiAxes.remove();
+      fbTiltRangeMultiAxes.remove();
+    }
+
+    /**
+     * Saves the values and disconnects the cells from the table, so that they can be
+     * garbage collected.
+     */
+    private void release() {
+      VolumeRow.this.fnVolume.releaseCell();
+      VolumeRow.this.fnModParticle.releaseCell();
+      VolumeRow.this.initMotlFile.releaseCell();
+      VolumeRow.this.tiltRangeMin.releaseCell();
+      VolumeRow.this.tiltRangeMax.releaseCell();
+      VolumeRow.this.tiltRangeMultiAxes.releaseCell();
+      btnHighlighter.removeHeaders(number, table.getVolumeNumberHeaderCell());
+      fnVolume.removeHeaders();
+      fbFnVolume.removeHeaders();
+      fnModParticle.removeHeaders();
+      fbFnModParticle.removeHeaders();
+      initMotlFile.removeHeaders();
+      fbInitMotlFile.removeHeaders();
+      tiltRangeMin.removeHeaders();
+      tiltRangeMax.removeHeaders();
+      tiltRangeMultiAxes.removeHeaders();
+      fbTiltRangeMultiAxes.removeHeaders();
+      if (initMotlFileColumn != null) {
+        initMotlFileColumn.remove(initMotlFile);
+        initMotlFileColumn.remove(fbInitMotlFile);
+      }
+      if (tiltRangeColumn != null) {
+        tiltRangeColumn.remove(tiltRangeMin);
+        tiltRangeColumn.remove(tiltRangeMax);
+        tiltRangeColumn.remove(tiltRangeMultiAxes);
+        tiltRangeColumn.remove(fbTiltRangeMultiAxes);
+      }
+    }
+
+    private void display() {
+      constraints.gridwidth = 1;
+      number.add(panel, layout, constraints);
+      btnHighlighter.add(panel, layout, constraints);
+      fnVolume.add(panel, layout, constraints);
+      fbFnVolume.add(panel, layout, constraints);
+      fnModParticle.add(panel, layout, constraints);
+      fbFnModParticle.add(panel, layout, constraints);
+      initMotlFile.add(panel, layout, constraints);
+      fbInitMotlFile.add(panel, layout, constraints);
+      if (!table.isTiltRangeMultiAxes()) {
+        tiltRangeMin.add(panel, layout, constraints);
+        constraints.gridwidth = GridBagConstraints.REMAINDER;
+        tiltRangeMax.add(panel, layout, constraints);
+      }
+      else {
+        tiltRangeMultiAxes.add(panel, layout, constraints);
+        constraints.gridwidth = GridBagConstraints.REMAINDER;
+        fbTiltRangeMultiAxes.add(panel, layout, constraints);
+      }
+    }
+
+    private void setTooltips() {
+      fnVolume.setToolTipText("The filename of the tomogram in MRC format.");
+      fbFnVolume.setToolTipText("Select a filename of the tomogram in MRC format.");
+      fnModParticle.setToolTipText("The filename of the IMOD model specifying particle "
+          + "positions in the tomogram.");
+      fbFnModParticle
+          .setToolTipText("Select a filename of the IMOD model specifying particle "
+              + "positions in the tomogram.");
+      initMotlFile.setToolTipText("The name of a .csv file containing an initial "
+          + "motive list with orientations and shifts.");
+      fbInitMotlFile
+          .setToolTipText("Select a .csv file with initial orientations and shifts");
+      String tooltip = " tilt angle (in degrees) used "
+          + "during image acquisition for this tomogram.  Used only if missing "
+          + "wedge compensation is enabled.";
+      tiltRangeMin.setToolTipText("The minimum" + tooltip);
+      tiltRangeMax.setToolTipText("The maximum" + tooltip);
+      tiltRangeMultiAxes
+          .setToolTipText("A binary mask file in MRC format with 0's and 1's indicating "
+              + "missing and valid regions in Fourier space, respectively, for this "
+              + "volume.  The mask should be cubical, with an even number of voxels, "
+              + "at least as large as the largest dimension of the reference, along "
+              + "each edge.");
+    }
   }
 }
@@ -331,6 +331,10 @@ final class VolumeTable implements Expandable, Highlightable, Run3dmodButtonCont
     return btnExpandInitMotlFile.isExpanded();
   }
 
+  boolean isTiltRangeMultiAxesExpanded() {
+    return btnExpandTiltRangeMultiAxes.isExpanded();
+  }
+
   public void expand(final GlobalExpandButton button) {
   }
 
@@ -371,6 +375,16 @@ final class VolumeTable implements Expandable, Highlightable, Run3dmodButtonCont
     updateDisplay();
   }
 
+  /**
+   * Called by a row when its highlight changes.  Only one row can be highlighted.
+   * @param row
+   * @param highlight
+   */
+  void msgRowHighlighted(final VolumeRow row, final boolean highlight) {
+    rowList.msgRowHighlighted(row, highlight);
+    updateDisplay();
+  }
+
   public void action(final Run3dmodButton button,
       final Run3dmodMenuOptions run3dmodMenuOptions) {
     action(button.getActionCommand(), run3dmodMenuOptions);
@@ -898,6 +912,7 @@ final class VolumeTable implements Expandable, Highlightable, Run3dmodButtonCont
   private static final class RowList {
     private final List<VolumeRow> list = new ArrayList<VolumeRow>();
     private ConstPeetMetaData metaData = null;
+    private VolumeRow highlightedRow = null;
 
     private int size() {
       return list.size();
@@ -929,6 +944,10 @@ final class VolumeTable implements Expandable, Highlightable, Run3dmodButtonCont
       if (row != null) {
         index = row.getIndex();
         list.remove(index);
+        row.releaseCells();
+        if (row == highlightedRow) {
+          highlightedRow = null;
+        }
         for (int i = index; i < list.size(); i++) {
           list.get(i).setIndex(i);
         }
@@ -1019,6 +1038,8 @@ final class VolumeTable implements Expandable, Highlightable, Run3dmodButtonCont
       VolumeRow rowMoveDown = list.remove(rowIndex - 1);
       list.add(rowIndex - 1, rowMoveUp);
       list.add(rowIndex, rowMoveDown);
+      rowMoveUp.setIndex(rowIndex - 1);
+      rowMoveDown.setIndex(rowIndex);
     }
 
     private void moveRowDown(final int rowIndex) {
@@ -1026,6 +1047,27 @@ final class VolumeTable implements Expandable, Highlightable, Run3dmodButtonCont
       VolumeRow rowMoveDown = list.remove(rowIndex);
       list.add(rowIndex, rowMoveUp);
       list.add(rowIndex + 1, rowMoveDown);
+      rowMoveUp.setIndex(rowIndex);
+      rowMoveDown.setIndex(rowIndex + 1);
+    }
+
+    /**
+     * Keeps track of the highlighted row and turns off the highlight of the row that
+     * was highlighted before.
+     * @param row
+     * @param highlight
+     */
+    private void msgRowHighlighted(final VolumeRow row, final boolean highlight) {
+      if (highlight) {
+        VolumeRow oldRow = highlightedRow;
+        highlightedRow = row;
+        if (oldRow != null && oldRow != row) {
+          oldRow.setHighlighterSelected(false);
+        }
+      }
+      else if (row == highlightedRow) {
+        highlightedRow = null;
+      }
     }
 
     /**
@@ -1128,22 +1170,11 @@ final class VolumeTable implements Expandable, Highlightable, Run3dmodButtonCont
     }
 
     private boolean isHighlighted() {
-      for (int i = 0; i < list.size(); i++) {
-        if (list.get(i).isHighlighted()) {
-          return true;
-        }
-      }
-      return false;
+      return highlightedRow != null;
     }
 
     private VolumeRow getHighlightedRow() {
-      for (int i = 0; i < list.size(); i++) {
-        VolumeRow row = list.get(i);
-        if (row.isHighlighted()) {
-          return row;
-        }
-      }
-      return null;
+      return highlightedRow;
     }
 
     private int getMaxRowTextSize(final boolean tiltRangeMultiAxes) {
@@ -1156,13 +1187,10 @@ final class VolumeTable implements Expandable, Highlightable, Run3dmodButtonCont
     }
 
     private int getHighlightedRowIndex() {
-      for (int i = 0; i < list.size(); i++) {
-        VolumeRow row = list.get(i);
-        if (row.isHighlighted()) {
-          return i;
-        }
+      if (highlightedRow == null) {
+        return -1;
       }
-      return -1;
+      return highlightedRow.getIndex();
     }
   }
 
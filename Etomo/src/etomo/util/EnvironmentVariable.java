@@ -1,13 +1,22 @@
 package etomo.util;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
 
 import etomo.BaseManager;
 import etomo.process.SystemProgram;
 import etomo.type.AxisID;
 
 /**
- * <p>Description: </p>
+ * <p>Description: Gets environment variables.  The environment is captured once, the
+ * first time a variable is asked for, and all lookups after that come from the
+ * snapshot.  The environment doesn't depend on the dataset, so there is one snapshot
+ * for all of them.  The snapshot comes from System.getenv(), which is the same
+ * environment that a process started by Etomo sees.  If System.getenv() isn't allowed,
+ * the environment is read by running env (cmd.exe /C set on Windows) once.  Call
+ * refresh to capture the environment again.</p>
  * 
  * <p>Copyright: Copyright 2006</p>
  *
@@ -18,6 +27,8 @@ import etomo.type.AxisID;
  * @author $Author$
  * 
  * @version $Revision$
+ * 
+ * @threadsafe
  */
 public final class EnvironmentVariable {
   public static final String rcsid = "$Id$";
@@ -27,7 +38,8 @@ public final class EnvironmentVariable {
 
   public static final EnvironmentVariable INSTANCE = new EnvironmentVariable();
 
-  private final HashMap variableList = new HashMap();
+  // Unmodifiable; null until the environment is captured.  Guarded by this.
+  private Map<String, String> snapshot = null;
 
   private EnvironmentVariable() {
   }
@@ -36,176 +48,105 @@ public final class EnvironmentVariable {
    * Return an environment variable value
    * 
    * @param varName
-   * @return String
+   * @return String - the value, or an empty string if the variable is not set
    */
   public String getValue(BaseManager manager, String propertyUserDir, String varName,
       AxisID axisID) {
-    String value = "";
-    // prevent multiple reads and writes at the same time
-    synchronized (variableList) {
-      if (variableList.containsKey(varName)) {
-        value = (String) variableList.get(varName);
-        if (value == null) {
-          return "";
-        }
-        return value;
-      }
-    }
-    // There is not a real good way to access the system environment variables
-    // since the primary method was deprecated
-    SystemProgram readEnvVar;
-    if (Utilities.isWindowsOS()) {
-      String var = "%" + varName + "%";
-      readEnvVar = new SystemProgram(manager, propertyUserDir, new String[] { "cmd.exe",
-          "/C", "echo", var }, axisID);
-      try {
-        readEnvVar.run();
-      }
-      catch (Exception excep) {
-        excep.printStackTrace();
-        System.err.println(excep.getMessage());
-        System.err.println("Unable to run cmd command to find " + varName
-            + " environment variable");
-
-        return "";
-      }
-      String[] stderr = readEnvVar.getStdError();
-      if (stderr != null && stderr.length > 0) {
-        System.err.println("Error running 'cmd.exe' command");
-        for (int i = 0; i < stderr.length; i++) {
-          System.err.println(stderr[i]);
-        }
-      }
-      // Return the first line from the command
-      String[] stdout = readEnvVar.getStdOutput();
-      if (stdout != null && stdout.length > 0) {
-        // if the variable isn't set, echo will return the string sent to it
-        if (!stdout[0].equals(var)) {
-          value = stdout[0];
-        }
-      }
-    }
-    // Non windows environment
-    else {
-      readEnvVar = new SystemProgram(manager, propertyUserDir, new String[] { "env" },
-          axisID);
-      try {
-        readEnvVar.run();
-      }
-      catch (Exception excep) {
-        excep.printStackTrace();
-        System.err.println(excep.getMessage());
-        System.err.println("Unable to run env command to find " + varName
-            + " environment variable");
-
-        return "";
-      }
-      String[] stderr = readEnvVar.getStdError();
-      if (stderr.length > 0) {
-        System.err.println("Error running 'env' command");
-        for (int i = 0; i < stderr.length; i++) {
-          System.err.println(stderr[i]);
-        }
-      }
-
-      // Search through the evironment string array to find the request
-      // environment variable
-      String searchString = varName + "=";
-      int nChar = searchString.length();
-      String[] stdout = readEnvVar.getStdOutput();
-      for (int i = 0; i < stdout.length; i++) {
-        if (stdout[i].indexOf(searchString) == 0) {
-          value = stdout[i].substring(nChar);
-          break;
-        }
-      }
-    }
-    // prevent multiple reads and writes at the same time
-    synchronized (variableList) {
-      variableList.put(varName, value);
+    String value = getSnapshot(manager, propertyUserDir, axisID).get(varName);
+    if (value == null) {
+      return "";
     }
     return value;
   }
 
   /**
-   * Return true if an environment variable value exists.  Doesn't use
-   * variableList because getValue doesn't distinguish between an empty env var
-   * and a non-existant one.  If unable to check, returns false.
+   * Return true if an environment variable value exists.  If unable to check, returns
+   * false.
    * 
    * @param varName
    * @return boolean
    */
   public boolean exists(BaseManager manager, String propertyUserDir, String varName,
       AxisID axisID) {
-    // There is not a real good way to access the system environment variables
-    // since the primary method was deprecated
-    SystemProgram readEnvVar;
-    if (Utilities.isWindowsOS()) {
-      String var = "%" + varName + "%";
-      readEnvVar = new SystemProgram(manager, propertyUserDir, new String[] { "cmd.exe",
-          "/C", "echo", var }, axisID);
-      try {
-        readEnvVar.run();
-      }
-      catch (Exception excep) {
-        excep.printStackTrace();
-        System.err.println(excep.getMessage());
-        System.err.println("Unable to run cmd command to find " + varName
-            + " environment variable");
+    return getSnapshot(manager, propertyUserDir, axisID).containsKey(varName);
+  }
 
-        return false;
-      }
-      String[] stderr = readEnvVar.getStdError();
-      if (stderr != null && stderr.length > 0) {
-        System.err.println("Error running 'cmd.exe' command");
-        for (int i = 0; i < stderr.length; i++) {
-          System.err.println(stderr[i]);
-        }
+  /**
+   * Drop the snapshot, so that the environment will be captured again the next time a
+   * variable is asked for.
+   */
+  public synchronized void refresh() {
+    snapshot = null;
+  }
+
+  /**
+   * Get the snapshot, capturing it if necessary.  The lock is held while capturing so
+   * that simultaneous lookups don't each run env.
+   * @param propertyUserDir - the directory to run env in, if it has to be run
+   * @return an unmodifiable map of variable names to values
+   */
+  private synchronized Map<String, String> getSnapshot(BaseManager manager,
+      String propertyUserDir, AxisID axisID) {
+    if (snapshot == null) {
+      try {
+        snapshot = System.getenv();
       }
-      // Return the first line from the command
-      String[] stdout = readEnvVar.getStdOutput();
-      if (stdout != null && stdout.length > 0) {
-        // if the variable isn't set, echo will return the string sent to it
-        if (!stdout[0].equals(var)) {
-          return true;
-        }
+      catch (SecurityException e) {
+        System.err.println("Unable to get the environment:  " + e.getMessage());
+        snapshot = readEnvironment(manager, propertyUserDir, axisID);
       }
     }
+    return snapshot;
+  }
+
+  /**
+   * Read the environment by running env, or cmd.exe /C set on Windows.
+   * @return an unmodifiable map of variable names to values, which is empty if the
+   * command couldn't be run
+   */
+  private Map<String, String> readEnvironment(BaseManager manager,
+      String propertyUserDir, AxisID axisID) {
+    String[] command;
+    Map<String, String> environment;
+    if (Utilities.isWindowsOS()) {
+      command = new String[] { "cmd.exe", "/C", "set" };
+      // Windows environment variable names are not case sensitive.
+      environment = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+    }
     // Non windows environment
     else {
-      readEnvVar = new SystemProgram(manager, propertyUserDir, new String[] { "env" },
-          axisID);
-      try {
-        readEnvVar.run();
-      }
-      catch (Exception excep) {
-        excep.printStackTrace();
-        System.err.println(excep.getMessage());
-        System.err.println("Unable to run env command to find " + varName
-            + " environment variable");
-
-        return false;
-      }
-      String[] stderr = readEnvVar.getStdError();
-      if (stderr.length > 0) {
-        System.err.println("Error running 'env' command");
-        for (int i = 0; i < stderr.length; i++) {
-          System.err.println(stderr[i]);
-        }
+      command = new String[] { "env" };
+      environment = new HashMap<String, String>();
+    }
+    SystemProgram readEnv = new SystemProgram(manager, propertyUserDir, command, axisID);
+    try {
+      readEnv.run();
+    }
+    catch (Exception excep) {
+      excep.printStackTrace();
+      System.err.println(excep.getMessage());
+      System.err.println("Unable to run " + command[0]
+          + " command to find environment variables");
+      return Collections.unmodifiableMap(environment);
+    }
+    String[] stderr = readEnv.getStdError();
+    if (stderr != null && stderr.length > 0) {
+      System.err.println("Error running '" + command[0] + "' command");
+      for (int i = 0; i < stderr.length; i++) {
+        System.err.println(stderr[i]);
       }
-
-      // Search through the evironment string array to find the request
-      // environment variable
-      String searchString = varName + "=";
-      int nChar = searchString.length();
-      String[] stdout = readEnvVar.getStdOutput();
+    }
+    String[] stdout = readEnv.getStdOutput();
+    if (stdout != null) {
       for (int i = 0; i < stdout.length; i++) {
-        if (stdout[i].indexOf(searchString) == 0) {
-          return true;
+        int index = stdout[i].indexOf('=');
+        // Skip the continuation lines of multi-line values.
+        if (index > 0) {
+          environment.put(stdout[i].substring(0, index), stdout[i].substring(index + 1));
         }
       }
     }
-    return false;
+    return Collections.unmodifiableMap(environment);
   }
 }
 /**
@@ -0,0 +1,47 @@
+package etomo.util;
+
+import etomo.type.AxisID;
+
+import junit.framework.TestCase;
+
+/**
+* <p>Description: </p>
+*
+* <p>Copyright: Copyright 2026</p>
+*
+* <p>Organization:
+* Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+* University of Colorado</p>
+*
+* @author $Author$
+*
+* @version $Revision$
+*
+* <p> $Log$ </p>
+*/
+public class EnvironmentVariableTest extends TestCase {
+  public static final String rcsid = "$Id:$";
+
+  private static final String MISSING = "ETOMO_ENVIRONMENT_VARIABLE_TEST_MISSING";
+
+  public void testGetValue() {
+    String path = System.getenv("PATH");
+    assertEquals(path == null ? "" : path, EnvironmentVariable.INSTANCE.getValue(null,
+        null, "PATH", AxisID.ONLY));
+    assertEquals("", EnvironmentVariable.INSTANCE.getValue(null, null, MISSING,
+        AxisID.ONLY));
+  }
+
+  public void testExists() {
+    assertEquals(System.getenv("PATH") != null, EnvironmentVariable.INSTANCE.exists(
+        null, UtilTests.TEST_ROOT_DIR.getAbsolutePath(), "PATH", AxisID.ONLY));
+    assertFalse(EnvironmentVariable.INSTANCE.exists(null, null, MISSING, AxisID.ONLY));
+  }
+
+  public void testRefresh() {
+    String home = EnvironmentVariable.INSTANCE.getValue(null, null, "HOME", AxisID.ONLY);
+    EnvironmentVariable.INSTANCE.refresh();
+    assertEquals(home, EnvironmentVariable.INSTANCE.getValue(null, null, "HOME",
+        AxisID.ONLY));
+  }
+}
@@ -34,20 +34,28 @@ class FileModifiedFlag {
 
   private File file;
   private long lastModified = EtomoNumber.LONG_NULL_VALUE;
+  private long length = EtomoNumber.LONG_NULL_VALUE;
 
   FileModifiedFlag(File file) {
     this.file = file;
   }
 
+  /**
+   * The file is modified if its modification time or size has changed.  Compares the
+   * modification time for inequality, so that replacing the file with an older copy is
+   * noticed, and compares the size because the modification time may be too coarse to
+   * catch a change made soon after the last read.
+   * @return
+   */
   boolean isModifiedSinceLastRead() {
-    long fileLastModified = file.lastModified();
     boolean modified = lastModified == EtomoNumber.LONG_NULL_VALUE
-        || fileLastModified > lastModified;
+        || file.lastModified() != lastModified || file.length() != length;
     return modified;
   }
 
   void setReadingNow() {
     lastModified = file.lastModified();
+    length = file.length();
   }
 
   long getLastModified() {
@@ -56,9 +64,10 @@ class FileModifiedFlag {
 
   void reset() {
     lastModified = EtomoNumber.LONG_NULL_VALUE;
+    length = EtomoNumber.LONG_NULL_VALUE;
   }
 
   public String toString() {
-    return file.getAbsolutePath() + ": " + lastModified;
+    return file.getAbsolutePath() + ": " + lastModified + "," + length;
   }
 }
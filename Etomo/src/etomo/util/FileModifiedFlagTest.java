@@ -1,6 +1,7 @@
 package etomo.util;
 
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
 
 import junit.framework.TestCase;
@@ -37,12 +38,38 @@ public class FileModifiedFlagTest extends TestCase {
     FileModifiedFlag fileModifiedFlag = new FileModifiedFlag(testFile);
   }
 
-  //TODO
   public final void testIsModifiedSinceLastRead() throws IOException {
+    write("first");
+    FileModifiedFlag fileModifiedFlag = new FileModifiedFlag(testFile);
+    assertTrue("never read", fileModifiedFlag.isModifiedSinceLastRead());
+    fileModifiedFlag.setReadingNow();
+    assertFalse(fileModifiedFlag.isModifiedSinceLastRead());
+    long lastModified = testFile.lastModified();
+    write("second line");
+    testFile.setLastModified(lastModified);
+    assertTrue("size changed", fileModifiedFlag.isModifiedSinceLastRead());
+    fileModifiedFlag.setReadingNow();
+    testFile.setLastModified(lastModified - 10000);
+    assertTrue("replaced with an older file", fileModifiedFlag.isModifiedSinceLastRead());
   }
 
-  //TODO
   public final void testSetReadingNow() throws IOException {
+    write("first");
+    FileModifiedFlag fileModifiedFlag = new FileModifiedFlag(testFile);
+    fileModifiedFlag.setReadingNow();
+    assertEquals(testFile.lastModified(), fileModifiedFlag.getLastModified());
+    fileModifiedFlag.reset();
+    assertTrue(fileModifiedFlag.isModifiedSinceLastRead());
+  }
+
+  private void write(String string) throws IOException {
+    FileWriter writer = new FileWriter(testFile);
+    try {
+      writer.write(string);
+    }
+    finally {
+      writer.close();
+    }
   }
 }
 /**
@@ -1,7 +1,11 @@
 package etomo.util;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileReader;
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
 import java.util.Hashtable;
 
 import etomo.ApplicationManager;
@@ -213,6 +217,8 @@ public class MRCHeader {
   // n'ton member variables
   //
   private static Hashtable instances = new Hashtable();
+  // The number of lines of header output kept in memory.
+  private static final int MAX_OUTPUT_LINES = 1000;
   //
   // member variables to prevent unnecessary reads
   //
@@ -245,6 +251,11 @@ public class MRCHeader {
   private double zPixelSpacing = Double.NaN;
   private EtomoNumber imageRotation = new EtomoNumber(EtomoNumber.Type.DOUBLE);
   private int binning = Integer.MIN_VALUE;
+  private final double[] origin = { Double.NaN, Double.NaN, Double.NaN };
+  private final double[] tiltAngles = { Double.NaN, Double.NaN, Double.NaN, Double.NaN,
+      Double.NaN, Double.NaN };
+  private int extendedHeaderSize = -1;
+  private String extendedHeaderType = null;
   private AxisID axisID;
   private final String fileLocation;
 
@@ -336,6 +347,9 @@ public class MRCHeader {
   // other functions
   //
   /**
+   * Reads the header of the file.  MRC files are read directly; other files, and MRC
+   * files which can't be read directly, are read by running the header program.  The
+   * header is only read again if the file has been modified.
    * @returns true if file exists
    */
   public synchronized boolean read(BaseManager manager) throws IOException,
@@ -354,16 +368,62 @@ public class MRCHeader {
       return true;
     }
     Utilities.timestamp("read", "header", filename, Utilities.STARTED_STATUS);
+    MRCHeaderReader reader = null;
+    try {
+      reader = MRCHeaderReader.read(file);
+    }
+    catch (IOException e) {
+      // Let the header program try, so that the error is reported the same way.
+      e.printStackTrace();
+    }
+    if (reader != null) {
+      modifiedFlag.setReadingNow();
+      read(manager, reader);
+      Utilities.timestamp("read", "header", filename, Utilities.FINISHED_STATUS);
+      return true;
+    }
+
+    modifiedFlag.setReadingNow();
+    boolean success = false;
+    try {
+      readWithProgram(manager);
+      success = true;
+    }
+    finally {
+      // Don't keep a failed read, so that the next read tries again and reports the
+      // error.
+      if (!success) {
+        modifiedFlag.reset();
+      }
+    }
+    Utilities.timestamp("read", "header", filename, Utilities.FINISHED_STATUS);
+    return true;
+  }
 
+  /**
+   * Reads the header by running the header program.
+   */
+  private void readWithProgram(BaseManager manager) throws IOException,
+      InvalidParameterException {
     // Run the header command on the filename, need to use a String[] here to
     // prevent the Runtime from breaking up the command and arguments at spaces.
     String[] commandArray = new String[2];
     commandArray[0] = ApplicationManager.getIMODBinPath() + "header";
     commandArray[1] = filename;
     SystemProgram header = new SystemProgram(manager, fileLocation, commandArray, axisID);
-    modifiedFlag.setReadingNow();
+    // Keep the output of large files out of memory.
+    header.setStreamingOutput(MAX_OUTPUT_LINES, true);
     header.run();
+    try {
+      parseOutput(manager, header);
+    }
+    finally {
+      header.deleteOutputFiles();
+    }
+  }
 
+  private void parseOutput(BaseManager manager, SystemProgram header)
+      throws IOException, InvalidParameterException {
     if (header.getExitValue() != 0) {
       ProcessMessages messages = header.getProcessMessages();
       if (messages.errorListSize() > 0) {
@@ -392,94 +452,175 @@ public class MRCHeader {
       Utilities.timestamp("read", "header", filename, Utilities.FAILED_STATUS);
       throw new IOException("header returned no data");
     }
+    File outputFile = header.getStdOutputFile();
+    if (!header.isStdOutputTruncated() || outputFile == null) {
+      for (int i = 0; i < stdOutput.length; i++) {
+        parseLine(manager, stdOutput[i]);
+      }
+      return;
+    }
+    // Only the end of the output is in memory, so parse the saved copy.
+    BufferedReader reader = new BufferedReader(new FileReader(outputFile));
+    try {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        parseLine(manager, line);
+      }
+    }
+    finally {
+      reader.close();
+    }
+  }
 
-    for (int i = 0; i < stdOutput.length; i++) {
-      // Parse the size of the data
-      // Note the initial space in the string below
-      // Need to get brief header and regular header in the same way, so change
-      // so that the output is trimmed for this parse.
-      if (stdOutput[i].trim().startsWith(SIZE_HEADER)) {
-        String[] tokens = stdOutput[i].trim().split("\\s+");
-        if (debug) {
-          System.out.print("tokens=");
-          if (tokens != null) {
-            for (int j = 0; j < tokens.length; j++) {
-              System.out.print(tokens[j] + ",");
-            }
+  /**
+   * Parses one line of output from the header program.
+   */
+  private void parseLine(BaseManager manager, String line) throws IOException {
+    // Parse the size of the data
+    // Note the initial space in the string below
+    // Need to get brief header and regular header in the same way, so change
+    // so that the output is trimmed for this parse.
+    if (line.trim().startsWith(SIZE_HEADER)) {
+      String[] tokens = line.trim().split("\\s+");
+      if (debug) {
+        System.out.print("tokens=");
+        if (tokens != null) {
+          for (int j = 0; j < tokens.length; j++) {
+            System.out.print(tokens[j] + ",");
           }
         }
-        if (tokens.length < N_SECTIONS_INDEX + 1) {
-          Utilities.timestamp("read", "header", filename, Utilities.FAILED_STATUS);
-          throw new IOException(
-              "Header returned less than three parameters for image size");
-        }
-        nColumns = Integer.parseInt(tokens[N_COLUMNS_INDEX]);
-        try {
-          nRows = Integer.parseInt(tokens[N_ROWS_INDEX]);
-        }
-        catch (NumberFormatException e) {
-          e.printStackTrace();
-          nRows = -1;
-          Utilities.timestamp("read", "header", filename, Utilities.FAILED_STATUS);
-          throw new NumberFormatException("nRows not set, token is "
-              + tokens[N_ROWS_INDEX]);
-        }
-        try {
-          nSections = Integer.parseInt(tokens[N_SECTIONS_INDEX]);
-        }
-        catch (NumberFormatException e) {
-          e.printStackTrace();
-          nSections = -1;
-          Utilities.timestamp("read", "header", filename, Utilities.FAILED_STATUS);
-          throw new NumberFormatException("nSections not set, token is "
-              + tokens[N_SECTIONS_INDEX]);
-        }
       }
+      if (tokens.length < N_SECTIONS_INDEX + 1) {
+        Utilities.timestamp("read", "header", filename, Utilities.FAILED_STATUS);
+        throw new IOException(
+            "Header returned less than three parameters for image size");
+      }
+      nColumns = Integer.parseInt(tokens[N_COLUMNS_INDEX]);
+      try {
+        nRows = Integer.parseInt(tokens[N_ROWS_INDEX]);
+      }
+      catch (NumberFormatException e) {
+        e.printStackTrace();
+        nRows = -1;
+        Utilities.timestamp("read", "header", filename, Utilities.FAILED_STATUS);
+        throw new NumberFormatException("nRows not set, token is "
+            + tokens[N_ROWS_INDEX]);
+      }
+      try {
+        nSections = Integer.parseInt(tokens[N_SECTIONS_INDEX]);
+      }
+      catch (NumberFormatException e) {
+        e.printStackTrace();
+        nSections = -1;
+        Utilities.timestamp("read", "header", filename, Utilities.FAILED_STATUS);
+        throw new NumberFormatException("nSections not set, token is "
+            + tokens[N_SECTIONS_INDEX]);
+      }
+    }
 
-      // Parse the mode
-      if (stdOutput[i].startsWith(" Map mode")) {
-        String[] tokens = stdOutput[i].split("\\s+");
-        if (tokens.length < 5) {
-          Utilities.timestamp("read", "header", filename, Utilities.FAILED_STATUS);
-          throw new IOException("Header returned less than one parameter for the mode");
-        }
-        mode = Integer.parseInt(tokens[4]);
+    // Parse the mode
+    if (line.startsWith(" Map mode")) {
+      String[] tokens = line.split("\\s+");
+      if (tokens.length < 5) {
+        Utilities.timestamp("read", "header", filename, Utilities.FAILED_STATUS);
+        throw new IOException("Header returned less than one parameter for the mode");
       }
-      // PixelsParsed will be set to true if there are no errors parsing
-      // "Pixel Spacing".
-      boolean pixelsParsed = false;
-      // Parse the pixels size
-      if (stdOutput[i].startsWith(" Pixel spacing")) {
-        String[] tokens = stdOutput[i].split("\\s+");
-        if (tokens.length < 7) {
-          Utilities.timestamp("read", "header", filename, Utilities.FAILED_STATUS);
-          throw new IOException(
-              "Header returned less than three parameters for pixel size");
-        }
-        pixelsParsed = parsePixelSpacing(manager, xPixelSize, tokens[4], true);
-        pixelsParsed = pixelsParsed
-            && parsePixelSpacing(manager, yPixelSize, tokens[5], !pixelsParsed);
-        pixelsParsed = pixelsParsed
-            && parsePixelSpacing(manager, zPixelSize, tokens[6], !pixelsParsed);
-
-        xPixelSpacing = xPixelSize.getDouble();
-        yPixelSpacing = yPixelSize.getDouble();
-        zPixelSpacing = zPixelSize.getDouble();
+      mode = Integer.parseInt(tokens[4]);
+    }
+    // PixelsParsed will be set to true if there are no errors parsing
+    // "Pixel Spacing".
+    boolean pixelsParsed = false;
+    // Parse the pixels size
+    if (line.startsWith(" Pixel spacing")) {
+      String[] tokens = line.split("\\s+");
+      if (tokens.length < 7) {
+        Utilities.timestamp("read", "header", filename, Utilities.FAILED_STATUS);
+        throw new IOException(
+            "Header returned less than three parameters for pixel size");
       }
+      pixelsParsed = parsePixelSpacing(manager, xPixelSize, tokens[4], true);
+      pixelsParsed = pixelsParsed
+          && parsePixelSpacing(manager, yPixelSize, tokens[5], !pixelsParsed);
+      pixelsParsed = pixelsParsed
+          && parsePixelSpacing(manager, zPixelSize, tokens[6], !pixelsParsed);
+
+      xPixelSpacing = xPixelSize.getDouble();
+      yPixelSpacing = yPixelSize.getDouble();
+      zPixelSpacing = zPixelSize.getDouble();
+    }
+
+    // If the pixel sizes are default value scan for FEI pixel size in the
+    // comment section
+    if (xPixelSize.equals(1.0) && yPixelSize.equals(1.0) && yPixelSize.equals(1.0)) {
+      parseFEIPixelSize(manager, line, !pixelsParsed);
+    }
+
+    parseOrigin(line);
+    parseTiltAngles(line);
+    parseExtendedHeaderSize(line);
 
-      // If the pixel sizes are default value scan for FEI pixel size in the
-      // comment section
+    // Parse the rotation angle and/or binning from the comment section
+    parseTiltAxis(line);
+    parseBinning(line);
+    parseTwodir(line);
+  }
+
+  /**
+   * Sets the header information from a header which was read directly from the file.
+   * Values are rounded to the precision that the header program prints, and the labels
+   * are parsed the same way as the header program's output, so the information is the
+   * same no matter how the header was read.
+   * @param manager
+   * @param reader
+   */
+  private void read(BaseManager manager, MRCHeaderReader reader) {
+    nColumns = reader.getNColumns();
+    nRows = reader.getNRows();
+    nSections = reader.getNSections();
+    mode = reader.getMode();
+    boolean pixelsParsed = parsePixelSpacing(manager, xPixelSize,
+        round(reader.getPixelSpacing(0), 4), true);
+    pixelsParsed = pixelsParsed
+        && parsePixelSpacing(manager, yPixelSize, round(reader.getPixelSpacing(1), 4),
+            !pixelsParsed);
+    pixelsParsed = pixelsParsed
+        && parsePixelSpacing(manager, zPixelSize, round(reader.getPixelSpacing(2), 4),
+            !pixelsParsed);
+    xPixelSpacing = xPixelSize.getDouble();
+    yPixelSpacing = yPixelSize.getDouble();
+    zPixelSpacing = zPixelSize.getDouble();
+    for (int i = 0; i < origin.length; i++) {
+      origin[i] = Double.parseDouble(round(reader.getOrigin(i), 4));
+    }
+    for (int i = 0; i < tiltAngles.length; i++) {
+      // Printed with one decimal place.
+      tiltAngles[i] = Math.round(reader.getTiltAngle(i) * 10) / 10.0;
+    }
+    extendedHeaderSize = reader.getExtendedHeaderSize();
+    extendedHeaderType = reader.getExtendedHeaderType();
+    for (int i = 0; i < reader.getNLabels(); i++) {
+      String label = reader.getLabel(i);
       if (xPixelSize.equals(1.0) && yPixelSize.equals(1.0) && yPixelSize.equals(1.0)) {
-        parseFEIPixelSize(manager, stdOutput[i], !pixelsParsed);
+        parseFEIPixelSize(manager, label, true);
       }
+      parseTiltAxis(label);
+      parseBinning(label);
+      parseTwodir(label);
+    }
+  }
 
-      // Parse the rotation angle and/or binning from the comment section
-      parseTiltAxis(stdOutput[i]);
-      parseBinning(stdOutput[i]);
-      parseTwodir(stdOutput[i]);
+  /**
+   * Round value to nDigits significant digits.
+   * @param value
+   * @param nDigits
+   * @return
+   */
+  private static String round(float value, int nDigits) {
+    if (value == 0 || Float.isNaN(value) || Float.isInfinite(value)) {
+      return String.valueOf(value);
     }
-    Utilities.timestamp("read", "header", filename, Utilities.FINISHED_STATUS);
-    return true;
+    return String.valueOf(new BigDecimal(value).round(new MathContext(nDigits))
+        .doubleValue());
   }
 
   /**
@@ -581,6 +722,51 @@ public class MRCHeader {
     return xPixelSpacing;
   }
 
+  /**
+   * @return the x origin, or NaN if it wasn't found
+   */
+  public double getXOrigin() {
+    return origin[0];
+  }
+
+  /**
+   * @return the y origin, or NaN if it wasn't found
+   */
+  public double getYOrigin() {
+    return origin[1];
+  }
+
+  /**
+   * @return the z origin, or NaN if it wasn't found
+   */
+  public double getZOrigin() {
+    return origin[2];
+  }
+
+  /**
+   * @param index - 0 through 2 for the original tilt angles, 3 through 5 for the
+   * current tilt angles
+   * @return the tilt angle, or NaN if it wasn't found
+   */
+  public double getTiltAngle(int index) {
+    return tiltAngles[index];
+  }
+
+  /**
+   * @return the size of the extended header in bytes, or -1 if it wasn't found
+   */
+  public int getExtendedHeaderSize() {
+    return extendedHeaderSize;
+  }
+
+  /**
+   * @return the extended header type (for example SERI or FEI1), or null if it
+   * isn't known.  Only available when the file was read directly.
+   */
+  public String getExtendedHeaderType() {
+    return extendedHeaderType;
+  }
+
   /**
    * Return the binning value found in the header or Ingeter.MIN_VALUE if
    * no binning value was found
@@ -614,6 +800,66 @@ public class MRCHeader {
     }
   }
 
+  /**
+   * Parse the origin line of the header output
+   * @param line
+   */
+  private void parseOrigin(String line) {
+    if (line.startsWith(" Origin on x,y,z")) {
+      String[] tokens = line.trim().split("\\s+");
+      if (tokens.length > 6) {
+        for (int i = 0; i < origin.length; i++) {
+          try {
+            origin[i] = Double.parseDouble(tokens[4 + i]);
+          }
+          catch (NumberFormatException e) {
+            origin[i] = Double.NaN;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Parse the tilt angles line of the header output.  The angles are in fixed width
+   * columns which may not be separated by spaces.
+   * @param line
+   */
+  private void parseTiltAngles(String line) {
+    String tag = " tilt angles (original,current) ";
+    int start = 40;
+    int width = 6;
+    if (line.startsWith(tag) && line.length() >= start + width * tiltAngles.length) {
+      for (int i = 0; i < tiltAngles.length; i++) {
+        try {
+          tiltAngles[i] = Double.parseDouble(line.substring(start + width * i,
+              start + width * (i + 1)).trim());
+        }
+        catch (NumberFormatException e) {
+          tiltAngles[i] = Double.NaN;
+        }
+      }
+    }
+  }
+
+  /**
+   * Parse the number of extra bytes from the space group line of the header output
+   * @param line
+   */
+  private void parseExtendedHeaderSize(String line) {
+    if (line.startsWith(" Space group,# extra bytes")) {
+      String[] tokens = line.trim().split("\\s+");
+      if (tokens.length > 6) {
+        try {
+          extendedHeaderSize = Integer.parseInt(tokens[6]);
+        }
+        catch (NumberFormatException e) {
+          extendedHeaderSize = -1;
+        }
+      }
+    }
+  }
+
   /**
    * Parse the binning parameter from the comments
    * @param line
@@ -674,6 +920,8 @@ public class MRCHeader {
         + ",yPixelSize=" + yPixelSize + ",\nzPixelSize=" + zPixelSize + ",xPixelSpacing="
         + xPixelSpacing + ",\nyPixelSpacing=" + yPixelSpacing + ",zPixelSpacing="
         + zPixelSpacing + ",\nimageRotation=" + imageRotation + ",binning=" + binning
-        + ",\naxisID=" + axisID;
+        + ",\nxOrigin=" + origin[0] + ",yOrigin=" + origin[1] + ",zOrigin=" + origin[2]
+        + ",\nextendedHeaderSize=" + extendedHeaderSize + ",extendedHeaderType="
+        + extendedHeaderType + ",\naxisID=" + axisID;
   }
 }
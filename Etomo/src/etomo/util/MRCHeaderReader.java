@@ -0,0 +1,291 @@
+package etomo.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>Description: Reads the 1024 byte header of an MRC file directly, instead of
+ * running the header program.  Handles both byte orders, using the same test as
+ * libiimod:  the header is read as little endian, and if the image size and map indices
+ * don't make sense it is read as big endian.</p>
+ *
+ * <p>Only understands MRC files with a current (2.6.20 and later) header.  Old-style
+ * headers, other file types that header can read, such as TIFF, and anything that
+ * doesn't look right cause read() to return null, so that the caller can run header
+ * instead.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * <p> $Log$ </p>
+ */
+final class MRCHeaderReader {
+  public static final String rcsid = "$Id:$";
+
+  static final int HEADER_SIZE = 1024;
+
+  private static final int IMOD_STAMP = 1146047817;
+  private static final int INVERTED_ORIGIN_FLAG = 4;
+  private static final int MAX_MODE = 31;
+  private static final int N_LABELS = 10;
+  private static final int LABEL_SIZE = 80;
+  // The header program prints the first 79 characters of each label.
+  private static final int PRINTED_LABEL_SIZE = 79;
+
+  // Byte offsets of the header entries.
+  private static final int NX = 0;
+  private static final int NY = 4;
+  private static final int NZ = 8;
+  private static final int MODE = 12;
+  private static final int MX = 28;
+  private static final int MY = 32;
+  private static final int MZ = 36;
+  private static final int XLEN = 40;
+  private static final int YLEN = 44;
+  private static final int ZLEN = 48;
+  private static final int MAPC = 64;
+  private static final int MAPR = 68;
+  private static final int MAPS = 72;
+  private static final int NEXT = 92;
+  private static final int EXTTYP = 104;
+  private static final int IMOD_STAMP_OFFSET = 152;
+  private static final int IMOD_FLAGS = 156;
+  private static final int TILT_ANGLES = 172;
+  private static final int ORIGIN = 196;
+  private static final int CMAP = 208;
+  private static final int NLABL = 220;
+  private static final int LABELS = 224;
+
+  private final float[] pixelSpacing = new float[3];
+  private final float[] origin = new float[3];
+  private final float[] tiltAngles = new float[6];
+
+  private final ByteOrder byteOrder;
+  private final int nColumns;
+  private final int nRows;
+  private final int nSections;
+  private final int mode;
+  private final int extendedHeaderSize;
+  private final String extendedHeaderType;
+  private final String[] labels;
+
+  private MRCHeaderReader(final ByteBuffer buffer) {
+    byteOrder = buffer.order();
+    nColumns = buffer.getInt(NX);
+    nRows = buffer.getInt(NY);
+    nSections = buffer.getInt(NZ);
+    mode = buffer.getInt(MODE);
+    extendedHeaderSize = buffer.getInt(NEXT);
+    extendedHeaderType = getType(buffer, EXTTYP);
+    // Pixel spacing is calculated the same way as libiimod.
+    int mx = buffer.getInt(MX);
+    int my = buffer.getInt(MY);
+    int mz = buffer.getInt(MZ);
+    float xlen = buffer.getFloat(XLEN);
+    float ylen = buffer.getFloat(YLEN);
+    float zlen = buffer.getFloat(ZLEN);
+    if (mx == 0 || xlen < 1.e-5) {
+      mx = my = mz = 1;
+      xlen = ylen = zlen = 1;
+    }
+    if (zlen < 1.e-5) {
+      zlen = mz * xlen / mx;
+    }
+    pixelSpacing[0] = xlen / mx;
+    pixelSpacing[1] = ylen / my;
+    pixelSpacing[2] = zlen / mz;
+    boolean invertOrigin = buffer.getInt(IMOD_STAMP_OFFSET) == IMOD_STAMP
+        && (buffer.getInt(IMOD_FLAGS) & INVERTED_ORIGIN_FLAG) != 0;
+    for (int i = 0; i < origin.length; i++) {
+      origin[i] = buffer.getFloat(ORIGIN + 4 * i);
+      if (invertOrigin) {
+        origin[i] *= -1;
+      }
+    }
+    for (int i = 0; i < tiltAngles.length; i++) {
+      tiltAngles[i] = buffer.getFloat(TILT_ANGLES + 4 * i);
+    }
+    labels = new String[buffer.getInt(NLABL)];
+    byte[] label = new byte[PRINTED_LABEL_SIZE];
+    for (int i = 0; i < labels.length; i++) {
+      buffer.position(LABELS + LABEL_SIZE * i);
+      buffer.get(label);
+      for (int j = 0; j < label.length; j++) {
+        if (label[j] == 0) {
+          label[j] = ' ';
+        }
+      }
+      try {
+        labels[i] = new String(label, "ISO-8859-1");
+      }
+      catch (UnsupportedEncodingException e) {
+        labels[i] = new String(label);
+      }
+    }
+  }
+
+  /**
+   * Reads the header of file.
+   * @param file
+   * @return the header, or null if file isn't an MRC file that can be read here
+   * @throws IOException
+   */
+  static MRCHeaderReader read(final File file) throws IOException {
+    FileInputStream stream = new FileInputStream(file);
+    try {
+      FileChannel channel = stream.getChannel();
+      if (channel.size() < HEADER_SIZE) {
+        return null;
+      }
+      ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer) == -1) {
+          return null;
+        }
+      }
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      if (!isValid(buffer)) {
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        if (!isValid(buffer)) {
+          return null;
+        }
+      }
+      // The origin is somewhere else in old-style headers.
+      if (buffer.get(CMAP) != 'M' || buffer.get(CMAP + 1) != 'A'
+          || buffer.get(CMAP + 2) != 'P') {
+        return null;
+      }
+      int mode = buffer.getInt(MODE);
+      int nLabels = buffer.getInt(NLABL);
+      if (mode < 0 || mode > MAX_MODE || nLabels < 0 || nLabels > N_LABELS) {
+        return null;
+      }
+      // Avoid dividing by zero when calculating the pixel spacing.
+      if (buffer.getInt(MX) != 0 && buffer.getFloat(XLEN) >= 1.e-5
+          && (buffer.getInt(MY) == 0 || buffer.getInt(MZ) == 0)) {
+        return null;
+      }
+      return new MRCHeaderReader(buffer);
+    }
+    finally {
+      stream.close();
+    }
+  }
+
+  /**
+   * The byte order test from libiimod (mrc_test_size).
+   * @param buffer
+   * @return true if the size and map indices are reasonable in the buffer's byte order
+   */
+  private static boolean isValid(final ByteBuffer buffer) {
+    int nx = buffer.getInt(NX);
+    int ny = buffer.getInt(NY);
+    int nz = buffer.getInt(NZ);
+    if (nx <= 0 || ny <= 0 || nz <= 0 || (nx > 65535 && ny > 65535 && nz > 65535)) {
+      return false;
+    }
+    for (int offset = MAPC; offset <= MAPS; offset += 4) {
+      int map = buffer.getInt(offset);
+      if (map < 0 || map > 4) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the four character type at offset, or null if there isn't one
+   */
+  private static String getType(final ByteBuffer buffer, final int offset) {
+    StringBuffer type = new StringBuffer();
+    for (int i = 0; i < 4; i++) {
+      char c = (char) buffer.get(offset + i);
+      if (!Character.isLetterOrDigit(c) || c > 127) {
+        return null;
+      }
+      type.append(c);
+    }
+    return type.toString();
+  }
+
+  ByteOrder getByteOrder() {
+    return byteOrder;
+  }
+
+  int getNColumns() {
+    return nColumns;
+  }
+
+  int getNRows() {
+    return nRows;
+  }
+
+  int getNSections() {
+    return nSections;
+  }
+
+  int getMode() {
+    return mode;
+  }
+
+  /**
+   * @param index - 0 for x, 1 for y, 2 for z
+   * @return pixel spacing in Angstroms
+   */
+  float getPixelSpacing(final int index) {
+    return pixelSpacing[index];
+  }
+
+  /**
+   * @param index - 0 for x, 1 for y, 2 for z
+   * @return
+   */
+  float getOrigin(final int index) {
+    return origin[index];
+  }
+
+  /**
+   * @param index - 0 through 2 for the original angles, 3 through 5 for the current
+   * angles
+   * @return
+   */
+  float getTiltAngle(final int index) {
+    return tiltAngles[index];
+  }
+
+  int getExtendedHeaderSize() {
+    return extendedHeaderSize;
+  }
+
+  /**
+   * @return the extended header type (for example SERI, FEI1, or AGAR), or null if the
+   * header doesn't have one
+   */
+  String getExtendedHeaderType() {
+    return extendedHeaderType;
+  }
+
+  int getNLabels() {
+    return labels.length;
+  }
+
+  /**
+   * @param index
+   * @return the label as it would be printed by the header program
+   */
+  String getLabel(final int index) {
+    return labels[index];
+  }
+}
@@ -0,0 +1,118 @@
+package etomo.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+import junit.framework.TestCase;
+
+/**
+* <p>Description: </p>
+*
+* <p>Copyright: Copyright 2026</p>
+*
+* <p>Organization:
+* Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+* University of Colorado</p>
+*
+* @author $Author$
+*
+* @version $Revision$
+*
+* <p> $Log$ </p>
+*/
+public class MRCHeaderReaderTest extends TestCase {
+  public static final String rcsid = "$Id:$";
+
+  private static final String HEADER_TEST_STACK = "headerTest.st";
+
+  private final File testDir = new File(UtilTests.TEST_ROOT_DIR, "MRCHeaderReader");
+
+  private byte[] header = null;
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    testDir.mkdirs();
+    File stack = new File(TestUtilites.INSTANCE.getUnitTestData(), HEADER_TEST_STACK);
+    header = new byte[MRCHeaderReader.HEADER_SIZE];
+    FileInputStream stream = new FileInputStream(stack);
+    try {
+      int offset = 0;
+      int nBytes;
+      while (offset < header.length
+          && (nBytes = stream.read(header, offset, header.length - offset)) > 0) {
+        offset += nBytes;
+      }
+    }
+    finally {
+      stream.close();
+    }
+  }
+
+  public void testRead() throws IOException {
+    MRCHeaderReader reader = MRCHeaderReader.read(write("little.st", header));
+    assertNotNull(reader);
+    assertEquals(ByteOrder.LITTLE_ENDIAN, reader.getByteOrder());
+    check(reader);
+  }
+
+  public void testSwappedRead() throws IOException {
+    byte[] swapped = header.clone();
+    // Swap the 4 byte words in front of the labels.
+    for (int i = 0; i < 224; i += 4) {
+      for (int j = 0; j < 2; j++) {
+        byte temp = swapped[i + j];
+        swapped[i + j] = swapped[i + 3 - j];
+        swapped[i + 3 - j] = temp;
+      }
+    }
+    // The extended header type and the MAP stamp are characters.
+    System.arraycopy(header, 104, swapped, 104, 4);
+    System.arraycopy(header, 208, swapped, 208, 4);
+    MRCHeaderReader reader = MRCHeaderReader.read(write("big.st", swapped));
+    assertNotNull(reader);
+    assertEquals(ByteOrder.BIG_ENDIAN, reader.getByteOrder());
+    check(reader);
+  }
+
+  public void testNotMRC() throws IOException {
+    byte[] notMRC = new byte[MRCHeaderReader.HEADER_SIZE];
+    // A TIFF file
+    notMRC[0] = 'I';
+    notMRC[1] = 'I';
+    notMRC[2] = 42;
+    assertNull("not an MRC file", MRCHeaderReader.read(write("notMRC.tif", notMRC)));
+    byte[] shortFile = new byte[100];
+    System.arraycopy(header, 0, shortFile, 0, shortFile.length);
+    assertNull("too short", MRCHeaderReader.read(write("short.st", shortFile)));
+  }
+
+  private void check(final MRCHeaderReader reader) {
+    assertEquals(512, reader.getNColumns());
+    assertEquals(512, reader.getNRows());
+    assertEquals(1, reader.getNSections());
+    assertEquals(1, reader.getMode());
+    assertEquals(3.17, reader.getPixelSpacing(0), 0.001);
+    assertEquals(3.17, reader.getPixelSpacing(1), 0.001);
+    assertEquals(3.17, reader.getPixelSpacing(2), 0.001);
+    assertEquals(0, reader.getOrigin(0), 0);
+    assertEquals(1024, reader.getExtendedHeaderSize());
+    assertNull("no extended header type", reader.getExtendedHeaderType());
+    assertEquals(2, reader.getNLabels());
+    assertTrue(reader.getLabel(1).indexOf("Tilt axis rotation angle = 77.1") != -1);
+  }
+
+  private File write(final String name, final byte[] bytes) throws IOException {
+    File file = new File(testDir, name);
+    FileOutputStream stream = new FileOutputStream(file);
+    try {
+      stream.write(bytes);
+    }
+    finally {
+      stream.close();
+    }
+    return file;
+  }
+}
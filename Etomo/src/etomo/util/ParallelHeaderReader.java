@@ -0,0 +1,123 @@
+package etomo.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+import javax.swing.SwingUtilities;
+
+import etomo.BaseManager;
+import etomo.type.AxisID;
+
+/**
+ * <p>Description: Reads MRC headers on a small pool of background threads.  Each
+ * header is read with MRCHeader.read, so the results are kept in the MRCHeader
+ * instances and later reads of the same files return right away.</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * @threadsafe
+ *
+ * <p> $Log$ </p>
+ */
+public final class ParallelHeaderReader {
+  public static final String rcsid = "$Id:$";
+
+  private static final int MAX_POOL_SIZE = 4;
+
+  private static ExecutorService executor = null;
+
+  private ParallelHeaderReader() {
+  }
+
+  /**
+   * Reads a header in the background.  The future returns the header, or throws an
+   * ExecutionException caused by the exception thrown by MRCHeader.read.  The future
+   * returns null if the file doesn't exist.
+   * @param manager
+   * @param fileLocation
+   * @param file
+   * @param done - run on the event dispatch thread when the read is finished; may be
+   * null
+   */
+  public static Future<MRCHeader> read(final BaseManager manager,
+      final String fileLocation, final File file, final Runnable done) {
+    FutureTask<MRCHeader> task = new FutureTask<MRCHeader>(new Callable<MRCHeader>() {
+      public MRCHeader call() throws Exception {
+        MRCHeader header = MRCHeader.getInstance(fileLocation, file.getAbsolutePath(),
+            AxisID.ONLY);
+        if (!header.read(manager)) {
+          return null;
+        }
+        return header;
+      }
+    }) {
+      protected void done() {
+        if (done != null) {
+          SwingUtilities.invokeLater(done);
+        }
+      }
+    };
+    getExecutor().execute(task);
+    return task;
+  }
+
+  /**
+   * Reads the headers in parallel and waits for them.  Errors are ignored, since a
+   * failed read is done again, and reported, the next time the header is read.
+   * @param manager
+   * @param fileLocation
+   * @param fileList
+   */
+  public static void readAll(final BaseManager manager, final String fileLocation,
+      final List<File> fileList) {
+    List<Future<MRCHeader>> futureList = new ArrayList<Future<MRCHeader>>();
+    for (int i = 0; i < fileList.size(); i++) {
+      futureList.add(read(manager, fileLocation, fileList.get(i), null));
+    }
+    for (int i = 0; i < futureList.size(); i++) {
+      try {
+        futureList.get(i).get();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      catch (ExecutionException e) {
+      }
+    }
+  }
+
+  private static synchronized ExecutorService getExecutor() {
+    if (executor == null) {
+      int poolSize = Math.min(MAX_POOL_SIZE, Runtime.getRuntime().availableProcessors());
+      executor = Executors.newFixedThreadPool(poolSize, new ThreadFactory() {
+        private int index = 0;
+
+        public synchronized Thread newThread(final Runnable runnable) {
+          Thread thread = new Thread(runnable, "HeaderReader-" + ++index);
+          thread.setDaemon(true);
+          // Keep the UI responsive.
+          thread.setPriority(Thread.NORM_PRIORITY - 1);
+          return thread;
+        }
+      });
+    }
+    return executor;
+  }
+}
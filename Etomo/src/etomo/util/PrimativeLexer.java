@@ -0,0 +1,317 @@
+package etomo.util;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+
+import etomo.storage.LogFile;
+import etomo.ui.swing.Token;
+
+/**
+ * <p>Description: Finds the primative tokens described in PrimativeTokenizer (EOL,
+ * EOF, ALPHANUM, SYMBOL, and WHITESPACE) without creating an object for each token.
+ * A file is read in blocks into a char buffer, and the current token is described by
+ * its type, offset, and length.  A string is only made from a token when getValue()
+ * is called, so callers can skip, compare, or append tokens without making strings.
+ * </p>
+ *
+ * <p>Follows the grammar of the StreamTokenizer configuration that
+ * PrimativeTokenizer used:  ALPHANUM characters are letters, digits, and characters
+ * above 255; "\n" is EOL; and a "\r" just before an EOL is dropped.</p>
+ *
+ * <p>To Use:
+ * construct with a file or a string.
+ * call initialize().
+ * call next() to go to the next token, until EOF is returned.  The current token is
+ * only valid until the next call to next().</p>
+ *
+ * <p>Copyright: Copyright 2026</p>
+ *
+ * <p>Organization:
+ * Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+ * University of Colorado</p>
+ *
+ * @author $Author$
+ *
+ * @version $Revision$
+ *
+ * <p> $Log$ </p>
+ */
+public final class PrimativeLexer {
+  public static final String rcsid = "$Id:$";
+
+  public static final String SYMBOLS = "!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~";
+
+  static final int DEFAULT_BLOCK_SIZE = 8192;
+
+  private static final boolean[] SYMBOL_TABLE = new boolean[128];
+  static {
+    for (int i = 0; i < SYMBOLS.length(); i++) {
+      SYMBOL_TABLE[SYMBOLS.charAt(i)] = true;
+    }
+  }
+
+  private final LogFile file;
+  private final String string;
+  private final int blockSize;
+
+  private LogFile.ReadingId readingId = null;
+  private Reader reader = null;
+  private char[] buffer = null;
+  // The data in the buffer ends at limit.
+  private int limit = 0;
+  // The next token starts at position.
+  private int position = 0;
+  // The offset in the input of buffer[0].
+  private int bufferOffset = 0;
+  private boolean endOfInput = false;
+  private Token.Type type = Token.Type.NULL;
+  private int start = 0;
+  private int length = 0;
+
+  public PrimativeLexer(final LogFile file) {
+    this(file, DEFAULT_BLOCK_SIZE);
+  }
+
+  PrimativeLexer(final LogFile file, final int blockSize) {
+    this.file = file;
+    this.blockSize = blockSize;
+    string = null;
+  }
+
+  public PrimativeLexer(final String string) {
+    file = null;
+    blockSize = DEFAULT_BLOCK_SIZE;
+    this.string = string == null ? "" : string;
+  }
+
+  /**
+   * Must be called before the first call to next().  Opens the file for reading.  The
+   * file is closed when EOF is reached.
+   * @throws FileNotFoundException
+   * @throws LogFile.LockException
+   */
+  public void initialize() throws FileNotFoundException, LogFile.LockException {
+    type = Token.Type.NULL;
+    start = 0;
+    length = 0;
+    position = 0;
+    bufferOffset = 0;
+    if (file == null) {
+      buffer = string.toCharArray();
+      limit = buffer.length;
+      endOfInput = true;
+      return;
+    }
+    buffer = new char[blockSize];
+    limit = 0;
+    endOfInput = false;
+    try {
+      readingId = file.openForReading();
+      reader = new FileReader(new File(file.getAbsolutePath()));
+    }
+    catch (FileNotFoundException e) {
+      if (readingId != null && !readingId.isEmpty()) {
+        file.closeRead(readingId);
+      }
+      readingId = null;
+      throw e;
+    }
+  }
+
+  /**
+   * Goes to the next token.  Returns EOF from then on when the end is reached.
+   * @return the type of the new current token
+   * @throws IOException
+   */
+  public Token.Type next() throws IOException {
+    if (type == Token.Type.EOF) {
+      return type;
+    }
+    start = position;
+    length = 0;
+    if (!available(0)) {
+      type = Token.Type.EOF;
+      close();
+      return type;
+    }
+    char ch = buffer[start];
+    if (ch == '\n') {
+      type = Token.Type.EOL;
+      length = 1;
+    }
+    else if (isAlphanum(ch)) {
+      type = Token.Type.ALPHANUM;
+      length = 1;
+      while (available(length) && isAlphanum(buffer[start + length])) {
+        length++;
+      }
+    }
+    else if (isSymbolChar(ch)) {
+      type = Token.Type.SYMBOL;
+      length = 1;
+    }
+    else {
+      type = Token.Type.WHITESPACE;
+      length = 1;
+      while (available(length) && isWhitespace(buffer[start + length])) {
+        length++;
+      }
+      // Roll a "\r" just before an EOL into the EOL.
+      if (buffer[start + length - 1] == '\r' && available(length)
+          && buffer[start + length] == '\n') {
+        if (length == 1) {
+          type = Token.Type.EOL;
+          position = start + 2;
+          return type;
+        }
+        // Skip the "\r".
+        position = start + length;
+        length--;
+        return type;
+      }
+    }
+    position = start + length;
+    return type;
+  }
+
+  public Token.Type getType() {
+    return type;
+  }
+
+  public boolean is(final Token.Type type) {
+    return this.type == type;
+  }
+
+  /**
+   * @return true if the current token is the SYMBOL symbol
+   */
+  public boolean isSymbol(final char symbol) {
+    return type == Token.Type.SYMBOL && buffer[start] == symbol;
+  }
+
+  /**
+   * @return the first character of the current token, or ' ' if it has no value (like
+   * Token.getChar())
+   */
+  public char getChar() {
+    if (!hasValue()) {
+      return ' ';
+    }
+    return buffer[start];
+  }
+
+  /**
+   * @return the number of characters in the value of the current token
+   */
+  public int getLength() {
+    return hasValue() ? length : 0;
+  }
+
+  /**
+   * @return the offset of the current token in the input, in characters
+   */
+  public int getOffset() {
+    return bufferOffset + start;
+  }
+
+  /**
+   * @return the value of the current token, or null if it doesn't have one
+   */
+  public String getValue() {
+    if (!hasValue()) {
+      return null;
+    }
+    return new String(buffer, start, length);
+  }
+
+  /**
+   * Appends the value of the current token to stringBuffer.
+   */
+  public void appendTo(final StringBuffer stringBuffer) {
+    if (hasValue()) {
+      stringBuffer.append(buffer, start, length);
+    }
+  }
+
+  static boolean isAlphanum(final char ch) {
+    return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z')
+        || (ch >= '0' && ch <= '9') || ch > 255;
+  }
+
+  static boolean isSymbolChar(final char ch) {
+    return ch < SYMBOL_TABLE.length && SYMBOL_TABLE[ch];
+  }
+
+  private static boolean isWhitespace(final char ch) {
+    return ch != '\n' && !isAlphanum(ch) && !isSymbolChar(ch);
+  }
+
+  private boolean hasValue() {
+    return type == Token.Type.ALPHANUM || type == Token.Type.SYMBOL
+        || type == Token.Type.WHITESPACE;
+  }
+
+  /**
+   * Reads more of the file if necessary.
+   * @return true if the character at start + index is in the buffer
+   */
+  private boolean available(final int index) throws IOException {
+    while (start + index >= limit) {
+      if (!fill()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Reads a block of the file into the buffer.  The current token is moved to the
+   * start of the buffer, and the buffer is enlarged if the token fills it.
+   * @return false if there is nothing left to read
+   */
+  private boolean fill() throws IOException {
+    if (endOfInput) {
+      return false;
+    }
+    if (start > 0) {
+      System.arraycopy(buffer, start, buffer, 0, limit - start);
+      bufferOffset += start;
+      limit -= start;
+      position -= start;
+      start = 0;
+    }
+    if (limit == buffer.length) {
+      char[] newBuffer = new char[buffer.length * 2];
+      System.arraycopy(buffer, 0, newBuffer, 0, limit);
+      buffer = newBuffer;
+    }
+    int nRead = reader.read(buffer, limit, buffer.length - limit);
+    if (nRead == -1) {
+      close();
+      return false;
+    }
+    limit += nRead;
+    return true;
+  }
+
+  private void close() throws IOException {
+    endOfInput = true;
+    try {
+      if (reader != null) {
+        reader.close();
+        reader = null;
+      }
+    }
+    finally {
+      if (readingId != null) {
+        if (!readingId.isEmpty()) {
+          file.closeRead(readingId);
+        }
+        readingId = null;
+      }
+    }
+  }
+}
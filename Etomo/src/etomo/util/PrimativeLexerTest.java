@@ -0,0 +1,115 @@
+package etomo.util;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import etomo.storage.LogFile;
+import etomo.ui.swing.Token;
+import junit.framework.TestCase;
+
+/**
+* <p>Description: </p>
+*
+* <p>Copyright: Copyright 2026</p>
+*
+* <p>Organization:
+* Boulder Laboratory for 3-Dimensional Electron Microscopy of Cells (BL3DEMC),
+* University of Colorado</p>
+*
+* @author $Author$
+*
+* @version $Revision$
+*
+* <p> $Log$ </p>
+*/
+public class PrimativeLexerTest extends TestCase {
+  public static final String rcsid = "$Id:$";
+
+  private static final File testDir = new File(UtilTests.TEST_ROOT_DIR,
+      "PrimativeLexer");
+
+  public void testTokens() throws IOException, LogFile.LockException {
+    PrimativeLexer lexer = new PrimativeLexer(
+        "ab12 \t+=\r\n x \r\ny\rz\n\u00e9\u0100q");
+    lexer.initialize();
+    assertToken(lexer, Token.Type.ALPHANUM, "ab12", 0);
+    assertToken(lexer, Token.Type.WHITESPACE, " \t", 4);
+    assertToken(lexer, Token.Type.SYMBOL, "+", 6);
+    assertTrue(lexer.isSymbol('+'));
+    assertToken(lexer, Token.Type.SYMBOL, "=", 7);
+    assertToken(lexer, Token.Type.EOL, null, 8);
+    assertToken(lexer, Token.Type.WHITESPACE, " ", 10);
+    assertToken(lexer, Token.Type.ALPHANUM, "x", 11);
+    assertToken(lexer, Token.Type.WHITESPACE, " ", 12);
+    assertToken(lexer, Token.Type.EOL, null, 14);
+    assertToken(lexer, Token.Type.ALPHANUM, "y", 15);
+    assertToken(lexer, Token.Type.WHITESPACE, "\r", 16);
+    assertToken(lexer, Token.Type.ALPHANUM, "z", 17);
+    assertToken(lexer, Token.Type.EOL, null, 18);
+    assertToken(lexer, Token.Type.WHITESPACE, "\u00e9", 19);
+    assertToken(lexer, Token.Type.ALPHANUM, "\u0100q", 20);
+    assertSame(Token.Type.EOF, lexer.next());
+    assertEquals(' ', lexer.getChar());
+    assertSame("EOF is repeated", Token.Type.EOF, lexer.next());
+  }
+
+  public void testPrimativeTokenizer() throws IOException, LogFile.LockException {
+    PrimativeTokenizer tokenizer = PrimativeTokenizer.getNumericInstance("[1,a 2]");
+    tokenizer.initialize();
+    assertTrue(tokenizer.next().equals(Token.Type.SYMBOL, '['));
+    assertTrue(tokenizer.next().equals(Token.Type.NUMERIC, "1"));
+    assertTrue(tokenizer.next().equals(Token.Type.SYMBOL, ','));
+    assertTrue(tokenizer.next().equals(Token.Type.ALPHABETIC, "a"));
+    assertTrue(tokenizer.next().equals(Token.Type.WHITESPACE, " "));
+    assertTrue(tokenizer.next().equals(Token.Type.NUMERIC, "2"));
+    assertTrue(tokenizer.next().equals(Token.Type.SYMBOL, ']'));
+    assertTrue(tokenizer.next().is(Token.Type.EOF));
+  }
+
+  /**
+   * Tokens that cross block boundaries must come out the same as from a string.
+   */
+  public void testBlocks() throws IOException, LogFile.LockException {
+    StringBuffer buffer = new StringBuffer();
+    for (int i = 0; i < 50; i++) {
+      buffer.append("name").append(i).append(" =\t value_").append(i * 7919)
+          .append(i % 3 == 0 ? "\r\n" : "\n").append("   \r\n");
+    }
+    String contents = buffer.toString();
+    testDir.mkdirs();
+    File file = new File(testDir, "blocks.txt");
+    FileWriter writer = new FileWriter(file);
+    try {
+      writer.write(contents);
+    }
+    finally {
+      writer.close();
+    }
+    PrimativeLexer expected = new PrimativeLexer(contents);
+    expected.initialize();
+    PrimativeLexer lexer = new PrimativeLexer(LogFile.getInstance(file), 3);
+    lexer.initialize();
+    int nTokens = 0;
+    do {
+      lexer.next();
+      expected.next();
+      nTokens++;
+      assertSame("token " + nTokens, expected.getType(), lexer.getType());
+      assertEquals("token " + nTokens, expected.getValue(), lexer.getValue());
+      assertEquals("token " + nTokens, expected.getOffset(), lexer.getOffset());
+    } while (!lexer.is(Token.Type.EOF));
+    assertTrue(nTokens > 400);
+  }
+
+  private void assertToken(final PrimativeLexer lexer, final Token.Type type,
+      final String value, final int offset) throws IOException {
+    assertSame(type, lexer.next());
+    assertEquals(value, lexer.getValue());
+    assertEquals(value == null ? 0 : value.length(), lexer.getLength());
+    assertEquals(offset, lexer.getOffset());
+    StringBuffer buffer = new StringBuffer();
+    lexer.appendTo(buffer);
+    assertEquals(value == null ? "" : value, buffer.toString());
+  }
+}
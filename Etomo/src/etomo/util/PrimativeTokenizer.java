@@ -17,6 +17,7 @@ import etomo.ui.swing.Token;
  * possible alphanumeric string), SYMBOL (a character matching one of the
  * following: !"#$%&'()*+,-./:;<=>?@[\]^_`{|}~).  Everything else is called
  * WHITESPACE and returned as the largest possible string.
+ * The tokens are found by PrimativeLexer; this class makes Token objects from them.
  * 
  * To Use:
  * construct with a file.
@@ -30,12 +31,9 @@ import etomo.ui.swing.Token;
  * 
  * 
  * Possible Upgrades:
- * The StreamTokenizer could be initialized differently and/or the set of symbols
- * could be overridden.
+ * The set of symbols in PrimativeLexer could be overridden.
  * 
  * New functions:
- * initialize(StreamTokenizer)
- * initialize(StreamTokenizer, String symbols)
  * initialize(String symbols)
  * 
  * </p>
@@ -124,21 +122,17 @@ import etomo.ui.swing.Token;
 public final class PrimativeTokenizer {
   public static final String rcsid = "$$Id$$";
 
-  private static final String RETURN = "\r";
-
   private final boolean separateAlphabeticAndNumeric;
 
   private LogFile file = null;
   private LogFile.ReadingId readingId = null;
   private String string = null;
   private StreamTokenizer tokenizer = null;
-  private String symbols = new String("!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~");
   private String digits = new String("0123456789");
   private String letters = new String(
       "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ");
   private Token token = new Token();
-  private boolean nextTokenFound = false;
-  private Token nextToken = new Token();
+  private PrimativeLexer lexer = null;
   private Reader reader = null;
   private boolean fileClosed = false;
   private int streamTokenizerNothingValue;
@@ -181,8 +175,13 @@ public final class PrimativeTokenizer {
    */
   public void initialize() throws FileNotFoundException, IOException,
       LogFile.LockException {
-    initializeStreamTokenizer();
-    nextToken();
+    if (file != null) {
+      lexer = new PrimativeLexer(file);
+    }
+    else {
+      lexer = new PrimativeLexer(string);
+    }
+    lexer.initialize();
   }
 
   private void initializeStreamTokenizer() throws FileNotFoundException,
@@ -222,102 +221,15 @@ public final class PrimativeTokenizer {
    */
   public Token next() throws IOException {
     if (valueBeingBrokenUp == null) {
-      if (fileClosed) {
-        return token;
+      Token.Type type = lexer.next();
+      if (type == Token.Type.EOF || type == Token.Type.EOL) {
+        token.set(type);
       }
-      boolean found = false;
-      token.reset();
-      boolean whitespaceFound = false;
-      StringBuffer whitespaceBuffer = null;
-      boolean returnFound = false;
-
-      if (nextTokenFound) {
-        found = true;
-        token.copy(nextToken);
-        nextToken.reset();
-        nextTokenFound = false;
-        nextToken();
+      else {
+        token.set(type, lexer.getValue());
       }
-      while (!found) {
-        if (tokenizer.ttype == StreamTokenizer.TT_EOF) {
-          token.set(Token.Type.EOF);
-          if (debug) {
-            System.out.println(token);
-          }
-          found = true;
-          returnFound = false;
-          if (file != null) {
-            closeFile();
-          }
-        }
-        else if (tokenizer.ttype == StreamTokenizer.TT_EOL) {
-          token.set(Token.Type.EOL);
-          if (debug) {
-            System.out.println(token);
-          }
-          found = true;
-          //If "\r" was found before an EOL, roll it into the EOL.  This is
-          //necessary because StreamTokenizer is not working according to its
-          //definition:  It is supposed to return both "\n" and "\r\n" as EOL, but
-          //it does not do this for "\r\n".  If this bug is fixed, then "\r\r\n"
-          //will appear as an EOL, but this is OK because this is character string
-          //that usually means that there was an error in transfering the file
-          //between Windows and Linux.
-          if (returnFound && whitespaceFound) {
-            returnFound = false;
-            whitespaceBuffer.deleteCharAt(whitespaceBuffer.length() - 1);
-            if (whitespaceBuffer.length() == 0) {
-              whitespaceFound = false;
-              whitespaceBuffer = null;
-            }
-          }
-        }
-        else if (tokenizer.ttype == StreamTokenizer.TT_WORD) {
-          token.set(Token.Type.ALPHANUM, tokenizer.sval);
-          if (debug && !separateAlphabeticAndNumeric) {
-            System.out.println(token);
-          }
-          found = true;
-          returnFound = false;
-        }
-        else if (symbols.indexOf(tokenizer.ttype) != -1) {
-          token.set(Token.Type.SYMBOL, (char) tokenizer.ttype);
-          if (debug) {
-            System.out.println(token);
-          }
-          found = true;
-          returnFound = false;
-        }
-        else {
-          if (RETURN.indexOf(tokenizer.ttype) != -1) {
-            returnFound = true;
-          }
-          else {
-            returnFound = false;
-          }
-          if (!whitespaceFound) {
-            whitespaceFound = true;
-            whitespaceBuffer = new StringBuffer().append((char) tokenizer.ttype);
-          }
-          else {
-            whitespaceBuffer.append((char) tokenizer.ttype);
-          }
-        }
-        if (found) {
-          if (whitespaceFound) {
-            nextTokenFound = true;
-            nextToken.copy(token);
-            token.set(Token.Type.WHITESPACE, whitespaceBuffer);
-            if (debug) {
-              System.out.println(token);
-            }
-            whitespaceBuffer = null;
-            whitespaceFound = false;
-          }
-        }
-        if (!nextTokenFound) {
-          nextToken();
-        }
+      if (debug && (!separateAlphabeticAndNumeric || type != Token.Type.ALPHANUM)) {
+        System.out.println(token);
       }
     }
     if (separateAlphabeticAndNumeric) {
@@ -392,7 +304,7 @@ public final class PrimativeTokenizer {
   }
 
   public String getSymbols() {
-    return symbols;
+    return PrimativeLexer.SYMBOLS;
   }
 
   public void setDebug(boolean debug) {
@@ -422,7 +334,8 @@ public final class PrimativeTokenizer {
   }
 
   /**
-   * Tests the StreamTokenizer.  Prints result to System.out.
+   * Tests the StreamTokenizer, which was used before PrimativeLexer and can be used to
+   * check it.  Prints result to System.out.
    * @param tokens If true, prints each token.  If false, prints the text.
    * @throws IOException
    */
@@ -30,9 +30,12 @@ public class UtilTests {
     //$JUnit-BEGIN$
     suite.addTestSuite(FileModifiedFlagTest.class);
     suite.addTestSuite(MRCHeaderTest.class);
+    suite.addTestSuite(MRCHeaderReaderTest.class);
     suite.addTestSuite(CircularBufferTest.class);
+    suite.addTestSuite(PrimativeLexerTest.class);
     suite.addTestSuite(RemotePathTest.class);
     suite.addTestSuite(FilePathTest.class);
+    suite.addTestSuite(EnvironmentVariableTest.class);
     //$JUnit-END$
     return suite;
   }